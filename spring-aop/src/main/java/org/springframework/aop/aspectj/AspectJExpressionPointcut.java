@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,10 +18,12 @@ package org.springframework.aop.aspectj;
 
 import java.io.IOException;
 import java.io.ObjectInputStream;
+import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -51,6 +53,7 @@ import org.springframework.aop.framework.autoproxy.ProxyCreationContext;
 import org.springframework.aop.interceptor.ExposeInvocationInterceptor;
 import org.springframework.aop.support.AbstractExpressionPointcut;
 import org.springframework.aop.support.AopUtils;
+import org.springframework.aop.support.annotation.AnnotationIndexedPointcut;
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.BeanFactoryAware;
 import org.springframework.beans.factory.BeanFactoryUtils;
@@ -83,7 +86,7 @@ import org.springframework.util.StringUtils;
  */
 @SuppressWarnings("serial")
 public class AspectJExpressionPointcut extends AbstractExpressionPointcut
-		implements ClassFilter, IntroductionAwareMethodMatcher, BeanFactoryAware {
+		implements ClassFilter, IntroductionAwareMethodMatcher, AnnotationIndexedPointcut, BeanFactoryAware {
 
 	private static final Set<PointcutPrimitive> SUPPORTED_PRIMITIVES = new HashSet<>();
 
@@ -267,6 +270,56 @@ public class AspectJExpressionPointcut extends AbstractExpressionPointcut
 		return obtainPointcutExpression();
 	}
 
+	/**
+	 * Determine the annotation types required by the pointcut expression,
+	 * as specified through {@code @annotation} and {@code @within} designators
+	 * (with either a fully-qualified type name or a bound pointcut parameter).
+	 * <p>Returns {@code null} for any expression which might also match
+	 * without such an annotation, or which cannot be analyzed upfront.
+	 * @since 5.2.5
+	 */
+	@Override
+	@Nullable
+	@SuppressWarnings("unchecked")
+	public Set<Class<? extends Annotation>> getCandidateAnnotationTypes() {
+		String expression = getExpression();
+		if (expression == null) {
+			return null;
+		}
+		Set<String> typeNames = PointcutAnnotationTypeResolver.resolveAnnotationTypeNames(expression);
+		if (typeNames == null) {
+			return null;
+		}
+		Set<Class<? extends Annotation>> annotationTypes = new LinkedHashSet<>(typeNames.size());
+		for (String typeName : typeNames) {
+			Class<?> type = resolveAnnotationType(typeName);
+			if (type == null || !type.isAnnotation()) {
+				return null;
+			}
+			annotationTypes.add((Class<? extends Annotation>) type);
+		}
+		return annotationTypes;
+	}
+
+	@Nullable
+	private Class<?> resolveAnnotationType(String typeName) {
+		for (int i = 0; i < this.pointcutParameterNames.length; i++) {
+			if (typeName.equals(this.pointcutParameterNames[i])) {
+				return this.pointcutParameterTypes[i];
+			}
+		}
+		if (typeName.indexOf('.') == -1) {
+			// Simple name: imported or same-package type, not resolvable without AspectJ
+			return null;
+		}
+		try {
+			return ClassUtils.forName(typeName, determinePointcutClassLoader());
+		}
+		catch (Throwable ex) {
+			return null;
+		}
+	}
+
 	@Override
 	public boolean matches(Class<?> targetClass) {
 		PointcutExpression pointcutExpression = obtainPointcutExpression();
@@ -0,0 +1,206 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aop.aspectj;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Lightweight analyzer for AspectJ pointcut expressions, determining the
+ * annotation types which need to be present for the expression to match:
+ * that is, the arguments of {@code @annotation} and {@code @within} designators
+ * which are mandatory according to the boolean structure of the expression.
+ *
+ * <p>This does not replace the actual AspectJ parsing; it rather errs on the
+ * safe side, returning {@code null} for any expression (or sub-expression)
+ * it does not fully understand, including negations and references to
+ * named pointcuts.
+ *
+ * @since 5.2.5
+ * @see AspectJExpressionPointcut#getCandidateAnnotationTypes()
+ */
+final class PointcutAnnotationTypeResolver {
+
+	private final String expression;
+
+	private int pos;
+
+
+	private PointcutAnnotationTypeResolver(String expression) {
+		this.expression = expression;
+	}
+
+
+	/**
+	 * Determine the names of the annotation types which are required by the
+	 * given pointcut expression, with at least one of them having to be present.
+	 * <p>Names are returned as specified in the expression: either fully-qualified
+	 * class names or pointcut parameter names.
+	 * @param expression the pointcut expression to analyze
+	 * @return the annotation type names, or {@code null} if the expression
+	 * is not constrained to specific annotations (or cannot be analyzed)
+	 */
+	@Nullable
+	public static Set<String> resolveAnnotationTypeNames(String expression) {
+		try {
+			PointcutAnnotationTypeResolver resolver = new PointcutAnnotationTypeResolver(expression);
+			Set<String> result = resolver.parseOr();
+			resolver.skipWhitespace();
+			return (resolver.pos == expression.length() ? result : null);
+		}
+		catch (IllegalArgumentException ex) {
+			return null;
+		}
+	}
+
+
+	@Nullable
+	private Set<String> parseOr() {
+		Set<String> result = parseAnd();
+		while (consumeOperator("||") || consumeKeyword("or")) {
+			Set<String> other = parseAnd();
+			if (result != null && other != null) {
+				Set<String> union = new LinkedHashSet<>(result);
+				union.addAll(other);
+				result = union;
+			}
+			else {
+				result = null;
+			}
+		}
+		return result;
+	}
+
+	@Nullable
+	private Set<String> parseAnd() {
+		Set<String> result = parseNot();
+		while (consumeOperator("&&") || consumeKeyword("and")) {
+			Set<String> other = parseNot();
+			// Both sides need to match: either constraint is sufficient, prefer the narrower one
+			if (result == null || (other != null && other.size() < result.size())) {
+				result = other;
+			}
+		}
+		return result;
+	}
+
+	@Nullable
+	private Set<String> parseNot() {
+		if (consumeOperator("!") || consumeKeyword("not")) {
+			parseNot();
+			return null;
+		}
+		return parsePrimary();
+	}
+
+	@Nullable
+	private Set<String> parsePrimary() {
+		if (consumeOperator("(")) {
+			Set<String> result = parseOr();
+			if (!consumeOperator(")")) {
+				throw new IllegalArgumentException("Unbalanced parentheses");
+			}
+			return result;
+		}
+		String designator = readDesignator();
+		String argument = null;
+		if (consumeOperator("(")) {
+			argument = readArguments();
+		}
+		if (argument != null && ("@annotation".equals(designator) || "@within".equals(designator))) {
+			String typeName = argument.trim();
+			if (isQualifiedName(typeName)) {
+				return Collections.singleton(typeName);
+			}
+		}
+		return null;
+	}
+
+	private String readDesignator() {
+		skipWhitespace();
+		int start = this.pos;
+		while (this.pos < this.expression.length()) {
+			char c = this.expression.charAt(this.pos);
+			if (!Character.isJavaIdentifierPart(c) && c != '@' && c != '.' && c != '*' && c != '+') {
+				break;
+			}
+			this.pos++;
+		}
+		if (this.pos == start) {
+			throw new IllegalArgumentException("Designator expected at position " + start);
+		}
+		return this.expression.substring(start, this.pos);
+	}
+
+	private String readArguments() {
+		int start = this.pos;
+		int depth = 1;
+		while (this.pos < this.expression.length()) {
+			char c = this.expression.charAt(this.pos++);
+			if (c == '(') {
+				depth++;
+			}
+			else if (c == ')' && --depth == 0) {
+				return this.expression.substring(start, this.pos - 1);
+			}
+		}
+		throw new IllegalArgumentException("Unbalanced parentheses");
+	}
+
+	private boolean consumeOperator(String operator) {
+		skipWhitespace();
+		if (this.expression.startsWith(operator, this.pos)) {
+			this.pos += operator.length();
+			return true;
+		}
+		return false;
+	}
+
+	private boolean consumeKeyword(String keyword) {
+		skipWhitespace();
+		int end = this.pos + keyword.length();
+		if (this.expression.startsWith(keyword, this.pos) &&
+				(end == this.expression.length() || !Character.isJavaIdentifierPart(this.expression.charAt(end)))) {
+			this.pos = end;
+			return true;
+		}
+		return false;
+	}
+
+	private void skipWhitespace() {
+		while (this.pos < this.expression.length() && Character.isWhitespace(this.expression.charAt(this.pos))) {
+			this.pos++;
+		}
+	}
+
+	private static boolean isQualifiedName(String name) {
+		if (name.isEmpty() || name.startsWith(".") || name.endsWith(".") || name.contains("..")) {
+			return false;
+		}
+		for (int i = 0; i < name.length(); i++) {
+			char c = name.charAt(i);
+			if (c != '.' && !Character.isJavaIdentifierPart(c)) {
+				return false;
+			}
+		}
+		return Character.isJavaIdentifierStart(name.charAt(0));
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,7 +20,9 @@ import java.io.Serializable;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.aopalliance.intercept.MethodInvocation;
 import org.apache.commons.logging.Log;
@@ -79,6 +81,14 @@ final class JdkDynamicAopProxy implements AopProxy, InvocationHandler, Serializa
 	/** We use a static Log to avoid serialization issues. */
 	private static final Log logger = LogFactory.getLog(JdkDynamicAopProxy.class);
 
+	/**
+	 * The {@link Advised} interface and its super-interfaces: a quick lookup
+	 * for calls to be dispatched to the proxy configuration, as opposed to
+	 * {@code Class.isAssignableFrom} which is expensive on every call for the
+	 * common case of an application interface that is not part of the hierarchy.
+	 */
+	private static final Set<Class<?>> advisedInterfaces = getInterfaceHierarchy(Advised.class);
+
 	/** Config used to configure this proxy. */
 	private final AdvisedSupport advised;
 
@@ -173,8 +183,7 @@ final class JdkDynamicAopProxy implements AopProxy, InvocationHandler, Serializa
 				// There is only getDecoratedClass() declared -> dispatch to proxy config.
 				return AopProxyUtils.ultimateTargetClass(this.advised);
 			}
-			else if (!this.advised.opaque && method.getDeclaringClass().isInterface() &&
-					method.getDeclaringClass().isAssignableFrom(Advised.class)) {
+			else if (!this.advised.opaque && advisedInterfaces.contains(method.getDeclaringClass())) {
 				// Service invocations on ProxyConfig with the proxy config...
 				return AopUtils.invokeJoinpointUsingReflection(this.advised, method, args);
 			}
@@ -241,6 +250,16 @@ final class JdkDynamicAopProxy implements AopProxy, InvocationHandler, Serializa
 	}
 
 
+	private static Set<Class<?>> getInterfaceHierarchy(Class<?> ifc) {
+		Set<Class<?>> interfaces = new HashSet<>();
+		interfaces.add(ifc);
+		for (Class<?> superIfc : ifc.getInterfaces()) {
+			interfaces.addAll(getInterfaceHierarchy(superIfc));
+		}
+		return interfaces;
+	}
+
+
 	/**
 	 * Equality means interfaces, advisors and TargetSource are equal.
 	 * <p>The compared object may be a JdkDynamicAopProxy instance itself
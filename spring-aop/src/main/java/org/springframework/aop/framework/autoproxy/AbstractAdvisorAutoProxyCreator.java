@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -52,6 +52,9 @@ public abstract class AbstractAdvisorAutoProxyCreator extends AbstractAutoProxyC
 	@Nullable
 	private BeanFactoryAdvisorRetrievalHelper advisorRetrievalHelper;
 
+	@Nullable
+	private AdvisorIndex advisorIndex;
+
 
 	@Override
 	public void setBeanFactory(BeanFactory beanFactory) {
@@ -65,6 +68,7 @@ public abstract class AbstractAdvisorAutoProxyCreator extends AbstractAutoProxyC
 
 	protected void initBeanFactory(ConfigurableListableBeanFactory beanFactory) {
 		this.advisorRetrievalHelper = new BeanFactoryAdvisorRetrievalHelperAdapter(beanFactory);
+		this.advisorIndex = new AdvisorIndex();
 	}
 
 
@@ -112,6 +116,9 @@ public abstract class AbstractAdvisorAutoProxyCreator extends AbstractAutoProxyC
 	/**
 	 * Search the given candidate Advisors to find all Advisors that
 	 * can apply to the specified bean.
+	 * <p>Advisors with an {@link org.springframework.aop.support.annotation.AnnotationIndexedPointcut}
+	 * are pre-selected based on the annotations present in the bean class hierarchy,
+	 * skipping the per-method matching for advisors which cannot apply anyway.
 	 * @param candidateAdvisors the candidate Advisors
 	 * @param beanClass the target's bean class
 	 * @param beanName the target's bean name
@@ -123,7 +130,9 @@ public abstract class AbstractAdvisorAutoProxyCreator extends AbstractAutoProxyC
 
 		ProxyCreationContext.setCurrentProxiedBeanName(beanName);
 		try {
-			return AopUtils.findAdvisorsThatCanApply(candidateAdvisors, beanClass);
+			List<Advisor> advisorsToMatch = (this.advisorIndex != null ?
+					this.advisorIndex.filter(candidateAdvisors, beanClass) : candidateAdvisors);
+			return AopUtils.findAdvisorsThatCanApply(advisorsToMatch, beanClass);
 		}
 		finally {
 			ProxyCreationContext.setCurrentProxiedBeanName(null);
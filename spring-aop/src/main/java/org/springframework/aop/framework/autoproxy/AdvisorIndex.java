@@ -0,0 +1,205 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aop.framework.autoproxy;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.aop.Advisor;
+import org.springframework.aop.IntroductionAdvisor;
+import org.springframework.aop.Pointcut;
+import org.springframework.aop.PointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationIndexedPointcut;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Index for a quick pre-selection of the candidate Advisors for a given bean
+ * class, skipping all advisors whose pointcut is an {@link AnnotationIndexedPointcut}
+ * requiring annotations that are not present anywhere in the bean class hierarchy.
+ *
+ * <p>This avoids the per-method pointcut matching in
+ * {@link org.springframework.aop.support.AopUtils#canApply} for the many beans
+ * that are not affected by annotation-driven advisors at all (e.g. transactional
+ * or caching advisors). Advisors that are not indexable are always retained.
+ *
+ * @since 5.2.5
+ * @see AbstractAdvisorAutoProxyCreator#findAdvisorsThatCanApply
+ */
+final class AdvisorIndex {
+
+	/** Marker for advisors which do not declare any required annotation types. */
+	private static final Set<Class<? extends Annotation>> NOT_INDEXED = Collections.unmodifiableSet(new HashSet<>());
+
+	/** Marker for classes whose annotations could not be introspected. */
+	private static final Set<Class<? extends Annotation>> NO_FOOTPRINT = Collections.unmodifiableSet(new HashSet<>());
+
+
+	private final Map<Advisor, Set<Class<? extends Annotation>>> advisorAnnotationTypes =
+			new ConcurrentReferenceHashMap<>();
+
+	private final Map<Class<?>, Set<Class<? extends Annotation>>> classFootprints =
+			new ConcurrentReferenceHashMap<>();
+
+
+	/**
+	 * Filter the given candidate Advisors for the given bean class, removing all
+	 * advisors which cannot apply according to their required annotation types.
+	 * @param candidateAdvisors the candidate Advisors
+	 * @param beanClass the target's bean class
+	 * @return the remaining Advisors (the given List if none has been removed)
+	 */
+	public List<Advisor> filter(List<Advisor> candidateAdvisors, Class<?> beanClass) {
+		if (candidateAdvisors.isEmpty()) {
+			return candidateAdvisors;
+		}
+		List<Advisor> filtered = null;
+		Set<Class<? extends Annotation>> footprint = null;
+		for (int i = 0; i < candidateAdvisors.size(); i++) {
+			Advisor candidate = candidateAdvisors.get(i);
+			Set<Class<? extends Annotation>> annotationTypes = getAnnotationTypes(candidate);
+			boolean retain = true;
+			if (annotationTypes != NOT_INDEXED) {
+				if (footprint == null) {
+					footprint = getFootprint(beanClass);
+				}
+				if (footprint != NO_FOOTPRINT) {
+					retain = containsAny(footprint, annotationTypes);
+				}
+			}
+			if (!retain && filtered == null) {
+				filtered = new ArrayList<>(candidateAdvisors.size() - 1);
+				filtered.addAll(candidateAdvisors.subList(0, i));
+			}
+			else if (retain && filtered != null) {
+				filtered.add(candidate);
+			}
+		}
+		return (filtered != null ? filtered : candidateAdvisors);
+	}
+
+	private Set<Class<? extends Annotation>> getAnnotationTypes(Advisor advisor) {
+		Set<Class<? extends Annotation>> annotationTypes = this.advisorAnnotationTypes.get(advisor);
+		if (annotationTypes == null) {
+			annotationTypes = determineAnnotationTypes(advisor);
+			this.advisorAnnotationTypes.put(advisor, annotationTypes);
+		}
+		return annotationTypes;
+	}
+
+	private Set<Class<? extends Annotation>> determineAnnotationTypes(Advisor advisor) {
+		if (advisor instanceof IntroductionAdvisor || !(advisor instanceof PointcutAdvisor)) {
+			return NOT_INDEXED;
+		}
+		try {
+			Pointcut pointcut = ((PointcutAdvisor) advisor).getPointcut();
+			if (pointcut instanceof AnnotationIndexedPointcut) {
+				Set<Class<? extends Annotation>> annotationTypes =
+						((AnnotationIndexedPointcut) pointcut).getCandidateAnnotationTypes();
+				if (annotationTypes != null && !annotationTypes.isEmpty()) {
+					return annotationTypes;
+				}
+			}
+		}
+		catch (Throwable ex) {
+			// Leave it up to regular pointcut matching to report any configuration problem
+		}
+		return NOT_INDEXED;
+	}
+
+	private Set<Class<? extends Annotation>> getFootprint(Class<?> beanClass) {
+		Set<Class<? extends Annotation>> footprint = this.classFootprints.get(beanClass);
+		if (footprint == null) {
+			try {
+				footprint = new HashSet<>();
+				collectFootprint(beanClass, footprint, new HashSet<>());
+			}
+			catch (Throwable ex) {
+				// Annotations not resolvable -> no pre-selection for this class
+				footprint = NO_FOOTPRINT;
+			}
+			this.classFootprints.put(beanClass, footprint);
+		}
+		return footprint;
+	}
+
+	/**
+	 * Collect all annotation types declared on the given class, its superclasses
+	 * and interfaces, as well as on their declared methods, including their
+	 * meta-annotations and the annotations contained in repeatable containers.
+	 */
+	private static void collectFootprint(
+			Class<?> clazz, Set<Class<? extends Annotation>> footprint, Set<Class<?>> visited) {
+
+		if (clazz == Object.class || !visited.add(clazz)) {
+			return;
+		}
+		collectAnnotations(clazz.getDeclaredAnnotations(), footprint);
+		for (Method method : ReflectionUtils.getDeclaredMethods(clazz)) {
+			collectAnnotations(method.getDeclaredAnnotations(), footprint);
+		}
+		Class<?> superclass = clazz.getSuperclass();
+		if (superclass != null) {
+			collectFootprint(superclass, footprint, visited);
+		}
+		for (Class<?> ifc : clazz.getInterfaces()) {
+			collectFootprint(ifc, footprint, visited);
+		}
+	}
+
+	private static void collectAnnotations(Annotation[] annotations, Set<Class<? extends Annotation>> footprint) {
+		for (Annotation annotation : annotations) {
+			Class<? extends Annotation> annotationType = annotation.annotationType();
+			if (annotationType.getName().startsWith("java.lang.annotation")) {
+				continue;
+			}
+			if (footprint.add(annotationType)) {
+				collectAnnotations(annotationType.getDeclaredAnnotations(), footprint);
+			}
+			// Container contents may differ per declaration
+			collectContainedAnnotations(annotation, footprint);
+		}
+	}
+
+	private static void collectContainedAnnotations(Annotation annotation, Set<Class<? extends Annotation>> footprint) {
+		Method valueMethod = ReflectionUtils.findMethod(annotation.annotationType(), "value");
+		if (valueMethod != null && valueMethod.getReturnType().isArray() &&
+				valueMethod.getReturnType().getComponentType().isAnnotation()) {
+			ReflectionUtils.makeAccessible(valueMethod);
+			collectAnnotations((Annotation[]) ReflectionUtils.invokeMethod(valueMethod, annotation), footprint);
+		}
+	}
+
+	private static boolean containsAny(Set<Class<? extends Annotation>> footprint,
+			Set<Class<? extends Annotation>> annotationTypes) {
+
+		for (Class<? extends Annotation> annotationType : annotationTypes) {
+			if (footprint.contains(annotationType)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.aop.interceptor;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+import org.springframework.util.Assert;
+import org.springframework.util.ConcurrencyLimitExceededException;
+import org.springframework.util.ConcurrencyLimiter;
+
+/**
+ * Interceptor that limits concurrent invocations through an adaptive
+ * {@link ConcurrencyLimiter}, throwing a {@link ConcurrencyLimitExceededException}
+ * right away if the limit is reached.
+ *
+ * <p>In contrast to {@link ConcurrencyThrottleInterceptor}, callers do not wait
+ * for a fixed limit to free up: the limit follows the latency of the invocations,
+ * and invocations beyond it fail fast, so that an overloaded service sheds load
+ * instead of tying up the calling threads.
+ *
+ * <p>An invocation that fails with a {@code ConcurrencyLimitExceededException}
+ * itself, thrown by a limiter further down the call chain, counts as dropped
+ * and makes the limit back off.
+ *
+ * @since 5.2.5
+ * @see ConcurrencyLimiter#tryAcquire()
+ */
+public class ConcurrencyLimitInterceptor implements MethodInterceptor {
+
+	private final ConcurrencyLimiter limiter;
+
+
+	/**
+	 * Create a new ConcurrencyLimitInterceptor with a default {@link ConcurrencyLimiter}.
+	 */
+	public ConcurrencyLimitInterceptor() {
+		this(new ConcurrencyLimiter());
+	}
+
+	/**
+	 * Create a new ConcurrencyLimitInterceptor with the given limiter.
+	 * @param limiter the limiter to use, possibly shared with other components
+	 */
+	public ConcurrencyLimitInterceptor(ConcurrencyLimiter limiter) {
+		Assert.notNull(limiter, "ConcurrencyLimiter must not be null");
+		this.limiter = limiter;
+	}
+
+
+	/**
+	 * Return the limiter used by this interceptor, e.g. to access its metrics.
+	 */
+	public ConcurrencyLimiter getLimiter() {
+		return this.limiter;
+	}
+
+	@Override
+	public Object invoke(MethodInvocation invocation) throws Throwable {
+		ConcurrencyLimiter.Permit permit = this.limiter.tryAcquire();
+		if (permit == null) {
+			throw new ConcurrencyLimitExceededException(this.limiter.getLimit());
+		}
+		try {
+			return invocation.proceed();
+		}
+		catch (ConcurrencyLimitExceededException ex) {
+			permit.releaseDropped();
+			throw ex;
+		}
+		finally {
+			permit.release();
+		}
+	}
+
+}
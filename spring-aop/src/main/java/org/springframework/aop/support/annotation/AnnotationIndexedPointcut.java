@@ -0,0 +1,52 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aop.support.annotation;
+
+import java.lang.annotation.Annotation;
+import java.util.Set;
+
+import org.springframework.aop.Pointcut;
+import org.springframework.lang.Nullable;
+
+/**
+ * Extension of the {@link Pointcut} interface for pointcuts which can only
+ * match if certain annotations are present on the target class, allowing
+ * for a quick pre-selection of candidate classes before any per-method
+ * matching happens (e.g. in an auto-proxy creator's advisor lookup).
+ *
+ * <p>A class is considered a candidate if any of the returned annotation types
+ * is declared on the class itself, on any of its superclasses or interfaces,
+ * or on any of the methods declared by those, either directly or as a
+ * meta-annotation. Implementations must guarantee that they never match a
+ * class which does not fulfill this condition.
+ *
+ * @since 5.2.5
+ * @see AnnotationMatchingPointcut
+ * @see org.springframework.aop.support.AopUtils#canApply(Pointcut, Class)
+ */
+public interface AnnotationIndexedPointcut extends Pointcut {
+
+	/**
+	 * Return the annotation types at least one of which needs to be present
+	 * in the type hierarchy of a class for this pointcut to match it.
+	 * @return the candidate annotation types, or {@code null} if this pointcut
+	 * cannot be narrowed down to specific annotations (in its current configuration)
+	 */
+	@Nullable
+	Set<Class<? extends Annotation>> getCandidateAnnotationTypes();
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,10 +17,11 @@
 package org.springframework.aop.support.annotation;
 
 import java.lang.annotation.Annotation;
+import java.util.Collections;
+import java.util.Set;
 
 import org.springframework.aop.ClassFilter;
 import org.springframework.aop.MethodMatcher;
-import org.springframework.aop.Pointcut;
 import org.springframework.core.annotation.AnnotationUtils;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
@@ -36,12 +37,14 @@ import org.springframework.util.Assert;
  * @see AnnotationClassFilter
  * @see AnnotationMethodMatcher
  */
-public class AnnotationMatchingPointcut implements Pointcut {
+public class AnnotationMatchingPointcut implements AnnotationIndexedPointcut {
 
 	private final ClassFilter classFilter;
 
 	private final MethodMatcher methodMatcher;
 
+	private final Set<Class<? extends Annotation>> candidateAnnotationTypes;
+
 
 	/**
 	 * Create a new AnnotationMatchingPointcut for the given annotation type.
@@ -61,6 +64,7 @@ public class AnnotationMatchingPointcut implements Pointcut {
 	public AnnotationMatchingPointcut(Class<? extends Annotation> classAnnotationType, boolean checkInherited) {
 		this.classFilter = new AnnotationClassFilter(classAnnotationType, checkInherited);
 		this.methodMatcher = MethodMatcher.TRUE;
+		this.candidateAnnotationTypes = Collections.singleton(classAnnotationType);
 	}
 
 	/**
@@ -107,6 +111,10 @@ public class AnnotationMatchingPointcut implements Pointcut {
 		else {
 			this.methodMatcher = MethodMatcher.TRUE;
 		}
+
+		// Both conditions need to be met, so either annotation type is sufficient for indexing
+		this.candidateAnnotationTypes = Collections.singleton(
+				classAnnotationType != null ? classAnnotationType : methodAnnotationType);
 	}
 
 
@@ -120,6 +128,11 @@ public class AnnotationMatchingPointcut implements Pointcut {
 		return this.methodMatcher;
 	}
 
+	@Override
+	public Set<Class<? extends Annotation>> getCandidateAnnotationTypes() {
+		return this.candidateAnnotationTypes;
+	}
+
 	@Override
 	public boolean equals(@Nullable Object other) {
 		if (this == other) {
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aop.aspectj;
+
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link PointcutAnnotationTypeResolver} and
+ * {@link AspectJExpressionPointcut#getCandidateAnnotationTypes()}.
+ */
+class PointcutAnnotationTypeResolverTests {
+
+	@Test
+	void singleAnnotationDesignator() {
+		assertThat(resolve("@annotation(com.example.Audited)")).containsExactly("com.example.Audited");
+		assertThat(resolve("@within( com.example.Audited )")).containsExactly("com.example.Audited");
+		assertThat(resolve("@annotation(audited)")).containsExactly("audited");
+	}
+
+	@Test
+	void conjunctionPicksConstrainedSide() {
+		assertThat(resolve("execution(* *(..)) && @annotation(com.example.Audited)"))
+				.containsExactly("com.example.Audited");
+		assertThat(resolve("@within(com.example.Service) and execution(* *(..))"))
+				.containsExactly("com.example.Service");
+	}
+
+	@Test
+	void disjunctionRequiresBothSidesConstrained() {
+		assertThat(resolve("@annotation(com.example.A) || @within(com.example.B)"))
+				.containsExactly("com.example.A", "com.example.B");
+		assertThat(resolve("(@annotation(com.example.A) or @within(com.example.B)) && args(..)"))
+				.containsExactly("com.example.A", "com.example.B");
+		assertThat(resolve("@annotation(com.example.A) || execution(* *(..))")).isNull();
+	}
+
+	@Test
+	void unconstrainedExpressions() {
+		assertThat(resolve("execution(* com.example..*(..))")).isNull();
+		assertThat(resolve("!@annotation(com.example.A)")).isNull();
+		assertThat(resolve("not @annotation(com.example.A)")).isNull();
+		assertThat(resolve("@annotation(com.example.*)")).isNull();
+		assertThat(resolve("@within(com.example.A+)")).isNull();
+		assertThat(resolve("com.example.SystemArchitecture.businessService()")).isNull();
+		assertThat(resolve("@target(com.example.A)")).isNull();
+	}
+
+	@Test
+	void malformedExpressions() {
+		assertThat(resolve("@annotation(com.example.A")).isNull();
+		assertThat(resolve("(@annotation(com.example.A)")).isNull();
+		assertThat(resolve("@annotation(com.example.A) &&")).isNull();
+	}
+
+	@Test
+	void candidateAnnotationTypesOnPointcut() {
+		AspectJExpressionPointcut pointcut = new AspectJExpressionPointcut();
+		pointcut.setExpression("execution(* *(..)) && @annotation(" + Qualifier.class.getName() + ")");
+		assertThat(pointcut.getCandidateAnnotationTypes()).containsExactly(Qualifier.class);
+
+		pointcut = new AspectJExpressionPointcut(
+				PointcutAnnotationTypeResolverTests.class, new String[] {"qualifier"}, new Class<?>[] {Qualifier.class});
+		pointcut.setExpression("@within(qualifier)");
+		assertThat(pointcut.getCandidateAnnotationTypes()).containsExactly(Qualifier.class);
+
+		pointcut = new AspectJExpressionPointcut();
+		pointcut.setExpression("@annotation(" + String.class.getName() + ")");
+		assertThat(pointcut.getCandidateAnnotationTypes()).isNull();
+
+		pointcut.setExpression("@annotation(Qualifier)");
+		assertThat(pointcut.getCandidateAnnotationTypes()).isNull();
+	}
+
+
+	private static Set<String> resolve(String expression) {
+		return PointcutAnnotationTypeResolver.resolveAnnotationTypeNames(expression);
+	}
+
+}
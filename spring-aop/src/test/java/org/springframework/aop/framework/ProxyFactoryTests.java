@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -370,6 +370,31 @@ public class ProxyFactoryTests {
 		assertThat(proxy.getName()).isEqualTo("tb");
 	}
 
+	@Test
+	public void testInterceptorChainCachedPerMethod() throws Exception {
+		ProxyFactory pf = new ProxyFactory(new TestBean());
+		pf.addAdvice(new NopInterceptor());
+		List<Object> chain = pf.getInterceptorsAndDynamicInterceptionAdvice(
+				ITestBean.class.getMethod("getName"), TestBean.class);
+		assertThat(pf.getInterceptorsAndDynamicInterceptionAdvice(
+				ITestBean.class.getMethod("getName"), TestBean.class)).isSameAs(chain);
+		pf.addAdvice(new NopInterceptor());
+		assertThat(pf.getInterceptorsAndDynamicInterceptionAdvice(
+				ITestBean.class.getMethod("getName"), TestBean.class)).hasSize(2);
+	}
+
+	@Test
+	public void testAdvisedCallsOnJdkProxy() {
+		ProxyFactory pf = new ProxyFactory(new TestBean());
+		pf.addAdvice(new NopInterceptor());
+		Object proxy = pf.getProxy();
+		assertThat(AopUtils.isJdkDynamicProxy(proxy)).isTrue();
+		assertThat(((Advised) proxy).getTargetClass()).isEqualTo(TestBean.class);
+		assertThat(((Advised) proxy).getAdvisors()).hasSize(1);
+		pf.setOpaque(true);
+		assertThat(pf.getProxy()).isNotInstanceOf(Advised.class);
+	}
+
 
 	@Order(2)
 	public static class A implements Runnable {
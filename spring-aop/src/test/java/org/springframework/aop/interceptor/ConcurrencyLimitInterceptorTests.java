@@ -0,0 +1,99 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.aop.interceptor;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.testfixture.beans.ITestBean;
+import org.springframework.beans.testfixture.beans.TestBean;
+import org.springframework.util.AimdConcurrencyLimitStrategy;
+import org.springframework.util.ConcurrencyLimitExceededException;
+import org.springframework.util.ConcurrencyLimiter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Tests for {@link ConcurrencyLimitInterceptor}.
+ */
+public class ConcurrencyLimitInterceptorTests {
+
+	@Test
+	public void rejectsInvocationsBeyondLimit() throws Exception {
+		CountDownLatch entered = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		TestBean target = new TestBean() {
+			@Override
+			public int getAge() {
+				entered.countDown();
+				try {
+					release.await(1, TimeUnit.SECONDS);
+				}
+				catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+				}
+				return super.getAge();
+			}
+		};
+		ConcurrencyLimiter limiter = new ConcurrencyLimiter(new AimdConcurrencyLimitStrategy(1));
+		ITestBean proxy = createProxy(target, new ConcurrencyLimitInterceptor(limiter));
+
+		Thread thread = new Thread(proxy::getAge);
+		thread.start();
+		assertThat(entered.await(1, TimeUnit.SECONDS)).isTrue();
+		assertThatExceptionOfType(ConcurrencyLimitExceededException.class).isThrownBy(proxy::getAge)
+				.satisfies(ex -> assertThat(ex.getLimit()).isEqualTo(1));
+		release.countDown();
+		thread.join(1000);
+
+		assertThat(limiter.getInFlight()).isEqualTo(0);
+		assertThat(limiter.getAcceptedCount()).isEqualTo(1);
+		assertThat(limiter.getRejectedCount()).isEqualTo(1);
+		proxy.setAge(5);
+		assertThat(limiter.getAcceptedCount()).isEqualTo(2);
+	}
+
+	@Test
+	public void nestedRejectionCountsAsDropped() {
+		TestBean target = new TestBean() {
+			@Override
+			public int getAge() {
+				throw new ConcurrencyLimitExceededException(10);
+			}
+		};
+		ConcurrencyLimiter limiter = new ConcurrencyLimiter(new AimdConcurrencyLimitStrategy(10));
+		ITestBean proxy = createProxy(target, new ConcurrencyLimitInterceptor(limiter));
+		assertThatExceptionOfType(ConcurrencyLimitExceededException.class).isThrownBy(proxy::getAge);
+		assertThat(limiter.getDroppedCount()).isEqualTo(1);
+		assertThat(limiter.getInFlight()).isEqualTo(0);
+		assertThat(limiter.getLimit()).isEqualTo(9);
+	}
+
+	private static ITestBean createProxy(ITestBean target, ConcurrencyLimitInterceptor interceptor) {
+		ProxyFactory proxyFactory = new ProxyFactory();
+		proxyFactory.setInterfaces(ITestBean.class);
+		proxyFactory.addAdvice(interceptor);
+		proxyFactory.setTarget(target);
+		return (ITestBean) proxyFactory.getProxy();
+	}
+
+}
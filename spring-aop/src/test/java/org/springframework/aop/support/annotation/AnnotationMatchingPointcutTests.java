@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -53,6 +53,8 @@ class AnnotationMatchingPointcutTests {
 		// #1 and #3 have equivalent hash codes even though equals() returns false.
 		assertThat(pointcut1.hashCode()).isEqualTo(pointcut3.hashCode());
 		assertThat(pointcut1.toString()).isEqualTo(pointcut2.toString());
+
+		assertThat(((AnnotationMatchingPointcut) pointcut1).getCandidateAnnotationTypes()).containsExactly(Qualifier.class);
 	}
 
 	@Test
@@ -76,6 +78,8 @@ class AnnotationMatchingPointcutTests {
 		// #1 and #3 have equivalent hash codes even though equals() returns false.
 		assertThat(pointcut1.hashCode()).isEqualTo(pointcut3.hashCode());
 		assertThat(pointcut1.toString()).isEqualTo(pointcut2.toString());
+
+		assertThat(((AnnotationMatchingPointcut) pointcut1).getCandidateAnnotationTypes()).containsExactly(Qualifier.class);
 	}
 
 	@Test
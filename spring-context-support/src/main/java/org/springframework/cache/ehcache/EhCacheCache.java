@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -21,8 +21,10 @@ import java.util.concurrent.Callable;
 import net.sf.ehcache.Ehcache;
 import net.sf.ehcache.Element;
 import net.sf.ehcache.Status;
+import net.sf.ehcache.statistics.StatisticsGateway;
 
 import org.springframework.cache.Cache;
+import org.springframework.cache.CacheStatistics;
 import org.springframework.cache.support.SimpleValueWrapper;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
@@ -156,6 +158,18 @@ public class EhCacheCache implements Cache {
 		return notEmpty;
 	}
 
+	/**
+	 * Return the statistics of the native cache. The eviction count includes
+	 * expired and explicitly removed entries; loads are not tracked by Ehcache.
+	 */
+	@Override
+	public CacheStatistics getStatistics() {
+		StatisticsGateway statistics = this.cache.getStatistics();
+		return new CacheStatistics(statistics.cacheHitCount(), statistics.cacheMissCount(),
+				statistics.cachePutCount(), statistics.cacheEvictedCount() + statistics.cacheExpiredCount() +
+				statistics.cacheRemoveCount(), 0, 0, 0);
+	}
+
 
 	@Nullable
 	private Element lookup(Object key) {
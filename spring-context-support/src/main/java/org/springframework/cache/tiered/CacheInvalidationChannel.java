@@ -0,0 +1,61 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.tiered;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Strategy for propagating the invalidation of local cache entries to the
+ * other nodes sharing the same remote cache, e.g. through a messaging system.
+ *
+ * <p>Implementations are expected to deliver an invalidation to the listeners
+ * of all other nodes, but not back to the listener of the publishing node.
+ *
+ * @since 5.2.5
+ * @see TieredCacheManager#setInvalidationChannel
+ */
+public interface CacheInvalidationChannel {
+
+	/**
+	 * Publish the invalidation of an entry in the specified cache.
+	 * @param cacheName the name of the cache
+	 * @param key the key of the entry, or {@code null} for all entries of the cache
+	 */
+	void publish(String cacheName, @Nullable Object key);
+
+	/**
+	 * Register a listener for the invalidations published by other nodes.
+	 * @param listener the listener to notify
+	 */
+	void subscribe(Listener listener);
+
+
+	/**
+	 * Callback interface for invalidations received through a channel.
+	 */
+	@FunctionalInterface
+	interface Listener {
+
+		/**
+		 * Invalidate an entry in the specified local cache.
+		 * @param cacheName the name of the cache
+		 * @param key the key of the entry, or {@code null} for all entries of the cache
+		 */
+		void onInvalidation(String cacheName, @Nullable Object key);
+	}
+
+}
@@ -0,0 +1,338 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.tiered;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheStatistics;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * {@link Cache} implementation with a local in-process cache (L1) in front
+ * of a shared, typically remote cache (L2).
+ *
+ * <p>Lookups try the local cache first and then the remote cache, copying
+ * remote hits into the local cache. Puts and evictions apply to both tiers
+ * and are published through a {@link CacheInvalidationChannel}, if any,
+ * for other nodes to drop their local copy of the affected entries.
+ *
+ * <p>Hits and misses are counted for each tier. Note that a local miss
+ * implies a remote lookup, so the remote counts add up to the local misses.
+ *
+ * @since 5.2.5
+ * @see TieredCacheManager
+ */
+public class TieredCache implements Cache {
+
+	private final String name;
+
+	private final Cache localCache;
+
+	private final Cache remoteCache;
+
+	@Nullable
+	private final CacheInvalidationChannel invalidationChannel;
+
+	private final LongAdder localHits = new LongAdder();
+
+	private final LongAdder localMisses = new LongAdder();
+
+	private final LongAdder remoteHits = new LongAdder();
+
+	private final LongAdder remoteMisses = new LongAdder();
+
+
+	/**
+	 * Create a new TieredCache for the given local and remote caches.
+	 * @param localCache the local cache (L1)
+	 * @param remoteCache the remote cache (L2)
+	 */
+	public TieredCache(Cache localCache, Cache remoteCache) {
+		this(localCache, remoteCache, null);
+	}
+
+	/**
+	 * Create a new TieredCache for the given local and remote caches.
+	 * @param localCache the local cache (L1)
+	 * @param remoteCache the remote cache (L2)
+	 * @param invalidationChannel the channel to publish invalidations to,
+	 * or {@code null} for a single node
+	 */
+	public TieredCache(Cache localCache, Cache remoteCache, @Nullable CacheInvalidationChannel invalidationChannel) {
+		Assert.notNull(localCache, "Local Cache must not be null");
+		Assert.notNull(remoteCache, "Remote Cache must not be null");
+		this.name = remoteCache.getName();
+		this.localCache = localCache;
+		this.remoteCache = remoteCache;
+		this.invalidationChannel = invalidationChannel;
+	}
+
+
+	/**
+	 * Return the local cache (L1).
+	 */
+	public Cache getLocalCache() {
+		return this.localCache;
+	}
+
+	/**
+	 * Return the remote cache (L2).
+	 */
+	public Cache getRemoteCache() {
+		return this.remoteCache;
+	}
+
+	@Override
+	public String getName() {
+		return this.name;
+	}
+
+	/**
+	 * Return the native cache of the remote cache, as the tier
+	 * holding the authoritative entries.
+	 */
+	@Override
+	public Object getNativeCache() {
+		return this.remoteCache.getNativeCache();
+	}
+
+	@Override
+	@Nullable
+	public ValueWrapper get(Object key) {
+		ValueWrapper value = this.localCache.get(key);
+		if (value != null) {
+			this.localHits.increment();
+			return value;
+		}
+		this.localMisses.increment();
+		value = this.remoteCache.get(key);
+		if (value != null) {
+			this.remoteHits.increment();
+			this.localCache.put(key, value.get());
+		}
+		else {
+			this.remoteMisses.increment();
+		}
+		return value;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	@Nullable
+	public <T> T get(Object key, @Nullable Class<T> type) {
+		ValueWrapper wrapper = get(key);
+		Object value = (wrapper != null ? wrapper.get() : null);
+		if (value != null && type != null && !type.isInstance(value)) {
+			throw new IllegalStateException(
+					"Cached value is not of required type [" + type.getName() + "]: " + value);
+		}
+		return (T) value;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	@Nullable
+	public <T> T get(Object key, Callable<T> valueLoader) {
+		ValueWrapper value = this.localCache.get(key);
+		if (value != null) {
+			this.localHits.increment();
+			return (T) value.get();
+		}
+		this.localMisses.increment();
+		boolean[] loaded = new boolean[1];
+		T result = this.remoteCache.get(key, () -> {
+			loaded[0] = true;
+			return valueLoader.call();
+		});
+		(loaded[0] ? this.remoteMisses : this.remoteHits).increment();
+		this.localCache.put(key, result);
+		return result;
+	}
+
+	@Override
+	public Map<Object, ValueWrapper> getAll(Collection<?> keys) {
+		Map<Object, ValueWrapper> localValues = this.localCache.getAll(keys);
+		this.localHits.add(localValues.size());
+		if (localValues.size() == keys.size()) {
+			return localValues;
+		}
+		List<Object> missingKeys = new ArrayList<>(keys.size() - localValues.size());
+		for (Object key : keys) {
+			if (!localValues.containsKey(key)) {
+				missingKeys.add(key);
+			}
+		}
+		this.localMisses.add(missingKeys.size());
+		Map<Object, ValueWrapper> remoteValues = this.remoteCache.getAll(missingKeys);
+		this.remoteHits.add(remoteValues.size());
+		this.remoteMisses.add(missingKeys.size() - remoteValues.size());
+		if (!remoteValues.isEmpty()) {
+			Map<Object, Object> entries = new LinkedHashMap<>(remoteValues.size());
+			remoteValues.forEach((key, value) -> entries.put(key, value.get()));
+			this.localCache.putAll(entries);
+		}
+		Map<Object, ValueWrapper> result = new LinkedHashMap<>(localValues.size() + remoteValues.size());
+		for (Object key : keys) {
+			ValueWrapper value = localValues.get(key);
+			if (value == null) {
+				value = remoteValues.get(key);
+			}
+			if (value != null) {
+				result.put(key, value);
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public void put(Object key, @Nullable Object value) {
+		this.remoteCache.put(key, value);
+		this.localCache.put(key, value);
+		publishInvalidation(key);
+	}
+
+	@Override
+	public void putAll(Map<?, ?> entries) {
+		this.remoteCache.putAll(entries);
+		this.localCache.putAll(entries);
+		for (Object key : entries.keySet()) {
+			publishInvalidation(key);
+		}
+	}
+
+	@Override
+	@Nullable
+	public ValueWrapper putIfAbsent(Object key, @Nullable Object value) {
+		ValueWrapper existing = this.remoteCache.putIfAbsent(key, value);
+		if (existing == null) {
+			this.localCache.put(key, value);
+			publishInvalidation(key);
+		}
+		else {
+			this.localCache.put(key, existing.get());
+		}
+		return existing;
+	}
+
+	@Override
+	public void evict(Object key) {
+		this.remoteCache.evict(key);
+		this.localCache.evict(key);
+		publishInvalidation(key);
+	}
+
+	@Override
+	public boolean evictIfPresent(Object key) {
+		boolean remotePresent = this.remoteCache.evictIfPresent(key);
+		boolean localPresent = this.localCache.evictIfPresent(key);
+		publishInvalidation(key);
+		return (remotePresent || localPresent);
+	}
+
+	@Override
+	public void clear() {
+		this.remoteCache.clear();
+		this.localCache.clear();
+		publishInvalidation(null);
+	}
+
+	@Override
+	public boolean invalidate() {
+		boolean remoteNotEmpty = this.remoteCache.invalidate();
+		boolean localNotEmpty = this.localCache.invalidate();
+		publishInvalidation(null);
+		return (remoteNotEmpty || localNotEmpty);
+	}
+
+	/**
+	 * Return the statistics of this cache as a whole: a lookup is a hit if
+	 * served by either tier. Puts, evictions and loads are taken from the
+	 * statistics of the remote cache, if it records any.
+	 * @see #getLocalHitCount()
+	 * @see #getRemoteHitCount()
+	 */
+	@Override
+	public CacheStatistics getStatistics() {
+		CacheStatistics remoteStatistics = this.remoteCache.getStatistics();
+		if (remoteStatistics == null) {
+			remoteStatistics = CacheStatistics.EMPTY;
+		}
+		return new CacheStatistics(this.localHits.sum() + this.remoteHits.sum(), this.remoteMisses.sum(),
+				remoteStatistics.getPutCount(), remoteStatistics.getEvictionCount(),
+				remoteStatistics.getLoadSuccessCount(), remoteStatistics.getLoadFailureCount(),
+				remoteStatistics.getTotalLoadTime());
+	}
+
+	private void publishInvalidation(@Nullable Object key) {
+		if (this.invalidationChannel != null) {
+			this.invalidationChannel.publish(this.name, key);
+		}
+	}
+
+	/**
+	 * Evict the specified entry from the local cache only,
+	 * typically on invalidation by another node.
+	 * @param key the key of the entry, or {@code null} for all entries
+	 * @see CacheInvalidationChannel.Listener
+	 */
+	public void invalidateLocal(@Nullable Object key) {
+		if (key != null) {
+			this.localCache.evictIfPresent(key);
+		}
+		else {
+			this.localCache.invalidate();
+		}
+	}
+
+
+	/**
+	 * Return the number of lookups served by the local cache.
+	 */
+	public long getLocalHitCount() {
+		return this.localHits.sum();
+	}
+
+	/**
+	 * Return the number of lookups not served by the local cache.
+	 */
+	public long getLocalMissCount() {
+		return this.localMisses.sum();
+	}
+
+	/**
+	 * Return the number of local misses served by the remote cache.
+	 */
+	public long getRemoteHitCount() {
+		return this.remoteHits.sum();
+	}
+
+	/**
+	 * Return the number of local misses not served by the remote cache either.
+	 */
+	public long getRemoteMissCount() {
+		return this.remoteMisses.sum();
+	}
+
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.tiered;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.AbstractTransactionSupportingCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * {@link CacheManager} combining a local and a remote {@code CacheManager}
+ * into {@link TieredCache} instances: for example, a
+ * {@link org.springframework.cache.caffeine.CaffeineCacheManager} or
+ * {@link org.springframework.cache.concurrent.ConcurrentMapCacheManager}
+ * in front of a cache manager for a distributed cache.
+ *
+ * <p>The caches of this manager are determined by the remote cache manager,
+ * with a local cache of the same name obtained on demand, so the local cache
+ * manager has to be able to create caches dynamically.
+ *
+ * <p>With a {@link #setInvalidationChannel CacheInvalidationChannel}, puts
+ * and evictions are published to the other nodes, and invalidations from the
+ * other nodes are applied to the local caches of this manager.
+ *
+ * <p>Can be {@linkplain #setTransactionAware transaction-aware}, in which
+ * case puts and evictions - including their publication - are deferred to
+ * the after-commit phase of a transaction.
+ *
+ * @since 5.2.5
+ * @see TieredCache
+ */
+public class TieredCacheManager extends AbstractTransactionSupportingCacheManager {
+
+	private final CacheManager localCacheManager;
+
+	private final CacheManager remoteCacheManager;
+
+	@Nullable
+	private CacheInvalidationChannel invalidationChannel;
+
+
+	/**
+	 * Create a new TieredCacheManager for the given local and remote cache managers.
+	 * @param localCacheManager the cache manager for the local caches (L1)
+	 * @param remoteCacheManager the cache manager for the remote caches (L2)
+	 */
+	public TieredCacheManager(CacheManager localCacheManager, CacheManager remoteCacheManager) {
+		Assert.notNull(localCacheManager, "Local CacheManager must not be null");
+		Assert.notNull(remoteCacheManager, "Remote CacheManager must not be null");
+		this.localCacheManager = localCacheManager;
+		this.remoteCacheManager = remoteCacheManager;
+	}
+
+
+	/**
+	 * Set the channel for propagating invalidations across nodes.
+	 * <p>This manager subscribes to the channel on initialization.
+	 */
+	public void setInvalidationChannel(@Nullable CacheInvalidationChannel invalidationChannel) {
+		this.invalidationChannel = invalidationChannel;
+	}
+
+	/**
+	 * Return the channel for propagating invalidations across nodes, if any.
+	 */
+	@Nullable
+	public CacheInvalidationChannel getInvalidationChannel() {
+		return this.invalidationChannel;
+	}
+
+	@Override
+	public void afterPropertiesSet() {
+		super.afterPropertiesSet();
+		if (this.invalidationChannel != null) {
+			this.invalidationChannel.subscribe(this::invalidateLocal);
+		}
+	}
+
+
+	@Override
+	protected Collection<? extends Cache> loadCaches() {
+		Collection<String> cacheNames = this.remoteCacheManager.getCacheNames();
+		List<Cache> caches = new ArrayList<>(cacheNames.size());
+		for (String name : cacheNames) {
+			Cache cache = getMissingCache(name);
+			if (cache != null) {
+				caches.add(cache);
+			}
+		}
+		return caches;
+	}
+
+	@Override
+	@Nullable
+	protected Cache getMissingCache(String name) {
+		Cache remoteCache = this.remoteCacheManager.getCache(name);
+		if (remoteCache == null) {
+			return null;
+		}
+		Cache localCache = this.localCacheManager.getCache(name);
+		if (localCache == null) {
+			throw new IllegalStateException("Local CacheManager [" + this.localCacheManager +
+					"] does not provide a cache named '" + name + "'");
+		}
+		return createTieredCache(localCache, remoteCache);
+	}
+
+	/**
+	 * Create a new TieredCache instance for the given local and remote caches.
+	 * @param localCache the local cache (L1)
+	 * @param remoteCache the remote cache (L2)
+	 * @return the TieredCache instance
+	 */
+	protected TieredCache createTieredCache(Cache localCache, Cache remoteCache) {
+		return new TieredCache(localCache, remoteCache, this.invalidationChannel);
+	}
+
+	/**
+	 * Apply an invalidation from another node to the local cache of
+	 * the specified name, if it has been initialized on this node.
+	 */
+	private void invalidateLocal(String cacheName, @Nullable Object key) {
+		Cache cache = lookupCache(cacheName);
+		if (cache instanceof TransactionAwareCacheDecorator) {
+			cache = ((TransactionAwareCacheDecorator) cache).getTargetCache();
+		}
+		if (cache instanceof TieredCache) {
+			((TieredCache) cache).invalidateLocal(key);
+		}
+	}
+
+}
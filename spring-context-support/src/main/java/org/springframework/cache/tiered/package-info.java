@@ -0,0 +1,10 @@
+/**
+ * Two-level caching: a local in-process cache in front of a shared,
+ * typically remote cache, with invalidation of local entries across nodes.
+ */
+@NonNullApi
+@NonNullFields
+package org.springframework.cache.tiered;
+
+import org.springframework.lang.NonNullApi;
+import org.springframework.lang.NonNullFields;
@@ -194,6 +194,22 @@ public class CaffeineCacheManagerTests {
 			.withMessageContaining("I only know ping");
 	}
 
+	@Test
+	public void asyncCacheModeRecreateCache() {
+		CaffeineCacheManager cm = new CaffeineCacheManager("c1");
+		CaffeineCache cache1 = (CaffeineCache) cm.getCache("c1");
+		assertThat(cache1.getAsyncCache()).isNull();
+
+		cm.setAsyncCacheMode(true);
+		CaffeineCache cache1x = (CaffeineCache) cm.getCache("c1");
+		assertThat(cache1x).isNotSameAs(cache1);
+		assertThat(cache1x.getAsyncCache()).isNotNull();
+
+		cache1x.put("key", "value");
+		assertThat(cache1x.retrieve("key").join().get()).isEqualTo("value");
+		assertThat(cache1x.getAsyncCache().getIfPresent("key").join()).isEqualTo("value");
+	}
+
 	@SuppressWarnings("unchecked")
 	private CacheLoader<Object, Object> mockCacheLoader() {
 		return mock(CacheLoader.class);
@@ -16,11 +16,14 @@
 
 package org.springframework.cache.caffeine;
 
+import java.util.concurrent.CompletableFuture;
+
 import com.github.benmanes.caffeine.cache.Caffeine;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import org.springframework.cache.Cache;
+import org.springframework.cache.CacheStatistics;
 import org.springframework.context.testfixture.cache.AbstractValueAdaptingCacheTests;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -79,4 +82,54 @@ public class CaffeineCacheTests extends AbstractValueAdaptingCacheTests<Caffeine
 		assertThat(cache.get(key).get()).isEqualTo(value);
 	}
 
+	@Test
+	public void testStatistics() {
+		assertThat(this.cache.getStatistics()).isNull();
+
+		CaffeineCache cache = new CaffeineCache(CACHE_NAME, Caffeine.newBuilder().recordStats().build());
+		cache.put("key1", "value1");
+		assertThat(cache.get("key1")).isNotNull();
+		assertThat(cache.get("key2")).isNull();
+		assertThat(cache.get("key2", () -> "value2")).isEqualTo("value2");
+
+		CacheStatistics statistics = cache.getStatistics();
+		assertThat(statistics.getHitCount()).isEqualTo(1);
+		assertThat(statistics.getMissCount()).isEqualTo(2);
+		assertThat(statistics.getLoadSuccessCount()).isEqualTo(1);
+		assertThat(statistics.getLoadFailureCount()).isEqualTo(0);
+	}
+
+	@Test
+	public void testAsyncCacheRetrieve() {
+		CaffeineCache cache = new CaffeineCache(CACHE_NAME, Caffeine.newBuilder().buildAsync(), true);
+		assertThat(cache.retrieve("key").join()).isNull();
+
+		cache.put("key", "value");
+		assertThat(cache.retrieve("key").join().get()).isEqualTo("value");
+		assertThat(cache.getAsyncCache().getIfPresent("key").join()).isEqualTo("value");
+	}
+
+	@Test
+	public void testAsyncCacheRetrieveWithValueLoader() {
+		CaffeineCache cache = new CaffeineCache(CACHE_NAME, Caffeine.newBuilder().buildAsync(), true);
+		CompletableFuture<String> pending = new CompletableFuture<>();
+		CompletableFuture<String> first = cache.retrieve("key", () -> pending);
+		CompletableFuture<String> second = cache.retrieve("key", () -> CompletableFuture.completedFuture("other"));
+		assertThat(first).isNotDone();
+		assertThat(second).isNotDone();
+
+		pending.complete("value");
+		assertThat(first.join()).isEqualTo("value");
+		assertThat(second.join()).isEqualTo("value");
+		assertThat(cache.get("key").get()).isEqualTo("value");
+	}
+
+	@Test
+	public void testAsyncCacheRetrieveNullValue() {
+		CaffeineCache cache = new CaffeineCache(CACHE_NAME, Caffeine.newBuilder().buildAsync(), true);
+		assertThat(cache.retrieve("key", () -> CompletableFuture.completedFuture(null)).join()).isNull();
+		assertThat(cache.retrieve("key").join()).isNotNull();
+		assertThat(cache.retrieve("key").join().get()).isNull();
+	}
+
 }
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.tiered;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.lang.Nullable;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.transaction.testfixture.CallCountingTransactionManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link TieredCacheManager}.
+ */
+public class TieredCacheManagerTests {
+
+	private final ConcurrentMapCacheManager remoteCacheManager = new ConcurrentMapCacheManager("c1", "c2");
+
+	private final List<InMemoryInvalidationChannel> channels = new ArrayList<>();
+
+
+	@Test
+	public void cachesDeterminedByRemoteCacheManager() {
+		TieredCacheManager cacheManager = createNode(false);
+		assertThat(cacheManager.getCacheNames()).containsExactly("c1", "c2");
+		assertThat(cacheManager.getCache("c1")).isInstanceOf(TieredCache.class);
+		assertThat(cacheManager.getCache("c3")).isNull();
+	}
+
+	@Test
+	public void invalidationPropagatedToOtherNodes() {
+		TieredCacheManager node1 = createNode(false);
+		TieredCacheManager node2 = createNode(false);
+		Cache cache1 = node1.getCache("c1");
+		Cache cache2 = node2.getCache("c1");
+
+		cache1.put("key", "value1");
+		assertThat(cache2.get("key").get()).isEqualTo("value1");
+
+		cache1.put("key", "value2");
+		assertThat(((TieredCache) cache2).getLocalCache().get("key")).isNull();
+		assertThat(((TieredCache) cache1).getLocalCache().get("key").get()).isEqualTo("value2");
+		assertThat(cache2.get("key").get()).isEqualTo("value2");
+
+		cache2.clear();
+		assertThat(((TieredCache) cache1).getLocalCache().get("key")).isNull();
+		assertThat(cache1.get("key")).isNull();
+	}
+
+	@Test
+	public void transactionAwareCaches() {
+		TieredCacheManager node1 = createNode(true);
+		TieredCacheManager node2 = createNode(true);
+		Cache cache1 = node1.getCache("c1");
+		Cache cache2 = node2.getCache("c1");
+		assertThat(cache1).isInstanceOf(TransactionAwareCacheDecorator.class);
+
+		cache1.put("key", "value1");
+		assertThat(cache2.get("key").get()).isEqualTo("value1");
+
+		TransactionTemplate txTemplate = new TransactionTemplate(new CallCountingTransactionManager());
+		txTemplate.executeWithoutResult(status -> {
+			cache1.put("key", "value2");
+			assertThat(cache2.get("key").get()).isEqualTo("value1");
+			assertThat(this.channels.get(0).published).isEqualTo(1);
+		});
+		assertThat(this.channels.get(0).published).isEqualTo(2);
+		assertThat(cache2.get("key").get()).isEqualTo("value2");
+	}
+
+
+	private TieredCacheManager createNode(boolean transactionAware) {
+		TieredCacheManager cacheManager = new TieredCacheManager(new ConcurrentMapCacheManager(), this.remoteCacheManager);
+		cacheManager.setInvalidationChannel(new InMemoryInvalidationChannel(this.channels));
+		cacheManager.setTransactionAware(transactionAware);
+		cacheManager.afterPropertiesSet();
+		return cacheManager;
+	}
+
+
+	/**
+	 * Channel for one node, delivering invalidations to the listeners of all other nodes.
+	 */
+	private static class InMemoryInvalidationChannel implements CacheInvalidationChannel {
+
+		private final List<InMemoryInvalidationChannel> channels;
+
+		private final List<Listener> listeners = new ArrayList<>();
+
+		private int published;
+
+		public InMemoryInvalidationChannel(List<InMemoryInvalidationChannel> channels) {
+			this.channels = channels;
+			channels.add(this);
+		}
+
+		@Override
+		public void publish(String cacheName, @Nullable Object key) {
+			this.published++;
+			for (InMemoryInvalidationChannel channel : this.channels) {
+				if (channel != this) {
+					channel.listeners.forEach(listener -> listener.onInvalidation(cacheName, key));
+				}
+			}
+		}
+
+		@Override
+		public void subscribe(Listener listener) {
+			this.listeners.add(listener);
+		}
+	}
+
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.tiered;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.cache.CacheStatistics;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.context.testfixture.cache.AbstractCacheTests;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link TieredCache}.
+ */
+public class TieredCacheTests extends AbstractCacheTests<TieredCache> {
+
+	private final ConcurrentMapCache localCache = new ConcurrentMapCache(CACHE_NAME);
+
+	private final ConcurrentMapCache remoteCache = new ConcurrentMapCache(CACHE_NAME);
+
+	private final List<Object> invalidations = new ArrayList<>();
+
+	private TieredCache cache;
+
+
+	@BeforeEach
+	public void setUp() {
+		this.cache = new TieredCache(this.localCache, this.remoteCache, new CacheInvalidationChannel() {
+			@Override
+			public void publish(String cacheName, Object key) {
+				invalidations.add(key);
+			}
+			@Override
+			public void subscribe(Listener listener) {
+			}
+		});
+	}
+
+	@Override
+	protected TieredCache getCache() {
+		return this.cache;
+	}
+
+	@Override
+	protected Object getNativeCache() {
+		return this.remoteCache.getNativeCache();
+	}
+
+
+	@Test
+	public void remoteHitPopulatesLocalCache() {
+		this.remoteCache.put("key", "value");
+		assertThat(this.cache.get("key").get()).isEqualTo("value");
+		assertThat(this.localCache.get("key").get()).isEqualTo("value");
+		assertThat(this.cache.get("key").get()).isEqualTo("value");
+		assertThat(this.cache.get("other")).isNull();
+
+		assertThat(this.cache.getLocalHitCount()).isEqualTo(1);
+		assertThat(this.cache.getLocalMissCount()).isEqualTo(2);
+		assertThat(this.cache.getRemoteHitCount()).isEqualTo(1);
+		assertThat(this.cache.getRemoteMissCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void valueLoaderCountedAsRemoteMiss() {
+		assertThat(this.cache.get("key", () -> "value")).isEqualTo("value");
+		assertThat(this.remoteCache.get("key").get()).isEqualTo("value");
+		assertThat(this.localCache.get("key").get()).isEqualTo("value");
+		assertThat(this.cache.get("key", () -> "other")).isEqualTo("value");
+
+		assertThat(this.cache.getLocalHitCount()).isEqualTo(1);
+		assertThat(this.cache.getRemoteMissCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void getAllConsultsRemoteCacheForLocalMisses() {
+		this.localCache.put("a", "1");
+		this.remoteCache.put("b", "2");
+		assertThat(this.cache.getAll(Arrays.asList("a", "b", "c"))).containsOnlyKeys("a", "b");
+		assertThat(this.localCache.get("b").get()).isEqualTo("2");
+
+		assertThat(this.cache.getLocalHitCount()).isEqualTo(1);
+		assertThat(this.cache.getLocalMissCount()).isEqualTo(2);
+		assertThat(this.cache.getRemoteHitCount()).isEqualTo(1);
+		assertThat(this.cache.getRemoteMissCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void statisticsCombineTiers() {
+		this.cache.put("key1", "value1");
+		this.remoteCache.put("key2", "value2");
+		assertThat(this.cache.get("key1")).isNotNull();
+		assertThat(this.cache.get("key2")).isNotNull();
+		assertThat(this.cache.get("key3")).isNull();
+
+		CacheStatistics statistics = this.cache.getStatistics();
+		assertThat(statistics.getHitCount()).isEqualTo(2);
+		assertThat(statistics.getMissCount()).isEqualTo(1);
+		assertThat(statistics.getPutCount()).isEqualTo(0);
+	}
+
+	@Test
+	public void modificationsPublished() {
+		this.cache.put("a", "1");
+		this.cache.evict("a");
+		this.cache.clear();
+		assertThat(this.invalidations).containsExactly("a", "a", null);
+	}
+
+	@Test
+	public void invalidateLocal() {
+		this.cache.put("a", "1");
+		this.cache.put("b", "2");
+		this.cache.invalidateLocal("a");
+		assertThat(this.localCache.get("a")).isNull();
+		assertThat(this.remoteCache.get("a").get()).isEqualTo("1");
+
+		this.cache.invalidateLocal(null);
+		assertThat(this.localCache.get("b")).isNull();
+		assertThat(this.cache.get("b").get()).isEqualTo("2");
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,7 +16,12 @@
 
 package org.springframework.cache;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 import org.springframework.lang.Nullable;
 
@@ -100,6 +105,97 @@ public interface Cache {
 	@Nullable
 	<T> T get(Object key, Callable<T> valueLoader);
 
+	/**
+	 * Return the value to which this cache maps the specified key, wrapped in
+	 * a {@link CompletableFuture}. This operation should not block, making it
+	 * suitable for callers working with asynchronous or reactive results.
+	 * <p>The returned future completes with a {@link ValueWrapper} for a cached
+	 * value (which may be {@code null} itself), or with {@code null} if the cache
+	 * contains no mapping for this key - just like {@link #get(Object)}.
+	 * <p>The default implementation completes the future immediately with the
+	 * result of {@link #get(Object)}, which is appropriate for local caches.
+	 * Cache providers with an asynchronous API are encouraged to override it.
+	 * @param key the key whose associated value is to be returned
+	 * @return a future for the value to which this cache maps the specified key
+	 * @since 5.2.5
+	 * @see #get(Object)
+	 * @see #retrieve(Object, Supplier)
+	 */
+	default CompletableFuture<ValueWrapper> retrieve(Object key) {
+		return CompletableFuture.completedFuture(get(key));
+	}
+
+	/**
+	 * Return the value to which this cache maps the specified key, obtaining
+	 * that value from {@code valueLoader} if necessary: the asynchronous
+	 * counterpart of {@link #get(Object, Callable)}.
+	 * <p>If possible, implementations should ensure that the loading operation
+	 * is shared so that the specified {@code valueLoader} is only called once
+	 * in case of concurrent access on the same key, including access while the
+	 * returned future is still pending.
+	 * <p>If the future returned by the {@code valueLoader} fails, the returned
+	 * future fails with the same exception and no value gets cached.
+	 * <p>The default implementation checks {@link #get(Object)} and otherwise
+	 * {@linkplain #put puts} the loaded value once available, without sharing
+	 * concurrent loads.
+	 * @param key the key whose associated value is to be returned
+	 * @param valueLoader the provider of a future for the value to cache
+	 * @return a future for the value to which this cache maps the specified key
+	 * @since 5.2.5
+	 * @see #get(Object, Callable)
+	 */
+	@SuppressWarnings("unchecked")
+	default <T> CompletableFuture<T> retrieve(Object key, Supplier<CompletableFuture<T>> valueLoader) {
+		ValueWrapper cached = get(key);
+		if (cached != null) {
+			return CompletableFuture.completedFuture((T) cached.get());
+		}
+		return valueLoader.get().thenApply(value -> {
+			put(key, value);
+			return value;
+		});
+	}
+
+	/**
+	 * Return the values to which this cache maps the specified keys, in a
+	 * single bulk operation where supported by the underlying cache provider.
+	 * <p>The returned map contains a {@link ValueWrapper} (holding a value which
+	 * may be {@code null} itself) for each of the given keys that this cache
+	 * contains a mapping for. Keys without a mapping are not contained.
+	 * <p>The default implementation delegates to {@link #get(Object)} for each key.
+	 * @param keys the keys whose associated values are to be returned
+	 * @return a map with the cached values for the given keys (never {@code null})
+	 * @since 5.2.5
+	 * @see #get(Object)
+	 * @see #putAll(Map)
+	 */
+	default Map<Object, ValueWrapper> getAll(Collection<?> keys) {
+		Map<Object, ValueWrapper> result = new LinkedHashMap<>(keys.size());
+		for (Object key : keys) {
+			ValueWrapper value = get(key);
+			if (value != null) {
+				result.put(key, value);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Associate the specified values with their keys in this cache, in a
+	 * single bulk operation where supported by the underlying cache provider.
+	 * <p>Actual registration may be performed in an asynchronous or deferred
+	 * fashion, just like with {@link #put(Object, Object)}.
+	 * <p>The default implementation delegates to {@link #put(Object, Object)}
+	 * for each entry.
+	 * @param entries the keys and the values to be associated with them
+	 * @since 5.2.5
+	 * @see #put(Object, Object)
+	 * @see #getAll(Collection)
+	 */
+	default void putAll(Map<?, ?> entries) {
+		entries.forEach(this::put);
+	}
+
 	/**
 	 * Associate the specified value with the specified key in this cache.
 	 * <p>If the cache previously contained a mapping for this key, the old
@@ -206,6 +302,20 @@ public interface Cache {
 		return false;
 	}
 
+	/**
+	 * Return the statistics recorded for this cache, if any.
+	 * <p>The default implementation returns {@code null}, indicating that
+	 * this cache does not record statistics. Consider a
+	 * {@link org.springframework.cache.support.StatisticsCacheDecorator}
+	 * for such a cache.
+	 * @return a snapshot of the current statistics, or {@code null} if none
+	 * @since 5.2.5
+	 */
+	@Nullable
+	default CacheStatistics getStatistics() {
+		return null;
+	}
+
 
 	/**
 	 * A (wrapper) object representing a cache value.
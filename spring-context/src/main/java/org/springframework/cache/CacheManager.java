@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,6 +17,8 @@
 package org.springframework.cache;
 
 import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import org.springframework.lang.Nullable;
 
@@ -48,4 +50,25 @@ public interface CacheManager {
 	 */
 	Collection<String> getCacheNames();
 
+	/**
+	 * Get the statistics of the caches known by this manager, for each
+	 * cache that records statistics.
+	 * <p>The default implementation collects {@link Cache#getStatistics()}
+	 * for each of the {@link #getCacheNames() cache names}.
+	 * @return a map of cache name to a snapshot of the statistics of that
+	 * cache (never {@code null})
+	 * @since 5.2.5
+	 */
+	default Map<String, CacheStatistics> getCacheStatistics() {
+		Map<String, CacheStatistics> result = new LinkedHashMap<>();
+		for (String name : getCacheNames()) {
+			Cache cache = getCache(name);
+			CacheStatistics statistics = (cache != null ? cache.getStatistics() : null);
+			if (statistics != null) {
+				result.put(name, statistics);
+			}
+		}
+		return result;
+	}
+
 }
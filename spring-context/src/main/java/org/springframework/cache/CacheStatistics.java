@@ -0,0 +1,199 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Immutable snapshot of the statistics of a {@link Cache}.
+ *
+ * <p>Counts that are not tracked by a particular cache provider are
+ * reported as {@code 0}: for example, not every provider counts puts.
+ *
+ * @since 5.2.5
+ * @see Cache#getStatistics()
+ * @see CacheManager#getCacheStatistics()
+ */
+public final class CacheStatistics {
+
+	/**
+	 * Statistics without any recorded operation.
+	 */
+	public static final CacheStatistics EMPTY = new CacheStatistics(0, 0, 0, 0, 0, 0, 0);
+
+
+	private final long hitCount;
+
+	private final long missCount;
+
+	private final long putCount;
+
+	private final long evictionCount;
+
+	private final long loadSuccessCount;
+
+	private final long loadFailureCount;
+
+	private final long totalLoadTime;
+
+
+	/**
+	 * Create a new CacheStatistics instance.
+	 * @param hitCount the number of lookups that found a cached value
+	 * @param missCount the number of lookups that did not find a cached value
+	 * @param putCount the number of values put into the cache
+	 * @param evictionCount the number of entries removed from the cache,
+	 * either explicitly or by the provider (expiration or size limit),
+	 * as far as tracked by the provider
+	 * @param loadSuccessCount the number of values successfully loaded
+	 * on a cache miss
+	 * @param loadFailureCount the number of failed attempts to load a value
+	 * @param totalLoadTime the time spent loading values, in nanoseconds
+	 */
+	public CacheStatistics(long hitCount, long missCount, long putCount, long evictionCount,
+			long loadSuccessCount, long loadFailureCount, long totalLoadTime) {
+
+		this.hitCount = hitCount;
+		this.missCount = missCount;
+		this.putCount = putCount;
+		this.evictionCount = evictionCount;
+		this.loadSuccessCount = loadSuccessCount;
+		this.loadFailureCount = loadFailureCount;
+		this.totalLoadTime = totalLoadTime;
+	}
+
+
+	/**
+	 * Return the number of lookups that found a cached value.
+	 */
+	public long getHitCount() {
+		return this.hitCount;
+	}
+
+	/**
+	 * Return the number of lookups that did not find a cached value.
+	 */
+	public long getMissCount() {
+		return this.missCount;
+	}
+
+	/**
+	 * Return the total number of lookups: hits plus misses.
+	 */
+	public long getRequestCount() {
+		return this.hitCount + this.missCount;
+	}
+
+	/**
+	 * Return the ratio of lookups that found a cached value,
+	 * or {@code 1.0} if there were no lookups.
+	 */
+	public double getHitRatio() {
+		long requestCount = getRequestCount();
+		return (requestCount == 0 ? 1.0 : (double) this.hitCount / requestCount);
+	}
+
+	/**
+	 * Return the ratio of lookups that did not find a cached value,
+	 * or {@code 0.0} if there were no lookups.
+	 */
+	public double getMissRatio() {
+		long requestCount = getRequestCount();
+		return (requestCount == 0 ? 0.0 : (double) this.missCount / requestCount);
+	}
+
+	/**
+	 * Return the number of values put into the cache.
+	 */
+	public long getPutCount() {
+		return this.putCount;
+	}
+
+	/**
+	 * Return the number of entries removed from the cache.
+	 */
+	public long getEvictionCount() {
+		return this.evictionCount;
+	}
+
+	/**
+	 * Return the number of values successfully loaded on a cache miss.
+	 */
+	public long getLoadSuccessCount() {
+		return this.loadSuccessCount;
+	}
+
+	/**
+	 * Return the number of failed attempts to load a value.
+	 */
+	public long getLoadFailureCount() {
+		return this.loadFailureCount;
+	}
+
+	/**
+	 * Return the time spent loading values, in nanoseconds.
+	 */
+	public long getTotalLoadTime() {
+		return this.totalLoadTime;
+	}
+
+	/**
+	 * Return the average time spent loading a value, in nanoseconds.
+	 */
+	public double getAverageLoadPenalty() {
+		long loadCount = this.loadSuccessCount + this.loadFailureCount;
+		return (loadCount == 0 ? 0.0 : (double) this.totalLoadTime / loadCount);
+	}
+
+
+	@Override
+	public boolean equals(@Nullable Object other) {
+		if (this == other) {
+			return true;
+		}
+		if (!(other instanceof CacheStatistics)) {
+			return false;
+		}
+		CacheStatistics otherStatistics = (CacheStatistics) other;
+		return (this.hitCount == otherStatistics.hitCount && this.missCount == otherStatistics.missCount &&
+				this.putCount == otherStatistics.putCount && this.evictionCount == otherStatistics.evictionCount &&
+				this.loadSuccessCount == otherStatistics.loadSuccessCount &&
+				this.loadFailureCount == otherStatistics.loadFailureCount &&
+				this.totalLoadTime == otherStatistics.totalLoadTime);
+	}
+
+	@Override
+	public int hashCode() {
+		int result = Long.hashCode(this.hitCount);
+		result = 31 * result + Long.hashCode(this.missCount);
+		result = 31 * result + Long.hashCode(this.putCount);
+		result = 31 * result + Long.hashCode(this.evictionCount);
+		result = 31 * result + Long.hashCode(this.loadSuccessCount);
+		result = 31 * result + Long.hashCode(this.loadFailureCount);
+		result = 31 * result + Long.hashCode(this.totalLoadTime);
+		return result;
+	}
+
+	@Override
+	public String toString() {
+		return "CacheStatistics: hits=" + this.hitCount + ", misses=" + this.missCount +
+				", puts=" + this.putCount + ", evictions=" + this.evictionCount +
+				", loadSuccesses=" + this.loadSuccessCount + ", loadFailures=" + this.loadFailureCount +
+				", totalLoadTime=" + this.totalLoadTime + "ns";
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,9 +19,11 @@ package org.springframework.cache.annotation;
 import java.util.Collection;
 import java.util.function.Supplier;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.interceptor.CacheErrorHandler;
+import org.springframework.cache.interceptor.CacheOperationStatistics;
 import org.springframework.cache.interceptor.CacheResolver;
 import org.springframework.cache.interceptor.KeyGenerator;
 import org.springframework.context.annotation.Configuration;
@@ -59,6 +61,9 @@ public abstract class AbstractCachingConfiguration implements ImportAware {
 	@Nullable
 	protected Supplier<CacheErrorHandler> errorHandler;
 
+	@Nullable
+	protected CacheOperationStatistics operationStatistics;
+
 
 	@Override
 	public void setImportMetadata(AnnotationMetadata importMetadata) {
@@ -85,6 +90,16 @@ public abstract class AbstractCachingConfiguration implements ImportAware {
 		useCachingConfigurer(configurer);
 	}
 
+	/**
+	 * Pick up a unique {@link CacheOperationStatistics} bean, if any,
+	 * for recording the latency of cache operations.
+	 * @since 5.2.5
+	 */
+	@Autowired(required = false)
+	void setOperationStatistics(ObjectProvider<CacheOperationStatistics> operationStatistics) {
+		this.operationStatistics = operationStatistics.getIfUnique();
+	}
+
 	/**
 	 * Extract the configuration from the nominated {@link CachingConfigurer}.
 	 */
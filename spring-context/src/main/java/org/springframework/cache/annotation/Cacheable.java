@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -174,9 +174,43 @@ public @interface Cacheable {
 	 * This is effectively a hint and the actual cache provider that you are
 	 * using may not support it in a synchronized fashion. Check your provider
 	 * documentation for more details on the actual semantics.
+	 * <p>The method may also serve as a loader for refreshing the entry later on:
+	 * for example, {@link org.springframework.cache.concurrent.ExpiringConcurrentMapCache}
+	 * may return a stale value while invoking the method asynchronously.
 	 * @since 4.3
 	 * @see org.springframework.cache.Cache#get(Object, Callable)
 	 */
 	boolean sync() default false;
 
+	/**
+	 * Cache the elements of a collection argument individually, for methods
+	 * which load several entries at once, such as {@code findAll(List<Long> ids)}.
+	 * <p>Each element of the first {@link java.util.Collection} parameter of the
+	 * method gets a cache key of its own: the caches are consulted for all elements
+	 * and the method is only invoked for the missing ones, with a collection of the
+	 * same type containing just those elements. The method has to return a
+	 * {@link java.util.Map} from element to value; the caller receives a merged
+	 * {@code Map} in the order of the requested elements, including cached and
+	 * freshly loaded entries.
+	 * <p>The key of an element is generated by the {@link #keyGenerator()} in use,
+	 * with the element as the only argument. With the default
+	 * {@link org.springframework.cache.interceptor.SimpleKeyGenerator}, the element
+	 * itself is the key, so entries are shared with single-value methods caching
+	 * under the plain id in the same cache.
+	 * <p>This mode leads to a couple of limitations:
+	 * <ol>
+	 * <li>{@link #key()} is not supported; other arguments do not contribute to the keys</li>
+	 * <li>{@link #sync()} is not supported</li>
+	 * <li>No other cache-related operation can be combined</li>
+	 * <li>Only proxy-based interception is supported, since the method is invoked
+	 * with different arguments; AspectJ mode rejects bulk operations</li>
+	 * </ol>
+	 * {@link #unless()} is evaluated for each loaded entry, with {@code #result}
+	 * referring to the value of that entry.
+	 * @since 5.2.5
+	 * @see org.springframework.cache.Cache#getAll(java.util.Collection)
+	 * @see org.springframework.cache.Cache#putAll(java.util.Map)
+	 */
+	boolean bulk() default false;
+
 }
@@ -0,0 +1,489 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.concurrent;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.cache.CacheStatistics;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Variant of {@link ConcurrentMapCache} with a time-to-live for each entry,
+ * an optional maximum size, and protection against cache stampedes.
+ *
+ * <p>{@link #get(Object, Callable)} - as used for {@code @Cacheable(sync=true)}
+ * methods - loads a missing or expired value once per key, with concurrent
+ * callers for the same key waiting for that load, and without holding a lock
+ * on the underlying map. If a {@linkplain #setRefreshExecutor refresh executor}
+ * is set, it additionally refreshes entries ahead of time:
+ * <ul>
+ * <li>Shortly before expiration, a lookup may trigger an early refresh with a
+ * probability that increases towards the expiration time and with the time
+ * that it took to load the value ("probabilistic early expiration").</li>
+ * <li>Within the {@linkplain #setStaleWhileRevalidate stale-while-revalidate}
+ * window after expiration, a lookup returns the stale value right away while
+ * the value gets refreshed.</li>
+ * </ul>
+ * Refreshes are performed asynchronously on the refresh executor, once per key
+ * at a time; a failed refresh keeps the current value until it expires.
+ *
+ * <p>Plain {@link #get(Object)} lookups consider expired entries as missing.
+ *
+ * <p>Records {@link #getStatistics() statistics} natively, with expired
+ * entries and entries evicted for the maximum size included in the eviction
+ * count, and refreshes included in the load counts.
+ *
+ * @since 5.2.5
+ * @see ConcurrentMapCache
+ * @see org.springframework.cache.annotation.Cacheable#sync()
+ */
+public class ExpiringConcurrentMapCache extends AbstractValueAdaptingCache {
+
+	private static final Log logger = LogFactory.getLog(ExpiringConcurrentMapCache.class);
+
+	private final String name;
+
+	private final ConcurrentMap<Object, CacheEntry> store = new ConcurrentHashMap<>(256);
+
+	private final ConcurrentMap<Object, CompletableFuture<Object>> loads = new ConcurrentHashMap<>(16);
+
+	private final ReentrantLock evictionLock = new ReentrantLock();
+
+	private final long timeToLive;
+
+	private long staleWhileRevalidate = 0;
+
+	private double earlyRefreshBeta = 1.0;
+
+	private int maximumSize = -1;
+
+	@Nullable
+	private TaskExecutor refreshExecutor;
+
+	private Clock clock = Clock.systemUTC();
+
+	private final LongAdder hits = new LongAdder();
+
+	private final LongAdder misses = new LongAdder();
+
+	private final LongAdder puts = new LongAdder();
+
+	private final LongAdder evictions = new LongAdder();
+
+	private final LongAdder loadSuccesses = new LongAdder();
+
+	private final LongAdder loadFailures = new LongAdder();
+
+	private final LongAdder totalLoadTime = new LongAdder();
+
+
+	/**
+	 * Create a new ExpiringConcurrentMapCache with the specified name
+	 * and time-to-live for its entries.
+	 * @param name the name of the cache
+	 * @param timeToLive the time after which an entry expires
+	 */
+	public ExpiringConcurrentMapCache(String name, Duration timeToLive) {
+		this(name, timeToLive, true);
+	}
+
+	/**
+	 * Create a new ExpiringConcurrentMapCache with the specified name
+	 * and time-to-live for its entries.
+	 * @param name the name of the cache
+	 * @param timeToLive the time after which an entry expires
+	 * @param allowNullValues whether to accept and convert {@code null}
+	 * values for this cache
+	 */
+	public ExpiringConcurrentMapCache(String name, Duration timeToLive, boolean allowNullValues) {
+		super(allowNullValues);
+		Assert.notNull(name, "Name must not be null");
+		Assert.isTrue(timeToLive != null && !timeToLive.isNegative() && !timeToLive.isZero(),
+				"Time-to-live must be positive");
+		this.name = name;
+		this.timeToLive = timeToLive.toMillis();
+	}
+
+
+	/**
+	 * Set the time after expiration during which a stale entry may still be
+	 * returned from {@link #get(Object, Callable)} while it gets refreshed on
+	 * the {@linkplain #setRefreshExecutor refresh executor}.
+	 * <p>Default is none, loading expired entries synchronously.
+	 */
+	public void setStaleWhileRevalidate(Duration staleWhileRevalidate) {
+		Assert.isTrue(!staleWhileRevalidate.isNegative(), "Stale-while-revalidate must not be negative");
+		this.staleWhileRevalidate = staleWhileRevalidate.toMillis();
+	}
+
+	/**
+	 * Set the factor for the probability of an early refresh, scaling the time
+	 * that it took to load a value: higher values refresh more eagerly.
+	 * <p>Default is 1.0. Set this to 0 for no early refresh.
+	 */
+	public void setEarlyRefreshBeta(double earlyRefreshBeta) {
+		Assert.isTrue(earlyRefreshBeta >= 0, "Early refresh beta must not be negative");
+		this.earlyRefreshBeta = earlyRefreshBeta;
+	}
+
+	/**
+	 * Set the maximum number of entries in this cache.
+	 * <p>Once exceeded, expired entries are purged and the entries closest to
+	 * their expiration are evicted, in a batch which leaves room for a tenth
+	 * of the maximum size. Default is unbounded.
+	 */
+	public void setMaximumSize(int maximumSize) {
+		Assert.isTrue(maximumSize > 0, "Maximum size must be positive");
+		this.maximumSize = maximumSize;
+	}
+
+	/**
+	 * Set the executor for refreshing entries ahead of time or after their
+	 * expiration, using the value loader passed to {@link #get(Object, Callable)}.
+	 * <p>Default is none, loading expired entries synchronously.
+	 * @see #setStaleWhileRevalidate
+	 * @see #setEarlyRefreshBeta
+	 */
+	public void setRefreshExecutor(@Nullable TaskExecutor refreshExecutor) {
+		this.refreshExecutor = refreshExecutor;
+	}
+
+	/**
+	 * Set the clock to determine the expiration of entries against.
+	 * <p>Default is the system clock.
+	 */
+	public void setClock(Clock clock) {
+		Assert.notNull(clock, "Clock must not be null");
+		this.clock = clock;
+	}
+
+
+	@Override
+	public final String getName() {
+		return this.name;
+	}
+
+	@Override
+	public final ConcurrentMap<Object, ?> getNativeCache() {
+		return this.store;
+	}
+
+	@Override
+	@Nullable
+	protected Object lookup(Object key) {
+		CacheEntry entry = this.store.get(key);
+		if (entry == null) {
+			this.misses.increment();
+			return null;
+		}
+		long now = this.clock.millis();
+		if (entry.isExpired(now)) {
+			if (!entry.isUsableWhileRevalidating(now, this.staleWhileRevalidate) &&
+					this.store.remove(key, entry)) {
+				this.evictions.increment();
+			}
+			this.misses.increment();
+			return null;
+		}
+		this.hits.increment();
+		return entry.value;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	@Nullable
+	public <T> T get(Object key, Callable<T> valueLoader) {
+		CacheEntry entry = this.store.get(key);
+		if (entry != null) {
+			long now = this.clock.millis();
+			if (!entry.isExpired(now)) {
+				if (this.refreshExecutor != null && entry.isDueForEarlyRefresh(now, this.earlyRefreshBeta)) {
+					refresh(key, valueLoader);
+				}
+				this.hits.increment();
+				return (T) fromStoreValue(entry.value);
+			}
+			if (this.refreshExecutor != null && entry.isUsableWhileRevalidating(now, this.staleWhileRevalidate)) {
+				refresh(key, valueLoader);
+				this.hits.increment();
+				return (T) fromStoreValue(entry.value);
+			}
+		}
+		this.misses.increment();
+		return (T) fromStoreValue(load(key, valueLoader));
+	}
+
+	/**
+	 * Load the value for the given key in the calling thread,
+	 * or wait for a load in progress for the same key.
+	 */
+	private Object load(Object key, Callable<?> valueLoader) {
+		CompletableFuture<Object> load = new CompletableFuture<>();
+		CompletableFuture<Object> existingLoad = this.loads.putIfAbsent(key, load);
+		if (existingLoad != null) {
+			try {
+				return existingLoad.get();
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				throw new ValueRetrievalException(key, valueLoader, ex);
+			}
+			catch (ExecutionException ex) {
+				throw new ValueRetrievalException(key, valueLoader, ex.getCause());
+			}
+		}
+		try {
+			// A concurrent load may have completed in the meantime
+			CacheEntry entry = this.store.get(key);
+			Object storeValue = (entry != null && !entry.isExpired(this.clock.millis()) ?
+					entry.value : loadEntry(key, valueLoader).value);
+			load.complete(storeValue);
+			return storeValue;
+		}
+		catch (Throwable ex) {
+			load.completeExceptionally(ex);
+			throw new ValueRetrievalException(key, valueLoader, ex);
+		}
+		finally {
+			this.loads.remove(key, load);
+		}
+	}
+
+	/**
+	 * Refresh the value for the given key on the refresh executor,
+	 * unless a load is in progress for the same key already.
+	 */
+	private void refresh(Object key, Callable<?> valueLoader) {
+		TaskExecutor executor = this.refreshExecutor;
+		CompletableFuture<Object> load = new CompletableFuture<>();
+		if (executor == null || this.loads.putIfAbsent(key, load) != null) {
+			return;
+		}
+		try {
+			executor.execute(() -> {
+				try {
+					load.complete(loadEntry(key, valueLoader).value);
+				}
+				catch (Throwable ex) {
+					if (logger.isWarnEnabled()) {
+						logger.warn("Failed to refresh entry with key '" + key + "' in cache '" + this.name + "'", ex);
+					}
+					load.completeExceptionally(ex);
+				}
+				finally {
+					this.loads.remove(key, load);
+				}
+			});
+		}
+		catch (RuntimeException ex) {
+			this.loads.remove(key, load);
+			load.completeExceptionally(ex);
+			if (logger.isDebugEnabled()) {
+				logger.debug("Could not schedule refresh of entry with key '" + key +
+						"' in cache '" + this.name + "'", ex);
+			}
+		}
+	}
+
+	private CacheEntry loadEntry(Object key, Callable<?> valueLoader) throws Exception {
+		long start = System.nanoTime();
+		Object storeValue;
+		try {
+			storeValue = toStoreValue(valueLoader.call());
+		}
+		catch (Throwable ex) {
+			this.loadFailures.increment();
+			this.totalLoadTime.add(System.nanoTime() - start);
+			throw ex;
+		}
+		long loadNanos = System.nanoTime() - start;
+		this.loadSuccesses.increment();
+		this.totalLoadTime.add(loadNanos);
+		CacheEntry entry = createEntry(storeValue, loadNanos);
+		this.store.put(key, entry);
+		evictIfNecessary();
+		return entry;
+	}
+
+	@Override
+	public void put(Object key, @Nullable Object value) {
+		this.store.put(key, createEntry(toStoreValue(value), 0));
+		this.puts.increment();
+		evictIfNecessary();
+	}
+
+	@Override
+	@Nullable
+	public ValueWrapper putIfAbsent(Object key, @Nullable Object value) {
+		CacheEntry entry = createEntry(toStoreValue(value), 0);
+		while (true) {
+			CacheEntry existing = this.store.putIfAbsent(key, entry);
+			if (existing == null) {
+				this.puts.increment();
+				evictIfNecessary();
+				return null;
+			}
+			if (!existing.isExpired(this.clock.millis())) {
+				return toValueWrapper(existing.value);
+			}
+			if (this.store.replace(key, existing, entry)) {
+				this.puts.increment();
+				this.evictions.increment();
+				return null;
+			}
+		}
+	}
+
+	@Override
+	public void evict(Object key) {
+		if (this.store.remove(key) != null) {
+			this.evictions.increment();
+		}
+	}
+
+	@Override
+	public boolean evictIfPresent(Object key) {
+		CacheEntry entry = this.store.remove(key);
+		if (entry != null) {
+			this.evictions.increment();
+		}
+		return (entry != null && !entry.isExpired(this.clock.millis()));
+	}
+
+	@Override
+	public void clear() {
+		this.store.clear();
+	}
+
+	@Override
+	public boolean invalidate() {
+		boolean notEmpty = !this.store.isEmpty();
+		this.store.clear();
+		return notEmpty;
+	}
+
+	@Override
+	public CacheStatistics getStatistics() {
+		return new CacheStatistics(this.hits.sum(), this.misses.sum(), this.puts.sum(), this.evictions.sum(),
+				this.loadSuccesses.sum(), this.loadFailures.sum(), this.totalLoadTime.sum());
+	}
+
+	private CacheEntry createEntry(Object storeValue, long loadNanos) {
+		return new CacheEntry(storeValue, this.clock.millis() + this.timeToLive, loadNanos);
+	}
+
+	/**
+	 * Enforce the maximum size, if any: purge expired entries and evict
+	 * the entries closest to their expiration, leaving some headroom.
+	 * Only one thread performs an eviction run at a time.
+	 */
+	private void evictIfNecessary() {
+		int maximumSize = this.maximumSize;
+		if (maximumSize < 0 || this.store.size() <= maximumSize || !this.evictionLock.tryLock()) {
+			return;
+		}
+		try {
+			long now = this.clock.millis();
+			List<Map.Entry<Object, CacheEntry>> candidates = new ArrayList<>(this.store.size());
+			for (Map.Entry<Object, CacheEntry> entry : this.store.entrySet()) {
+				if (entry.getValue().isExpired(now) &&
+						!entry.getValue().isUsableWhileRevalidating(now, this.staleWhileRevalidate)) {
+					if (this.store.remove(entry.getKey(), entry.getValue())) {
+						this.evictions.increment();
+					}
+				}
+				else {
+					candidates.add(entry);
+				}
+			}
+			int targetSize = maximumSize - maximumSize / 10;
+			int excess = candidates.size() - targetSize;
+			if (excess > 0) {
+				candidates.sort(Comparator.comparingLong(entry -> entry.getValue().expiresAt));
+				for (int i = 0; i < excess; i++) {
+					Map.Entry<Object, CacheEntry> entry = candidates.get(i);
+					if (this.store.remove(entry.getKey(), entry.getValue())) {
+						this.evictions.increment();
+					}
+				}
+			}
+		}
+		finally {
+			this.evictionLock.unlock();
+		}
+	}
+
+
+	/**
+	 * A store value along with its expiration time and the time it took to load.
+	 */
+	private static final class CacheEntry {
+
+		final Object value;
+
+		final long expiresAt;
+
+		final long loadNanos;
+
+		CacheEntry(Object value, long expiresAt, long loadNanos) {
+			this.value = value;
+			this.expiresAt = expiresAt;
+			this.loadNanos = loadNanos;
+		}
+
+		boolean isExpired(long now) {
+			return (now >= this.expiresAt);
+		}
+
+		boolean isUsableWhileRevalidating(long now, long staleWhileRevalidate) {
+			return (now < this.expiresAt + staleWhileRevalidate);
+		}
+
+		/**
+		 * Probabilistic early expiration: refresh if
+		 * {@code now - loadTime * beta * ln(random) >= expiresAt}.
+		 */
+		boolean isDueForEarlyRefresh(long now, double beta) {
+			if (this.loadNanos == 0 || beta == 0) {
+				return false;
+			}
+			double loadMillis = this.loadNanos / 1_000_000.0;
+			double gap = -loadMillis * beta * Math.log(ThreadLocalRandom.current().nextDouble());
+			return (now + gap >= this.expiresAt);
+		}
+	}
+
+}
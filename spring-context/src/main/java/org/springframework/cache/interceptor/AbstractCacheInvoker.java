@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,12 @@
 
 package org.springframework.cache.interceptor;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 import org.springframework.cache.Cache;
 import org.springframework.lang.Nullable;
 import org.springframework.util.function.SingletonSupplier;
@@ -23,6 +29,8 @@ import org.springframework.util.function.SingletonSupplier;
 /**
  * A base component for invoking {@link Cache} operations and using a
  * configurable {@link CacheErrorHandler} when an exception occurs.
+ * Optionally records the latency of each cache operation in a
+ * {@link CacheOperationStatistics} instance.
  *
  * @author Stephane Nicoll
  * @author Juergen Hoeller
@@ -33,6 +41,9 @@ public abstract class AbstractCacheInvoker {
 
 	protected SingletonSupplier<CacheErrorHandler> errorHandler;
 
+	@Nullable
+	private CacheOperationStatistics operationStatistics;
+
 
 	protected AbstractCacheInvoker() {
 		this.errorHandler = SingletonSupplier.of(SimpleCacheErrorHandler::new);
@@ -59,6 +70,26 @@ public abstract class AbstractCacheInvoker {
 		return this.errorHandler.obtain();
 	}
 
+	/**
+	 * Set the {@link CacheOperationStatistics} to record the latency of each
+	 * cache operation in, per cache and type of operation.
+	 * <p>Default is none, not measuring cache operations at all.
+	 * @since 5.2.5
+	 */
+	public void setOperationStatistics(@Nullable CacheOperationStatistics operationStatistics) {
+		this.operationStatistics = operationStatistics;
+	}
+
+	/**
+	 * Return the {@link CacheOperationStatistics} to record the latency of
+	 * each cache operation in, if any.
+	 * @since 5.2.5
+	 */
+	@Nullable
+	public CacheOperationStatistics getOperationStatistics() {
+		return this.operationStatistics;
+	}
+
 
 	/**
 	 * Execute {@link Cache#get(Object)} on the specified {@link Cache} and
@@ -69,6 +100,8 @@ public abstract class AbstractCacheInvoker {
 	 */
 	@Nullable
 	protected Cache.ValueWrapper doGet(Cache cache, Object key) {
+		CacheOperationStatistics statistics = this.operationStatistics;
+		long startTime = (statistics != null ? System.nanoTime() : 0);
 		try {
 			return cache.get(key);
 		}
@@ -76,6 +109,65 @@ public abstract class AbstractCacheInvoker {
 			getErrorHandler().handleCacheGetError(ex, cache, key);
 			return null;  // If the exception is handled, return a cache miss
 		}
+		finally {
+			recordLatency(statistics, cache, CacheOperationStatistics.Operation.GET, startTime);
+		}
+	}
+
+	/**
+	 * Execute {@link Cache#getAll(Collection)} on the specified {@link Cache}
+	 * and invoke the error handler if an exception occurs, passing the given
+	 * keys as the key. Return an empty map if the handler does not throw any
+	 * exception, which simulates a cache miss for all keys in case of error.
+	 * @since 5.2.5
+	 * @see Cache#getAll(Collection)
+	 */
+	protected Map<Object, Cache.ValueWrapper> doGetAll(Cache cache, Collection<?> keys) {
+		CacheOperationStatistics statistics = this.operationStatistics;
+		long startTime = (statistics != null ? System.nanoTime() : 0);
+		try {
+			return cache.getAll(keys);
+		}
+		catch (RuntimeException ex) {
+			getErrorHandler().handleCacheGetError(ex, cache, keys);
+			return Collections.emptyMap();  // If the exception is handled, return a cache miss
+		}
+		finally {
+			recordLatency(statistics, cache, CacheOperationStatistics.Operation.GET_ALL, startTime);
+		}
+	}
+
+	/**
+	 * Execute {@link Cache#retrieve(Object)} on the specified {@link Cache} and
+	 * invoke the error handler if an exception occurs, either right away or when
+	 * the returned future fails. The resulting future completes with {@code null}
+	 * if the handler does not throw any exception, which simulates a cache miss
+	 * in case of error.
+	 * @since 5.2.5
+	 * @see Cache#retrieve(Object)
+	 */
+	protected CompletableFuture<Cache.ValueWrapper> doRetrieve(Cache cache, Object key) {
+		CacheOperationStatistics statistics = this.operationStatistics;
+		long startTime = (statistics != null ? System.nanoTime() : 0);
+		CompletableFuture<Cache.ValueWrapper> result;
+		try {
+			result = cache.retrieve(key);
+		}
+		catch (RuntimeException ex) {
+			recordLatency(statistics, cache, CacheOperationStatistics.Operation.RETRIEVE, startTime);
+			getErrorHandler().handleCacheGetError(ex, cache, key);
+			return CompletableFuture.completedFuture(null);
+		}
+		return result.handle((wrapper, ex) -> {
+			recordLatency(statistics, cache, CacheOperationStatistics.Operation.RETRIEVE, startTime);
+			if (ex != null) {
+				Throwable cause = (ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex);
+				getErrorHandler().handleCacheGetError((cause instanceof RuntimeException ?
+						(RuntimeException) cause : new CompletionException(cause)), cache, key);
+				return null;  // If the exception is handled, return a cache miss
+			}
+			return wrapper;
+		});
 	}
 
 	/**
@@ -83,12 +175,37 @@ public abstract class AbstractCacheInvoker {
 	 * and invoke the error handler if an exception occurs.
 	 */
 	protected void doPut(Cache cache, Object key, @Nullable Object result) {
+		CacheOperationStatistics statistics = this.operationStatistics;
+		long startTime = (statistics != null ? System.nanoTime() : 0);
 		try {
 			cache.put(key, result);
 		}
 		catch (RuntimeException ex) {
 			getErrorHandler().handleCachePutError(ex, cache, key, result);
 		}
+		finally {
+			recordLatency(statistics, cache, CacheOperationStatistics.Operation.PUT, startTime);
+		}
+	}
+
+	/**
+	 * Execute {@link Cache#putAll(Map)} on the specified {@link Cache} and
+	 * invoke the error handler if an exception occurs, passing the keys and
+	 * the map of entries as the key and the value, respectively.
+	 * @since 5.2.5
+	 */
+	protected void doPutAll(Cache cache, Map<?, ?> entries) {
+		CacheOperationStatistics statistics = this.operationStatistics;
+		long startTime = (statistics != null ? System.nanoTime() : 0);
+		try {
+			cache.putAll(entries);
+		}
+		catch (RuntimeException ex) {
+			getErrorHandler().handleCachePutError(ex, cache, entries.keySet(), entries);
+		}
+		finally {
+			recordLatency(statistics, cache, CacheOperationStatistics.Operation.PUT_ALL, startTime);
+		}
 	}
 
 	/**
@@ -96,6 +213,8 @@ public abstract class AbstractCacheInvoker {
 	 * specified {@link Cache} and invoke the error handler if an exception occurs.
 	 */
 	protected void doEvict(Cache cache, Object key, boolean immediate) {
+		CacheOperationStatistics statistics = this.operationStatistics;
+		long startTime = (statistics != null ? System.nanoTime() : 0);
 		try {
 			if (immediate) {
 				cache.evictIfPresent(key);
@@ -107,6 +226,9 @@ public abstract class AbstractCacheInvoker {
 		catch (RuntimeException ex) {
 			getErrorHandler().handleCacheEvictError(ex, cache, key);
 		}
+		finally {
+			recordLatency(statistics, cache, CacheOperationStatistics.Operation.EVICT, startTime);
+		}
 	}
 
 	/**
@@ -114,6 +236,8 @@ public abstract class AbstractCacheInvoker {
 	 * invoke the error handler if an exception occurs.
 	 */
 	protected void doClear(Cache cache, boolean immediate) {
+		CacheOperationStatistics statistics = this.operationStatistics;
+		long startTime = (statistics != null ? System.nanoTime() : 0);
 		try {
 			if (immediate) {
 				cache.invalidate();
@@ -125,6 +249,17 @@ public abstract class AbstractCacheInvoker {
 		catch (RuntimeException ex) {
 			getErrorHandler().handleCacheClearError(ex, cache);
 		}
+		finally {
+			recordLatency(statistics, cache, CacheOperationStatistics.Operation.CLEAR, startTime);
+		}
+	}
+
+	private void recordLatency(@Nullable CacheOperationStatistics statistics, Cache cache,
+			CacheOperationStatistics.Operation operation, long startTime) {
+
+		if (statistics != null) {
+			statistics.record(cache.getName(), operation, System.nanoTime() - startTime);
+		}
 	}
 
 }
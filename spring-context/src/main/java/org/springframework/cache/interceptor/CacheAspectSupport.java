@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,17 +19,26 @@ package org.springframework.cache.interceptor;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import org.springframework.aop.framework.AopProxyUtils;
 import org.springframework.aop.support.AopUtils;
@@ -44,6 +53,9 @@ import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.context.expression.AnnotatedElementKey;
 import org.springframework.core.BridgeMethodResolver;
+import org.springframework.core.CollectionFactory;
+import org.springframework.core.ReactiveAdapter;
+import org.springframework.core.ReactiveAdapterRegistry;
 import org.springframework.expression.EvaluationContext;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
@@ -52,6 +64,7 @@ import org.springframework.util.CollectionUtils;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 import org.springframework.util.ObjectUtils;
+import org.springframework.util.ReflectionUtils;
 import org.springframework.util.StringUtils;
 import org.springframework.util.function.SingletonSupplier;
 import org.springframework.util.function.SupplierUtils;
@@ -69,6 +82,37 @@ import org.springframework.util.function.SupplierUtils;
  * used for determining caching operations, a {@link KeyGenerator} will build the
  * cache keys, and a {@link CacheResolver} will resolve the actual cache(s) to use.
  *
+ * <p>Methods returning a {@link CompletableFuture} or {@link CompletionStage},
+ * or a reactive type such as a Reactor {@code Mono} or {@code Flux}, get their
+ * eventual value cached rather than the returned handle: through
+ * {@link Cache#retrieve(Object)} for lookups, with concurrent cache misses for
+ * the same key sharing a single method invocation, or through
+ * {@link Cache#retrieve(Object, Supplier)} with {@code @Cacheable(sync=true)}.
+ * A multi-value publisher is cached as a {@code List} of its elements.
+ *
+ * <p>With {@code @Cacheable(sync=true)}, the method invocation is passed to the
+ * cache as a value loader through {@link Cache#get(Object, java.util.concurrent.Callable)}.
+ * A cache may invoke it on a different thread to refresh an entry ahead of time
+ * or after its expiration, returning the current value in the meantime - see
+ * {@link org.springframework.cache.concurrent.ExpiringConcurrentMapCache}.
+ *
+ * <p>With {@code @Cacheable(bulk=true)}, the elements of a collection argument
+ * are cached individually through {@link Cache#getAll} and {@link Cache#putAll},
+ * invoking the method for the missing elements only. This requires invokers that
+ * accept different arguments, see {@link #isBulkInvocationSupported()}.
+ *
+ * <p>The cache operations of a method and their {@link CacheOperationMetadata}
+ * are determined once per method and target class. A {@code @Cacheable} method
+ * without a condition, {@code unless} expression or {@code key} expression is
+ * executed without the bookkeeping for combined operations. Caches resolved
+ * through a plain {@link SimpleCacheResolver} only depend on the operation: they
+ * are resolved once and merely checked against {@link CacheManager#getCache} on
+ * each invocation, since a cache manager may replace its caches at runtime. A
+ * cache hit for such a method then does not allocate anything in the aspect
+ * beyond the generated key, unless {@link #getOperationContext} or
+ * {@link #getCaches} are overridden, in which case they are called for every
+ * invocation.
+ *
  * <p>Note: A cache aspect is serializable but does not perform any actual caching
  * after deserialization.
  *
@@ -83,10 +127,22 @@ import org.springframework.util.function.SupplierUtils;
 public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		implements BeanFactoryAware, InitializingBean, SmartInitializingSingleton {
 
+	private static final boolean reactorPresent = ClassUtils.isPresent(
+			"reactor.core.publisher.Mono", CacheAspectSupport.class.getClassLoader());
+
+
 	protected final Log logger = LogFactory.getLog(getClass());
 
 	private final Map<CacheOperationCacheKey, CacheOperationMetadata> metadataCache = new ConcurrentHashMap<>(1024);
 
+	private final Map<Method, MethodCacheMetadata[]> methodMetadataCache = new ConcurrentHashMap<>(1024);
+
+	private final Map<InFlightKey, CompletableFuture<Object>> inFlightLoads = new ConcurrentHashMap<>(64);
+
+	@Nullable
+	private final ReactiveCachingHandler reactiveCachingHandler =
+			(reactorPresent ? new ReactiveCachingHandler() : null);
+
 	private final CacheOperationExpressionEvaluator evaluator = new CacheOperationExpressionEvaluator();
 
 	@Nullable
@@ -102,6 +158,12 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 
 	private boolean initialized = false;
 
+	// Whether getOperationContext and getCaches have their default behavior
+	private final boolean defaultCacheResolution =
+			(isDeclaredHere("getOperationContext", CacheOperation.class, Method.class, Object[].class,
+					Object.class, Class.class) &&
+			isDeclaredHere("getCaches", CacheOperationInvocationContext.class, CacheResolver.class));
+
 
 	/**
 	 * Configure this aspect with the given error handler, key generator and cache resolver/manager
@@ -330,6 +392,7 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 	 */
 	protected void clearMetadataCache() {
 		this.metadataCache.clear();
+		this.methodMetadataCache.clear();
 		this.evaluator.clear();
 	}
 
@@ -340,10 +403,19 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 			Class<?> targetClass = getTargetClass(target);
 			CacheOperationSource cacheOperationSource = getCacheOperationSource();
 			if (cacheOperationSource != null) {
-				Collection<CacheOperation> operations = cacheOperationSource.getCacheOperations(method, targetClass);
-				if (!CollectionUtils.isEmpty(operations)) {
-					return execute(invoker, method,
-							new CacheOperationContexts(operations, method, args, target, targetClass));
+				MethodCacheMetadata methodMetadata = getMethodCacheMetadata(cacheOperationSource, method, targetClass);
+				CacheOperationMetadata simpleCacheable = methodMetadata.simpleCacheable;
+				if (simpleCacheable != null) {
+					List<? extends Cache> caches = (this.defaultCacheResolution ? simpleCacheable.getCaches() : null);
+					if (caches != null) {
+						return executeCacheable(invoker, method, target, args, simpleCacheable, caches);
+					}
+					CacheOperationContext context = getOperationContext(
+							simpleCacheable.operation, method, args, target, targetClass);
+					return executeCacheable(invoker, method, context);
+				}
+				if (methodMetadata.operations.length > 0) {
+					return execute(invoker, method, new CacheOperationContexts(methodMetadata, args, target));
 				}
 			}
 		}
@@ -351,6 +423,49 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		return invoker.invoke();
 	}
 
+	/**
+	 * Return the {@link MethodCacheMetadata} for the specified method and target
+	 * class, determining the cache operations and their metadata on first access.
+	 */
+	private MethodCacheMetadata getMethodCacheMetadata(
+			CacheOperationSource cacheOperationSource, Method method, Class<?> targetClass) {
+
+		MethodCacheMetadata[] candidates = this.methodMetadataCache.get(method);
+		if (candidates != null) {
+			for (MethodCacheMetadata candidate : candidates) {
+				if (candidate.targetClass == targetClass) {
+					return candidate;
+				}
+			}
+		}
+		Collection<CacheOperation> operations = cacheOperationSource.getCacheOperations(method, targetClass);
+		CacheOperationMetadata[] metadata;
+		if (CollectionUtils.isEmpty(operations)) {
+			metadata = new CacheOperationMetadata[0];
+		}
+		else {
+			metadata = new CacheOperationMetadata[operations.size()];
+			int i = 0;
+			for (CacheOperation operation : operations) {
+				metadata[i++] = getCacheOperationMetadata(operation, method, targetClass);
+			}
+		}
+		MethodCacheMetadata methodMetadata = new MethodCacheMetadata(method, targetClass, metadata,
+				(this.reactiveCachingHandler != null ?
+						ReactiveAdapterRegistry.getSharedInstance().getAdapter(method.getReturnType()) : null));
+		this.methodMetadataCache.merge(method, new MethodCacheMetadata[] {methodMetadata}, (existing, added) -> {
+			for (MethodCacheMetadata candidate : existing) {
+				if (candidate.targetClass == targetClass) {
+					return existing;
+				}
+			}
+			MethodCacheMetadata[] combined = Arrays.copyOf(existing, existing.length + 1);
+			combined[existing.length] = methodMetadata;
+			return combined;
+		});
+		return methodMetadata;
+	}
+
 	/**
 	 * Execute the underlying operation (typically in case of cache miss) and return
 	 * the result of the invocation. If an exception occurs it will be wrapped in a
@@ -365,12 +480,111 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		return invoker.invoke();
 	}
 
+	/**
+	 * Return whether this aspect is able to invoke the underlying method with
+	 * different arguments, as required for {@code @Cacheable(bulk=true)}: that
+	 * is, whether the invokers it passes to {@link #execute} implement
+	 * {@link CacheOperationInvoker#invoke(Object[])}.
+	 * <p>The default is {@code false}, rejecting bulk operations.
+	 * @since 5.2.5
+	 */
+	protected boolean isBulkInvocationSupported() {
+		return false;
+	}
+
 	private Class<?> getTargetClass(Object target) {
 		return AopProxyUtils.ultimateTargetClass(target);
 	}
 
+	/**
+	 * Determine whether the given method of this aspect is not overridden.
+	 */
+	private boolean isDeclaredHere(String methodName, Class<?>... paramTypes) {
+		Method method = ReflectionUtils.findMethod(getClass(), methodName, paramTypes);
+		return (method != null && method.getDeclaringClass() == CacheAspectSupport.class);
+	}
+
+	/**
+	 * Variant of {@link #execute(CacheOperationInvoker, Method, CacheOperationContexts)}
+	 * for a single {@code @Cacheable} operation without any expression and with
+	 * statically resolved caches, not requiring an invocation context.
+	 */
+	@Nullable
+	private Object executeCacheable(CacheOperationInvoker invoker, Method method, Object target,
+			Object[] args, CacheOperationMetadata metadata, List<? extends Cache> caches) {
+
+		Object key = metadata.keyGenerator.generate(target, metadata.method, args);
+		if (key == null) {
+			throw new IllegalArgumentException("Null key returned for cache operation (maybe you are " +
+					"using named params on classes without debug info?) " + metadata.operation);
+		}
+		if (logger.isTraceEnabled()) {
+			logger.trace("Computed cache key '" + key + "' for operation " + metadata.operation);
+		}
+
+		for (int i = 0; i < caches.size(); i++) {
+			Cache cache = caches.get(i);
+			Cache.ValueWrapper wrapper = doGet(cache, key);
+			if (wrapper != null) {
+				if (logger.isTraceEnabled()) {
+					logger.trace("Cache entry for key '" + key + "' found in cache '" + cache.getName() + "'");
+				}
+				return wrapCacheValue(method, wrapper.get());
+			}
+		}
+		if (logger.isTraceEnabled()) {
+			logger.trace("No cache entry for key '" + key + "' in cache(s) " + metadata.operation.getCacheNames());
+		}
+
+		Object returnValue = invokeOperation(invoker);
+		Object cacheValue = unwrapReturnValue(returnValue);
+		for (int i = 0; i < caches.size(); i++) {
+			doPut(caches.get(i), key, cacheValue);
+		}
+		return returnValue;
+	}
+
+	/**
+	 * Variant of {@link #execute(CacheOperationInvoker, Method, CacheOperationContexts)}
+	 * for a single {@code @Cacheable} operation without any expression, not requiring
+	 * the bookkeeping for combined operations.
+	 */
+	@Nullable
+	private Object executeCacheable(CacheOperationInvoker invoker, Method method, CacheOperationContext context) {
+		Object key = generateKey(context, CacheOperationExpressionEvaluator.NO_RESULT);
+		Collection<? extends Cache> caches = context.getCaches();
+		for (Cache cache : caches) {
+			Cache.ValueWrapper wrapper = doGet(cache, key);
+			if (wrapper != null) {
+				if (logger.isTraceEnabled()) {
+					logger.trace("Cache entry for key '" + key + "' found in cache '" + cache.getName() + "'");
+				}
+				return wrapCacheValue(method, wrapper.get());
+			}
+		}
+		if (logger.isTraceEnabled()) {
+			logger.trace("No cache entry for key '" + key + "' in cache(s) " + context.getCacheNames());
+		}
+
+		Object returnValue = invokeOperation(invoker);
+		Object cacheValue = unwrapReturnValue(returnValue);
+		for (Cache cache : caches) {
+			doPut(cache, key, cacheValue);
+		}
+		return returnValue;
+	}
+
 	@Nullable
 	private Object execute(final CacheOperationInvoker invoker, Method method, CacheOperationContexts contexts) {
+		// Asynchronous results: cache the eventual value rather than the handle
+		MethodCacheMetadata methodMetadata = contexts.getMethodMetadata();
+		if (methodMetadata.asyncResult) {
+			return executeAsync(invoker, contexts, result -> ((CompletionStage<?>) result).toCompletableFuture());
+		}
+		if (this.reactiveCachingHandler != null && methodMetadata.reactiveAdapter != null) {
+			return this.reactiveCachingHandler.executeReactive(invoker, methodMetadata.reactiveAdapter, contexts);
+		}
+
 		// Special handling of synchronized invocation
 		if (contexts.isSynchronized()) {
 			CacheOperationContext context = contexts.get(CacheableOperation.class).iterator().next();
@@ -392,6 +606,10 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 			}
 		}
 
+		// Special handling of bulk invocation
+		if (contexts.isBulk()) {
+			return executeBulk(invoker, method, contexts);
+		}
 
 		// Process any early evictions
 		processCacheEvicts(contexts.get(CacheEvictOperation.class), true,
@@ -435,6 +653,211 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		return returnValue;
 	}
 
+	/**
+	 * Variant of {@link #execute(CacheOperationInvoker, Method, CacheOperationContexts)}
+	 * for {@code @Cacheable(bulk=true)}: look up each element of the collection
+	 * argument and invoke the method for the missing elements only.
+	 * @return a map with the cached and the loaded values, in the order of the
+	 * requested elements
+	 */
+	@Nullable
+	private Object executeBulk(CacheOperationInvoker invoker, Method method, CacheOperationContexts contexts) {
+		CacheOperationContext context = contexts.get(CacheableOperation.class).iterator().next();
+		Object[] args = contexts.getArgs();
+		int index = contexts.getBulkArgumentIndex();
+		Collection<?> elements = (Collection<?>) args[index];
+		if (elements == null || !isConditionPassing(context, CacheOperationExpressionEvaluator.NO_RESULT)) {
+			// No caching required, only call the underlying method
+			return invokeOperation(invoker);
+		}
+
+		// Determine the cache key of each element, remembering the elements still missing per key
+		Map<Object, Object> elementKeys = new HashMap<>(elements.size());
+		Map<Object, Object> missingElements = new LinkedHashMap<>(elements.size());
+		for (Object element : elements) {
+			Object key = generateBulkKey(context, element);
+			elementKeys.put(element, key);
+			missingElements.put(key, element);
+		}
+
+		// Consult each cache for the elements that are still missing
+		Map<Object, Object> cachedValues = new HashMap<>(elements.size());
+		for (Cache cache : context.getCaches()) {
+			if (missingElements.isEmpty()) {
+				break;
+			}
+			Map<Object, Cache.ValueWrapper> cacheHits = doGetAll(cache, new ArrayList<>(missingElements.keySet()));
+			cacheHits.forEach((key, wrapper) -> {
+				if (missingElements.containsKey(key)) {
+					cachedValues.put(missingElements.remove(key), wrapper.get());
+				}
+			});
+		}
+
+		// Invoke the method for the missing elements, passed in place of the original argument
+		Map<?, ?> loadedValues = Collections.emptyMap();
+		if (!missingElements.isEmpty()) {
+			Collection<Object> missingArg = CollectionFactory.createCollection(
+					method.getParameterTypes()[index], missingElements.size());
+			missingArg.addAll(missingElements.values());
+			Object[] missingArgs = args.clone();
+			missingArgs[index] = missingArg;
+			Object returnValue = invokeOperation(() -> invoker.invoke(missingArgs));
+			if (returnValue != null) {
+				loadedValues = (Map<?, ?>) returnValue;
+				Map<Object, Object> cacheableValues = new LinkedHashMap<>(loadedValues.size());
+				loadedValues.forEach((element, value) -> {
+					if (context.canPutToCache(value)) {
+						Object key = elementKeys.get(element);
+						cacheableValues.put((key != null ? key : generateBulkKey(context, element)), value);
+					}
+				});
+				if (!cacheableValues.isEmpty()) {
+					for (Cache cache : context.getCaches()) {
+						doPutAll(cache, cacheableValues);
+					}
+				}
+			}
+		}
+
+		// Merge cached and loaded values in the order of the requested elements
+		Map<Object, Object> result = new LinkedHashMap<>(elements.size());
+		for (Object element : elements) {
+			if (cachedValues.containsKey(element)) {
+				result.put(element, cachedValues.get(element));
+			}
+			else if (loadedValues.containsKey(element)) {
+				result.put(element, loadedValues.get(element));
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Variant of {@link #execute(CacheOperationInvoker, Method, CacheOperationContexts)}
+	 * for methods with an asynchronous result, operating on the eventual value.
+	 * @param toFuture adapts the result of the method to a future for the value to cache
+	 * @return a future for the cached or the freshly obtained value
+	 */
+	private CompletableFuture<?> executeAsync(CacheOperationInvoker invoker, CacheOperationContexts contexts,
+			Function<Object, CompletableFuture<?>> toFuture) {
+
+		if (contexts.isSynchronized()) {
+			CacheOperationContext context = contexts.get(CacheableOperation.class).iterator().next();
+			if (isConditionPassing(context, CacheOperationExpressionEvaluator.NO_RESULT)) {
+				Object key = generateKey(context, CacheOperationExpressionEvaluator.NO_RESULT);
+				Cache cache = context.getCaches().iterator().next();
+				return cache.retrieve(key, () -> invokeAsyncOperation(invoker, toFuture));
+			}
+			else {
+				return invokeAsyncOperation(invoker, toFuture);
+			}
+		}
+
+		// Process any early evictions
+		processCacheEvicts(contexts.get(CacheEvictOperation.class), true,
+				CacheOperationExpressionEvaluator.NO_RESULT);
+
+		// Look up the cacheable operations that pass the condition, in order
+		Collection<CacheOperationContext> cacheableContexts = contexts.get(CacheableOperation.class);
+		CompletableFuture<Cache.ValueWrapper> cacheHit = CompletableFuture.completedFuture(null);
+		InFlightKey inFlightKey = null;
+		for (CacheOperationContext context : cacheableContexts) {
+			if (isConditionPassing(context, CacheOperationExpressionEvaluator.NO_RESULT)) {
+				Object key = generateKey(context, CacheOperationExpressionEvaluator.NO_RESULT);
+				for (Cache cache : context.getCaches()) {
+					if (inFlightKey == null) {
+						inFlightKey = new InFlightKey(cache, key);
+					}
+					cacheHit = cacheHit.thenCompose(wrapper ->
+							(wrapper != null ? CompletableFuture.completedFuture(wrapper) : doRetrieve(cache, key)));
+				}
+			}
+		}
+		boolean hasCachePut = hasCachePut(contexts);
+		boolean sharedLoad = (inFlightKey != null && contexts.get(CachePutOperation.class).isEmpty() &&
+				contexts.get(CacheEvictOperation.class).isEmpty());
+		InFlightKey loadKey = inFlightKey;
+
+		return cacheHit.thenCompose(wrapper -> {
+			if (wrapper != null && !hasCachePut) {
+				// If there are no put requests, just use the cache hit
+				return CompletableFuture.completedFuture(wrapper.get());
+			}
+			List<CachePutRequest> cachePutRequests = new LinkedList<>();
+			if (wrapper == null) {
+				collectPutRequests(cacheableContexts, CacheOperationExpressionEvaluator.NO_RESULT, cachePutRequests);
+			}
+			if (!sharedLoad) {
+				return invokeAsyncOperation(invoker, toFuture).thenApply(cacheValue -> {
+					processCacheUpdates(contexts, cachePutRequests, cacheValue);
+					return cacheValue;
+				});
+			}
+			// Pure cache miss: concurrent callers for the same key share a single invocation
+			CompletableFuture<Object> load = new CompletableFuture<>();
+			CompletableFuture<Object> existingLoad = this.inFlightLoads.putIfAbsent(loadKey, load);
+			if (existingLoad != null) {
+				return existingLoad;
+			}
+			invokeAsyncOperation(invoker, toFuture).whenComplete((cacheValue, ex) -> {
+				Throwable failure = ex;
+				try {
+					if (failure == null) {
+						processCacheUpdates(contexts, cachePutRequests, cacheValue);
+					}
+				}
+				catch (Throwable updateEx) {
+					// Complete the shared load in any case: joined callers would wait forever otherwise
+					failure = updateEx;
+				}
+				finally {
+					this.inFlightLoads.remove(loadKey, load);
+				}
+				if (failure != null) {
+					load.completeExceptionally(failure instanceof CompletionException && failure.getCause() != null ?
+							failure.getCause() : failure);
+				}
+				else {
+					load.complete(cacheValue);
+				}
+			});
+			return load;
+		});
+	}
+
+	/**
+	 * Invoke the underlying operation and adapt its result to a future for the
+	 * value to cache, exposing an exception from the invocation through the future.
+	 */
+	private CompletableFuture<?> invokeAsyncOperation(
+			CacheOperationInvoker invoker, Function<Object, CompletableFuture<?>> toFuture) {
+
+		try {
+			Object result = invokeOperation(invoker);
+			return (result != null ? toFuture.apply(result) : CompletableFuture.completedFuture(null));
+		}
+		catch (CacheOperationInvoker.ThrowableWrapper ex) {
+			CompletableFuture<Object> failed = new CompletableFuture<>();
+			failed.completeExceptionally(ex.getOriginal());
+			return failed;
+		}
+	}
+
+	/**
+	 * Apply the collected put requests plus any explicit {@code @CachePut}
+	 * and late evictions for the given eventual value of an asynchronous result.
+	 */
+	private void processCacheUpdates(CacheOperationContexts contexts,
+			List<CachePutRequest> cachePutRequests, @Nullable Object cacheValue) {
+
+		collectPutRequests(contexts.get(CachePutOperation.class), cacheValue, cachePutRequests);
+		for (CachePutRequest cachePutRequest : cachePutRequests) {
+			cachePutRequest.apply(cacheValue);
+		}
+		processCacheEvicts(contexts.get(CacheEvictOperation.class), false, cacheValue);
+	}
+
 	@Nullable
 	private Object wrapCacheValue(Method method, @Nullable Object cacheValue) {
 		if (method.getReturnType() == Optional.class &&
@@ -449,6 +872,14 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		return ObjectUtils.unwrapOptional(returnValue);
 	}
 
+	private static Collection<String> createCacheNames(Collection<? extends Cache> caches) {
+		Collection<String> names = new ArrayList<>();
+		for (Cache cache : caches) {
+			names.add(cache.getName());
+		}
+		return names;
+	}
+
 	private boolean hasCachePut(CacheOperationContexts contexts) {
 		// Evaluate the conditions *without* the result object because we don't have it yet...
 		Collection<CacheOperationContext> cachePutContexts = contexts.get(CachePutOperation.class);
@@ -571,6 +1002,20 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		return passing;
 	}
 
+	private Object generateBulkKey(CacheOperationContext context, @Nullable Object element) {
+		CacheOperationMetadata metadata = context.metadata;
+		Object key = metadata.keyGenerator.generate(context.getTarget(), metadata.method, new Object[] {element});
+		if (key == null) {
+			throw new IllegalArgumentException(
+					"Null key returned for element [" + element + "] of cache operation " + metadata.operation);
+		}
+		if (logger.isTraceEnabled()) {
+			logger.trace("Computed cache key '" + key + "' for element [" + element + "] of operation " +
+					metadata.operation);
+		}
+		return key;
+	}
+
 	private Object generateKey(CacheOperationContext context, @Nullable Object result) {
 		Object key = context.generateKey(result);
 		if (key == null) {
@@ -586,18 +1031,30 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 
 	private class CacheOperationContexts {
 
+		private final MethodCacheMetadata methodMetadata;
+
 		private final MultiValueMap<Class<? extends CacheOperation>, CacheOperationContext> contexts;
 
 		private final boolean sync;
 
-		public CacheOperationContexts(Collection<? extends CacheOperation> operations, Method method,
-				Object[] args, Object target, Class<?> targetClass) {
+		private final Object[] args;
 
-			this.contexts = new LinkedMultiValueMap<>(operations.size());
-			for (CacheOperation op : operations) {
-				this.contexts.add(op.getClass(), getOperationContext(op, method, args, target, targetClass));
+		private final int bulkArgumentIndex;
+
+		public CacheOperationContexts(MethodCacheMetadata methodMetadata, Object[] args, Object target) {
+			this.methodMetadata = methodMetadata;
+			this.contexts = new LinkedMultiValueMap<>(methodMetadata.operations.length);
+			for (CacheOperationMetadata metadata : methodMetadata.operations) {
+				this.contexts.add(metadata.operation.getClass(), getOperationContext(
+						metadata.operation, methodMetadata.method, args, target, methodMetadata.targetClass));
 			}
-			this.sync = determineSyncFlag(method);
+			this.sync = determineSyncFlag(methodMetadata.method);
+			this.args = args;
+			this.bulkArgumentIndex = determineBulkArgumentIndex(methodMetadata.method);
+		}
+
+		public MethodCacheMetadata getMethodMetadata() {
+			return this.methodMetadata;
 		}
 
 		public Collection<CacheOperationContext> get(Class<? extends CacheOperation> operationClass) {
@@ -609,6 +1066,18 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 			return this.sync;
 		}
 
+		public boolean isBulk() {
+			return (this.bulkArgumentIndex >= 0);
+		}
+
+		public Object[] getArgs() {
+			return this.args;
+		}
+
+		public int getBulkArgumentIndex() {
+			return this.bulkArgumentIndex;
+		}
+
 		private boolean determineSyncFlag(Method method) {
 			List<CacheOperationContext> cacheOperationContexts = this.contexts.get(CacheableOperation.class);
 			if (cacheOperationContexts == null) {  // no @Cacheable operation at all
@@ -644,6 +1113,57 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 			}
 			return false;
 		}
+
+		private int determineBulkArgumentIndex(Method method) {
+			List<CacheOperationContext> cacheOperationContexts = this.contexts.get(CacheableOperation.class);
+			if (cacheOperationContexts == null) {  // no @Cacheable operation at all
+				return -1;
+			}
+			boolean bulkEnabled = false;
+			for (CacheOperationContext cacheOperationContext : cacheOperationContexts) {
+				if (((CacheableOperation) cacheOperationContext.getOperation()).isBulk()) {
+					bulkEnabled = true;
+					break;
+				}
+			}
+			if (!bulkEnabled) {
+				return -1;
+			}
+			if (!isBulkInvocationSupported()) {
+				throw new IllegalStateException("@Cacheable(bulk=true) is not supported by " +
+						getClass().getName() + " on '" + method + "'");
+			}
+			if (this.contexts.size() > 1) {
+				throw new IllegalStateException(
+						"@Cacheable(bulk=true) cannot be combined with other cache operations on '" + method + "'");
+			}
+			if (cacheOperationContexts.size() > 1) {
+				throw new IllegalStateException(
+						"Only one @Cacheable(bulk=true) entry is allowed on '" + method + "'");
+			}
+			CacheableOperation operation = (CacheableOperation) cacheOperationContexts.iterator().next().getOperation();
+			if (operation.isSync()) {
+				throw new IllegalStateException(
+						"@Cacheable(bulk=true) cannot be combined with sync=true on '" + operation + "'");
+			}
+			if (StringUtils.hasText(operation.getKey())) {
+				throw new IllegalStateException(
+						"@Cacheable(bulk=true) does not support key attribute on '" + operation + "'");
+			}
+			Class<?> returnType = method.getReturnType();
+			if (!Map.class.isAssignableFrom(returnType) || !returnType.isAssignableFrom(LinkedHashMap.class)) {
+				throw new IllegalStateException(
+						"@Cacheable(bulk=true) requires a java.util.Map return type on '" + method + "'");
+			}
+			Class<?>[] parameterTypes = method.getParameterTypes();
+			for (int i = 0; i < parameterTypes.length; i++) {
+				if (Collection.class.isAssignableFrom(parameterTypes[i])) {
+					return i;
+				}
+			}
+			throw new IllegalStateException(
+					"@Cacheable(bulk=true) requires a java.util.Collection parameter on '" + method + "'");
+		}
 	}
 
 
@@ -667,6 +1187,12 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 
 		private final CacheResolver cacheResolver;
 
+		@Nullable
+		private final String[] staticCacheNames;
+
+		@Nullable
+		private volatile List<? extends Cache> staticCaches;
+
 		public CacheOperationMetadata(CacheOperation operation, Method method, Class<?> targetClass,
 				KeyGenerator keyGenerator, CacheResolver cacheResolver) {
 
@@ -678,6 +1204,115 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 			this.methodKey = new AnnotatedElementKey(this.targetMethod, targetClass);
 			this.keyGenerator = keyGenerator;
 			this.cacheResolver = cacheResolver;
+			this.staticCacheNames = (cacheResolver.getClass() == SimpleCacheResolver.class &&
+					!operation.getCacheNames().isEmpty() ? StringUtils.toStringArray(operation.getCacheNames()) : null);
+			this.staticCaches = resolveStaticCaches();
+		}
+
+		/**
+		 * Return the caches of this operation if they only depend on the operation:
+		 * that is, for a plain {@link SimpleCacheResolver}. Caches resolved before
+		 * are checked for identity against the current ones of the cache manager.
+		 * @return the resolved caches, or {@code null} if they have to be
+		 * resolved for each invocation
+		 */
+		@Nullable
+		List<? extends Cache> getCaches() {
+			List<? extends Cache> caches = this.staticCaches;
+			String[] names = this.staticCacheNames;
+			if (names == null) {
+				return null;
+			}
+			if (caches != null) {
+				CacheManager cacheManager = ((SimpleCacheResolver) this.cacheResolver).getCacheManager();
+				for (int i = 0; i < names.length; i++) {
+					if (cacheManager.getCache(names[i]) != caches.get(i)) {
+						caches = null;
+						break;
+					}
+				}
+			}
+			if (caches == null) {
+				caches = resolveStaticCaches();
+				this.staticCaches = caches;
+			}
+			return caches;
+		}
+
+		@Nullable
+		private List<? extends Cache> resolveStaticCaches() {
+			String[] names = this.staticCacheNames;
+			if (names == null) {
+				return null;
+			}
+			CacheManager cacheManager = ((SimpleCacheResolver) this.cacheResolver).getCacheManager();
+			List<Cache> caches = new ArrayList<>(names.length);
+			for (String name : names) {
+				Cache cache = cacheManager.getCache(name);
+				if (cache == null) {
+					// Leave it up to the invocation to report the missing cache
+					return null;
+				}
+				caches.add(cache);
+			}
+			return Collections.unmodifiableList(caches);
+		}
+	}
+
+
+	/**
+	 * Cache operations of a method for a particular target class, along with
+	 * the characteristics of the method that determine how to execute them.
+	 */
+	private static final class MethodCacheMetadata {
+
+		private final Method method;
+
+		private final Class<?> targetClass;
+
+		private final CacheOperationMetadata[] operations;
+
+		private final boolean asyncResult;
+
+		@Nullable
+		private final ReactiveAdapter reactiveAdapter;
+
+		@Nullable
+		private final CacheOperationMetadata simpleCacheable;
+
+		public MethodCacheMetadata(Method method, Class<?> targetClass,
+				CacheOperationMetadata[] operations, @Nullable ReactiveAdapter reactiveAdapter) {
+
+			Class<?> returnType = method.getReturnType();
+			this.method = method;
+			this.targetClass = targetClass;
+			this.operations = operations;
+			this.asyncResult = (CompletionStage.class.isAssignableFrom(returnType) &&
+					returnType.isAssignableFrom(CompletableFuture.class));
+			this.reactiveAdapter = (reactiveAdapter != null && !reactiveAdapter.isNoValue() ? reactiveAdapter : null);
+			this.simpleCacheable = determineSimpleCacheable();
+		}
+
+		/**
+		 * Determine the single {@code @Cacheable} operation that can be executed
+		 * without an invocation context, if any.
+		 */
+		@Nullable
+		private CacheOperationMetadata determineSimpleCacheable() {
+			if (this.operations.length != 1 || this.asyncResult || this.reactiveAdapter != null ||
+					this.method.isVarArgs()) {
+				return null;
+			}
+			CacheOperationMetadata metadata = this.operations[0];
+			if (!(metadata.operation instanceof CacheableOperation)) {
+				return null;
+			}
+			CacheableOperation operation = (CacheableOperation) metadata.operation;
+			if (operation.isSync() || operation.isBulk() || StringUtils.hasText(operation.getKey()) ||
+					StringUtils.hasText(operation.getCondition()) || StringUtils.hasText(operation.getUnless())) {
+				return null;
+			}
+			return metadata;
 		}
 	}
 
@@ -695,7 +1330,8 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 
 		private final Collection<? extends Cache> caches;
 
-		private final Collection<String> cacheNames;
+		@Nullable
+		private Collection<String> cacheNames;
 
 		@Nullable
 		private Boolean conditionPassing;
@@ -705,7 +1341,6 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 			this.args = extractArgs(metadata.method, args);
 			this.target = target;
 			this.caches = CacheAspectSupport.this.getCaches(this, metadata.cacheResolver);
-			this.cacheNames = createCacheNames(this.caches);
 		}
 
 		@Override
@@ -790,15 +1425,12 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		}
 
 		protected Collection<String> getCacheNames() {
-			return this.cacheNames;
-		}
-
-		private Collection<String> createCacheNames(Collection<? extends Cache> caches) {
-			Collection<String> names = new ArrayList<>();
-			for (Cache cache : caches) {
-				names.add(cache.getName());
+			Collection<String> cacheNames = this.cacheNames;
+			if (cacheNames == null) {
+				cacheNames = createCacheNames(this.caches);
+				this.cacheNames = cacheNames;
 			}
-			return names;
+			return cacheNames;
 		}
 	}
 
@@ -824,6 +1456,64 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 	}
 
 
+	/**
+	 * Inner class to avoid a hard dependency on Reactor at runtime.
+	 */
+	private class ReactiveCachingHandler {
+
+		@SuppressWarnings({"rawtypes", "unchecked"})
+		public Object executeReactive(
+				CacheOperationInvoker invoker, ReactiveAdapter adapter, CacheOperationContexts contexts) {
+
+			if (adapter.isMultiValue()) {
+				// Cache the emitted elements as a List, replaying them for a cache hit
+				Flux<?> flux = Mono.defer(() -> Mono.fromFuture(executeAsync(invoker, contexts,
+						result -> Flux.from(adapter.toPublisher(result)).collectList().toFuture())))
+						.flatMapIterable(list -> (List<Object>) list);
+				return adapter.fromPublisher(flux);
+			}
+			else {
+				Mono<?> mono = Mono.defer(() -> Mono.fromFuture((CompletableFuture) executeAsync(invoker, contexts,
+						result -> Mono.from(adapter.toPublisher(result)).toFuture())));
+				return adapter.fromPublisher(mono);
+			}
+		}
+	}
+
+
+	/**
+	 * Key for an in-flight load of a value to cache.
+	 */
+	private static final class InFlightKey {
+
+		private final Cache cache;
+
+		private final Object key;
+
+		public InFlightKey(Cache cache, Object key) {
+			this.cache = cache;
+			this.key = key;
+		}
+
+		@Override
+		public boolean equals(@Nullable Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof InFlightKey)) {
+				return false;
+			}
+			InFlightKey otherKey = (InFlightKey) other;
+			return (this.cache == otherKey.cache && this.key.equals(otherKey.key));
+		}
+
+		@Override
+		public int hashCode() {
+			return (System.identityHashCode(this.cache) * 31 + this.key.hashCode());
+		}
+	}
+
+
 	private static final class CacheOperationCacheKey implements Comparable<CacheOperationCacheKey> {
 
 		private final CacheOperation cacheOperation;
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -38,6 +38,22 @@ public interface CacheOperationInvoker {
 	 */
 	Object invoke() throws ThrowableWrapper;
 
+	/**
+	 * Invoke the cache operation defined by this instance with the given
+	 * arguments in place of the original ones, as needed for
+	 * {@code @Cacheable(bulk=true)}. Wraps any exception that is thrown during
+	 * the invocation in a {@link ThrowableWrapper}.
+	 * <p>The default implementation throws an {@link UnsupportedOperationException}.
+	 * @param args the arguments to invoke the underlying method with
+	 * @return the result of the operation
+	 * @throws ThrowableWrapper if an error occurred while invoking the operation
+	 * @since 5.2.5
+	 * @see CacheAspectSupport#isBulkInvocationSupported()
+	 */
+	default Object invoke(Object[] args) throws ThrowableWrapper {
+		throw new UnsupportedOperationException("Invocation with different arguments not supported");
+	}
+
 
 	/**
 	 * Wrap any exception thrown while invoking {@link #invoke()}.
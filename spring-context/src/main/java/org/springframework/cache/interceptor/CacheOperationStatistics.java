@@ -0,0 +1,137 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.interceptor;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.LatencyHistogram;
+
+/**
+ * Latencies of the {@link org.springframework.cache.Cache} operations performed
+ * by a cache aspect, with a {@link LatencyHistogram} per cache and
+ * {@link Operation type of operation}.
+ *
+ * <p>Can be shared between several cache aspects.
+ *
+ * @since 5.2.5
+ * @see AbstractCacheInvoker#setOperationStatistics
+ */
+public class CacheOperationStatistics {
+
+	private static final Operation[] OPERATIONS = Operation.values();
+
+
+	private final Map<String, LatencyHistogram[]> latencies = new ConcurrentHashMap<>(16);
+
+
+	/**
+	 * Record the latency of an operation on the specified cache.
+	 * @param cacheName the name of the cache
+	 * @param operation the type of operation
+	 * @param nanos the latency of the operation, in nanoseconds
+	 */
+	public void record(String cacheName, Operation operation, long nanos) {
+		LatencyHistogram[] histograms = this.latencies.get(cacheName);
+		if (histograms == null) {
+			histograms = this.latencies.computeIfAbsent(cacheName, name -> {
+				LatencyHistogram[] created = new LatencyHistogram[OPERATIONS.length];
+				for (int i = 0; i < created.length; i++) {
+					created[i] = new LatencyHistogram();
+				}
+				return created;
+			});
+		}
+		histograms[operation.ordinal()].record(nanos);
+	}
+
+	/**
+	 * Return the names of the caches that operations have been recorded for.
+	 */
+	public Set<String> getCacheNames() {
+		return Collections.unmodifiableSet(this.latencies.keySet());
+	}
+
+	/**
+	 * Return the latencies of the given type of operation on the specified cache.
+	 * @param cacheName the name of the cache
+	 * @param operation the type of operation
+	 * @return the histogram of latencies, or {@code null} if no operation
+	 * has been recorded for that cache
+	 */
+	@Nullable
+	public LatencyHistogram getLatency(String cacheName, Operation operation) {
+		LatencyHistogram[] histograms = this.latencies.get(cacheName);
+		return (histograms != null ? histograms[operation.ordinal()] : null);
+	}
+
+	/**
+	 * Discard all recorded latencies.
+	 */
+	public void reset() {
+		this.latencies.clear();
+	}
+
+
+	/**
+	 * Type of cache operation.
+	 */
+	public enum Operation {
+
+		/**
+		 * {@link org.springframework.cache.Cache#get(Object)}.
+		 */
+		GET,
+
+		/**
+		 * {@link org.springframework.cache.Cache#getAll(java.util.Collection)}.
+		 */
+		GET_ALL,
+
+		/**
+		 * {@link org.springframework.cache.Cache#retrieve(Object)}, until
+		 * completion of the returned future.
+		 */
+		RETRIEVE,
+
+		/**
+		 * {@link org.springframework.cache.Cache#put(Object, Object)}.
+		 */
+		PUT,
+
+		/**
+		 * {@link org.springframework.cache.Cache#putAll(Map)}.
+		 */
+		PUT_ALL,
+
+		/**
+		 * {@link org.springframework.cache.Cache#evict(Object)} or
+		 * {@link org.springframework.cache.Cache#evictIfPresent(Object)}.
+		 */
+		EVICT,
+
+		/**
+		 * {@link org.springframework.cache.Cache#clear()} or
+		 * {@link org.springframework.cache.Cache#invalidate()}.
+		 */
+		CLEAR
+	}
+
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.jmx;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.CacheOperationStatistics;
+import org.springframework.jmx.export.MBeanExportException;
+import org.springframework.jmx.export.MBeanExporter;
+import org.springframework.jmx.support.ObjectNameManager;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Exports a {@link ManagedCacheStatistics} MBean through an {@link MBeanExporter}
+ * for each cache of a {@link CacheManager} that records statistics, under the
+ * object name {@code <domain>:type=CacheStatistics,cacheManager=<cacheManagerName>,name=<cacheName>}.
+ *
+ * <p>The MBeans are registered once all singletons have been instantiated, for
+ * the caches known to the cache manager at that time, and unregistered when
+ * this exporter is destroyed.
+ *
+ * @since 5.2.5
+ * @see CacheManager#getCacheStatistics()
+ * @see org.springframework.cache.support.StatisticsCacheManagerProxy
+ */
+public class CacheStatisticsExporter implements InitializingBean, SmartInitializingSingleton, DisposableBean {
+
+	/**
+	 * The default JMX domain of the exported MBeans.
+	 */
+	public static final String DEFAULT_DOMAIN = "org.springframework.cache";
+
+
+	@Nullable
+	private CacheManager cacheManager;
+
+	@Nullable
+	private MBeanExporter mbeanExporter;
+
+	private String domain = DEFAULT_DOMAIN;
+
+	private String cacheManagerName = "cacheManager";
+
+	@Nullable
+	private CacheOperationStatistics operationStatistics;
+
+	private final List<ObjectName> registeredObjectNames = new ArrayList<>();
+
+
+	/**
+	 * Set the cache manager whose cache statistics to export.
+	 */
+	public void setCacheManager(CacheManager cacheManager) {
+		this.cacheManager = cacheManager;
+	}
+
+	/**
+	 * Set the exporter to register the MBeans with.
+	 */
+	public void setMBeanExporter(MBeanExporter mbeanExporter) {
+		this.mbeanExporter = mbeanExporter;
+	}
+
+	/**
+	 * Set the JMX domain of the exported MBeans.
+	 * <p>Default is {@value #DEFAULT_DOMAIN}.
+	 */
+	public void setDomain(String domain) {
+		Assert.hasText(domain, "Domain must not be empty");
+		this.domain = domain;
+	}
+
+	/**
+	 * Set the name of the cache manager to use in the object names,
+	 * distinguishing the caches of several cache managers.
+	 * <p>Default is "cacheManager".
+	 */
+	public void setCacheManagerName(String cacheManagerName) {
+		Assert.hasText(cacheManagerName, "Cache manager name must not be empty");
+		this.cacheManagerName = cacheManagerName;
+	}
+
+	/**
+	 * Set the latencies of cache operations to expose along with
+	 * the statistics of each cache.
+	 * @see org.springframework.cache.interceptor.AbstractCacheInvoker#setOperationStatistics
+	 */
+	public void setOperationStatistics(@Nullable CacheOperationStatistics operationStatistics) {
+		this.operationStatistics = operationStatistics;
+	}
+
+	@Override
+	public void afterPropertiesSet() {
+		if (this.cacheManager == null) {
+			throw new IllegalArgumentException("Property 'cacheManager' is required");
+		}
+		if (this.mbeanExporter == null) {
+			throw new IllegalArgumentException("Property 'mbeanExporter' is required");
+		}
+	}
+
+
+	@Override
+	public void afterSingletonsInstantiated() {
+		Assert.state(this.cacheManager != null, "No CacheManager set");
+		Assert.state(this.mbeanExporter != null, "No MBeanExporter set");
+		for (String cacheName : this.cacheManager.getCacheStatistics().keySet()) {
+			ObjectName objectName = getObjectName(cacheName);
+			this.mbeanExporter.registerManagedResource(
+					new ManagedCacheStatistics(this.cacheManager, cacheName, this.operationStatistics), objectName);
+			this.registeredObjectNames.add(objectName);
+		}
+	}
+
+	/**
+	 * Build the object name for the statistics of the specified cache.
+	 * @param cacheName the name of the cache
+	 * @return the object name
+	 * @throws MBeanExportException if the object name is invalid
+	 */
+	protected ObjectName getObjectName(String cacheName) {
+		try {
+			return ObjectNameManager.getInstance(this.domain + ":type=CacheStatistics,cacheManager=" +
+					ObjectName.quote(this.cacheManagerName) + ",name=" + ObjectName.quote(cacheName));
+		}
+		catch (MalformedObjectNameException ex) {
+			throw new MBeanExportException("Invalid object name for statistics of cache '" + cacheName + "'", ex);
+		}
+	}
+
+	@Override
+	public void destroy() {
+		if (this.mbeanExporter != null) {
+			for (ObjectName objectName : this.registeredObjectNames) {
+				this.mbeanExporter.unregisterManagedResource(objectName);
+			}
+		}
+		this.registeredObjectNames.clear();
+	}
+
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.jmx;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.CacheStatistics;
+import org.springframework.cache.interceptor.CacheOperationStatistics;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.LatencyHistogram;
+
+/**
+ * Management view of the {@link CacheStatistics} of a single cache, for
+ * export as an MBean. Every attribute reflects the current statistics of
+ * the cache as returned by its {@link CacheManager}.
+ *
+ * @since 5.2.5
+ * @see CacheStatisticsExporter
+ */
+@ManagedResource(description = "Cache statistics")
+public class ManagedCacheStatistics {
+
+	private final CacheManager cacheManager;
+
+	private final String cacheName;
+
+	@Nullable
+	private final CacheOperationStatistics operationStatistics;
+
+
+	/**
+	 * Create a new ManagedCacheStatistics for the specified cache.
+	 * @param cacheManager the cache manager to obtain the cache from
+	 * @param cacheName the name of the cache
+	 * @param operationStatistics the latencies of cache operations to expose
+	 * along with the statistics of the cache, if any
+	 */
+	public ManagedCacheStatistics(CacheManager cacheManager, String cacheName,
+			@Nullable CacheOperationStatistics operationStatistics) {
+
+		Assert.notNull(cacheManager, "CacheManager must not be null");
+		Assert.notNull(cacheName, "Cache name must not be null");
+		this.cacheManager = cacheManager;
+		this.cacheName = cacheName;
+		this.operationStatistics = operationStatistics;
+	}
+
+
+	@ManagedAttribute(description = "Name of the cache")
+	public String getCacheName() {
+		return this.cacheName;
+	}
+
+	@ManagedAttribute(description = "Number of lookups that found a cached value")
+	public long getHitCount() {
+		return getStatistics().getHitCount();
+	}
+
+	@ManagedAttribute(description = "Number of lookups that did not find a cached value")
+	public long getMissCount() {
+		return getStatistics().getMissCount();
+	}
+
+	@ManagedAttribute(description = "Number of lookups")
+	public long getRequestCount() {
+		return getStatistics().getRequestCount();
+	}
+
+	@ManagedAttribute(description = "Ratio of lookups that found a cached value")
+	public double getHitRatio() {
+		return getStatistics().getHitRatio();
+	}
+
+	@ManagedAttribute(description = "Ratio of lookups that did not find a cached value")
+	public double getMissRatio() {
+		return getStatistics().getMissRatio();
+	}
+
+	@ManagedAttribute(description = "Number of values put into the cache")
+	public long getPutCount() {
+		return getStatistics().getPutCount();
+	}
+
+	@ManagedAttribute(description = "Number of entries removed from the cache")
+	public long getEvictionCount() {
+		return getStatistics().getEvictionCount();
+	}
+
+	@ManagedAttribute(description = "Number of values successfully loaded on a cache miss")
+	public long getLoadSuccessCount() {
+		return getStatistics().getLoadSuccessCount();
+	}
+
+	@ManagedAttribute(description = "Number of failed attempts to load a value")
+	public long getLoadFailureCount() {
+		return getStatistics().getLoadFailureCount();
+	}
+
+	@ManagedAttribute(description = "Time spent loading values, in nanoseconds")
+	public long getTotalLoadTime() {
+		return getStatistics().getTotalLoadTime();
+	}
+
+	@ManagedAttribute(description = "Average time spent loading a value, in nanoseconds")
+	public double getAverageLoadPenalty() {
+		return getStatistics().getAverageLoadPenalty();
+	}
+
+	@ManagedAttribute(description = "Latencies of the operations on the cache, per type of operation")
+	public String[] getOperationLatencies() {
+		if (this.operationStatistics == null) {
+			return new String[0];
+		}
+		List<String> latencies = new ArrayList<>();
+		for (CacheOperationStatistics.Operation operation : CacheOperationStatistics.Operation.values()) {
+			LatencyHistogram histogram = this.operationStatistics.getLatency(this.cacheName, operation);
+			if (histogram != null && histogram.getCount() > 0) {
+				latencies.add(operation + ": " + histogram);
+			}
+		}
+		return latencies.toArray(new String[0]);
+	}
+
+	/**
+	 * Return the current statistics of the cache, or
+	 * {@link CacheStatistics#EMPTY} if the cache does not record any.
+	 */
+	public CacheStatistics getStatistics() {
+		Cache cache = this.cacheManager.getCache(this.cacheName);
+		CacheStatistics statistics = (cache != null ? cache.getStatistics() : null);
+		return (statistics != null ? statistics : CacheStatistics.EMPTY);
+	}
+
+}
@@ -0,0 +1,10 @@
+/**
+ * Support for exporting the statistics of caches and cache operations
+ * through JMX.
+ */
+@NonNullApi
+@NonNullFields
+package org.springframework.cache.jmx;
+
+import org.springframework.lang.NonNullApi;
+import org.springframework.lang.NonNullFields;
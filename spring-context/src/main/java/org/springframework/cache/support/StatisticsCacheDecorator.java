@@ -0,0 +1,247 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.support;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheStatistics;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Cache decorator which records {@link CacheStatistics} for a target
+ * {@link Cache} that does not record statistics itself.
+ *
+ * <p>Counts hits and misses of all lookups, values put into the cache, and
+ * loads through {@link #get(Object, Callable)} and
+ * {@link #retrieve(Object, Supplier)}, including the time spent loading.
+ * Only explicit evictions of individual entries can be counted: entries
+ * removed by {@link #clear()} or by the target cache itself, for example on
+ * expiration, are not reflected in the {@link CacheStatistics#getEvictionCount()
+ * eviction count}.
+ *
+ * @since 5.2.5
+ * @see StatisticsCacheManagerProxy
+ */
+public class StatisticsCacheDecorator implements Cache {
+
+	private final Cache targetCache;
+
+	private final LongAdder hits = new LongAdder();
+
+	private final LongAdder misses = new LongAdder();
+
+	private final LongAdder puts = new LongAdder();
+
+	private final LongAdder evictions = new LongAdder();
+
+	private final LongAdder loadSuccesses = new LongAdder();
+
+	private final LongAdder loadFailures = new LongAdder();
+
+	private final LongAdder totalLoadTime = new LongAdder();
+
+
+	/**
+	 * Create a new StatisticsCacheDecorator for the given target Cache.
+	 * @param targetCache the target Cache to decorate
+	 */
+	public StatisticsCacheDecorator(Cache targetCache) {
+		Assert.notNull(targetCache, "Target Cache must not be null");
+		this.targetCache = targetCache;
+	}
+
+
+	/**
+	 * Return the target Cache that this Cache should delegate to.
+	 */
+	public Cache getTargetCache() {
+		return this.targetCache;
+	}
+
+	@Override
+	public String getName() {
+		return this.targetCache.getName();
+	}
+
+	@Override
+	public Object getNativeCache() {
+		return this.targetCache.getNativeCache();
+	}
+
+	@Override
+	@Nullable
+	public ValueWrapper get(Object key) {
+		ValueWrapper wrapper = this.targetCache.get(key);
+		(wrapper != null ? this.hits : this.misses).increment();
+		return wrapper;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	@Nullable
+	public <T> T get(Object key, @Nullable Class<T> type) {
+		ValueWrapper wrapper = get(key);
+		Object value = (wrapper != null ? wrapper.get() : null);
+		if (value != null && type != null && !type.isInstance(value)) {
+			throw new IllegalStateException(
+					"Cached value is not of required type [" + type.getName() + "]: " + value);
+		}
+		return (T) value;
+	}
+
+	@Override
+	@Nullable
+	public <T> T get(Object key, Callable<T> valueLoader) {
+		boolean[] loaded = new boolean[1];
+		T value = this.targetCache.get(key, () -> {
+			loaded[0] = true;
+			long startTime = System.nanoTime();
+			try {
+				T result = valueLoader.call();
+				this.loadSuccesses.increment();
+				return result;
+			}
+			catch (Throwable ex) {
+				this.loadFailures.increment();
+				throw ex;
+			}
+			finally {
+				this.totalLoadTime.add(System.nanoTime() - startTime);
+			}
+		});
+		(loaded[0] ? this.misses : this.hits).increment();
+		return value;
+	}
+
+	@Override
+	public CompletableFuture<ValueWrapper> retrieve(Object key) {
+		CompletableFuture<ValueWrapper> future = this.targetCache.retrieve(key);
+		future.whenComplete((wrapper, ex) -> {
+			if (ex == null) {
+				(wrapper != null ? this.hits : this.misses).increment();
+			}
+		});
+		return future;
+	}
+
+	@Override
+	public <T> CompletableFuture<T> retrieve(Object key, Supplier<CompletableFuture<T>> valueLoader) {
+		boolean[] loaded = new boolean[1];
+		CompletableFuture<T> future = this.targetCache.retrieve(key, () -> {
+			loaded[0] = true;
+			long startTime = System.nanoTime();
+			CompletableFuture<T> result;
+			try {
+				result = valueLoader.get();
+			}
+			catch (RuntimeException | Error ex) {
+				this.loadFailures.increment();
+				this.totalLoadTime.add(System.nanoTime() - startTime);
+				throw ex;
+			}
+			result.whenComplete((value, ex) -> {
+				(ex == null ? this.loadSuccesses : this.loadFailures).increment();
+				this.totalLoadTime.add(System.nanoTime() - startTime);
+			});
+			return result;
+		});
+		future.whenComplete((value, ex) -> (loaded[0] ? this.misses : this.hits).increment());
+		return future;
+	}
+
+	@Override
+	public Map<Object, ValueWrapper> getAll(Collection<?> keys) {
+		Map<Object, ValueWrapper> result = this.targetCache.getAll(keys);
+		this.hits.add(result.size());
+		this.misses.add(keys.size() - result.size());
+		return result;
+	}
+
+	@Override
+	public void put(Object key, @Nullable Object value) {
+		this.targetCache.put(key, value);
+		this.puts.increment();
+	}
+
+	@Override
+	public void putAll(Map<?, ?> entries) {
+		this.targetCache.putAll(entries);
+		this.puts.add(entries.size());
+	}
+
+	@Override
+	@Nullable
+	public ValueWrapper putIfAbsent(Object key, @Nullable Object value) {
+		ValueWrapper existing = this.targetCache.putIfAbsent(key, value);
+		if (existing == null) {
+			this.puts.increment();
+		}
+		return existing;
+	}
+
+	@Override
+	public void evict(Object key) {
+		this.targetCache.evict(key);
+		this.evictions.increment();
+	}
+
+	@Override
+	public boolean evictIfPresent(Object key) {
+		boolean present = this.targetCache.evictIfPresent(key);
+		if (present) {
+			this.evictions.increment();
+		}
+		return present;
+	}
+
+	@Override
+	public void clear() {
+		this.targetCache.clear();
+	}
+
+	@Override
+	public boolean invalidate() {
+		return this.targetCache.invalidate();
+	}
+
+	@Override
+	public CacheStatistics getStatistics() {
+		return new CacheStatistics(this.hits.sum(), this.misses.sum(), this.puts.sum(), this.evictions.sum(),
+				this.loadSuccesses.sum(), this.loadFailures.sum(), this.totalLoadTime.sum());
+	}
+
+	/**
+	 * Reset the statistics of this cache.
+	 */
+	public void resetStatistics() {
+		this.hits.reset();
+		this.misses.reset();
+		this.puts.reset();
+		this.evictions.reset();
+		this.loadSuccesses.reset();
+		this.loadFailures.reset();
+		this.totalLoadTime.reset();
+	}
+
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.support;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Proxy for a target {@link CacheManager}, exposing {@link Cache} objects which
+ * record {@link org.springframework.cache.CacheStatistics}: caches that record
+ * statistics natively are exposed as-is, any other cache is decorated with a
+ * {@link StatisticsCacheDecorator}.
+ *
+ * <p>The decorator for a cache is retained for as long as the target cache
+ * manager returns the same cache instance for its name, accumulating the
+ * statistics across all uses of the cache.
+ *
+ * @since 5.2.5
+ * @see #setTargetCacheManager
+ * @see StatisticsCacheDecorator
+ */
+public class StatisticsCacheManagerProxy implements CacheManager, InitializingBean {
+
+	@Nullable
+	private CacheManager targetCacheManager;
+
+	private final Map<String, StatisticsCacheDecorator> decoratedCaches = new ConcurrentHashMap<>(16);
+
+
+	/**
+	 * Create a new StatisticsCacheManagerProxy, setting the target CacheManager
+	 * through the {@link #setTargetCacheManager} bean property.
+	 */
+	public StatisticsCacheManagerProxy() {
+	}
+
+	/**
+	 * Create a new StatisticsCacheManagerProxy for the given target CacheManager.
+	 * @param targetCacheManager the target CacheManager to proxy
+	 */
+	public StatisticsCacheManagerProxy(CacheManager targetCacheManager) {
+		Assert.notNull(targetCacheManager, "Target CacheManager must not be null");
+		this.targetCacheManager = targetCacheManager;
+	}
+
+
+	/**
+	 * Set the target CacheManager to proxy.
+	 */
+	public void setTargetCacheManager(CacheManager targetCacheManager) {
+		this.targetCacheManager = targetCacheManager;
+	}
+
+	@Override
+	public void afterPropertiesSet() {
+		if (this.targetCacheManager == null) {
+			throw new IllegalArgumentException("Property 'targetCacheManager' is required");
+		}
+	}
+
+
+	@Override
+	@Nullable
+	public Cache getCache(String name) {
+		Assert.state(this.targetCacheManager != null, "No target CacheManager set");
+		Cache targetCache = this.targetCacheManager.getCache(name);
+		if (targetCache == null) {
+			return null;
+		}
+		StatisticsCacheDecorator decorator = this.decoratedCaches.get(name);
+		if (decorator != null && decorator.getTargetCache() == targetCache) {
+			return decorator;
+		}
+		if (targetCache.getStatistics() != null) {
+			return targetCache;
+		}
+		return this.decoratedCaches.compute(name, (key, existing) ->
+				(existing != null && existing.getTargetCache() == targetCache ?
+						existing : new StatisticsCacheDecorator(targetCache)));
+	}
+
+	@Override
+	public Collection<String> getCacheNames() {
+		Assert.state(this.targetCacheManager != null, "No target CacheManager set");
+		return this.targetCacheManager.getCacheNames();
+	}
+
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.annotation;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import org.springframework.cglib.core.PregeneratedClassSupport;
+import org.springframework.cglib.core.ReflectUtils;
+import org.springframework.cglib.core.SpringStableNamingPolicy;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Build-time tool which writes the CGLIB classes generated for an application
+ * context, i.e. enhanced {@link Configuration @Configuration} classes and
+ * non-frozen class-based AOP proxies, to a directory.
+ *
+ * <p>The context gets refreshed (instantiating all non-lazy singletons) and
+ * closed again, with every class generated in the meantime being named through
+ * the {@link SpringStableNamingPolicy}. Once the output directory has been added
+ * to the application's class path and the
+ * {@link PregeneratedClassSupport#PREGENERATED_PROPERTY_NAME "spring.cglib.pregenerated"}
+ * property has been set, the same classes get loaded by name at runtime rather
+ * than being generated again. Classes which are not found (e.g. for lazy beans)
+ * or which do not match the requested configuration get generated as usual.
+ *
+ * <p>Meant to be invoked from a build plugin or a dedicated build step, with
+ * the application context created by the given factory. Note that the context
+ * definition needs to be refreshable at build time, e.g. through a specific
+ * profile which avoids connecting to external resources. Class names are only
+ * stable if no such classes have been generated in the same JVM before: the
+ * pregeneration fails with an {@link IllegalStateException} otherwise, so it
+ * is best run in a dedicated JVM.
+ *
+ * @since 5.2.5
+ * @see PregeneratedClassSupport
+ */
+public final class CglibClassPregenerator {
+
+	private CglibClassPregenerator() {
+	}
+
+
+	/**
+	 * Refresh the context obtained from the given factory and write all
+	 * CGLIB classes generated in the process to the given directory.
+	 * @param outputDirectory the root directory for the class files
+	 * @param contextFactory the factory for the application context, expected
+	 * to return a refreshed context (e.g. through an
+	 * {@link AnnotationConfigApplicationContext} constructor)
+	 * @return the names of the classes written
+	 * @throws IOException if a class file could not be written
+	 * @throws IllegalStateException if classes with stable names have already
+	 * been generated for the same types in this JVM, shifting the names assigned
+	 */
+	public static Set<String> pregenerate(File outputDirectory,
+			Supplier<? extends ConfigurableApplicationContext> contextFactory) throws IOException {
+
+		Assert.notNull(outputDirectory, "Output directory must not be null");
+		Assert.notNull(contextFactory, "Context factory must not be null");
+		Set<String> classNames = new LinkedHashSet<>();
+		List<IOException> failures = new ArrayList<>(1);
+		synchronized (CglibClassPregenerator.class) {
+			Assert.state(!PregeneratedClassSupport.isRecording(), "Generated classes are already being recorded");
+			ReflectUtils.setGeneratedClassHandler((className, bytes) -> {
+				if (SpringStableNamingPolicy.isStableClassName(className)) {
+					try {
+						writeClass(outputDirectory.toPath(), className, bytes);
+						classNames.add(className);
+					}
+					catch (IOException ex) {
+						failures.add(ex);
+					}
+				}
+			});
+			try (ConfigurableApplicationContext context = contextFactory.get()) {
+				Assert.state(context.isActive(), "Context has not been refreshed");
+			}
+			finally {
+				ReflectUtils.setGeneratedClassHandler(null);
+			}
+		}
+		if (!failures.isEmpty()) {
+			throw failures.get(0);
+		}
+		for (String className : classNames) {
+			String previousClassName = getPreviousClassName(className);
+			Assert.state(previousClassName == null || classNames.contains(previousClassName), () ->
+					"Class name [" + className + "] does not match a fresh JVM since [" + previousClassName +
+					"] has been generated before: run the pregeneration in a dedicated JVM");
+		}
+		return Collections.unmodifiableSet(classNames);
+	}
+
+	/**
+	 * Determine the name assigned before the given one for the same type,
+	 * or {@code null} if the given name is the first in the sequence.
+	 * @see SpringStableNamingPolicy#getClassName
+	 */
+	@Nullable
+	private static String getPreviousClassName(String className) {
+		int indexStart = className.length();
+		while (indexStart > 0 && Character.isDigit(className.charAt(indexStart - 1))) {
+			indexStart--;
+		}
+		int index = Integer.parseInt(className.substring(indexStart));
+		return (index > 0 ? className.substring(0, indexStart) + (index - 1) : null);
+	}
+
+	private static void writeClass(Path root, String className, byte[] bytes) throws IOException {
+		Path file = root.resolve(className.replace('.', File.separatorChar) + ClassUtils.CLASS_FILE_SUFFIX);
+		Files.createDirectories(file.getParent());
+		Files.write(file, bytes);
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,6 +18,7 @@ package org.springframework.context.event;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -112,7 +113,7 @@ public abstract class AbstractApplicationEventMulticaster
 				this.defaultRetriever.applicationListeners.remove(singletonTarget);
 			}
 			this.defaultRetriever.applicationListeners.add(listener);
-			this.retrieverCache.clear();
+			updateRetrieverCache(listener, singletonTarget);
 		}
 	}
 
@@ -128,7 +129,8 @@ public abstract class AbstractApplicationEventMulticaster
 	public void removeApplicationListener(ApplicationListener<?> listener) {
 		synchronized (this.retrievalMutex) {
 			this.defaultRetriever.applicationListeners.remove(listener);
-			this.retrieverCache.clear();
+			// Only the retrievers containing the listener are affected
+			this.retrieverCache.values().removeIf(retriever -> retriever.applicationListeners.contains(listener));
 		}
 	}
 
@@ -150,6 +152,96 @@ public abstract class AbstractApplicationEventMulticaster
 	}
 
 
+	/**
+	 * Incrementally update the cached ListenerRetrievers for a newly added listener,
+	 * instead of dropping all of them: only the retrievers for event types that the
+	 * listener supports get replaced, with the listener merged in the same order
+	 * that a full retrieval would determine.
+	 * <p>To be called with the retrieval mutex held.
+	 * @param listener the listener that has just been added
+	 * @param replacedTarget the singleton target of the listener (if a proxy),
+	 * which has been removed in favor of the listener itself
+	 */
+	private void updateRetrieverCache(ApplicationListener<?> listener, @Nullable Object replacedTarget) {
+		if (this.retrieverCache.isEmpty()) {
+			return;
+		}
+		Set<String> listenerBeanNames = findListenerBeanNames(listener);
+		for (Map.Entry<ListenerCacheKey, ListenerRetriever> entry : this.retrieverCache.entrySet()) {
+			ListenerCacheKey cacheKey = entry.getKey();
+			ListenerRetriever retriever = entry.getValue();
+			if (!retriever.applicationListenerBeans.isEmpty()) {
+				// Non-singleton listener beans involved -> retrieve again on demand
+				this.retrieverCache.remove(cacheKey);
+				continue;
+			}
+			boolean supported = supportsEvent(listener, cacheKey.eventType, cacheKey.sourceType);
+			if (supported && !listenerBeanNames.isEmpty()) {
+				ConfigurableBeanFactory beanFactory = getBeanFactory();
+				for (String listenerBeanName : listenerBeanNames) {
+					if (!supportsEvent(beanFactory, listenerBeanName, cacheKey.eventType)) {
+						supported = false;
+						break;
+					}
+				}
+			}
+			if (supported || (replacedTarget != null && retriever.applicationListeners.contains(replacedTarget))) {
+				entry.setValue(mergeListener(retriever, listener, supported, replacedTarget));
+			}
+		}
+	}
+
+	/**
+	 * Determine the names of the listener beans that the given listener is the
+	 * singleton instance of, e.g. as registered by {@code ApplicationListenerDetector}.
+	 */
+	private Set<String> findListenerBeanNames(ApplicationListener<?> listener) {
+		Set<String> listenerBeanNames = Collections.emptySet();
+		if (!this.defaultRetriever.applicationListenerBeans.isEmpty()) {
+			ConfigurableBeanFactory beanFactory = getBeanFactory();
+			for (String listenerBeanName : this.defaultRetriever.applicationListenerBeans) {
+				if (beanFactory.containsSingleton(listenerBeanName) &&
+						beanFactory.getSingleton(listenerBeanName) == listener) {
+					if (listenerBeanNames.isEmpty()) {
+						listenerBeanNames = new LinkedHashSet<>(2);
+					}
+					listenerBeanNames.add(listenerBeanName);
+				}
+			}
+		}
+		return listenerBeanNames;
+	}
+
+	/**
+	 * Create a copy of the given pre-filtered ListenerRetriever with the given
+	 * listener merged in, and the replaced target (if any) removed.
+	 * <p>Programmatically registered listeners come first, in registration order,
+	 * followed by the remaining listeners from bean definitions in their current
+	 * order - before sorting, just like in {@link #retrieveApplicationListeners}.
+	 */
+	private ListenerRetriever mergeListener(ListenerRetriever retriever, ApplicationListener<?> listener,
+			boolean supported, @Nullable Object replacedTarget) {
+
+		Set<ApplicationListener<?>> currentListeners = retriever.applicationListeners;
+		Set<ApplicationListener<?>> registeredListeners = this.defaultRetriever.applicationListeners;
+		List<ApplicationListener<?>> allListeners = new ArrayList<>(currentListeners.size() + 1);
+		for (ApplicationListener<?> registered : registeredListeners) {
+			if (registered == listener ? supported : currentListeners.contains(registered)) {
+				allListeners.add(registered);
+			}
+		}
+		for (ApplicationListener<?> current : currentListeners) {
+			if (current != replacedTarget && !registeredListeners.contains(current)) {
+				allListeners.add(current);
+			}
+		}
+		AnnotationAwareOrderComparator.sort(allListeners);
+		ListenerRetriever newRetriever = new ListenerRetriever(true);
+		newRetriever.applicationListeners.addAll(allListeners);
+		return newRetriever;
+	}
+
+
 	/**
 	 * Return a Collection containing all ApplicationListeners.
 	 * @return a Collection of ApplicationListeners
@@ -423,11 +515,23 @@ public abstract class AbstractApplicationEventMulticaster
 
 		private final boolean preFiltered;
 
+		@Nullable
+		private volatile List<ApplicationListener<?>> preFilteredListeners;
+
 		public ListenerRetriever(boolean preFiltered) {
 			this.preFiltered = preFiltered;
 		}
 
 		public Collection<ApplicationListener<?>> getApplicationListeners() {
+			if (this.preFiltered && this.applicationListenerBeans.isEmpty()) {
+				// Cached retriever with singleton listeners only: not modified anymore
+				List<ApplicationListener<?>> listeners = this.preFilteredListeners;
+				if (listeners == null) {
+					listeners = Collections.unmodifiableList(new ArrayList<>(this.applicationListeners));
+					this.preFilteredListeners = listeners;
+				}
+				return listeners;
+			}
 			List<ApplicationListener<?>> allListeners = new ArrayList<>(
 					this.applicationListeners.size() + this.applicationListenerBeans.size());
 			allListeners.addAll(this.applicationListeners);
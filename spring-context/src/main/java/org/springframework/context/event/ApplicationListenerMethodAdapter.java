@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -24,7 +24,9 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -37,16 +39,17 @@ import org.springframework.context.ApplicationEvent;
 import org.springframework.context.PayloadApplicationEvent;
 import org.springframework.context.expression.AnnotatedElementKey;
 import org.springframework.core.BridgeMethodResolver;
+import org.springframework.core.DirectMethodInvoker;
 import org.springframework.core.ReactiveAdapter;
 import org.springframework.core.ReactiveAdapterRegistry;
 import org.springframework.core.ResolvableType;
+import org.springframework.core.ResolvableTypeProvider;
 import org.springframework.core.annotation.AnnotatedElementUtils;
 import org.springframework.core.annotation.Order;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
 import org.springframework.util.ObjectUtils;
-import org.springframework.util.ReflectionUtils;
 import org.springframework.util.StringUtils;
 import org.springframework.util.concurrent.ListenableFuture;
 
@@ -60,6 +63,10 @@ import org.springframework.util.concurrent.ListenableFuture;
  * to define any arbitrary event type. If a condition is defined, it is
  * evaluated prior to invoking the underlying method.
  *
+ * <p>For a {@linkplain EventListener#batch() batch} listener method, the
+ * arguments are resolved for each event individually and then handed to
+ * the method as a list: see {@link #processEvents(List)}.
+ *
  * @author Stephane Nicoll
  * @author Juergen Hoeller
  * @author Sam Brannen
@@ -77,6 +84,8 @@ public class ApplicationListenerMethodAdapter implements GenericApplicationListe
 
 	private final Method method;
 
+	private final DirectMethodInvoker methodInvoker;
+
 	private final Method targetMethod;
 
 	private final AnnotatedElementKey methodKey;
@@ -86,8 +95,13 @@ public class ApplicationListenerMethodAdapter implements GenericApplicationListe
 	@Nullable
 	private final String condition;
 
+	private final boolean batch;
+
 	private final int order;
 
+	/** Matching declared event type per plain payload class, {@code ResolvableType.NONE} if none. */
+	private final Map<Class<?>, ResolvableType> payloadEventTypeCache = new ConcurrentHashMap<>(4);
+
 	@Nullable
 	private ApplicationContext applicationContext;
 
@@ -98,22 +112,31 @@ public class ApplicationListenerMethodAdapter implements GenericApplicationListe
 	public ApplicationListenerMethodAdapter(String beanName, Class<?> targetClass, Method method) {
 		this.beanName = beanName;
 		this.method = BridgeMethodResolver.findBridgedMethod(method);
+		this.methodInvoker = DirectMethodInvoker.forMethod(this.method);
 		this.targetMethod = (!Proxy.isProxyClass(targetClass) ?
 				AopUtils.getMostSpecificMethod(method, targetClass) : this.method);
 		this.methodKey = new AnnotatedElementKey(this.targetMethod, targetClass);
 
 		EventListener ann = AnnotatedElementUtils.findMergedAnnotation(this.targetMethod, EventListener.class);
-		this.declaredEventTypes = resolveDeclaredEventTypes(method, ann);
+		this.batch = (ann != null && ann.batch());
+		this.declaredEventTypes = resolveDeclaredEventTypes(method, ann, this.batch);
 		this.condition = (ann != null ? ann.condition() : null);
 		this.order = resolveOrder(this.targetMethod);
 	}
 
-	private static List<ResolvableType> resolveDeclaredEventTypes(Method method, @Nullable EventListener ann) {
+	private static List<ResolvableType> resolveDeclaredEventTypes(
+			Method method, @Nullable EventListener ann, boolean batch) {
+
 		int count = method.getParameterCount();
 		if (count > 1) {
 			throw new IllegalStateException(
 					"Maximum one parameter is allowed for event listener method: " + method);
 		}
+		if (batch && (count == 0 || !Collection.class.isAssignableFrom(method.getParameterTypes()[0]) ||
+				!method.getParameterTypes()[0].isAssignableFrom(List.class))) {
+			throw new IllegalStateException(
+					"List parameter is mandatory for batch event listener method: " + method);
+		}
 
 		if (ann != null) {
 			Class<?>[] classes = ann.classes();
@@ -130,6 +153,14 @@ public class ApplicationListenerMethodAdapter implements GenericApplicationListe
 			throw new IllegalStateException(
 					"Event parameter is mandatory for event listener method: " + method);
 		}
+		if (batch) {
+			ResolvableType elementType = ResolvableType.forMethodParameter(method, 0).asCollection().getGeneric();
+			if (elementType.resolve() == null) {
+				throw new IllegalStateException(
+						"Cannot resolve event type from List parameter of batch event listener method: " + method);
+			}
+			return Collections.singletonList(elementType);
+		}
 		return Collections.singletonList(ResolvableType.forMethodParameter(method, 0));
 	}
 
@@ -185,6 +216,10 @@ public class ApplicationListenerMethodAdapter implements GenericApplicationListe
 	 * matches and handling a non-null result, if any.
 	 */
 	public void processEvent(ApplicationEvent event) {
+		if (this.batch) {
+			processEvents(Collections.singletonList(event));
+			return;
+		}
 		Object[] args = resolveArguments(event);
 		if (shouldHandle(event, args)) {
 			Object result = doInvoke(args);
@@ -197,11 +232,48 @@ public class ApplicationListenerMethodAdapter implements GenericApplicationListe
 		}
 	}
 
+	/**
+	 * Process the specified {@link ApplicationEvent ApplicationEvents} with a
+	 * {@linkplain EventListener#batch() batch} listener method, invoking it
+	 * once with the list of resolved arguments for all events that match
+	 * the condition (if any), and handling a non-null result.
+	 * <p>For a regular listener method, each event is processed individually.
+	 * @param events the events to process, in publication order
+	 * @since 5.2.5
+	 * @see #processEvent(ApplicationEvent)
+	 */
+	public void processEvents(List<? extends ApplicationEvent> events) {
+		if (!this.batch) {
+			for (ApplicationEvent event : events) {
+				processEvent(event);
+			}
+			return;
+		}
+		List<Object> batch = new ArrayList<>(events.size());
+		for (ApplicationEvent event : events) {
+			Object[] args = resolveArguments(event);
+			if (shouldHandle(event, args)) {
+				batch.add(args[0]);
+			}
+		}
+		if (!batch.isEmpty()) {
+			Object result = doInvoke(batch);
+			if (result != null) {
+				handleResult(result);
+			}
+			else {
+				logger.trace("No result object given - no result to handle");
+			}
+		}
+	}
+
 	/**
 	 * Resolve the method arguments to use for the specified {@link ApplicationEvent}.
 	 * <p>These arguments will be used to invoke the method handled by this instance.
 	 * Can return {@code null} to indicate that no suitable arguments could be resolved
 	 * and therefore the method should not be invoked at all for the specified event.
+	 * <p>For a {@linkplain EventListener#batch() batch} listener method, the
+	 * single argument is the element to add to the batch for the specified event.
 	 */
 	@Nullable
 	protected Object[] resolveArguments(ApplicationEvent event) {
@@ -300,9 +372,8 @@ public class ApplicationListenerMethodAdapter implements GenericApplicationListe
 			return null;
 		}
 
-		ReflectionUtils.makeAccessible(this.method);
 		try {
-			return this.method.invoke(bean, args);
+			return this.methodInvoker.invoke(bean, args);
 		}
 		catch (IllegalArgumentException ex) {
 			assertTargetBean(this.method, bean, args);
@@ -393,6 +464,24 @@ public class ApplicationListenerMethodAdapter implements GenericApplicationListe
 
 	@Nullable
 	private ResolvableType getResolvableType(ApplicationEvent event) {
+		if (event.getClass() == PayloadApplicationEvent.class) {
+			Object payload = ((PayloadApplicationEvent<?>) event).getPayload();
+			if (!(payload instanceof ResolvableTypeProvider)) {
+				// The match only depends on the payload class: determine it once per payload class
+				ResolvableType declaredEventType = this.payloadEventTypeCache.get(payload.getClass());
+				if (declaredEventType == null) {
+					declaredEventType = resolveDeclaredEventType(event);
+					this.payloadEventTypeCache.put(payload.getClass(),
+							(declaredEventType != null ? declaredEventType : ResolvableType.NONE));
+				}
+				return (declaredEventType != ResolvableType.NONE ? declaredEventType : null);
+			}
+		}
+		return resolveDeclaredEventType(event);
+	}
+
+	@Nullable
+	private ResolvableType resolveDeclaredEventType(ApplicationEvent event) {
 		ResolvableType payloadType = null;
 		if (event instanceof PayloadApplicationEvent) {
 			PayloadApplicationEvent<?> payloadEvent = (PayloadApplicationEvent<?>) event;
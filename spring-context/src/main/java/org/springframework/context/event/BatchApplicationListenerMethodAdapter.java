@@ -0,0 +1,45 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.event;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * {@link ApplicationListenerMethodAdapter} for a {@linkplain EventListener#batch()
+ * batch} listener method, exposing the {@link BatchApplicationListener} contract
+ * so that queueing multicasters can hand over several events at once.
+ *
+ * @since 5.2.5
+ * @see DefaultEventListenerFactory
+ */
+class BatchApplicationListenerMethodAdapter extends ApplicationListenerMethodAdapter
+		implements BatchApplicationListener<ApplicationEvent> {
+
+	public BatchApplicationListenerMethodAdapter(String beanName, Class<?> targetClass, Method method) {
+		super(beanName, targetClass, method);
+	}
+
+
+	@Override
+	public void onApplicationEvents(List<ApplicationEvent> events) {
+		processEvents(events);
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -73,6 +73,13 @@ import org.springframework.core.annotation.AliasFor;
  * to publish the event manually.</li>
  * </ul>
  *
+ * <h3>Batch Listeners</h3>
+ * <p>A listener method may also be declared as a {@link #batch} listener,
+ * accepting a {@code List} of events instead of a single event. A multicaster
+ * that queues events, such as {@link PartitionedApplicationEventMulticaster},
+ * then hands over all events that have accumulated for the listener at once;
+ * other multicasters deliver each event as a single-element list.
+ *
  * <h3>Ordering Listeners</h3>
  * <p>It is also possible to define the order in which listeners for a
  * certain event are to be invoked. To do so, add Spring's common
@@ -128,4 +135,17 @@ public @interface EventListener {
 	 */
 	String condition() default "";
 
+	/**
+	 * Whether the annotated method accepts a batch of events.
+	 * <p>If {@code true}, the method must declare a single {@code List} (or
+	 * {@code Collection}) parameter, with the element type reflecting the
+	 * event type to listen to - unless specified through {@link #classes}.
+	 * The elements are resolved just like the argument of a regular listener
+	 * method, with the {@link #condition} evaluated for each of them.
+	 * <p>Default is {@code false}.
+	 * @since 5.2.5
+	 * @see BatchApplicationListener
+	 */
+	boolean batch() default false;
+
 }
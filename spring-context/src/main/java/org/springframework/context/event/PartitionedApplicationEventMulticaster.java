@@ -0,0 +1,471 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.event;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.support.TaskUtils;
+import org.springframework.util.Assert;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.ErrorHandler;
+
+/**
+ * {@link ApplicationEventMulticaster} that queues events for asynchronously
+ * executed listeners, keeping events with the same partition key in order.
+ *
+ * <p>Each listener may be executed by an executor of its own, as determined by
+ * the {@linkplain #setListenerExecutorResolver listener executor resolver},
+ * falling back to the common {@linkplain #setTaskExecutor task executor}.
+ * Listeners without any executor are invoked in the calling thread, just like
+ * with {@link SimpleApplicationEventMulticaster}.
+ *
+ * <p>For an asynchronously executed listener, events are added to one of
+ * {@linkplain #setPartitionCount a number of queues}, selected by the
+ * {@linkplain #setPartitionKeyResolver partition key} of the event (e.g. an
+ * aggregate id). Each queue is drained by at most one task at a time, so the
+ * listener sees all events with the same key in publication order, while
+ * events for different partitions may be processed concurrently.
+ * A drain task processes up to {@linkplain #setMaxBatchSize a maximum number}
+ * of queued events before handing the thread back to the executor; a
+ * {@link BatchApplicationListener} (e.g. a {@linkplain EventListener#batch()
+ * batch} {@code @EventListener} method) receives them as a single batch.
+ *
+ * <p>Queues may be {@linkplain #setQueueCapacity bounded}, with the
+ * {@linkplain #setOverflowPolicy overflow policy} determining what happens to
+ * events published while a queue is full: by default, the publisher is blocked
+ * until the listener has caught up.
+ *
+ * <p>Exceptions from asynchronously executed listeners cannot be propagated
+ * to the publisher: they are passed to the {@linkplain #setErrorHandler error
+ * handler}, by default logging and suppressing them.
+ *
+ * <p>Note that queues are kept per listener instance: asynchronously executed
+ * listeners are expected to be singletons. Queues are only referenced weakly
+ * while idle, so that non-singleton listeners do not accumulate queues.
+ *
+ * @since 5.2.5
+ * @see #setListenerExecutorResolver
+ * @see #setPartitionKeyResolver
+ * @see BatchApplicationListener
+ */
+public class PartitionedApplicationEventMulticaster extends SimpleApplicationEventMulticaster {
+
+	/**
+	 * The default maximum number of events processed by a single drain task.
+	 * @see #setMaxBatchSize
+	 */
+	public static final int DEFAULT_MAX_BATCH_SIZE = 100;
+
+
+	@Nullable
+	private Function<ApplicationListener<?>, Executor> listenerExecutorResolver;
+
+	@Nullable
+	private Function<ApplicationEvent, Object> partitionKeyResolver;
+
+	private int partitionCount = 1;
+
+	private int queueCapacity = Integer.MAX_VALUE;
+
+	private OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+
+	private int maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+
+	// Weakly referenced queues per listener, or NO_QUEUES for listeners without an executor
+	private final Map<ApplicationListener<?>, ListenerQueues> listenerQueues =
+			new ConcurrentReferenceHashMap<>(64, ConcurrentReferenceHashMap.ReferenceType.WEAK);
+
+	// Queues with events in progress, which must not be replaced in order to keep events in order
+	private final Map<ApplicationListener<?>, ListenerQueues> activeListenerQueues = new ConcurrentHashMap<>(16);
+
+	private final ListenerQueues noQueues = new ListenerQueues(null, null);
+
+
+	/**
+	 * Create a new PartitionedApplicationEventMulticaster.
+	 */
+	public PartitionedApplicationEventMulticaster() {
+	}
+
+	/**
+	 * Create a new PartitionedApplicationEventMulticaster for the given BeanFactory.
+	 */
+	public PartitionedApplicationEventMulticaster(BeanFactory beanFactory) {
+		super(beanFactory);
+	}
+
+
+	/**
+	 * Set a strategy for determining the executor to invoke a specific listener with,
+	 * returning {@code null} for the common {@linkplain #setTaskExecutor task executor}.
+	 * <p>The strategy is called once per listener instance, or again after its
+	 * weakly referenced result has been garbage collected. Note that listeners for
+	 * {@link EventListener @EventListener} methods are {@link ApplicationListenerMethodAdapter}
+	 * instances, exposing the method signature through their {@code toString()}.
+	 */
+	public void setListenerExecutorResolver(@Nullable Function<ApplicationListener<?>, Executor> resolver) {
+		this.listenerExecutorResolver = resolver;
+	}
+
+	/**
+	 * Set a strategy for determining the partition key of an event, e.g. the id
+	 * of the aggregate that the event refers to. Events with the same key are
+	 * delivered to each asynchronously executed listener in publication order.
+	 * <p>The strategy receives the {@link org.springframework.context.PayloadApplicationEvent}
+	 * for a published payload object. A {@code null} key selects the first partition.
+	 * <p>Default is none, with all events for a listener in the same partition.
+	 * @see #setPartitionCount
+	 */
+	public void setPartitionKeyResolver(@Nullable Function<ApplicationEvent, Object> resolver) {
+		this.partitionKeyResolver = resolver;
+	}
+
+	/**
+	 * Set the number of partitions, i.e. the number of event queues that may
+	 * be drained concurrently for each asynchronously executed listener.
+	 * <p>Default is 1, delivering events to each listener strictly one after the
+	 * other. Only makes sense to raise in combination with a
+	 * {@linkplain #setPartitionKeyResolver partition key resolver}.
+	 */
+	public void setPartitionCount(int partitionCount) {
+		Assert.isTrue(partitionCount > 0, "'partitionCount' must be positive");
+		this.partitionCount = partitionCount;
+	}
+
+	/**
+	 * Set the capacity of each event queue.
+	 * <p>Default is unbounded.
+	 * @see #setOverflowPolicy
+	 */
+	public void setQueueCapacity(int queueCapacity) {
+		Assert.isTrue(queueCapacity > 0, "'queueCapacity' must be positive");
+		this.queueCapacity = queueCapacity;
+	}
+
+	/**
+	 * Set the policy to apply when an event is published to a full queue.
+	 * <p>Default is {@link OverflowPolicy#BLOCK}.
+	 * @see #setQueueCapacity
+	 */
+	public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+		Assert.notNull(overflowPolicy, "OverflowPolicy must not be null");
+		this.overflowPolicy = overflowPolicy;
+	}
+
+	/**
+	 * Set the maximum number of queued events to process in a single drain task,
+	 * i.e. the maximum batch size for a {@link BatchApplicationListener}.
+	 * <p>Default is {@link #DEFAULT_MAX_BATCH_SIZE}.
+	 */
+	public void setMaxBatchSize(int maxBatchSize) {
+		Assert.isTrue(maxBatchSize > 0, "'maxBatchSize' must be positive");
+		this.maxBatchSize = maxBatchSize;
+	}
+
+
+	@Override
+	public void removeApplicationListener(ApplicationListener<?> listener) {
+		super.removeApplicationListener(listener);
+		this.listenerQueues.remove(listener);
+		this.activeListenerQueues.remove(listener);
+	}
+
+	@Override
+	public void removeAllListeners() {
+		super.removeAllListeners();
+		this.listenerQueues.clear();
+		this.activeListenerQueues.clear();
+	}
+
+	@Override
+	public void multicastEvent(ApplicationEvent event, @Nullable ResolvableType eventType) {
+		ResolvableType type = (eventType != null ? eventType : ResolvableType.forInstance(event));
+		int partition = -1;
+		for (ApplicationListener<?> listener : getApplicationListeners(event, type)) {
+			ListenerQueues queues = this.listenerQueues.get(listener);
+			if (queues == null) {
+				queues = getListenerQueues(listener);
+			}
+			if (queues.executor == null) {
+				invokeListener(listener, event);
+			}
+			else {
+				if (partition == -1) {
+					partition = determinePartition(event);
+				}
+				queues.enqueue(partition, event);
+			}
+		}
+	}
+
+	private ListenerQueues getListenerQueues(ApplicationListener<?> listener) {
+		// Queues still in progress after their weak reference got cleared
+		ListenerQueues queues = this.activeListenerQueues.get(listener);
+		if (queues == null) {
+			Executor executor = null;
+			if (this.listenerExecutorResolver != null) {
+				executor = this.listenerExecutorResolver.apply(listener);
+			}
+			if (executor == null) {
+				executor = getTaskExecutor();
+			}
+			queues = (executor != null ? new ListenerQueues(listener, executor) : this.noQueues);
+		}
+		ListenerQueues existing = this.listenerQueues.putIfAbsent(listener, queues);
+		return (existing != null ? existing : queues);
+	}
+
+	private int determinePartition(ApplicationEvent event) {
+		if (this.partitionCount == 1 || this.partitionKeyResolver == null) {
+			return 0;
+		}
+		Object key = this.partitionKeyResolver.apply(event);
+		return (key != null ? Math.floorMod(key.hashCode(), this.partitionCount) : 0);
+	}
+
+	/**
+	 * Invoke the given listener with the given batch of queued events.
+	 * <p>The default implementation hands the batch to a {@link BatchApplicationListener}
+	 * in one go and otherwise invokes the listener for each event, passing any
+	 * exception to the error handler.
+	 * @param listener the ApplicationListener to invoke
+	 * @param events the queued events to propagate, in publication order
+	 */
+	@SuppressWarnings({"rawtypes", "unchecked"})
+	protected void invokeListener(ApplicationListener<?> listener, List<ApplicationEvent> events) {
+		ErrorHandler errorHandler = getErrorHandler();
+		if (errorHandler == null) {
+			errorHandler = TaskUtils.LOG_AND_SUPPRESS_ERROR_HANDLER;
+		}
+		if (listener instanceof BatchApplicationListener) {
+			try {
+				((BatchApplicationListener) listener).onApplicationEvents(events);
+			}
+			catch (Throwable err) {
+				errorHandler.handleError(err);
+			}
+		}
+		else {
+			for (ApplicationEvent event : events) {
+				try {
+					((ApplicationListener) listener).onApplicationEvent(event);
+				}
+				catch (Throwable err) {
+					errorHandler.handleError(err);
+				}
+			}
+		}
+	}
+
+
+	/**
+	 * Policy for events published to a full queue.
+	 * @see #setOverflowPolicy
+	 */
+	public enum OverflowPolicy {
+
+		/**
+		 * Block the publisher until the queue has room for the event.
+		 * <p>Note that a listener publishing events to itself may deadlock.
+		 */
+		BLOCK,
+
+		/**
+		 * Invoke the listener in the calling thread, bypassing the queue:
+		 * the event may be processed before events that are still queued.
+		 */
+		CALLER_RUNS,
+
+		/**
+		 * Silently drop the event.
+		 */
+		DISCARD,
+
+		/**
+		 * Drop the oldest queued event in favor of the new event.
+		 */
+		DISCARD_OLDEST,
+
+		/**
+		 * Reject the event with a {@link TaskRejectedException} to the publisher.
+		 */
+		ABORT
+	}
+
+
+	/**
+	 * The event queues for a specific listener, registered as active
+	 * while any of them is scheduled for draining.
+	 */
+	private class ListenerQueues {
+
+		@Nullable
+		private final ApplicationListener<?> listener;
+
+		@Nullable
+		private final Executor executor;
+
+		private final EventQueue[] partitions;
+
+		private final AtomicInteger scheduledCount = new AtomicInteger();
+
+		public ListenerQueues(@Nullable ApplicationListener<?> listener, @Nullable Executor executor) {
+			this.listener = listener;
+			this.executor = executor;
+			this.partitions = new EventQueue[listener != null && executor != null ? partitionCount : 0];
+			for (int i = 0; i < this.partitions.length; i++) {
+				this.partitions[i] = new EventQueue(this, listener, executor);
+			}
+		}
+
+		public void enqueue(int partition, ApplicationEvent event) {
+			this.partitions[partition % this.partitions.length].enqueue(event);
+		}
+
+		public void scheduled() {
+			if (this.scheduledCount.getAndIncrement() == 0) {
+				updateActive();
+			}
+		}
+
+		public void completed() {
+			if (this.scheduledCount.decrementAndGet() == 0) {
+				updateActive();
+			}
+		}
+
+		private void updateActive() {
+			Assert.state(this.listener != null, "No listener");
+			activeListenerQueues.compute(this.listener, (key, existing) ->
+					(this.scheduledCount.get() > 0 ? this : (existing != this ? existing : null)));
+		}
+	}
+
+
+	/**
+	 * A queue of events for a listener, drained by at most one task at a time.
+	 */
+	private class EventQueue implements Runnable {
+
+		private final ListenerQueues owner;
+
+		private final ApplicationListener<?> listener;
+
+		private final Executor executor;
+
+		private final BlockingQueue<ApplicationEvent> queue = new LinkedBlockingQueue<>(queueCapacity);
+
+		private final AtomicBoolean scheduled = new AtomicBoolean();
+
+		public EventQueue(ListenerQueues owner, ApplicationListener<?> listener, Executor executor) {
+			this.owner = owner;
+			this.listener = listener;
+			this.executor = executor;
+		}
+
+		public void enqueue(ApplicationEvent event) {
+			if (!this.queue.offer(event)) {
+				switch (overflowPolicy) {
+					case BLOCK:
+						try {
+							this.queue.put(event);
+						}
+						catch (InterruptedException ex) {
+							Thread.currentThread().interrupt();
+							throw new TaskRejectedException("Interrupted while waiting to queue event " + event);
+						}
+						break;
+					case CALLER_RUNS:
+						invokeListener(this.listener, event);
+						return;
+					case DISCARD:
+						return;
+					case DISCARD_OLDEST:
+						do {
+							this.queue.poll();
+						}
+						while (!this.queue.offer(event));
+						break;
+					case ABORT:
+						throw new TaskRejectedException("Event queue for listener [" + this.listener +
+								"] is full (capacity " + queueCapacity + ") - rejected event " + event);
+				}
+			}
+			schedule();
+		}
+
+		private void schedule() {
+			if (this.scheduled.compareAndSet(false, true)) {
+				this.owner.scheduled();
+				try {
+					this.executor.execute(this);
+				}
+				catch (RejectedExecutionException ex) {
+					this.scheduled.set(false);
+					this.owner.completed();
+					throw ex;
+				}
+			}
+		}
+
+		@Override
+		public void run() {
+			try {
+				List<ApplicationEvent> events = new ArrayList<>(Math.min(this.queue.size(), maxBatchSize));
+				this.queue.drainTo(events, maxBatchSize);
+				if (!events.isEmpty()) {
+					invokeListener(this.listener, events);
+				}
+			}
+			finally {
+				this.scheduled.set(false);
+				// Events queued in the meantime: continue in a new task, giving other tasks a chance
+				if (!this.queue.isEmpty()) {
+					try {
+						schedule();
+					}
+					catch (RejectedExecutionException ex) {
+						// Remaining events stay queued until the next event gets published
+						ErrorHandler errorHandler = getErrorHandler();
+						if (errorHandler == null) {
+							errorHandler = TaskUtils.LOG_AND_SUPPRESS_ERROR_HANDLER;
+						}
+						errorHandler.handleError(ex);
+					}
+				}
+				this.owner.completed();
+			}
+		}
+	}
+
+}
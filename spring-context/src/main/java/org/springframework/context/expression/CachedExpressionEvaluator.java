@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,29 +16,86 @@
 
 package org.springframework.context.expression;
 
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.springframework.core.DefaultParameterNameDiscoverer;
 import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.SpringProperties;
 import org.springframework.expression.Expression;
+import org.springframework.expression.MethodResolver;
+import org.springframework.expression.PropertyAccessor;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.ReflectiveMethodResolver;
+import org.springframework.expression.spel.support.ReflectivePropertyAccessor;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
+import org.springframework.util.ConcurrentReferenceHashMap;
 import org.springframework.util.ObjectUtils;
 
 /**
  * Shared utility class used to evaluate and cache SpEL expressions that
  * are defined on {@link java.lang.reflect.AnnotatedElement}.
  *
+ * <p>As of 5.2.5, parsed expressions are kept in a {@link #setCacheLimit bounded}
+ * cache shared by all kinds of expressions of an evaluator, and the default parser
+ * compiles frequently evaluated expressions ({@link SpelCompilerMode#MIXED}) unless
+ * the {@code spring.expression.compiler.mode} property specifies otherwise.
+ * Subclasses may prepare their evaluation contexts through
+ * {@link #initEvaluationContext}, sharing warmed-up infrastructure across them.
+ *
  * @author Stephane Nicoll
  * @since 4.2
  * @see AnnotatedElementKey
  */
 public abstract class CachedExpressionEvaluator {
 
+	/**
+	 * Default maximum number of entries for the expression cache: 1024.
+	 * @since 5.2.5
+	 */
+	public static final int DEFAULT_CACHE_LIMIT = 1024;
+
+	private static final String COMPILER_MODE_PROPERTY_NAME = "spring.expression.compiler.mode";
+
+
 	private final SpelExpressionParser parser;
 
-	private final ParameterNameDiscoverer parameterNameDiscoverer = new DefaultParameterNameDiscoverer();
+	private final ParameterNameDiscoverer parameterNameDiscoverer =
+			new CachingParameterNameDiscoverer(new DefaultParameterNameDiscoverer());
+
+	private final PropertyAccessor propertyAccessor = new ReflectivePropertyAccessor();
+
+	private final MethodResolver methodResolver = new ReflectiveMethodResolver();
+
+	private volatile int cacheLimit = DEFAULT_CACHE_LIMIT;
+
+	/** Fast access cache for Expressions, returning already parsed instances without a global lock. */
+	private final Map<ExpressionKey, Expression> expressionAccessCache = new ConcurrentHashMap<>(256);
+
+	/** Map from expression key to Expression instance, synchronized for Expression parsing. */
+	@SuppressWarnings("serial")
+	private final Map<ExpressionKey, Expression> expressionCreationCache =
+			new LinkedHashMap<ExpressionKey, Expression>(256, 0.75f, true) {
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<ExpressionKey, Expression> eldest) {
+					if (size() > getCacheLimit()) {
+						expressionAccessCache.remove(eldest.getKey());
+						return true;
+					}
+					else {
+						return false;
+					}
+				}
+			};
 
 
 	/**
@@ -53,7 +110,26 @@ public abstract class CachedExpressionEvaluator {
 	 * Create a new instance with a default {@link SpelExpressionParser}.
 	 */
 	protected CachedExpressionEvaluator() {
-		this(new SpelExpressionParser());
+		this(new SpelExpressionParser(new SpelParserConfiguration(getDefaultCompilerMode(), null)));
+	}
+
+
+	/**
+	 * Specify the maximum number of entries for the shared expression cache.
+	 * Default is 1024.
+	 * @since 5.2.5
+	 * @see #getExpression(AnnotatedElementKey, String)
+	 */
+	public void setCacheLimit(int cacheLimit) {
+		this.cacheLimit = cacheLimit;
+	}
+
+	/**
+	 * Return the maximum number of entries for the shared expression cache.
+	 * @since 5.2.5
+	 */
+	public int getCacheLimit() {
+		return this.cacheLimit;
 	}
 
 
@@ -72,6 +148,24 @@ public abstract class CachedExpressionEvaluator {
 		return this.parameterNameDiscoverer;
 	}
 
+	/**
+	 * Initialize the given evaluation context with the property accessors and
+	 * method resolvers shared by all contexts of this evaluator, so that their
+	 * internal caches of reflective lookups apply across evaluations.
+	 * <p>Each context gets its own lists, so further accessors and resolvers
+	 * may be added to it.
+	 * @param evaluationContext the context to initialize
+	 * @since 5.2.5
+	 */
+	protected void initEvaluationContext(StandardEvaluationContext evaluationContext) {
+		List<PropertyAccessor> propertyAccessors = new ArrayList<>(4);
+		propertyAccessors.add(this.propertyAccessor);
+		evaluationContext.setPropertyAccessors(propertyAccessors);
+		List<MethodResolver> methodResolvers = new ArrayList<>(4);
+		methodResolvers.add(this.methodResolver);
+		evaluationContext.setMethodResolvers(methodResolvers);
+	}
+
 
 	/**
 	 * Return the {@link Expression} for the specified SpEL value
@@ -92,10 +186,55 @@ public abstract class CachedExpressionEvaluator {
 		return expr;
 	}
 
+	/**
+	 * Return the {@link Expression} for the specified SpEL value, using the
+	 * shared expression cache of this evaluator.
+	 * <p>Parse the expression if it hasn't been already, evicting the least
+	 * recently parsed expression once the {@link #setCacheLimit cache limit}
+	 * has been reached.
+	 * @param elementKey the element on which the expression is defined
+	 * @param expression the expression to parse
+	 * @since 5.2.5
+	 */
+	protected Expression getExpression(AnnotatedElementKey elementKey, String expression) {
+		ExpressionKey expressionKey = createKey(elementKey, expression);
+		Expression expr = this.expressionAccessCache.get(expressionKey);
+		if (expr == null) {
+			synchronized (this.expressionCreationCache) {
+				expr = this.expressionCreationCache.get(expressionKey);
+				if (expr == null) {
+					expr = getParser().parseExpression(expression);
+					if (getCacheLimit() > 0) {
+						this.expressionAccessCache.put(expressionKey, expr);
+						this.expressionCreationCache.put(expressionKey, expr);
+					}
+				}
+			}
+		}
+		return expr;
+	}
+
+	/**
+	 * Clear the shared expression cache.
+	 * @since 5.2.5
+	 */
+	protected void clearExpressionCache() {
+		synchronized (this.expressionCreationCache) {
+			this.expressionAccessCache.clear();
+			this.expressionCreationCache.clear();
+		}
+	}
+
 	private ExpressionKey createKey(AnnotatedElementKey elementKey, String expression) {
 		return new ExpressionKey(elementKey, expression);
 	}
 
+	@Nullable
+	private static SpelCompilerMode getDefaultCompilerMode() {
+		// An explicitly configured mode is applied by SpelParserConfiguration itself
+		return (SpringProperties.getProperty(COMPILER_MODE_PROPERTY_NAME) != null ? null : SpelCompilerMode.MIXED);
+	}
+
 
 	/**
 	 * An expression key.
@@ -146,4 +285,40 @@ public abstract class CachedExpressionEvaluator {
 		}
 	}
 
+
+	/**
+	 * {@link ParameterNameDiscoverer} decorator which caches the discovered
+	 * parameter names per method, sparing the evaluation contexts the
+	 * reflective introspection on every invocation.
+	 */
+	private static class CachingParameterNameDiscoverer implements ParameterNameDiscoverer {
+
+		private static final String[] NO_NAMES = new String[0];
+
+		private final ParameterNameDiscoverer delegate;
+
+		private final Map<Method, String[]> parameterNamesCache = new ConcurrentReferenceHashMap<>(256);
+
+		public CachingParameterNameDiscoverer(ParameterNameDiscoverer delegate) {
+			this.delegate = delegate;
+		}
+
+		@Override
+		@Nullable
+		public String[] getParameterNames(Method method) {
+			String[] names = this.parameterNamesCache.get(method);
+			if (names == null) {
+				names = this.delegate.getParameterNames(method);
+				this.parameterNamesCache.put(method, (names != null ? names : NO_NAMES));
+			}
+			return (names != NO_NAMES ? names : null);
+		}
+
+		@Override
+		@Nullable
+		public String[] getParameterNames(Constructor<?> ctor) {
+			return this.delegate.getParameterNames(ctor);
+		}
+	}
+
 }
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.scheduling.concurrent;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.util.Assert;
+
+/**
+ * {@link TaskExecutionListener} that adapts the core pool size of a
+ * {@link ThreadPoolTaskExecutor} to the time tasks wait in its queue: the pool
+ * grows while the average queue wait exceeds a target, and shrinks again once
+ * the average queue wait drops below half the target, within the given bounds.
+ *
+ * <p>Since a {@code ThreadPoolExecutor} only starts threads beyond its core
+ * pool size when the queue is full, this is particularly effective for the
+ * default unbounded queue, which otherwise never lets the pool grow. Typical
+ * targets are {@code @Async} executors and the task executor of a
+ * {@code DefaultMessageListenerContainer}, which runs short-lived invoker
+ * tasks on a {@code ThreadPoolTaskExecutor} so that their queue wait reflects
+ * the load. For example:
+ *
+ * <pre class="code">
+ * ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+ * executor.addTaskExecutionListener(new CorePoolSizeController(executor, 2, 32));
+ * executor.initialize();</pre>
+ *
+ * <p>The pool size is reconsidered as tasks start, at most once per
+ * {@link #setAdjustmentIntervalMillis adjustment interval}, based on the
+ * tasks started since the previous adjustment. It grows by a quarter of the
+ * current core pool size (at least one thread) and shrinks one thread at a
+ * time, never exceeding the maximum pool size of the executor.
+ *
+ * @since 5.2.5
+ * @see ThreadPoolTaskExecutor#addTaskExecutionListener
+ * @see ThreadPoolTaskExecutor#setCorePoolSize
+ */
+public class CorePoolSizeController implements TaskExecutionListener {
+
+	private static final Log logger = LogFactory.getLog(CorePoolSizeController.class);
+
+	private final ThreadPoolTaskExecutor executor;
+
+	private final int minCorePoolSize;
+
+	private final int maxCorePoolSize;
+
+	private long targetQueueWaitNanos = TimeUnit.MILLISECONDS.toNanos(10);
+
+	private long adjustmentIntervalNanos = TimeUnit.SECONDS.toNanos(1);
+
+	private final LongAdder windowQueueWait = new LongAdder();
+
+	private final LongAdder windowTaskCount = new LongAdder();
+
+	private final AtomicLong lastAdjustment = new AtomicLong(System.nanoTime());
+
+
+	/**
+	 * Create a new CorePoolSizeController for the given executor.
+	 * @param executor the executor to adapt the core pool size of
+	 * @param minCorePoolSize the lowest core pool size to shrink to
+	 * @param maxCorePoolSize the highest core pool size to grow to
+	 */
+	public CorePoolSizeController(ThreadPoolTaskExecutor executor, int minCorePoolSize, int maxCorePoolSize) {
+		Assert.notNull(executor, "ThreadPoolTaskExecutor must not be null");
+		Assert.isTrue(minCorePoolSize > 0, "Minimum core pool size must be positive");
+		Assert.isTrue(maxCorePoolSize >= minCorePoolSize,
+				"Maximum core pool size must not be lower than minimum core pool size");
+		this.executor = executor;
+		this.minCorePoolSize = minCorePoolSize;
+		this.maxCorePoolSize = maxCorePoolSize;
+	}
+
+
+	/**
+	 * Set the average time tasks may wait in the queue before the pool grows.
+	 * Default is 10 milliseconds.
+	 */
+	public void setTargetQueueWaitMillis(long targetQueueWaitMillis) {
+		Assert.isTrue(targetQueueWaitMillis > 0, "Target queue wait must be positive");
+		this.targetQueueWaitNanos = TimeUnit.MILLISECONDS.toNanos(targetQueueWaitMillis);
+	}
+
+	/**
+	 * Set the minimum time between two adjustments of the core pool size.
+	 * Default is 1 second.
+	 */
+	public void setAdjustmentIntervalMillis(long adjustmentIntervalMillis) {
+		Assert.isTrue(adjustmentIntervalMillis >= 0, "Adjustment interval must not be negative");
+		this.adjustmentIntervalNanos = TimeUnit.MILLISECONDS.toNanos(adjustmentIntervalMillis);
+	}
+
+
+	@Override
+	public void taskStarted(Runnable task, long queueWaitNanos) {
+		this.windowQueueWait.add(queueWaitNanos);
+		this.windowTaskCount.increment();
+		long now = System.nanoTime();
+		long last = this.lastAdjustment.get();
+		if (now - last >= this.adjustmentIntervalNanos && this.lastAdjustment.compareAndSet(last, now)) {
+			long taskCount = this.windowTaskCount.sumThenReset();
+			long queueWait = this.windowQueueWait.sumThenReset();
+			if (taskCount > 0) {
+				adjust(queueWait / taskCount);
+			}
+		}
+	}
+
+	/**
+	 * Adjust the core pool size of the executor to the given average queue wait.
+	 * @param averageQueueWaitNanos the average time the tasks started since
+	 * the previous adjustment waited in the queue
+	 */
+	protected void adjust(long averageQueueWaitNanos) {
+		int corePoolSize = this.executor.getCorePoolSize();
+		int newCorePoolSize = corePoolSize;
+		if (averageQueueWaitNanos > this.targetQueueWaitNanos) {
+			int upperBound = Math.min(this.maxCorePoolSize, this.executor.getMaxPoolSize());
+			newCorePoolSize = Math.min(corePoolSize + Math.max(corePoolSize / 4, 1), upperBound);
+		}
+		else if (averageQueueWaitNanos < this.targetQueueWaitNanos / 2) {
+			newCorePoolSize = Math.max(corePoolSize - 1, this.minCorePoolSize);
+		}
+		if (newCorePoolSize != corePoolSize) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Changing core pool size from " + corePoolSize + " to " + newCorePoolSize +
+						" for average queue wait of " + averageQueueWaitNanos + " ns");
+			}
+			this.executor.setCorePoolSize(newCorePoolSize);
+		}
+	}
+
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.scheduling.concurrent;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.LatencyHistogram;
+
+/**
+ * {@link TaskExecutionListener} that records the queue wait and run times of
+ * the tasks of an executor in {@link LatencyHistogram histograms}, along with
+ * the number of failed and rejected tasks.
+ *
+ * <p>Typically obtained from a {@link ThreadPoolTaskExecutor} with
+ * {@link ThreadPoolTaskExecutor#setStatisticsEnabled statistics enabled},
+ * and exported through JMX as {@link ManagedExecutorStatistics}.
+ *
+ * @since 5.2.5
+ * @see ThreadPoolTaskExecutor#getStatistics()
+ */
+public class ExecutorStatistics implements TaskExecutionListener {
+
+	private final LatencyHistogram queueWaitTime = new LatencyHistogram();
+
+	private final LatencyHistogram runTime = new LatencyHistogram();
+
+	private final LongAdder failedCount = new LongAdder();
+
+	private final LongAdder rejectedCount = new LongAdder();
+
+
+	@Override
+	public void taskStarted(Runnable task, long queueWaitNanos) {
+		this.queueWaitTime.record(queueWaitNanos);
+	}
+
+	@Override
+	public void taskCompleted(Runnable task, long queueWaitNanos, long runNanos, @Nullable Throwable ex) {
+		this.runTime.record(runNanos);
+		if (ex != null) {
+			this.failedCount.increment();
+		}
+	}
+
+	@Override
+	public void taskRejected(Runnable task) {
+		this.rejectedCount.increment();
+	}
+
+
+	/**
+	 * Return the histogram of the time tasks spent waiting in the queue.
+	 */
+	public LatencyHistogram getQueueWaitTime() {
+		return this.queueWaitTime;
+	}
+
+	/**
+	 * Return the histogram of the time it took to run tasks.
+	 */
+	public LatencyHistogram getRunTime() {
+		return this.runTime;
+	}
+
+	/**
+	 * Return the number of tasks that have run, whether successfully or not.
+	 */
+	public long getCompletedCount() {
+		return this.runTime.getCount();
+	}
+
+	/**
+	 * Return the number of tasks that have thrown an exception.
+	 * @see TaskExecutionListener#taskCompleted
+	 */
+	public long getFailedCount() {
+		return this.failedCount.sum();
+	}
+
+	/**
+	 * Return the number of tasks that have been rejected by the executor.
+	 */
+	public long getRejectedCount() {
+		return this.rejectedCount.sum();
+	}
+
+	/**
+	 * Reset all statistics.
+	 */
+	public void reset() {
+		this.queueWaitTime.reset();
+		this.runTime.reset();
+		this.failedCount.reset();
+		this.rejectedCount.reset();
+	}
+
+	@Override
+	public String toString() {
+		return "queueWait=[" + this.queueWaitTime + "], run=[" + this.runTime +
+				"], failed=" + getFailedCount() + ", rejected=" + getRejectedCount();
+	}
+
+}
@@ -0,0 +1,727 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.concurrent;
+
+import java.util.Date;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.factory.BeanNameAware;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.Trigger;
+import org.springframework.scheduling.support.SimpleTriggerContext;
+import org.springframework.scheduling.support.TaskUtils;
+import org.springframework.util.Assert;
+import org.springframework.util.ErrorHandler;
+
+/**
+ * Implementation of Spring's {@link TaskScheduler} interface, backed by a
+ * hierarchical timing wheel instead of the heap-based delay queue of a
+ * {@link java.util.concurrent.ScheduledThreadPoolExecutor}.
+ *
+ * <p>Scheduling and cancelling a task take constant time, independent of the
+ * number of pending tasks, and do not contend on a shared lock: this suits
+ * very large numbers of timeouts, such as heartbeats and session expiry for
+ * many connections. In return, tasks are executed with the granularity of
+ * the {@link #setTickMillis tick duration}, never early but up to one tick late.
+ *
+ * <p>A single wheel thread advances the wheel once per tick and hands due tasks
+ * to the {@link #setExecutor executor}, by default a thread pool of the
+ * configured {@link #setPoolSize pool size} or, if so configured, a new
+ * {@link #setVirtualThreads virtual thread} per execution. The wheel consists
+ * of four levels of {@link #setTicksPerWheel ticksPerWheel} slots each, where
+ * every level covers {@code ticksPerWheel} times the period of the level below
+ * it; tasks further in the future are moved down a level whenever the level
+ * below completes a revolution.
+ *
+ * <p>Like any other {@code TaskScheduler}, an instance of this class can be
+ * declared as a bean to be picked up by
+ * {@link org.springframework.scheduling.annotation.EnableScheduling @EnableScheduling},
+ * or be registered through
+ * {@link org.springframework.scheduling.config.ScheduledTaskRegistrar#setTaskScheduler}
+ * in a {@link org.springframework.scheduling.annotation.SchedulingConfigurer}.
+ *
+ * @since 5.2.5
+ * @see #setTickMillis
+ * @see #setTicksPerWheel
+ * @see #setExecutor
+ * @see ThreadPoolTaskScheduler
+ */
+@SuppressWarnings("serial")
+public class HashedWheelTaskScheduler extends CustomizableThreadFactory
+		implements TaskScheduler, BeanNameAware, InitializingBean, DisposableBean {
+
+	private static final int LEVELS = 4;
+
+
+	protected final Log logger = LogFactory.getLog(getClass());
+
+	private long tickMillis = 10;
+
+	private int ticksPerWheel = 512;
+
+	private int poolSize = 1;
+
+	private boolean virtualThreads = false;
+
+	private ThreadFactory threadFactory = this;
+
+	private boolean threadNamePrefixSet = false;
+
+	@Nullable
+	private Executor executor;
+
+	@Nullable
+	private volatile ErrorHandler errorHandler;
+
+	@Nullable
+	private String beanName;
+
+	@Nullable
+	private ExecutorService internalExecutor;
+
+	@Nullable
+	private Wheel wheel;
+
+
+	/**
+	 * Set the duration of a tick of the wheel, in milliseconds: the granularity
+	 * at which tasks are executed. Default is 10.
+	 */
+	public void setTickMillis(long tickMillis) {
+		Assert.isTrue(tickMillis > 0, "'tickMillis' must be 1 or higher");
+		this.tickMillis = tickMillis;
+	}
+
+	/**
+	 * Set the number of slots of each level of the wheel, rounded up to a power
+	 * of two. Default is 512: with the default tick duration, tasks due within
+	 * about 5 seconds are placed directly on the lowest level.
+	 */
+	public void setTicksPerWheel(int ticksPerWheel) {
+		Assert.isTrue(ticksPerWheel > 1 && ticksPerWheel <= (1 << 15),
+				"'ticksPerWheel' must be between 2 and 32768");
+		this.ticksPerWheel = ticksPerWheel;
+	}
+
+	/**
+	 * Set the size of the thread pool that due tasks are executed on,
+	 * unless a custom {@link #setExecutor executor} has been specified.
+	 * Default is 1.
+	 */
+	public void setPoolSize(int poolSize) {
+		Assert.isTrue(poolSize > 0, "'poolSize' must be 1 or higher");
+		this.poolSize = poolSize;
+	}
+
+	/**
+	 * Specify whether to execute due tasks on a new virtual thread each instead
+	 * of on the internal thread pool, if supported by the current JDK.
+	 * Default is {@code false}.
+	 * <p>Only applies unless a custom {@link #setExecutor executor} has been
+	 * specified. On a JDK without virtual threads, the thread pool is used.
+	 * @see org.springframework.core.task.VirtualThreadTaskExecutor
+	 */
+	public void setVirtualThreads(boolean virtualThreads) {
+		this.virtualThreads = virtualThreads;
+	}
+
+	/**
+	 * Set the {@link Executor} to hand due tasks to, for example a
+	 * {@link ThreadPoolTaskExecutor} shared with other components.
+	 * <p>Default is an internal thread pool of the configured
+	 * {@link #setPoolSize pool size}, which is shut down along with this
+	 * scheduler. A custom executor is not shut down by this scheduler.
+	 */
+	public void setExecutor(@Nullable Executor executor) {
+		this.executor = executor;
+	}
+
+	/**
+	 * Set the ThreadFactory to use for the wheel thread and for the internal
+	 * thread pool. Default is this scheduler itself, creating threads
+	 * according to its {@link CustomizableThreadFactory} settings.
+	 */
+	public void setThreadFactory(@Nullable ThreadFactory threadFactory) {
+		this.threadFactory = (threadFactory != null ? threadFactory : this);
+	}
+
+	@Override
+	public void setThreadNamePrefix(@Nullable String threadNamePrefix) {
+		super.setThreadNamePrefix(threadNamePrefix);
+		this.threadNamePrefixSet = true;
+	}
+
+	/**
+	 * Set a custom {@link ErrorHandler} strategy.
+	 */
+	public void setErrorHandler(ErrorHandler errorHandler) {
+		this.errorHandler = errorHandler;
+	}
+
+	@Override
+	public void setBeanName(String name) {
+		this.beanName = name;
+	}
+
+
+	/**
+	 * Calls {@code initialize()} after the container applied all property values.
+	 * @see #initialize()
+	 */
+	@Override
+	public void afterPropertiesSet() {
+		initialize();
+	}
+
+	/**
+	 * Start the wheel thread and, if necessary, the internal thread pool.
+	 */
+	public void initialize() {
+		if (logger.isInfoEnabled()) {
+			logger.info("Initializing HashedWheelTaskScheduler" +
+					(this.beanName != null ? " '" + this.beanName + "'" : ""));
+		}
+		Assert.state(this.wheel == null, "HashedWheelTaskScheduler already initialized");
+		if (!this.threadNamePrefixSet && this.beanName != null) {
+			setThreadNamePrefix(this.beanName + "-");
+		}
+		Executor executor = this.executor;
+		if (executor == null) {
+			if (this.virtualThreads && VirtualThreadTaskExecutor.isVirtualThreadsSupported()) {
+				executor = new VirtualThreadTaskExecutor(getThreadNamePrefix());
+			}
+			else {
+				this.internalExecutor = Executors.newFixedThreadPool(this.poolSize, this.threadFactory);
+				executor = this.internalExecutor;
+			}
+		}
+		Wheel wheel = new Wheel(TimeUnit.MILLISECONDS.toNanos(this.tickMillis), this.ticksPerWheel, executor, logger);
+		wheel.start(this.threadFactory);
+		this.wheel = wheel;
+	}
+
+	/**
+	 * Calls {@code shutdown} when the BeanFactory destroys
+	 * the scheduler instance.
+	 * @see #shutdown()
+	 */
+	@Override
+	public void destroy() {
+		shutdown();
+	}
+
+	/**
+	 * Stop the wheel thread, cancelling all tasks which are not due yet,
+	 * and shut down the internal thread pool, if any.
+	 */
+	public void shutdown() {
+		if (logger.isInfoEnabled()) {
+			logger.info("Shutting down HashedWheelTaskScheduler" +
+					(this.beanName != null ? " '" + this.beanName + "'" : ""));
+		}
+		if (this.wheel != null) {
+			this.wheel.stop();
+		}
+		if (this.internalExecutor != null) {
+			this.internalExecutor.shutdownNow();
+		}
+	}
+
+	private Wheel obtainWheel() {
+		Assert.state(this.wheel != null, "HashedWheelTaskScheduler not initialized");
+		return this.wheel;
+	}
+
+	/**
+	 * Return the number of tasks currently scheduled on the wheel, not counting
+	 * tasks handed to the executor and not yet rescheduled.
+	 */
+	public int getScheduledTaskCount() {
+		return (this.wheel != null ? this.wheel.taskCount : 0);
+	}
+
+
+	@Override
+	@Nullable
+	public ScheduledFuture<?> schedule(Runnable task, Trigger trigger) {
+		Wheel wheel = obtainWheel();
+		ErrorHandler errorHandler = this.errorHandler;
+		if (errorHandler == null) {
+			errorHandler = TaskUtils.getDefaultErrorHandler(true);
+		}
+		Runnable taskToUse = TaskUtils.decorateTaskWithErrorHandler(task, errorHandler, true);
+		WheelTask wheelTask = new WheelTask(wheel, taskToUse, trigger);
+		Date scheduledTime = trigger.nextExecutionTime(wheelTask.triggerContext);
+		if (scheduledTime == null) {
+			return null;
+		}
+		wheelTask.scheduledExecutionTime = scheduledTime;
+		wheelTask.deadline = deadline(scheduledTime.getTime() - System.currentTimeMillis());
+		return wheel.schedule(wheelTask);
+	}
+
+	@Override
+	public ScheduledFuture<?> schedule(Runnable task, Date startTime) {
+		Wheel wheel = obtainWheel();
+		WheelTask wheelTask = new WheelTask(wheel, errorHandlingTask(task, false), 0);
+		wheelTask.deadline = deadline(startTime.getTime() - System.currentTimeMillis());
+		return wheel.schedule(wheelTask);
+	}
+
+	@Override
+	public ScheduledFuture<?> scheduleAtFixedRate(Runnable task, Date startTime, long period) {
+		Assert.isTrue(period > 0, "'period' must be positive");
+		Wheel wheel = obtainWheel();
+		WheelTask wheelTask = new WheelTask(wheel, errorHandlingTask(task, true), period);
+		wheelTask.deadline = deadline(startTime.getTime() - System.currentTimeMillis());
+		return wheel.schedule(wheelTask);
+	}
+
+	@Override
+	public ScheduledFuture<?> scheduleAtFixedRate(Runnable task, long period) {
+		return scheduleAtFixedRate(task, new Date(), period);
+	}
+
+	@Override
+	public ScheduledFuture<?> scheduleWithFixedDelay(Runnable task, Date startTime, long delay) {
+		Assert.isTrue(delay > 0, "'delay' must be positive");
+		Wheel wheel = obtainWheel();
+		WheelTask wheelTask = new WheelTask(wheel, errorHandlingTask(task, true), -delay);
+		wheelTask.deadline = deadline(startTime.getTime() - System.currentTimeMillis());
+		return wheel.schedule(wheelTask);
+	}
+
+	@Override
+	public ScheduledFuture<?> scheduleWithFixedDelay(Runnable task, long delay) {
+		return scheduleWithFixedDelay(task, new Date(), delay);
+	}
+
+
+	private Runnable errorHandlingTask(Runnable task, boolean isRepeatingTask) {
+		return TaskUtils.decorateTaskWithErrorHandler(task, this.errorHandler, isRepeatingTask);
+	}
+
+	private static long deadline(long delayMillis) {
+		// Cap the delay to avoid overflow: it amounts to more than a century anyway
+		return System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Math.min(delayMillis, Long.MAX_VALUE >> 22));
+	}
+
+
+	/**
+	 * The timing wheel: lock-free queues of tasks to add and to remove, and
+	 * buckets of tasks which are only ever accessed by the wheel thread.
+	 */
+	private static final class Wheel implements Runnable {
+
+		private final long tickNanos;
+
+		private final int bits;
+
+		private final long mask;
+
+		private final Bucket[][] buckets;
+
+		private final Executor executor;
+
+		private final Log logger;
+
+		private final Queue<WheelTask> pendingTasks = new ConcurrentLinkedQueue<>();
+
+		private final Queue<WheelTask> cancelledTasks = new ConcurrentLinkedQueue<>();
+
+		private volatile boolean running = true;
+
+		private volatile int taskCount;
+
+		@Nullable
+		private Thread thread;
+
+		private long startTime;
+
+		private long tick;
+
+		Wheel(long tickNanos, int ticksPerWheel, Executor executor, Log logger) {
+			this.tickNanos = tickNanos;
+			this.bits = 32 - Integer.numberOfLeadingZeros(ticksPerWheel - 1);
+			this.mask = (1L << this.bits) - 1;
+			this.buckets = new Bucket[LEVELS][1 << this.bits];
+			for (Bucket[] level : this.buckets) {
+				for (int i = 0; i < level.length; i++) {
+					level[i] = new Bucket();
+				}
+			}
+			this.executor = executor;
+			this.logger = logger;
+		}
+
+		void start(ThreadFactory threadFactory) {
+			this.startTime = System.nanoTime();
+			this.thread = threadFactory.newThread(this);
+			this.thread.start();
+		}
+
+		void stop() {
+			this.running = false;
+			Thread thread = this.thread;
+			if (thread != null && thread != Thread.currentThread()) {
+				LockSupport.unpark(thread);
+				try {
+					thread.join();
+				}
+				catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		}
+
+		ScheduledFuture<?> schedule(WheelTask task) {
+			if (!this.running) {
+				throw new TaskRejectedException("HashedWheelTaskScheduler has been shut down: " + task);
+			}
+			enqueue(task);
+			return task;
+		}
+
+		void reschedule(WheelTask task) {
+			if (this.running) {
+				enqueue(task);
+			}
+			else {
+				task.cancel(false);
+			}
+		}
+
+		private void enqueue(WheelTask task) {
+			this.pendingTasks.add(task);
+			if (!this.running) {
+				// Stopped concurrently: the wheel thread may have drained the queue already
+				task.cancel(false);
+			}
+		}
+
+		@Override
+		public void run() {
+			while (this.running) {
+				long sleepNanos = this.startTime + this.tick * this.tickNanos - System.nanoTime();
+				if (sleepNanos > 0) {
+					LockSupport.parkNanos(this, sleepNanos);
+					continue;
+				}
+				removeCancelledTasks();
+				addPendingTasks();
+				advance();
+				this.tick++;
+			}
+			cancelRemainingTasks();
+		}
+
+		private void removeCancelledTasks() {
+			WheelTask task;
+			while ((task = this.cancelledTasks.poll()) != null) {
+				if (task.bucket != null) {
+					task.bucket.remove(task);
+					this.taskCount--;
+				}
+			}
+		}
+
+		private void addPendingTasks() {
+			WheelTask task;
+			while ((task = this.pendingTasks.poll()) != null) {
+				if (!task.isCancelled()) {
+					long ticks = task.deadline - this.startTime;
+					task.deadlineTick = (ticks > 0 ? (ticks - 1) / this.tickNanos + 1 : 0);
+					add(task);
+					this.taskCount++;
+				}
+			}
+		}
+
+		private void add(WheelTask task) {
+			long slotTick = Math.max(task.deadlineTick, this.tick);
+			long delta = slotTick - this.tick;
+			int level = 0;
+			while (level < LEVELS - 1 && delta >= (1L << ((level + 1) * this.bits))) {
+				level++;
+			}
+			if (delta >= (1L << (LEVELS * this.bits))) {
+				// Beyond the range of the wheel: park on the top level and re-check when moved down
+				slotTick = this.tick + (1L << (LEVELS * this.bits)) - 1;
+			}
+			int index = (int) ((slotTick >>> (level * this.bits)) & this.mask);
+			this.buckets[level][index].add(task);
+		}
+
+		private void advance() {
+			int index = (int) (this.tick & this.mask);
+			if (index == 0) {
+				// Lowest level completed a revolution: move tasks down from the levels above
+				for (int level = 1; level < LEVELS; level++) {
+					int levelIndex = (int) ((this.tick >>> (level * this.bits)) & this.mask);
+					WheelTask task = this.buckets[level][levelIndex].clear();
+					while (task != null) {
+						WheelTask next = task.next;
+						task.next = null;
+						add(task);
+						task = next;
+					}
+					if (levelIndex != 0) {
+						break;
+					}
+				}
+			}
+			WheelTask task = this.buckets[0][index].clear();
+			while (task != null) {
+				WheelTask next = task.next;
+				task.next = null;
+				if (task.deadlineTick > this.tick) {
+					add(task);
+				}
+				else {
+					this.taskCount--;
+					dispatch(task);
+				}
+				task = next;
+			}
+		}
+
+		private void dispatch(WheelTask task) {
+			try {
+				this.executor.execute(task);
+			}
+			catch (RejectedExecutionException ex) {
+				task.reject(new TaskRejectedException(
+						"Executor [" + this.executor + "] did not accept task: " + task, ex));
+			}
+			catch (Throwable ex) {
+				// Fail this task only: the wheel thread has to keep serving all others
+				if (this.logger.isWarnEnabled()) {
+					this.logger.warn("Executor [" + this.executor + "] failed to dispatch task: " + task, ex);
+				}
+				task.reject(ex);
+			}
+		}
+
+		private void cancelRemainingTasks() {
+			removeCancelledTasks();
+			for (Bucket[] level : this.buckets) {
+				for (Bucket bucket : level) {
+					WheelTask task = bucket.clear();
+					while (task != null) {
+						WheelTask next = task.next;
+						task.next = null;
+						task.cancel(false);
+						task = next;
+					}
+				}
+			}
+			WheelTask task;
+			while ((task = this.pendingTasks.poll()) != null) {
+				task.cancel(false);
+			}
+			this.cancelledTasks.clear();
+			this.taskCount = 0;
+		}
+	}
+
+
+	/**
+	 * Doubly-linked list of the tasks in a slot of the wheel, allowing for
+	 * cancelled tasks to be removed in constant time.
+	 */
+	private static final class Bucket {
+
+		@Nullable
+		private WheelTask head;
+
+		void add(WheelTask task) {
+			task.bucket = this;
+			task.prev = null;
+			task.next = this.head;
+			if (this.head != null) {
+				this.head.prev = task;
+			}
+			this.head = task;
+		}
+
+		void remove(WheelTask task) {
+			if (task.prev != null) {
+				task.prev.next = task.next;
+			}
+			else {
+				this.head = task.next;
+			}
+			if (task.next != null) {
+				task.next.prev = task.prev;
+			}
+			task.bucket = null;
+			task.prev = null;
+			task.next = null;
+		}
+
+		/**
+		 * Detach all tasks from this bucket.
+		 * @return the first task, linked to the others through {@code next}
+		 */
+		@Nullable
+		WheelTask clear() {
+			WheelTask first = this.head;
+			for (WheelTask task = first; task != null; task = task.next) {
+				task.bucket = null;
+				task.prev = null;
+			}
+			this.head = null;
+			return first;
+		}
+	}
+
+
+	/**
+	 * A task on the wheel: one-shot, repeating at a fixed rate ({@code period > 0}),
+	 * with a fixed delay ({@code period < 0}) or according to a {@link Trigger}.
+	 */
+	private static final class WheelTask extends FutureTask<Object> implements ScheduledFuture<Object> {
+
+		private final Wheel wheel;
+
+		private final Runnable task;
+
+		private final long period;
+
+		@Nullable
+		private final Trigger trigger;
+
+		private final SimpleTriggerContext triggerContext = new SimpleTriggerContext();
+
+		@Nullable
+		private volatile Date scheduledExecutionTime;
+
+		private volatile long deadline;
+
+		// Only accessed by the wheel thread
+
+		private long deadlineTick;
+
+		@Nullable
+		private Bucket bucket;
+
+		@Nullable
+		private WheelTask prev;
+
+		@Nullable
+		private WheelTask next;
+
+		WheelTask(Wheel wheel, Runnable task, long period) {
+			super(task, null);
+			this.wheel = wheel;
+			this.task = task;
+			this.period = period;
+			this.trigger = null;
+		}
+
+		WheelTask(Wheel wheel, Runnable task, Trigger trigger) {
+			super(task, null);
+			this.wheel = wheel;
+			this.task = task;
+			this.period = 0;
+			this.trigger = trigger;
+		}
+
+		@Override
+		public void run() {
+			if (this.trigger != null) {
+				Date actualExecutionTime = new Date();
+				if (runAndReset()) {
+					Date scheduledTime = this.scheduledExecutionTime;
+					Assert.state(scheduledTime != null, "No scheduled execution");
+					this.triggerContext.update(scheduledTime, actualExecutionTime, new Date());
+					Date nextTime = this.trigger.nextExecutionTime(this.triggerContext);
+					if (nextTime == null) {
+						set(null);
+					}
+					else {
+						this.scheduledExecutionTime = nextTime;
+						this.deadline = deadline(nextTime.getTime() - System.currentTimeMillis());
+						this.wheel.reschedule(this);
+					}
+				}
+			}
+			else if (this.period != 0) {
+				if (runAndReset()) {
+					this.deadline = (this.period > 0 ? this.deadline + TimeUnit.MILLISECONDS.toNanos(this.period) :
+							System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(-this.period));
+					this.wheel.reschedule(this);
+				}
+			}
+			else {
+				super.run();
+			}
+		}
+
+		void reject(Throwable ex) {
+			setException(ex);
+		}
+
+		@Override
+		public boolean cancel(boolean mayInterruptIfRunning) {
+			boolean cancelled = super.cancel(mayInterruptIfRunning);
+			if (cancelled) {
+				this.wheel.cancelledTasks.add(this);
+			}
+			return cancelled;
+		}
+
+		@Override
+		public long getDelay(TimeUnit unit) {
+			return unit.convert(this.deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+		}
+
+		@Override
+		public int compareTo(Delayed other) {
+			if (this == other) {
+				return 0;
+			}
+			long diff = getDelay(TimeUnit.NANOSECONDS) - other.getDelay(TimeUnit.NANOSECONDS);
+			return (diff == 0 ? 0 : ((diff < 0) ? -1 : 1));
+		}
+
+		@Override
+		public String toString() {
+			return "HashedWheelTaskScheduler task for " + this.task;
+		}
+	}
+
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.scheduling.concurrent;
+
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.util.Assert;
+
+/**
+ * Management view of a {@link ThreadPoolTaskExecutor} and its
+ * {@link ExecutorStatistics}, for export as an MBean: declare it as a bean
+ * along with {@code @EnableMBeanExport} or an {@code AnnotationMBeanExporter}.
+ *
+ * <p>Times are exposed in nanoseconds. The statistics of the executor need
+ * to be {@link ThreadPoolTaskExecutor#setStatisticsEnabled enabled}.
+ *
+ * @since 5.2.5
+ * @see ThreadPoolTaskExecutor#getStatistics()
+ */
+@ManagedResource(description = "Thread pool executor statistics")
+public class ManagedExecutorStatistics {
+
+	private final ThreadPoolTaskExecutor executor;
+
+
+	/**
+	 * Create a new ManagedExecutorStatistics for the given executor.
+	 * @param executor the executor to expose
+	 */
+	public ManagedExecutorStatistics(ThreadPoolTaskExecutor executor) {
+		Assert.notNull(executor, "ThreadPoolTaskExecutor must not be null");
+		this.executor = executor;
+	}
+
+
+	@ManagedAttribute(description = "Core number of threads")
+	public int getCorePoolSize() {
+		return this.executor.getCorePoolSize();
+	}
+
+	@ManagedAttribute
+	public void setCorePoolSize(int corePoolSize) {
+		this.executor.setCorePoolSize(corePoolSize);
+	}
+
+	@ManagedAttribute(description = "Maximum number of threads")
+	public int getMaxPoolSize() {
+		return this.executor.getMaxPoolSize();
+	}
+
+	@ManagedAttribute
+	public void setMaxPoolSize(int maxPoolSize) {
+		this.executor.setMaxPoolSize(maxPoolSize);
+	}
+
+	@ManagedAttribute(description = "Current number of threads")
+	public int getPoolSize() {
+		return this.executor.getPoolSize();
+	}
+
+	@ManagedAttribute(description = "Number of threads running a task")
+	public int getActiveCount() {
+		return this.executor.getActiveCount();
+	}
+
+	@ManagedAttribute(description = "Number of tasks waiting in the queue")
+	public int getQueueSize() {
+		return this.executor.getQueueSize();
+	}
+
+	@ManagedAttribute(description = "Average time tasks waited in the queue, in nanoseconds")
+	public double getQueueWaitMean() {
+		return getStatistics().getQueueWaitTime().getMean();
+	}
+
+	@ManagedAttribute(description = "Median time tasks waited in the queue, in nanoseconds")
+	public long getQueueWaitP50() {
+		return getStatistics().getQueueWaitTime().getPercentile(0.5);
+	}
+
+	@ManagedAttribute(description = "99th percentile of the time tasks waited in the queue, in nanoseconds")
+	public long getQueueWaitP99() {
+		return getStatistics().getQueueWaitTime().getPercentile(0.99);
+	}
+
+	@ManagedAttribute(description = "Longest time a task waited in the queue, in nanoseconds")
+	public long getQueueWaitMax() {
+		return getStatistics().getQueueWaitTime().getMax();
+	}
+
+	@ManagedAttribute(description = "Average time it took to run a task, in nanoseconds")
+	public double getRunTimeMean() {
+		return getStatistics().getRunTime().getMean();
+	}
+
+	@ManagedAttribute(description = "Median time it took to run a task, in nanoseconds")
+	public long getRunTimeP50() {
+		return getStatistics().getRunTime().getPercentile(0.5);
+	}
+
+	@ManagedAttribute(description = "99th percentile of the time it took to run a task, in nanoseconds")
+	public long getRunTimeP99() {
+		return getStatistics().getRunTime().getPercentile(0.99);
+	}
+
+	@ManagedAttribute(description = "Longest time it took to run a task, in nanoseconds")
+	public long getRunTimeMax() {
+		return getStatistics().getRunTime().getMax();
+	}
+
+	@ManagedAttribute(description = "Number of tasks that have run")
+	public long getCompletedCount() {
+		return getStatistics().getCompletedCount();
+	}
+
+	@ManagedAttribute(description = "Number of tasks that have thrown an exception")
+	public long getFailedCount() {
+		return getStatistics().getFailedCount();
+	}
+
+	@ManagedAttribute(description = "Number of tasks rejected by the executor")
+	public long getRejectedCount() {
+		return getStatistics().getRejectedCount();
+	}
+
+	@ManagedOperation(description = "Reset the statistics of the executor")
+	public void resetStatistics() {
+		getStatistics().reset();
+	}
+
+	/**
+	 * Return the statistics of the executor.
+	 * @throws IllegalStateException if statistics are not enabled on the executor
+	 */
+	public ExecutorStatistics getStatistics() {
+		ExecutorStatistics statistics = this.executor.getStatistics();
+		Assert.state(statistics != null, "Statistics not enabled on ThreadPoolTaskExecutor");
+		return statistics;
+	}
+
+}
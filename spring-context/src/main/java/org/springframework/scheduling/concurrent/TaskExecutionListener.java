@@ -0,0 +1,67 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.scheduling.concurrent;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Callback interface for observing the tasks run by a {@link ThreadPoolTaskExecutor},
+ * e.g. for gathering statistics or for adapting the pool to the load.
+ *
+ * <p>Callbacks are invoked on the thread that submits or runs the task and should
+ * return quickly. Exceptions thrown by a listener are logged and otherwise ignored.
+ *
+ * @since 5.2.5
+ * @see ThreadPoolTaskExecutor#addTaskExecutionListener
+ * @see ExecutorStatistics
+ * @see CorePoolSizeController
+ */
+public interface TaskExecutionListener {
+
+	/**
+	 * Called on the pool thread right before the given task runs.
+	 * @param task the task as submitted to the executor
+	 * @param queueWaitNanos the time the task spent waiting in the queue
+	 */
+	default void taskStarted(Runnable task, long queueWaitNanos) {
+	}
+
+	/**
+	 * Called on the pool thread after the given task has run.
+	 * <p>For a task submitted for a {@link java.util.concurrent.Future}, the
+	 * exception captured by the future is exposed here. This does not apply to
+	 * tasks wrapping their own exception handling, e.g. {@code @Async} methods
+	 * returning a {@link java.util.concurrent.CompletableFuture}.
+	 * @param task the task as submitted to the executor
+	 * @param queueWaitNanos the time the task spent waiting in the queue
+	 * @param runNanos the time it took to run the task
+	 * @param ex the exception thrown by the task, or {@code null} if none
+	 */
+	default void taskCompleted(Runnable task, long queueWaitNanos, long runNanos, @Nullable Throwable ex) {
+	}
+
+	/**
+	 * Called on the submitting thread when the given task has been rejected
+	 * by the executor, before the {@link java.util.concurrent.RejectedExecutionHandler}
+	 * applies.
+	 * @param task the task as submitted to the executor
+	 */
+	default void taskRejected(Runnable task) {
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,9 +16,12 @@
 
 package org.springframework.scheduling.concurrent;
 
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
@@ -58,6 +61,12 @@ import org.springframework.util.concurrent.ListenableFutureTask;
  * {@link #setCorePoolSize "corePoolSize"} (see also the
  * {@link #setAllowCoreThreadTimeOut "allowCoreThreadTimeOut"} mode of scaling).
  *
+ * <p>The time tasks spend waiting in the queue and running can be recorded as
+ * {@link #setStatisticsEnabled "statistics"}, exported through JMX as
+ * {@link ManagedExecutorStatistics}, and observed by custom
+ * {@link #addTaskExecutionListener TaskExecutionListeners}: for example, a
+ * {@link CorePoolSizeController} which adapts the core pool size to the queue wait.
+ *
  * <p><b>NOTE:</b> This class implements Spring's
  * {@link org.springframework.core.task.TaskExecutor} interface as well as the
  * {@link java.util.concurrent.Executor} interface, with the former being the primary
@@ -97,6 +106,11 @@ public class ThreadPoolTaskExecutor extends ExecutorConfigurationSupport
 	@Nullable
 	private TaskDecorator taskDecorator;
 
+	@Nullable
+	private ExecutorStatistics statistics;
+
+	private final List<TaskExecutionListener> taskExecutionListeners = new CopyOnWriteArrayList<>();
+
 	@Nullable
 	private ThreadPoolExecutor threadPoolExecutor;
 
@@ -211,6 +225,61 @@ public class ThreadPoolTaskExecutor extends ExecutorConfigurationSupport
 		this.taskDecorator = taskDecorator;
 	}
 
+	/**
+	 * Specify whether to record {@link ExecutorStatistics} for the tasks of this
+	 * executor: the time they spend waiting in the queue and running, as well as
+	 * the number of failed and rejected tasks.
+	 * <p>Default is "false". Needs to be set before initialization.
+	 * @since 5.2.5
+	 * @see #getStatistics()
+	 * @see ManagedExecutorStatistics
+	 */
+	public void setStatisticsEnabled(boolean statisticsEnabled) {
+		this.statistics = (statisticsEnabled ? new ExecutorStatistics() : null);
+	}
+
+	/**
+	 * Return the statistics recorded for the tasks of this executor,
+	 * or {@code null} if not {@link #setStatisticsEnabled enabled}.
+	 * @since 5.2.5
+	 */
+	@Nullable
+	public ExecutorStatistics getStatistics() {
+		return this.statistics;
+	}
+
+	/**
+	 * Specify the {@link TaskExecutionListener TaskExecutionListeners} to notify
+	 * when tasks start, complete or get rejected, replacing any registered ones.
+	 * <p>Listeners need to be registered before initialization in order to
+	 * instrument the executor; further listeners may be added at runtime then.
+	 * @since 5.2.5
+	 * @see #addTaskExecutionListener
+	 */
+	public void setTaskExecutionListeners(List<TaskExecutionListener> taskExecutionListeners) {
+		this.taskExecutionListeners.clear();
+		this.taskExecutionListeners.addAll(taskExecutionListeners);
+	}
+
+	/**
+	 * Add a {@link TaskExecutionListener} to notify when tasks start, complete
+	 * or get rejected.
+	 * @since 5.2.5
+	 * @see #setTaskExecutionListeners
+	 */
+	public void addTaskExecutionListener(TaskExecutionListener taskExecutionListener) {
+		Assert.notNull(taskExecutionListener, "TaskExecutionListener must not be null");
+		this.taskExecutionListeners.add(taskExecutionListener);
+	}
+
+	/**
+	 * Return the registered {@link TaskExecutionListener TaskExecutionListeners}.
+	 * @since 5.2.5
+	 */
+	public List<TaskExecutionListener> getTaskExecutionListeners() {
+		return this.taskExecutionListeners;
+	}
+
 
 	/**
 	 * Note: This method exposes an {@link ExecutorService} to its base class
@@ -223,16 +292,27 @@ public class ThreadPoolTaskExecutor extends ExecutorConfigurationSupport
 			ThreadFactory threadFactory, RejectedExecutionHandler rejectedExecutionHandler) {
 
 		BlockingQueue<Runnable> queue = createQueue(this.queueCapacity);
+		boolean instrumented = (this.statistics != null || !this.taskExecutionListeners.isEmpty());
 
 		ThreadPoolExecutor executor;
-		if (this.taskDecorator != null) {
+		if (this.taskDecorator != null || instrumented) {
+			RejectedExecutionHandler handler = rejectedExecutionHandler;
+			if (instrumented) {
+				handler = (task, rejectingExecutor) -> {
+					notifyTaskRejected(task instanceof InstrumentedTask ? ((InstrumentedTask) task).original : task);
+					rejectedExecutionHandler.rejectedExecution(task, rejectingExecutor);
+				};
+			}
 			executor = new ThreadPoolExecutor(
 					this.corePoolSize, this.maxPoolSize, this.keepAliveSeconds, TimeUnit.SECONDS,
-					queue, threadFactory, rejectedExecutionHandler) {
+					queue, threadFactory, handler) {
 				@Override
 				public void execute(Runnable command) {
-					Runnable decorated = taskDecorator.decorate(command);
-					if (decorated != command) {
+					Runnable decorated = (taskDecorator != null ? taskDecorator.decorate(command) : command);
+					if (instrumented) {
+						decorated = new InstrumentedTask(decorated, command);
+					}
+					else if (decorated != command) {
 						decoratedTaskMap.put(decorated, command);
 					}
 					super.execute(decorated);
@@ -306,6 +386,19 @@ public class ThreadPoolTaskExecutor extends ExecutorConfigurationSupport
 		return this.threadPoolExecutor.getActiveCount();
 	}
 
+	/**
+	 * Return the number of tasks waiting in the queue.
+	 * @since 5.2.5
+	 * @see java.util.concurrent.ThreadPoolExecutor#getQueue()
+	 */
+	public int getQueueSize() {
+		if (this.threadPoolExecutor == null) {
+			// Not initialized yet: assume no queued tasks.
+			return 0;
+		}
+		return this.threadPoolExecutor.getQueue().size();
+	}
+
 
 	@Override
 	public void execute(Runnable task) {
@@ -375,10 +468,121 @@ public class ThreadPoolTaskExecutor extends ExecutorConfigurationSupport
 	protected void cancelRemainingTask(Runnable task) {
 		super.cancelRemainingTask(task);
 		// Cancel associated user-level Future handle as well
-		Object original = this.decoratedTaskMap.get(task);
+		Object original = (task instanceof InstrumentedTask ?
+				((InstrumentedTask) task).original : this.decoratedTaskMap.get(task));
 		if (original instanceof Future) {
 			((Future<?>) original).cancel(true);
 		}
 	}
 
+	private void notifyTaskStarted(Runnable task, long queueWaitNanos) {
+		if (this.statistics != null) {
+			this.statistics.taskStarted(task, queueWaitNanos);
+		}
+		for (TaskExecutionListener listener : this.taskExecutionListeners) {
+			try {
+				listener.taskStarted(task, queueWaitNanos);
+			}
+			catch (Throwable ex) {
+				logger.warn("TaskExecutionListener threw exception on task start", ex);
+			}
+		}
+	}
+
+	private void notifyTaskCompleted(Runnable task, long queueWaitNanos, long runNanos, @Nullable Throwable failure) {
+		if (this.statistics != null) {
+			this.statistics.taskCompleted(task, queueWaitNanos, runNanos, failure);
+		}
+		for (TaskExecutionListener listener : this.taskExecutionListeners) {
+			try {
+				listener.taskCompleted(task, queueWaitNanos, runNanos, failure);
+			}
+			catch (Throwable ex) {
+				logger.warn("TaskExecutionListener threw exception on task completion", ex);
+			}
+		}
+	}
+
+	private void notifyTaskRejected(Runnable task) {
+		if (this.statistics != null) {
+			this.statistics.taskRejected(task);
+		}
+		for (TaskExecutionListener listener : this.taskExecutionListeners) {
+			try {
+				listener.taskRejected(task);
+			}
+			catch (Throwable ex) {
+				logger.warn("TaskExecutionListener threw exception on task rejection", ex);
+			}
+		}
+	}
+
+
+	/**
+	 * Wrapper for a task that measures the time it waits in the queue and runs,
+	 * notifying the statistics and listeners of the executor.
+	 */
+	private class InstrumentedTask implements Runnable {
+
+		private final Runnable task;
+
+		private final Runnable original;
+
+		private final long submitTime = System.nanoTime();
+
+		public InstrumentedTask(Runnable task, Runnable original) {
+			this.task = task;
+			this.original = original;
+		}
+
+		@Override
+		public void run() {
+			long startTime = System.nanoTime();
+			long queueWait = startTime - this.submitTime;
+			notifyTaskStarted(this.original, queueWait);
+			Throwable failure = null;
+			try {
+				this.task.run();
+			}
+			catch (RuntimeException | Error ex) {
+				failure = ex;
+				throw ex;
+			}
+			finally {
+				if (failure == null) {
+					failure = getFutureFailure(this.original);
+				}
+				notifyTaskCompleted(this.original, queueWait, System.nanoTime() - startTime, failure);
+			}
+		}
+
+		/**
+		 * Obtain the exception captured by a completed {@link Future} task,
+		 * as created by {@code submit} and {@code submitListenable}.
+		 */
+		@Nullable
+		private Throwable getFutureFailure(Runnable task) {
+			if (task instanceof Future) {
+				Future<?> future = (Future<?>) task;
+				if (future.isDone() && !future.isCancelled()) {
+					try {
+						future.get();
+					}
+					catch (ExecutionException ex) {
+						return ex.getCause();
+					}
+					catch (InterruptedException ex) {
+						Thread.currentThread().interrupt();
+					}
+				}
+			}
+			return null;
+		}
+
+		@Override
+		public String toString() {
+			return this.original.toString();
+		}
+	}
+
 }
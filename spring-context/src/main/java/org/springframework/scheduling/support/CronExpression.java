@@ -0,0 +1,548 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.support;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Year;
+import java.time.ZonedDateTime;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.Arrays;
+import java.util.Locale;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+/**
+ * Representation of a
+ * <a href="https://www.manpagez.com/man/5/crontab/">crontab expression</a>
+ * that can calculate the next time it matches.
+ *
+ * <p>The expression is a list of six single space-separated fields: representing
+ * second, minute, hour, day of month, month, day of week. Month and weekday names
+ * can be given as the first three letters of the English names. Both the day of
+ * month and the day of week have to match; use {@code ?} or {@code *} for the
+ * field that does not matter.
+ *
+ * <p>In addition to lists, ranges and increments, the following special
+ * characters are supported:
+ * <ul>
+ * <li>{@code L} in the day-of-month field: the last day of the month,
+ * or {@code L-n} for the n-th last day of the month;</li>
+ * <li>{@code W} in the day-of-month field: the weekday (Monday to Friday)
+ * nearest to the given day within the month, for example {@code 15W},
+ * or {@code LW} for the last weekday of the month;</li>
+ * <li>{@code L} in the day-of-week field: the last given weekday of the month,
+ * for example {@code 5L} or {@code FRIL} for the last Friday;</li>
+ * <li>{@code #} in the day-of-week field: the n-th given weekday of the month,
+ * for example {@code MON#2} for the second Monday.</li>
+ * </ul>
+ *
+ * <p>Example expressions:
+ * <ul>
+ * <li>"0 0 * * * *" = the top of every hour of every day.</li>
+ * <li>"*&#47;10 * * * * *" = every ten seconds.</li>
+ * <li>"0 0 8-10 * * *" = 8, 9 and 10 o'clock of every day.</li>
+ * <li>"0 0 6,19 * * *" = 6:00 AM and 7:00 PM every day.</li>
+ * <li>"0 0/30 8-10 * * *" = 8:00, 8:30, 9:00, 9:30, 10:00 and 10:30 every day.</li>
+ * <li>"0 0 9-17 * * MON-FRI" = on the hour nine-to-five weekdays</li>
+ * <li>"0 0 0 25 12 ?" = every Christmas Day at midnight</li>
+ * <li>"0 0 0 L * *" = last day of the month at midnight</li>
+ * <li>"0 0 0 ? * 5#2" = the second Friday in the month at midnight</li>
+ * </ul>
+ *
+ * <p>The following macros are supported as well: {@code @yearly} (or
+ * {@code @annually}), {@code @monthly}, {@code @weekly}, {@code @daily}
+ * (or {@code @midnight}) and {@code @hourly}.
+ *
+ * <p>Each field is parsed into a bit set of its matching values once, so that
+ * the next matching value of a field is found with a single bit operation
+ * rather than by iterating over a calendar.
+ *
+ * @since 5.2.5
+ * @see CronTrigger
+ */
+public final class CronExpression {
+
+	/**
+	 * The Gregorian calendar repeats itself after 400 years:
+	 * an expression without a match within that time never matches.
+	 */
+	private static final int MAX_YEARS = 400;
+
+	private static final String[] MACROS = new String[] {
+			"@yearly", "0 0 0 1 1 *",
+			"@annually", "0 0 0 1 1 *",
+			"@monthly", "0 0 0 1 * *",
+			"@weekly", "0 0 0 * * 0",
+			"@daily", "0 0 0 * * *",
+			"@midnight", "0 0 0 * * *",
+			"@hourly", "0 0 * * * *"
+	};
+
+	private static final String[] MONTH_NAMES = new String[] {
+			"", "JAN", "FEB", "MAR", "APR", "MAY", "JUN", "JUL", "AUG", "SEP", "OCT", "NOV", "DEC"};
+
+	private static final String[] DAY_OF_WEEK_NAMES = new String[] {
+			"SUN", "MON", "TUE", "WED", "THU", "FRI", "SAT"};
+
+	private static final int NONE = -1;
+
+	private static final int LAST_WEEKDAY = 32;
+
+
+	private final String expression;
+
+	private final long seconds;
+
+	private final long minutes;
+
+	private final long hours;
+
+	// Bits 1 to 31
+	private final long daysOfMonth;
+
+	// Bits 1 to 12
+	private final long months;
+
+	// Bits 0 (Sunday) to 6 (Saturday)
+	private final long daysOfWeek;
+
+	// Offset from the last day of the month ("L-n"), or NONE
+	private final int lastDayOffset;
+
+	// Day of month for "nW", LAST_WEEKDAY for "LW", or NONE
+	private final int nearestWeekday;
+
+	// Day of week for "nL", or NONE
+	private final int lastDayOfWeek;
+
+	// Day of week for "n#k", or NONE
+	private final int nthDayOfWeek;
+
+	private final int nth;
+
+	// Days of month matching the days of week, for each day of week of the first of the month
+	private final long[] daysOfWeekByFirstDay = new long[7];
+
+
+	private CronExpression(String expression, String[] fields) {
+		this.expression = expression;
+		this.seconds = parseField(fields[0], 0, 59, null, false);
+		this.minutes = parseField(fields[1], 0, 59, null, false);
+		this.hours = parseField(fields[2], 0, 23, null, false);
+		this.months = parseField(fields[4], 1, 12, MONTH_NAMES, false);
+
+		String dayOfMonth = fields[3].toUpperCase(Locale.ENGLISH);
+		int lastDayOffset = NONE;
+		int nearestWeekday = NONE;
+		long daysOfMonth = 0;
+		if (dayOfMonth.equals("L")) {
+			lastDayOffset = 0;
+		}
+		else if (dayOfMonth.startsWith("L-")) {
+			lastDayOffset = parseValue(dayOfMonth.substring(2), 0, 30, null, dayOfMonth);
+		}
+		else if (dayOfMonth.equals("LW")) {
+			nearestWeekday = LAST_WEEKDAY;
+		}
+		else if (dayOfMonth.endsWith("W")) {
+			nearestWeekday = parseValue(dayOfMonth.substring(0, dayOfMonth.length() - 1), 1, 31, null, dayOfMonth);
+		}
+		else {
+			daysOfMonth = parseField(dayOfMonth, 1, 31, null, true);
+		}
+		this.daysOfMonth = daysOfMonth;
+		this.lastDayOffset = lastDayOffset;
+		this.nearestWeekday = nearestWeekday;
+
+		String dayOfWeek = fields[5].toUpperCase(Locale.ENGLISH);
+		int lastDayOfWeek = NONE;
+		int nthDayOfWeek = NONE;
+		int nth = 0;
+		long daysOfWeek = 0;
+		int hash = dayOfWeek.indexOf('#');
+		if (dayOfWeek.length() > 1 && dayOfWeek.endsWith("L")) {
+			lastDayOfWeek = parseValue(dayOfWeek.substring(0, dayOfWeek.length() - 1), 0, 7,
+					DAY_OF_WEEK_NAMES, dayOfWeek) % 7;
+		}
+		else if (hash != -1) {
+			nthDayOfWeek = parseValue(dayOfWeek.substring(0, hash), 0, 7, DAY_OF_WEEK_NAMES, dayOfWeek) % 7;
+			nth = parseValue(dayOfWeek.substring(hash + 1), 1, 5, null, dayOfWeek);
+		}
+		else {
+			daysOfWeek = parseField(dayOfWeek, 0, 7, DAY_OF_WEEK_NAMES, true);
+			if ((daysOfWeek & (1L << 7)) != 0) {
+				// Sunday can be represented as 0 or 7
+				daysOfWeek = (daysOfWeek | 1L) & ~(1L << 7);
+			}
+		}
+		this.daysOfWeek = daysOfWeek;
+		this.lastDayOfWeek = lastDayOfWeek;
+		this.nthDayOfWeek = nthDayOfWeek;
+		this.nth = nth;
+
+		for (int firstDay = 0; firstDay < 7; firstDay++) {
+			long days = 0;
+			for (int day = 1; day <= 31; day++) {
+				if ((daysOfWeek & (1L << ((firstDay + day - 1) % 7))) != 0) {
+					days |= (1L << day);
+				}
+			}
+			this.daysOfWeekByFirstDay[firstDay] = days;
+		}
+	}
+
+
+	/**
+	 * Parse the given crontab expression.
+	 * @param expression the expression to parse: six space-separated fields,
+	 * or one of the supported macros
+	 * @return the parsed {@code CronExpression}
+	 * @throws IllegalArgumentException if the expression cannot be parsed
+	 */
+	public static CronExpression parse(String expression) {
+		Assert.hasLength(expression, "Cron expression must not be empty");
+		String[] fields = StringUtils.tokenizeToStringArray(resolveMacro(expression), " ");
+		if (fields.length != 6) {
+			throw new IllegalArgumentException(String.format(
+					"Cron expression must consist of 6 fields (found %d in \"%s\")", fields.length, expression));
+		}
+		try {
+			return new CronExpression(expression, fields);
+		}
+		catch (IllegalArgumentException ex) {
+			throw new IllegalArgumentException(ex.getMessage() + " in expression \"" + expression + "\"", ex);
+		}
+	}
+
+	/**
+	 * Determine whether the given string represents a valid cron expression.
+	 * @param expression the expression to evaluate
+	 * @return {@code true} if the given expression is a valid cron expression
+	 */
+	public static boolean isValidExpression(@Nullable String expression) {
+		if (expression == null) {
+			return false;
+		}
+		try {
+			parse(expression);
+			return true;
+		}
+		catch (IllegalArgumentException ex) {
+			return false;
+		}
+	}
+
+	private static String resolveMacro(String expression) {
+		String trimmed = expression.trim();
+		for (int i = 0; i < MACROS.length; i += 2) {
+			if (MACROS[i].equalsIgnoreCase(trimmed)) {
+				return MACROS[i + 1];
+			}
+		}
+		return expression;
+	}
+
+	/**
+	 * Parse a comma-separated list of values, ranges and increments
+	 * into a bit set of the values that it matches.
+	 */
+	private static long parseField(String field, int min, int max, @Nullable String[] names, boolean questionMark) {
+		String upperCaseField = field.toUpperCase(Locale.ENGLISH);
+		long bits = 0;
+		for (String part : StringUtils.delimitedListToStringArray(upperCaseField, ",")) {
+			int slash = part.indexOf('/');
+			String range = (slash != -1 ? part.substring(0, slash) : part);
+			int start;
+			int end;
+			if (range.equals("*") || (questionMark && range.equals("?"))) {
+				start = min;
+				end = max;
+			}
+			else {
+				int dash = range.indexOf('-');
+				if (dash == -1) {
+					start = parseValue(range, min, max, names, part);
+					end = (slash != -1 ? max : start);
+				}
+				else {
+					start = parseValue(range.substring(0, dash), min, max, names, part);
+					end = parseValue(range.substring(dash + 1), min, max, names, part);
+					if (start > end) {
+						throw new IllegalArgumentException("Invalid inverted range: '" + part + "'");
+					}
+				}
+			}
+			int step = 1;
+			if (slash != -1) {
+				step = parseValue(part.substring(slash + 1), 0, Integer.MAX_VALUE, null, part);
+				if (step <= 0) {
+					throw new IllegalArgumentException("Incrementer delta must be 1 or higher: '" + part + "'");
+				}
+			}
+			// Long index: steps beyond the range must not overflow back into it
+			for (long i = start; i <= end; i += step) {
+				bits |= (1L << i);
+			}
+		}
+		return bits;
+	}
+
+	private static int parseValue(String value, int min, int max, @Nullable String[] names, String part) {
+		int result = -1;
+		if (names != null) {
+			result = Arrays.asList(names).indexOf(value);
+		}
+		if (result == -1) {
+			try {
+				result = Integer.parseInt(value);
+			}
+			catch (NumberFormatException ex) {
+				throw new IllegalArgumentException("Invalid value '" + value + "' in '" + part + "'");
+			}
+		}
+		if (result < min || result > max) {
+			throw new IllegalArgumentException("Value " + result + " out of range [" + min + ", " + max +
+					"] in '" + part + "'");
+		}
+		return result;
+	}
+
+
+	/**
+	 * Calculate the next date-time matching this expression, strictly after
+	 * the given date-time and disregarding its fraction of a second.
+	 * @param dateTime the date-time to start from
+	 * @return the next matching date-time, or {@code null} if there is none
+	 */
+	@Nullable
+	public LocalDateTime next(LocalDateTime dateTime) {
+		return nextOrSame(dateTime.withNano(0).plusSeconds(1));
+	}
+
+	/**
+	 * Calculate the next date-time matching this expression in the time zone
+	 * of the given date-time, strictly after the given date-time and
+	 * disregarding its fraction of a second.
+	 * <p>Local date-times which do not exist in the time zone, because of a
+	 * daylight saving time gap, are skipped. During an overlap, a local
+	 * date-time matches once, with the offset of the given date-time if valid.
+	 * @param dateTime the date-time to start from
+	 * @return the next matching date-time, or {@code null} if there is none
+	 */
+	@Nullable
+	public ZonedDateTime next(ZonedDateTime dateTime) {
+		ZoneRules rules = dateTime.getZone().getRules();
+		LocalDateTime candidate = next(dateTime.toLocalDateTime());
+		while (candidate != null) {
+			ZoneOffsetTransition transition = rules.getTransition(candidate);
+			if (transition != null && transition.isGap()) {
+				candidate = nextOrSame(transition.getDateTimeAfter());
+				continue;
+			}
+			ZonedDateTime result = ZonedDateTime.ofLocal(candidate, dateTime.getZone(), dateTime.getOffset());
+			if (result.isAfter(dateTime)) {
+				return result;
+			}
+			candidate = next(candidate);
+		}
+		return null;
+	}
+
+	/**
+	 * Find the first match at or after the given date-time, advancing each
+	 * field straight to its next matching value and resetting the fields
+	 * of lower order whenever a field of higher order changes.
+	 */
+	@Nullable
+	private LocalDateTime nextOrSame(LocalDateTime dateTime) {
+		int year = dateTime.getYear();
+		int month = dateTime.getMonthValue();
+		int day = dateTime.getDayOfMonth();
+		int hour = dateTime.getHour();
+		int minute = dateTime.getMinute();
+		int second = dateTime.getSecond();
+		int maxYear = year + MAX_YEARS;
+
+		while (year <= maxYear) {
+			int nextMonth = nextSetBit(this.months, month);
+			if (nextMonth == -1) {
+				year++;
+				month = 1;
+				day = 1;
+				hour = minute = second = 0;
+				continue;
+			}
+			if (nextMonth != month) {
+				month = nextMonth;
+				day = 1;
+				hour = minute = second = 0;
+			}
+			int nextDay = nextSetBit(daysOfMonth(year, month), day);
+			if (nextDay == -1) {
+				month++;
+				day = 1;
+				hour = minute = second = 0;
+				if (month > 12) {
+					year++;
+					month = 1;
+				}
+				continue;
+			}
+			if (nextDay != day) {
+				day = nextDay;
+				hour = minute = second = 0;
+			}
+			int nextHour = nextSetBit(this.hours, hour);
+			if (nextHour == -1) {
+				day++;
+				hour = minute = second = 0;
+				continue;
+			}
+			if (nextHour != hour) {
+				hour = nextHour;
+				minute = second = 0;
+			}
+			int nextMinute = nextSetBit(this.minutes, minute);
+			if (nextMinute == -1) {
+				hour++;
+				minute = second = 0;
+				continue;
+			}
+			if (nextMinute != minute) {
+				minute = nextMinute;
+				second = 0;
+			}
+			int nextSecond = nextSetBit(this.seconds, second);
+			if (nextSecond == -1) {
+				minute++;
+				second = 0;
+				continue;
+			}
+			return LocalDateTime.of(year, month, day, hour, minute, nextSecond);
+		}
+		return null;
+	}
+
+	/**
+	 * Return the days of the given month matching both the day-of-month
+	 * and the day-of-week field, as a bit set.
+	 */
+	private long daysOfMonth(int year, int month) {
+		int length = LocalDate.of(year, month, 1).lengthOfMonth();
+		int firstDayOfWeek = LocalDate.of(year, month, 1).getDayOfWeek().getValue() % 7;
+		long monthDays = ((1L << length) - 1) << 1;
+
+		long days;
+		if (this.lastDayOffset != NONE) {
+			days = dayBit(length - this.lastDayOffset, length);
+		}
+		else if (this.nearestWeekday != NONE) {
+			int target = (this.nearestWeekday == LAST_WEEKDAY ? length : this.nearestWeekday);
+			days = (target <= length ? dayBit(nearestWeekday(target, length, firstDayOfWeek), length) : 0);
+		}
+		else {
+			days = this.daysOfMonth;
+		}
+
+		long weekdays;
+		if (this.lastDayOfWeek != NONE) {
+			int lastDayOfWeekOfMonth = (firstDayOfWeek + length - 1) % 7;
+			weekdays = dayBit(length - (lastDayOfWeekOfMonth - this.lastDayOfWeek + 7) % 7, length);
+		}
+		else if (this.nthDayOfWeek != NONE) {
+			int first = 1 + (this.nthDayOfWeek - firstDayOfWeek + 7) % 7;
+			weekdays = dayBit(first + 7 * (this.nth - 1), length);
+		}
+		else {
+			weekdays = this.daysOfWeekByFirstDay[firstDayOfWeek];
+		}
+		return (days & weekdays & monthDays);
+	}
+
+	private static int nearestWeekday(int day, int length, int firstDayOfWeek) {
+		int dayOfWeek = (firstDayOfWeek + day - 1) % 7;
+		if (dayOfWeek == 6) {
+			// Saturday: Friday before, unless that is in the previous month
+			return (day == 1 ? day + 2 : day - 1);
+		}
+		if (dayOfWeek == 0) {
+			// Sunday: Monday after, unless that is in the next month
+			return (day == length ? day - 2 : day + 1);
+		}
+		return day;
+	}
+
+	private static long dayBit(int day, int length) {
+		return (day >= 1 && day <= length ? 1L << day : 0);
+	}
+
+	private static int nextSetBit(long bits, int fromIndex) {
+		if (fromIndex >= Long.SIZE) {
+			return -1;
+		}
+		long remaining = bits & (-1L << fromIndex);
+		return (remaining != 0 ? Long.numberOfTrailingZeros(remaining) : -1);
+	}
+
+
+	@Override
+	public boolean equals(@Nullable Object other) {
+		if (this == other) {
+			return true;
+		}
+		if (!(other instanceof CronExpression)) {
+			return false;
+		}
+		CronExpression otherExpression = (CronExpression) other;
+		return (this.seconds == otherExpression.seconds && this.minutes == otherExpression.minutes &&
+				this.hours == otherExpression.hours && this.daysOfMonth == otherExpression.daysOfMonth &&
+				this.months == otherExpression.months && this.daysOfWeek == otherExpression.daysOfWeek &&
+				this.lastDayOffset == otherExpression.lastDayOffset &&
+				this.nearestWeekday == otherExpression.nearestWeekday &&
+				this.lastDayOfWeek == otherExpression.lastDayOfWeek &&
+				this.nthDayOfWeek == otherExpression.nthDayOfWeek && this.nth == otherExpression.nth);
+	}
+
+	@Override
+	public int hashCode() {
+		int result = Long.hashCode(this.seconds);
+		result = 31 * result + Long.hashCode(this.minutes);
+		result = 31 * result + Long.hashCode(this.hours);
+		result = 31 * result + Long.hashCode(this.daysOfMonth);
+		result = 31 * result + Long.hashCode(this.months);
+		result = 31 * result + Long.hashCode(this.daysOfWeek);
+		result = 31 * result + this.lastDayOffset;
+		result = 31 * result + this.nearestWeekday;
+		result = 31 * result + this.lastDayOfWeek;
+		result = 31 * result + this.nthDayOfWeek;
+		result = 31 * result + this.nth;
+		return result;
+	}
+
+	/**
+	 * Return the expression that this {@code CronExpression} has been parsed from.
+	 */
+	@Override
+	public String toString() {
+		return this.expression;
+	}
+
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aop.framework.autoproxy;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Repeatable;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.aop.testfixture.interceptor.NopInterceptor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link AdvisorIndex}.
+ */
+class AdvisorIndexTests {
+
+	private final Advisor markerAdvisor = new DefaultPointcutAdvisor(
+			AnnotationMatchingPointcut.forMethodAnnotation(Marker.class), new NopInterceptor());
+
+	private final Advisor taggedAdvisor = new DefaultPointcutAdvisor(
+			AnnotationMatchingPointcut.forClassAnnotation(Tag.class), new NopInterceptor());
+
+	private final Advisor plainAdvisor = new DefaultPointcutAdvisor(new NopInterceptor());
+
+	private final List<Advisor> candidates = Arrays.asList(this.markerAdvisor, this.taggedAdvisor, this.plainAdvisor);
+
+	private final AdvisorIndex index = new AdvisorIndex();
+
+
+	@Test
+	void unannotatedClassSkipsIndexedAdvisors() {
+		assertThat(this.index.filter(this.candidates, Plain.class)).containsExactly(this.plainAdvisor);
+	}
+
+	@Test
+	void annotatedMethodRetainsAdvisor() {
+		assertThat(this.index.filter(this.candidates, MarkedMethod.class))
+				.containsExactly(this.markerAdvisor, this.plainAdvisor);
+	}
+
+	@Test
+	void metaAnnotatedMethodRetainsAdvisor() {
+		assertThat(this.index.filter(this.candidates, MetaMarkedMethod.class))
+				.containsExactly(this.markerAdvisor, this.plainAdvisor);
+	}
+
+	@Test
+	void annotatedInterfaceMethodRetainsAdvisor() {
+		assertThat(this.index.filter(this.candidates, MarkedInterfaceImpl.class))
+				.containsExactly(this.markerAdvisor, this.plainAdvisor);
+	}
+
+	@Test
+	void repeatedAnnotationsRetainAdvisor() {
+		assertThat(this.index.filter(this.candidates, RepeatedTags.class))
+				.containsExactly(this.taggedAdvisor, this.plainAdvisor);
+	}
+
+	@Test
+	void unfilteredCandidatesAreReturnedAsIs() {
+		List<Advisor> candidates = Arrays.asList(this.markerAdvisor, this.plainAdvisor);
+		assertThat(this.index.filter(candidates, MarkedMethod.class)).isSameAs(candidates);
+	}
+
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@Target({ElementType.TYPE, ElementType.METHOD, ElementType.ANNOTATION_TYPE})
+	@interface Marker {
+	}
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@Target(ElementType.METHOD)
+	@Marker
+	@interface MetaMarker {
+	}
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@Target(ElementType.TYPE)
+	@Repeatable(Tags.class)
+	@interface Tag {
+
+		String value();
+	}
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@Target(ElementType.TYPE)
+	@interface Tags {
+
+		Tag[] value();
+	}
+
+	static class Plain {
+
+		public void doIt() {
+		}
+	}
+
+	static class MarkedMethod {
+
+		@Marker
+		public void doIt() {
+		}
+	}
+
+	static class MetaMarkedMethod {
+
+		@MetaMarker
+		public void doIt() {
+		}
+	}
+
+	interface MarkedInterface {
+
+		@Marker
+		void doIt();
+	}
+
+	static class MarkedInterfaceImpl implements MarkedInterface {
+
+		@Override
+		public void doIt() {
+		}
+	}
+
+	@Tag("a")
+	@Tag("b")
+	static class RepeatedTags {
+	}
+
+}
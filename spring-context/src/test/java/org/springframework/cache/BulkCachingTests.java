@@ -0,0 +1,219 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.cache.annotation.CacheConfig;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * Tests for {@code @Cacheable(bulk=true)}.
+ */
+public class BulkCachingTests {
+
+	private AnnotationConfigApplicationContext context;
+
+	private BulkService service;
+
+	private Cache cache;
+
+
+	@BeforeEach
+	public void setup() {
+		this.context = new AnnotationConfigApplicationContext(Config.class);
+		this.service = this.context.getBean(BulkService.class);
+		this.cache = this.context.getBean(CacheManager.class).getCache("entities");
+	}
+
+	@AfterEach
+	public void close() {
+		this.context.close();
+	}
+
+
+	@Test
+	public void missingElementsLoadedOnly() {
+		assertThat(this.service.findAll(Arrays.asList(1L, 2L, 3L)))
+				.containsExactly(entry(1L), entry(2L), entry(3L));
+		assertThat(this.service.findAll(Arrays.asList(3L, 4L, 1L)))
+				.containsExactly(entry(3L), entry(4L), entry(1L));
+		assertThat(this.service.findAll(Arrays.asList(2L, 4L)))
+				.containsExactly(entry(2L), entry(4L));
+		assertThat(this.service.getInvocations()).containsExactly(
+				Arrays.asList(1L, 2L, 3L), Collections.singletonList(4L));
+		assertThat(this.cache.get(4L).get()).isEqualTo("entity-4");
+	}
+
+	@Test
+	public void entriesSharedWithSingleValueMethod() {
+		assertThat(this.service.findById(1L)).isEqualTo("entity-1");
+		this.service.findAll(Arrays.asList(1L, 2L));
+		assertThat(this.service.getInvocations()).containsExactly(
+				Collections.singletonList(1L), Collections.singletonList(2L));
+		assertThat(this.service.findById(2L)).isEqualTo("entity-2");
+	}
+
+	@Test
+	public void absentElementsNotCached() {
+		assertThat(this.service.findAll(Arrays.asList(1L, 0L))).containsExactly(entry(1L));
+		assertThat(this.service.findAll(Arrays.asList(1L, 0L))).containsExactly(entry(1L));
+		assertThat(this.service.getInvocations()).containsExactly(
+				Arrays.asList(1L, 0L), Collections.singletonList(0L));
+	}
+
+	@Test
+	public void unlessEvaluatedPerEntry() {
+		this.service.findAllExcept(new LinkedHashSet<>(Arrays.asList(1L, 2L)));
+		assertThat(this.cache.get(1L).get()).isEqualTo("entity-1");
+		assertThat(this.cache.get(2L)).isNull();
+		assertThat(this.service.getInvocations().get(0)).isInstanceOf(Set.class);
+	}
+
+	@Test
+	public void keysFromKeyGenerator() {
+		assertThat(this.service.findAllWithKeyGenerator(Arrays.asList(1L, 2L)))
+				.containsExactly(entry(1L), entry(2L));
+		assertThat(this.service.findAllWithKeyGenerator(Arrays.asList(2L, 3L)))
+				.containsExactly(entry(2L), entry(3L));
+		assertThat(this.service.getInvocations()).containsExactly(
+				Arrays.asList(1L, 2L), Collections.singletonList(3L));
+		assertThat(this.cache.get("id-3").get()).isEqualTo("entity-3");
+		assertThat(this.cache.get(3L)).isNull();
+	}
+
+	@Test
+	public void combinedWithOtherOperation() {
+		assertThatIllegalStateException().isThrownBy(() ->
+				this.service.findAllAndEvict(Collections.singletonList(1L)));
+	}
+
+	@Test
+	public void invalidReturnType() {
+		assertThatIllegalStateException().isThrownBy(() ->
+				this.service.findAllAsList(Collections.singletonList(1L)));
+	}
+
+
+	private static Map.Entry<Long, String> entry(long id) {
+		return Collections.singletonMap(id, "entity-" + id).entrySet().iterator().next();
+	}
+
+
+	@Configuration
+	@EnableCaching
+	static class Config {
+
+		@Bean
+		public CacheManager cacheManager() {
+			return new ConcurrentMapCacheManager("entities");
+		}
+
+		@Bean
+		public KeyGenerator prefixKeyGenerator() {
+			return (target, method, params) -> "id-" + params[0];
+		}
+
+		@Bean
+		public BulkService bulkService() {
+			return new BulkService();
+		}
+	}
+
+
+	@CacheConfig(cacheNames = "entities")
+	public static class BulkService {
+
+		private final List<Collection<Long>> invocations = new ArrayList<>();
+
+		public List<Collection<Long>> getInvocations() {
+			return this.invocations;
+		}
+
+		@Cacheable
+		public String findById(Long id) {
+			this.invocations.add(Collections.singletonList(id));
+			return "entity-" + id;
+		}
+
+		@Cacheable(bulk = true)
+		public Map<Long, String> findAll(List<Long> ids) {
+			this.invocations.add(new ArrayList<>(ids));
+			Map<Long, String> result = new HashMap<>();
+			for (Long id : ids) {
+				if (id > 0) {
+					result.put(id, "entity-" + id);
+				}
+			}
+			return result;
+		}
+
+		@Cacheable(bulk = true, unless = "#result.endsWith('2')")
+		public Map<Long, String> findAllExcept(Set<Long> ids) {
+			this.invocations.add(ids);
+			Map<Long, String> result = new HashMap<>();
+			for (Long id : ids) {
+				result.put(id, "entity-" + id);
+			}
+			return result;
+		}
+
+		@Cacheable(bulk = true, keyGenerator = "prefixKeyGenerator")
+		public Map<Long, String> findAllWithKeyGenerator(List<Long> ids) {
+			this.invocations.add(new ArrayList<>(ids));
+			Map<Long, String> result = new HashMap<>();
+			for (Long id : ids) {
+				result.put(id, "entity-" + id);
+			}
+			return result;
+		}
+
+		@Cacheable(bulk = true)
+		@CacheEvict(allEntries = true)
+		public Map<Long, String> findAllAndEvict(List<Long> ids) {
+			return Collections.emptyMap();
+		}
+
+		@Cacheable(bulk = true)
+		public List<String> findAllAsList(List<Long> ids) {
+			return Collections.emptyList();
+		}
+	}
+
+}
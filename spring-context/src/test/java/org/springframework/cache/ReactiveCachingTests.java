@@ -0,0 +1,233 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import org.springframework.cache.annotation.CacheConfig;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.lang.Nullable;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * Tests for caching the eventual value of {@code CompletableFuture} and
+ * reactive return types.
+ */
+public class ReactiveCachingTests {
+
+	private AnnotationConfigApplicationContext context;
+
+	private AsyncService service;
+
+	private Cache cache;
+
+
+	@BeforeEach
+	public void setup() {
+		this.context = new AnnotationConfigApplicationContext(Config.class);
+		this.service = this.context.getBean(AsyncService.class);
+		this.cache = this.context.getBean(CacheManager.class).getCache("first");
+	}
+
+	@AfterEach
+	public void close() {
+		this.context.close();
+	}
+
+
+	@Test
+	public void completableFutureValueCached() {
+		Long first = this.service.future("key").join();
+		assertThat(this.service.future("key").join()).isEqualTo(first);
+		assertThat(this.service.getCounter()).isEqualTo(1);
+		assertThat(this.cache.get("key").get()).isEqualTo(first);
+	}
+
+	@Test
+	public void concurrentMissesShareInvocation() {
+		CompletableFuture<Long> pending = new CompletableFuture<>();
+		this.service.setPending(pending);
+		CompletableFuture<Long> first = this.service.future("key");
+		CompletableFuture<Long> second = this.service.future("key");
+		assertThat(this.service.getCounter()).isEqualTo(1);
+		assertThat(first).isNotDone();
+		assertThat(second).isNotDone();
+
+		pending.complete(42L);
+		assertThat(first.join()).isEqualTo(42L);
+		assertThat(second.join()).isEqualTo(42L);
+		assertThat(this.cache.get("key").get()).isEqualTo(42L);
+	}
+
+	@Test
+	public void failedFutureNotCached() {
+		CompletableFuture<Long> failed = new CompletableFuture<>();
+		failed.completeExceptionally(new IllegalStateException("Test exception"));
+		this.service.setPending(failed);
+		assertThatIllegalStateException().isThrownBy(() -> {
+			try {
+				this.service.future("key").join();
+			}
+			catch (RuntimeException ex) {
+				throw (RuntimeException) ex.getCause();
+			}
+		});
+		assertThat(this.cache.get("key")).isNull();
+
+		this.service.setPending(null);
+		Long value = this.service.future("key").join();
+		assertThat(this.cache.get("key").get()).isEqualTo(value);
+	}
+
+	@Test
+	public void failedCachePutCompletesSharedInvocation() {
+		CompletableFuture<Long> pending = new CompletableFuture<>();
+		this.service.setPending(pending);
+		CompletableFuture<Long> first = this.service.failingPutFuture("key");
+		CompletableFuture<Long> second = this.service.failingPutFuture("key");
+		assertThat(this.service.getCounter()).isEqualTo(1);
+
+		pending.complete(42L);
+		assertThat(first).isCompletedExceptionally();
+		assertThat(second).isCompletedExceptionally();
+		assertThatIllegalStateException().isThrownBy(() -> {
+			try {
+				first.join();
+			}
+			catch (RuntimeException ex) {
+				throw (RuntimeException) ex.getCause();
+			}
+		}).withMessage("Put failure");
+	}
+
+	@Test
+	public void synchronizedCompletableFutureValueCached() {
+		Long first = this.service.syncFuture("key").join();
+		assertThat(this.service.syncFuture("key").join()).isEqualTo(first);
+		assertThat(this.service.getCounter()).isEqualTo(1);
+		assertThat(this.cache.get("key").get()).isEqualTo(first);
+	}
+
+	@Test
+	public void monoValueCached() {
+		Mono<Long> mono = this.service.mono("key");
+		assertThat(this.service.getCounter()).isEqualTo(0);
+		Long first = mono.block();
+		assertThat(this.service.mono("key").block()).isEqualTo(first);
+		assertThat(this.service.getCounter()).isEqualTo(1);
+		assertThat(this.cache.get("key").get()).isEqualTo(first);
+	}
+
+	@Test
+	public void fluxElementsCached() {
+		List<Long> first = this.service.flux("key").collectList().block();
+		assertThat(this.service.flux("key").collectList().block()).isEqualTo(first);
+		assertThat(this.service.getCounter()).isEqualTo(1);
+		assertThat(this.cache.get("key").get()).isEqualTo(first);
+	}
+
+
+	@Configuration
+	@EnableCaching
+	static class Config {
+
+		@Bean
+		public CacheManager cacheManager() {
+			return new ConcurrentMapCacheManager("first", "failing") {
+				@Override
+				protected Cache createConcurrentMapCache(String name) {
+					if (!"failing".equals(name)) {
+						return super.createConcurrentMapCache(name);
+					}
+					return new ConcurrentMapCache(name) {
+						@Override
+						public void put(Object key, @Nullable Object value) {
+							throw new IllegalStateException("Put failure");
+						}
+					};
+				}
+			};
+		}
+
+		@Bean
+		public AsyncService asyncService() {
+			return new AsyncService();
+		}
+	}
+
+
+	@CacheConfig(cacheNames = "first")
+	public static class AsyncService {
+
+		private final AtomicLong counter = new AtomicLong();
+
+		private volatile CompletableFuture<Long> pending;
+
+		public long getCounter() {
+			return this.counter.get();
+		}
+
+		public void setPending(CompletableFuture<Long> pending) {
+			this.pending = pending;
+		}
+
+		@Cacheable
+		public CompletableFuture<Long> future(String key) {
+			long value = this.counter.incrementAndGet();
+			return (this.pending != null ? this.pending : CompletableFuture.completedFuture(value));
+		}
+
+		@Cacheable(cacheNames = "failing")
+		public CompletableFuture<Long> failingPutFuture(String key) {
+			this.counter.incrementAndGet();
+			return this.pending;
+		}
+
+		@Cacheable(sync = true)
+		public CompletableFuture<Long> syncFuture(String key) {
+			return CompletableFuture.completedFuture(this.counter.incrementAndGet());
+		}
+
+		@Cacheable
+		public Mono<Long> mono(String key) {
+			return Mono.fromSupplier(this.counter::incrementAndGet);
+		}
+
+		@Cacheable
+		public Flux<Long> flux(String key) {
+			long value = this.counter.incrementAndGet();
+			return Flux.just(value, value + 1);
+		}
+	}
+
+}
@@ -0,0 +1,269 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.concurrent;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheStatistics;
+import org.springframework.context.testfixture.cache.AbstractValueAdaptingCacheTests;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Tests for {@link ExpiringConcurrentMapCache}.
+ */
+public class ExpiringConcurrentMapCacheTests extends AbstractValueAdaptingCacheTests<ExpiringConcurrentMapCache> {
+
+	private final MutableClock clock = new MutableClock();
+
+	private final List<Runnable> tasks = new ArrayList<>();
+
+	private final AtomicInteger loads = new AtomicInteger();
+
+	private ExpiringConcurrentMapCache cache;
+
+	private ExpiringConcurrentMapCache cacheNoNull;
+
+
+	@BeforeEach
+	public void setUp() {
+		this.cache = new ExpiringConcurrentMapCache(CACHE_NAME, Duration.ofSeconds(10));
+		this.cache.setClock(this.clock);
+		this.cacheNoNull = new ExpiringConcurrentMapCache(CACHE_NAME_NO_NULL, Duration.ofSeconds(10), false);
+	}
+
+	@Override
+	protected ExpiringConcurrentMapCache getCache() {
+		return getCache(true);
+	}
+
+	@Override
+	protected ExpiringConcurrentMapCache getCache(boolean allowNull) {
+		return (allowNull ? this.cache : this.cacheNoNull);
+	}
+
+	@Override
+	protected Object getNativeCache() {
+		return this.cache.getNativeCache();
+	}
+
+
+	@Test
+	public void entryExpires() {
+		this.cache.put("key", "value");
+		this.clock.advance(Duration.ofSeconds(9));
+		assertThat(this.cache.get("key").get()).isEqualTo("value");
+		this.clock.advance(Duration.ofSeconds(1));
+		assertThat(this.cache.get("key")).isNull();
+		assertThat(this.cache.putIfAbsent("key", "other")).isNull();
+		assertThat(this.cache.get("key").get()).isEqualTo("other");
+	}
+
+	@Test
+	public void expiredEntryLoadedSynchronously() {
+		assertThat(this.cache.get("key", this::load)).isEqualTo("value1");
+		assertThat(this.cache.get("key", this::load)).isEqualTo("value1");
+		this.clock.advance(Duration.ofSeconds(10));
+		assertThat(this.cache.get("key", this::load)).isEqualTo("value2");
+	}
+
+	@Test
+	public void concurrentLoadsShared() throws Exception {
+		CountDownLatch loading = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		Thread thread = new Thread(() -> this.cache.get("key", () -> {
+			loading.countDown();
+			release.await(10, TimeUnit.SECONDS);
+			return load();
+		}));
+		thread.start();
+		assertThat(loading.await(10, TimeUnit.SECONDS)).isTrue();
+
+		new Thread(() -> {
+			try {
+				Thread.sleep(50);
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+			release.countDown();
+		}).start();
+		assertThat(this.cache.get("key", this::load)).isEqualTo("value1");
+		thread.join(10000);
+		assertThat(this.loads.get()).isEqualTo(1);
+	}
+
+	@Test
+	public void failedLoadNotCached() {
+		assertThatExceptionOfType(Cache.ValueRetrievalException.class).isThrownBy(() ->
+				this.cache.get("key", () -> {
+					throw new IllegalStateException("Test exception");
+				}));
+		assertThat(this.cache.get("key")).isNull();
+		assertThat(this.cache.get("key", this::load)).isEqualTo("value1");
+	}
+
+	@Test
+	public void staleValueReturnedWhileRevalidating() {
+		this.cache.setRefreshExecutor(this.tasks::add);
+		this.cache.setStaleWhileRevalidate(Duration.ofSeconds(5));
+		this.cache.setEarlyRefreshBeta(0);
+		assertThat(this.cache.get("key", this::load)).isEqualTo("value1");
+
+		this.clock.advance(Duration.ofSeconds(12));
+		assertThat(this.cache.get("key")).isNull();
+		assertThat(this.cache.get("key", this::load)).isEqualTo("value1");
+		assertThat(this.cache.get("key", this::load)).isEqualTo("value1");
+		assertThat(this.tasks).hasSize(1);
+
+		runTasks();
+		assertThat(this.cache.get("key", this::load)).isEqualTo("value2");
+		assertThat(this.loads.get()).isEqualTo(2);
+	}
+
+	@Test
+	public void expiredEntryLoadedSynchronouslyAfterStaleWindow() {
+		this.cache.setRefreshExecutor(this.tasks::add);
+		this.cache.setStaleWhileRevalidate(Duration.ofSeconds(5));
+		this.cache.setEarlyRefreshBeta(0);
+		this.cache.get("key", this::load);
+
+		this.clock.advance(Duration.ofSeconds(15));
+		assertThat(this.cache.get("key", this::load)).isEqualTo("value2");
+		assertThat(this.tasks).isEmpty();
+	}
+
+	@Test
+	public void failedRefreshKeepsStaleValue() {
+		this.cache.setRefreshExecutor(this.tasks::add);
+		this.cache.setStaleWhileRevalidate(Duration.ofSeconds(5));
+		this.cache.get("key", this::load);
+
+		this.clock.advance(Duration.ofSeconds(12));
+		assertThat(this.cache.<String>get("key", () -> {
+			throw new IllegalStateException("Test exception");
+		})).isEqualTo("value1");
+		runTasks();
+		assertThat(this.cache.get("key", this::load)).isEqualTo("value1");
+		assertThat(this.tasks).hasSize(1);
+	}
+
+	@Test
+	public void earlyRefresh() {
+		this.cache.setRefreshExecutor(this.tasks::add);
+		this.cache.setEarlyRefreshBeta(Double.MAX_VALUE);
+		this.cache.get("key", this::load);
+
+		assertThat(this.cache.get("key", this::load)).isEqualTo("value1");
+		assertThat(this.tasks).hasSize(1);
+		runTasks();
+		assertThat(this.cache.get("key")).isNotNull();
+		assertThat(this.cache.get("key").get()).isEqualTo("value2");
+	}
+
+	@Test
+	public void noEarlyRefreshWithoutExecutor() {
+		this.cache.setEarlyRefreshBeta(Double.MAX_VALUE);
+		this.cache.get("key", this::load);
+		assertThat(this.cache.get("key", this::load)).isEqualTo("value1");
+		assertThat(this.loads.get()).isEqualTo(1);
+	}
+
+	@Test
+	public void maximumSize() {
+		this.cache.setMaximumSize(10);
+		for (int i = 0; i < 11; i++) {
+			this.cache.put(i, "value" + i);
+			this.clock.advance(Duration.ofMillis(1));
+		}
+		assertThat(this.cache.getNativeCache()).hasSize(9);
+		assertThat(this.cache.get(0)).isNull();
+		assertThat(this.cache.get(1)).isNull();
+		assertThat(this.cache.get(10).get()).isEqualTo("value10");
+	}
+
+	@Test
+	public void statistics() {
+		this.cache.put("key1", "value");
+		assertThat(this.cache.get("key1")).isNotNull();
+		assertThat(this.cache.get("key2")).isNull();
+		assertThat(this.cache.get("key2", this::load)).isEqualTo("value1");
+		assertThat(this.cache.get("key2", this::load)).isEqualTo("value1");
+		this.clock.advance(Duration.ofSeconds(10));
+		assertThat(this.cache.get("key1")).isNull();
+		this.cache.evict("key2");
+
+		CacheStatistics statistics = this.cache.getStatistics();
+		assertThat(statistics.getHitCount()).isEqualTo(2);
+		assertThat(statistics.getMissCount()).isEqualTo(3);
+		assertThat(statistics.getPutCount()).isEqualTo(1);
+		assertThat(statistics.getEvictionCount()).isEqualTo(2);
+		assertThat(statistics.getLoadSuccessCount()).isEqualTo(1);
+		assertThat(statistics.getLoadFailureCount()).isEqualTo(0);
+	}
+
+
+	private String load() {
+		return "value" + this.loads.incrementAndGet();
+	}
+
+	private void runTasks() {
+		while (!this.tasks.isEmpty()) {
+			this.tasks.remove(0).run();
+		}
+	}
+
+
+	private static class MutableClock extends Clock {
+
+		private Instant instant = Instant.now();
+
+		public void advance(Duration duration) {
+			this.instant = this.instant.plus(duration);
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			return this;
+		}
+
+		@Override
+		public Instant instant() {
+			return this.instant;
+		}
+	}
+
+}
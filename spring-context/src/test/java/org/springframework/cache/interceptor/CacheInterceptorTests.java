@@ -0,0 +1,246 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.interceptor;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.annotation.AnnotationCacheOperationSource;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.lang.Nullable;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Tests for the invocation path of {@link CacheInterceptor}.
+ */
+public class CacheInterceptorTests {
+
+	private final CountingCacheManager cacheManager = new CountingCacheManager();
+
+	private final CacheInterceptor interceptor = new CacheInterceptor();
+
+
+	@BeforeEach
+	public void setup() {
+		this.interceptor.setCacheOperationSources(new AnnotationCacheOperationSource());
+		this.interceptor.setCacheManager(this.cacheManager);
+		this.interceptor.afterPropertiesSet();
+		this.interceptor.afterSingletonsInstantiated();
+	}
+
+
+	@Test
+	public void cacheableChecksStaticCachesPerInvocation() {
+		Service service = createProxy(new SimpleService());
+		assertThat(service.get("a")).isEqualTo("a1");
+		assertThat(service.get("a")).isEqualTo("a1");
+		assertThat(service.get("b")).isEqualTo("b2");
+		assertThat(service.get("b")).isEqualTo("b2");
+		// Resolved once up front, then checked for identity on each invocation
+		assertThat(this.cacheManager.lookups.get()).isEqualTo(5);
+	}
+
+	@Test
+	public void cacheableWithRecreatedCaches() {
+		Service service = createProxy(new SimpleService());
+		assertThat(service.get("a")).isEqualTo("a1");
+		this.cacheManager.setAllowNullValues(false);
+		assertThat(service.get("a")).isEqualTo("a2");
+		assertThat(this.cacheManager.getCache("test").get("a").get()).isEqualTo("a2");
+	}
+
+	@Test
+	public void cacheableWithCustomOperationContext() {
+		AtomicInteger contexts = new AtomicInteger();
+		AtomicInteger resolutions = new AtomicInteger();
+		CacheInterceptor interceptor = new CacheInterceptor() {
+			@Override
+			protected CacheOperationContext getOperationContext(CacheOperation operation, Method method,
+					Object[] args, Object target, Class<?> targetClass) {
+				contexts.incrementAndGet();
+				return super.getOperationContext(operation, method, args, target, targetClass);
+			}
+			@Override
+			protected Collection<? extends Cache> getCaches(
+					CacheOperationInvocationContext<CacheOperation> context, CacheResolver cacheResolver) {
+				resolutions.incrementAndGet();
+				return super.getCaches(context, cacheResolver);
+			}
+		};
+		interceptor.setCacheOperationSources(new AnnotationCacheOperationSource());
+		interceptor.setCacheManager(this.cacheManager);
+		interceptor.afterPropertiesSet();
+		interceptor.afterSingletonsInstantiated();
+
+		ProxyFactory proxyFactory = new ProxyFactory(new SimpleService());
+		proxyFactory.addAdvice(interceptor);
+		Service service = (Service) proxyFactory.getProxy();
+		assertThat(service.get("a")).isEqualTo("a1");
+		assertThat(service.get("a")).isEqualTo("a1");
+		assertThat(service.getAndEvict("a")).isEqualTo("a2");
+		assertThat(contexts.get()).isEqualTo(4);
+		assertThat(resolutions.get()).isEqualTo(4);
+	}
+
+	@Test
+	public void cacheableWithOptional() {
+		Service service = createProxy(new SimpleService());
+		assertThat(service.find("a")).hasValue("a1");
+		assertThat(service.find("a")).hasValue("a1");
+		assertThat(this.cacheManager.getCache("test").get("a").get()).isEqualTo("a1");
+	}
+
+	@Test
+	public void cacheableWithNullKey() {
+		Service service = createProxy(new SimpleService());
+		this.interceptor.setKeyGenerator((target, method, params) -> null);
+		assertThatIllegalArgumentException().isThrownBy(() -> service.get("a"));
+	}
+
+	@Test
+	public void cacheableCombinedWithEvict() {
+		Service service = createProxy(new SimpleService());
+		assertThat(service.get("a")).isEqualTo("a1");
+		assertThat(service.getAndEvict("a")).isEqualTo("a2");
+		assertThat(service.get("a")).isEqualTo("a2");
+	}
+
+	@Test
+	public void operationsDeterminedPerTargetClass() {
+		Service simpleService = createProxy(new SimpleService());
+		Service otherService = createProxy(new OtherService());
+		assertThat(simpleService.get("a")).isEqualTo("a1");
+		assertThat(simpleService.get("a")).isEqualTo("a1");
+		assertThat(otherService.get("a")).isEqualTo("other1");
+		assertThat(otherService.get("a")).isEqualTo("other1");
+		assertThat(this.cacheManager.getCache("test").get("a").get()).isEqualTo("a1");
+		assertThat(this.cacheManager.getCache("other").get("a").get()).isEqualTo("other1");
+	}
+
+	@Test
+	public void cacheableWithMissingCache() {
+		Service service = createProxy(new SimpleService());
+		this.cacheManager.setCacheNames(Collections.singleton("other"));
+		this.interceptor.clearMetadataCache();
+		assertThatIllegalArgumentException().isThrownBy(() -> service.get("a"))
+				.withMessageContaining("Cannot find cache named 'test'");
+	}
+
+	@Test
+	public void operationLatenciesRecorded() {
+		CacheOperationStatistics statistics = new CacheOperationStatistics();
+		this.interceptor.setOperationStatistics(statistics);
+		Service service = createProxy(new SimpleService());
+		service.get("a");
+		service.get("a");
+		service.getAndEvict("a");
+		assertThat(statistics.getCacheNames()).containsExactly("test");
+		assertThat(statistics.getLatency("test", CacheOperationStatistics.Operation.GET).getCount()).isEqualTo(3);
+		assertThat(statistics.getLatency("test", CacheOperationStatistics.Operation.PUT).getCount()).isEqualTo(2);
+		assertThat(statistics.getLatency("test", CacheOperationStatistics.Operation.EVICT).getCount()).isEqualTo(1);
+	}
+
+
+	private Service createProxy(Service target) {
+		ProxyFactory proxyFactory = new ProxyFactory(target);
+		proxyFactory.addAdvice(this.interceptor);
+		return (Service) proxyFactory.getProxy();
+	}
+
+
+	private static class CountingCacheManager extends ConcurrentMapCacheManager {
+
+		private final AtomicInteger lookups = new AtomicInteger();
+
+		@Override
+		@Nullable
+		public Cache getCache(String name) {
+			this.lookups.incrementAndGet();
+			return super.getCache(name);
+		}
+	}
+
+
+	public interface Service {
+
+		String get(String key);
+
+		Optional<String> find(String key);
+
+		String getAndEvict(String key);
+	}
+
+
+	public static class SimpleService implements Service {
+
+		private final AtomicInteger counter = new AtomicInteger();
+
+		@Override
+		@Cacheable("test")
+		public String get(String key) {
+			return key + this.counter.incrementAndGet();
+		}
+
+		@Override
+		@Cacheable("test")
+		public Optional<String> find(String key) {
+			return Optional.of(key + this.counter.incrementAndGet());
+		}
+
+		@Override
+		@Cacheable("test")
+		@CacheEvict(cacheNames = "test", beforeInvocation = true)
+		public String getAndEvict(String key) {
+			return key + this.counter.incrementAndGet();
+		}
+	}
+
+
+	public static class OtherService implements Service {
+
+		private final AtomicInteger counter = new AtomicInteger();
+
+		@Override
+		@Cacheable("other")
+		public String get(String key) {
+			return "other" + this.counter.incrementAndGet();
+		}
+
+		@Override
+		public Optional<String> find(String key) {
+			return Optional.empty();
+		}
+
+		@Override
+		public String getAndEvict(String key) {
+			return "other" + this.counter.incrementAndGet();
+		}
+	}
+
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.interceptor;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.cache.interceptor.CacheOperationStatistics.Operation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link CacheOperationStatistics}.
+ */
+public class CacheOperationStatisticsTests {
+
+	@Test
+	public void operationStatistics() {
+		CacheOperationStatistics statistics = new CacheOperationStatistics();
+		assertThat(statistics.getLatency("test", Operation.GET)).isNull();
+		statistics.record("test", Operation.GET, 100);
+		statistics.record("test", Operation.PUT, 200);
+		statistics.record("test", Operation.PUT, 300);
+		assertThat(statistics.getCacheNames()).containsExactly("test");
+		assertThat(statistics.getLatency("test", Operation.GET).getCount()).isEqualTo(1);
+		assertThat(statistics.getLatency("test", Operation.PUT).getTotalTime()).isEqualTo(500);
+		assertThat(statistics.getLatency("test", Operation.EVICT).getCount()).isEqualTo(0);
+		statistics.reset();
+		assertThat(statistics.getCacheNames()).isEmpty();
+	}
+
+}
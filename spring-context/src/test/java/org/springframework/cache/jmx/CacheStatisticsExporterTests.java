@@ -0,0 +1,85 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cache.jmx;
+
+import javax.management.ObjectName;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.interceptor.CacheOperationStatistics;
+import org.springframework.cache.interceptor.CacheOperationStatistics.Operation;
+import org.springframework.cache.support.StatisticsCacheManagerProxy;
+import org.springframework.jmx.AbstractMBeanServerTests;
+import org.springframework.jmx.export.MBeanExporter;
+import org.springframework.jmx.support.ObjectNameManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link CacheStatisticsExporter}.
+ */
+public class CacheStatisticsExporterTests extends AbstractMBeanServerTests {
+
+	@Test
+	public void exportCacheStatistics() throws Exception {
+		CacheManager cacheManager = new StatisticsCacheManagerProxy(new ConcurrentMapCacheManager("test"));
+		CacheOperationStatistics operationStatistics = new CacheOperationStatistics();
+		operationStatistics.record("test", Operation.GET, 1000);
+
+		MBeanExporter mbeanExporter = new MBeanExporter();
+		mbeanExporter.setServer(getServer());
+		CacheStatisticsExporter exporter = new CacheStatisticsExporter();
+		exporter.setCacheManager(cacheManager);
+		exporter.setMBeanExporter(mbeanExporter);
+		exporter.setOperationStatistics(operationStatistics);
+		exporter.afterPropertiesSet();
+		exporter.afterSingletonsInstantiated();
+
+		Cache cache = cacheManager.getCache("test");
+		cache.put("key", "value");
+		cache.get("key");
+		cache.get("other");
+
+		ObjectName objectName = ObjectNameManager.getInstance(
+				"org.springframework.cache:type=CacheStatistics,cacheManager=\"cacheManager\",name=\"test\"");
+		assertIsRegistered("Cache statistics not registered", objectName);
+		assertThat(getServer().getAttribute(objectName, "CacheName")).isEqualTo("test");
+		assertThat(getServer().getAttribute(objectName, "HitCount")).isEqualTo(1L);
+		assertThat(getServer().getAttribute(objectName, "MissCount")).isEqualTo(1L);
+		assertThat(getServer().getAttribute(objectName, "PutCount")).isEqualTo(1L);
+		assertThat((String[]) getServer().getAttribute(objectName, "OperationLatencies"))
+				.containsExactly("GET: count=1, mean=1000ns, p50=1000ns, p99=1000ns, max=1000ns");
+
+		exporter.destroy();
+		assertIsNotRegistered("Cache statistics still registered", objectName);
+	}
+
+	@Test
+	public void cachesWithoutStatisticsNotExported() throws Exception {
+		MBeanExporter mbeanExporter = new MBeanExporter();
+		mbeanExporter.setServer(getServer());
+		CacheStatisticsExporter exporter = new CacheStatisticsExporter();
+		exporter.setCacheManager(new ConcurrentMapCacheManager("test"));
+		exporter.setMBeanExporter(mbeanExporter);
+		exporter.afterSingletonsInstantiated();
+		assertThat(getServer().queryNames(ObjectNameManager.getInstance(
+				CacheStatisticsExporter.DEFAULT_DOMAIN + ":*"), null)).isEmpty();
+	}
+
+}
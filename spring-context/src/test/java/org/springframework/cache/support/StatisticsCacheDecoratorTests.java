@@ -0,0 +1,124 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cache.support;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.CacheStatistics;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.concurrent.ExpiringConcurrentMapCache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Tests for {@link StatisticsCacheDecorator} and {@link StatisticsCacheManagerProxy}.
+ */
+public class StatisticsCacheDecoratorTests {
+
+	private final StatisticsCacheDecorator cache = new StatisticsCacheDecorator(new ConcurrentMapCache("test"));
+
+
+	@Test
+	public void noStatisticsByDefault() {
+		assertThat(new ConcurrentMapCache("test").getStatistics()).isNull();
+		assertThat(this.cache.getStatistics()).isEqualTo(CacheStatistics.EMPTY);
+	}
+
+	@Test
+	public void hitsAndMisses() {
+		this.cache.put("key1", "value1");
+		assertThat(this.cache.get("key1").get()).isEqualTo("value1");
+		assertThat(this.cache.get("key1", String.class)).isEqualTo("value1");
+		assertThat(this.cache.get("key2")).isNull();
+		assertThat(this.cache.getAll(Arrays.asList("key1", "key2", "key3"))).containsOnlyKeys("key1");
+
+		CacheStatistics statistics = this.cache.getStatistics();
+		assertThat(statistics.getHitCount()).isEqualTo(3);
+		assertThat(statistics.getMissCount()).isEqualTo(3);
+		assertThat(statistics.getRequestCount()).isEqualTo(6);
+		assertThat(statistics.getHitRatio()).isEqualTo(0.5);
+		assertThat(statistics.getPutCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void loads() {
+		assertThat(this.cache.get("key1", () -> "value1")).isEqualTo("value1");
+		assertThat(this.cache.get("key1", () -> "value2")).isEqualTo("value1");
+		assertThatExceptionOfType(Cache.ValueRetrievalException.class).isThrownBy(() ->
+				this.cache.get("key2", () -> {
+					throw new IllegalStateException("Test exception");
+				}));
+
+		CacheStatistics statistics = this.cache.getStatistics();
+		assertThat(statistics.getHitCount()).isEqualTo(1);
+		assertThat(statistics.getMissCount()).isEqualTo(1);
+		assertThat(statistics.getLoadSuccessCount()).isEqualTo(1);
+		assertThat(statistics.getLoadFailureCount()).isEqualTo(1);
+		assertThat(statistics.getTotalLoadTime()).isGreaterThanOrEqualTo(0L);
+	}
+
+	@Test
+	public void putsAndEvictions() {
+		this.cache.putAll(Collections.singletonMap("key1", "value1"));
+		assertThat(this.cache.putIfAbsent("key1", "value2")).isNotNull();
+		assertThat(this.cache.putIfAbsent("key2", "value2")).isNull();
+		this.cache.evict("key1");
+		assertThat(this.cache.evictIfPresent("key1")).isFalse();
+		assertThat(this.cache.evictIfPresent("key2")).isTrue();
+
+		CacheStatistics statistics = this.cache.getStatistics();
+		assertThat(statistics.getPutCount()).isEqualTo(2);
+		assertThat(statistics.getEvictionCount()).isEqualTo(2);
+
+		this.cache.resetStatistics();
+		assertThat(this.cache.getStatistics()).isEqualTo(CacheStatistics.EMPTY);
+	}
+
+	@Test
+	public void cacheManagerProxy() {
+		ConcurrentMapCacheManager target = new ConcurrentMapCacheManager("test");
+		CacheManager cacheManager = new StatisticsCacheManagerProxy(target);
+		Cache cache = cacheManager.getCache("test");
+		assertThat(cache).isInstanceOf(StatisticsCacheDecorator.class);
+		assertThat(cacheManager.getCache("test")).isSameAs(cache);
+		assertThat(cacheManager.getCache("unknown")).isNull();
+
+		cache.put("key", "value");
+		assertThat(cache.get("key")).isNotNull();
+		assertThat(cacheManager.getCacheStatistics()).containsOnlyKeys("test");
+		assertThat(cacheManager.getCacheStatistics().get("test").getHitCount()).isEqualTo(1);
+		assertThat(target.getCacheStatistics()).isEmpty();
+	}
+
+	@Test
+	public void cacheManagerProxyWithNativeStatistics() {
+		Cache target = new ExpiringConcurrentMapCache("test", Duration.ofMinutes(1));
+		SimpleCacheManager targetCacheManager = new SimpleCacheManager();
+		targetCacheManager.setCaches(Collections.singletonList(target));
+		targetCacheManager.afterPropertiesSet();
+		CacheManager cacheManager = new StatisticsCacheManagerProxy(targetCacheManager);
+		assertThat(cacheManager.getCache("test")).isSameAs(target);
+	}
+
+}
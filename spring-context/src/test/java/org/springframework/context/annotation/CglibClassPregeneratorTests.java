@@ -0,0 +1,207 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.annotation;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.cglib.core.PregeneratedClassSupport;
+import org.springframework.cglib.core.SpringStableNamingPolicy;
+import org.springframework.core.OverridingClassLoader;
+import org.springframework.core.SpringProperties;
+import org.springframework.lang.Nullable;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * Tests for {@link CglibClassPregenerator}.
+ *
+ * @since 5.2.5
+ */
+public class CglibClassPregeneratorTests {
+
+	@Test
+	void writesEnhancedConfigurationClass(@TempDir File outputDirectory) throws Exception {
+		Set<String> classNames = CglibClassPregenerator.pregenerate(outputDirectory,
+				() -> new AnnotationConfigApplicationContext(PregeneratedConfig.class));
+
+		String expectedName = PregeneratedConfig.class.getName() + SpringStableNamingPolicy.SEPARATOR + "0";
+		assertThat(classNames).contains(expectedName);
+		assertThat(new File(outputDirectory, expectedName.replace('.', File.separatorChar) + ".class")).isFile();
+
+		try (URLClassLoader classLoader = new URLClassLoader(
+				new URL[] {outputDirectory.toURI().toURL()}, getClass().getClassLoader())) {
+			Class<?> loadedClass = classLoader.loadClass(expectedName);
+			assertThat(loadedClass.getSuperclass()).isEqualTo(PregeneratedConfig.class);
+			assertThat(ConfigurationClassEnhancer.EnhancedConfiguration.class.isAssignableFrom(loadedClass)).isTrue();
+		}
+	}
+
+	@Test
+	void loadsPregeneratedClassAtRuntime(@TempDir File outputDirectory) throws Exception {
+		CglibClassPregenerator.pregenerate(outputDirectory,
+				() -> new AnnotationConfigApplicationContext(RuntimeConfig.class));
+		String expectedName = RuntimeConfig.class.getName() + SpringStableNamingPolicy.SEPARATOR + "0";
+
+		// Fresh class loader for the configuration class, as in a new JVM run
+		PregeneratedClassLoader classLoader = new PregeneratedClassLoader(getClass().getClassLoader(), outputDirectory);
+		Class<?> configClass = classLoader.loadClass(RuntimeConfig.class.getName());
+		assertThat(configClass).isNotSameAs(RuntimeConfig.class);
+
+		SpringProperties.setFlag(PregeneratedClassSupport.PREGENERATED_PROPERTY_NAME);
+		try {
+			Class<?> enhancedClass = new ConfigurationClassEnhancer().enhance(configClass, classLoader);
+			assertThat(enhancedClass.getName()).isEqualTo(expectedName);
+			assertThat(enhancedClass.getSuperclass()).isSameAs(configClass);
+			assertThat(enhancedClass.getClassLoader()).isSameAs(classLoader);
+			assertThat(classLoader.getPregeneratedClassNames()).containsExactly(expectedName);
+		}
+		finally {
+			SpringProperties.setProperty(PregeneratedClassSupport.PREGENERATED_PROPERTY_NAME, null);
+		}
+	}
+
+	@Test
+	void recordsClassEnhancedBeforePregeneration(@TempDir File outputDirectory) throws Exception {
+		new AnnotationConfigApplicationContext(EnhancedBeforeConfig.class).close();
+		Set<String> classNames = CglibClassPregenerator.pregenerate(outputDirectory,
+				() -> new AnnotationConfigApplicationContext(EnhancedBeforeConfig.class));
+
+		assertThat(classNames).contains(EnhancedBeforeConfig.class.getName() + SpringStableNamingPolicy.SEPARATOR + "0");
+	}
+
+	@Test
+	void failsForClassPregeneratedBefore(@TempDir File outputDirectory) throws Exception {
+		CglibClassPregenerator.pregenerate(outputDirectory,
+				() -> new AnnotationConfigApplicationContext(PregeneratedTwiceConfig.class));
+		assertThatIllegalStateException().isThrownBy(() -> CglibClassPregenerator.pregenerate(outputDirectory,
+				() -> new AnnotationConfigApplicationContext(PregeneratedTwiceConfig.class)))
+				.withMessageContaining(PregeneratedTwiceConfig.class.getName());
+	}
+
+	@Test
+	void usesRegularNamingOutsideOfPregeneration() {
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(RegularConfig.class);
+		Class<?> configClass = context.getBean(RegularConfig.class).getClass();
+		assertThat(SpringStableNamingPolicy.isStableClassName(configClass.getName())).isFalse();
+		context.close();
+	}
+
+
+	@Configuration
+	public static class PregeneratedConfig {
+
+		@Bean
+		public String greeting() {
+			return "hello";
+		}
+	}
+
+
+	@Configuration
+	public static class RuntimeConfig {
+
+		@Bean
+		public String greeting() {
+			return "hello";
+		}
+	}
+
+
+	@Configuration
+	public static class EnhancedBeforeConfig {
+
+		@Bean
+		public String greeting() {
+			return "hello";
+		}
+	}
+
+
+	@Configuration
+	public static class PregeneratedTwiceConfig {
+
+		@Bean
+		public String greeting() {
+			return "hello";
+		}
+	}
+
+
+	@Configuration
+	public static class RegularConfig {
+
+		@Bean
+		public String greeting() {
+			return "hello";
+		}
+	}
+
+
+	/**
+	 * Loads the configuration class itself and classes found in the output
+	 * directory, recording the names of the latter.
+	 */
+	private static class PregeneratedClassLoader extends OverridingClassLoader {
+
+		private final File outputDirectory;
+
+		private final Set<String> pregeneratedClassNames = new CopyOnWriteArraySet<>();
+
+		public PregeneratedClassLoader(ClassLoader parent, File outputDirectory) {
+			super(parent);
+			this.outputDirectory = outputDirectory;
+		}
+
+		@Override
+		protected boolean isEligibleForOverriding(String className) {
+			return className.startsWith(RuntimeConfig.class.getName());
+		}
+
+		@Override
+		@Nullable
+		protected InputStream openStreamForClass(String name) {
+			if (!SpringStableNamingPolicy.isStableClassName(name)) {
+				return super.openStreamForClass(name);
+			}
+			File file = new File(this.outputDirectory, name.replace('.', File.separatorChar) + ".class");
+			try {
+				InputStream is = new FileInputStream(file);
+				this.pregeneratedClassNames.add(name);
+				return is;
+			}
+			catch (FileNotFoundException ex) {
+				return null;
+			}
+		}
+
+		public Set<String> getPregeneratedClassNames() {
+			return this.pregeneratedClassNames;
+		}
+	}
+
+}
@@ -245,6 +245,64 @@ public class ApplicationContextEventTests extends AbstractApplicationEventListen
 		assertThat(listener1.seenEvents.size()).isEqualTo(2);
 	}
 
+	@Test
+	public void listenersAddedAfterPublication() {
+		MyOrderedListener1 listener1 = new MyOrderedListener1();
+		MyOrderedListener2 listener2 = new MyOrderedListener2(listener1);
+
+		SimpleApplicationEventMulticaster smc = new SimpleApplicationEventMulticaster();
+		smc.addApplicationListener(listener2);
+		smc.multicastEvent(new MyOtherEvent(this));
+		assertThat(smc.retrieverCache.size()).isEqualTo(1);
+
+		// Cached retriever kept, with listener1 merged in before listener2
+		smc.addApplicationListener(listener1);
+		assertThat(smc.retrieverCache.size()).isEqualTo(1);
+		MyEvent event1 = new MyEvent(this);
+		MyOtherEvent event2 = new MyOtherEvent(this);
+		smc.multicastEvent(event1);
+		smc.multicastEvent(event2);
+		assertThat(listener1.seenEvents).containsExactly(event1, event2);
+		assertThat(smc.retrieverCache.size()).isEqualTo(2);
+
+		// Unrelated listener does not affect the retriever for MyOtherEvent
+		smc.addApplicationListener(new MyOrderedListener4(new MyOrderedListener3()));
+		assertThat(smc.retrieverCache.size()).isEqualTo(2);
+		smc.multicastEvent(event2);
+		assertThat(listener1.seenEvents).containsExactly(event1, event2, event2);
+
+		smc.removeApplicationListener(listener1);
+		assertThat(smc.retrieverCache.size()).isEqualTo(0);
+		smc.multicastEvent(event2);
+		assertThat(listener1.seenEvents).hasSize(3);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void proxiedListenersAddedAfterPublication() {
+		MyOrderedListener1 listener1 = new MyOrderedListener1();
+		MyOrderedListener2 listener2 = new MyOrderedListener2(listener1);
+		ApplicationListener<ApplicationEvent> proxy1 = (ApplicationListener<ApplicationEvent>) new ProxyFactory(listener1).getProxy();
+
+		SimpleApplicationEventMulticaster smc = new SimpleApplicationEventMulticaster();
+		smc.addApplicationListener(listener1);
+		smc.addApplicationListener(listener2);
+		smc.multicastEvent(new MyEvent(this));
+		assertThat(listener1.seenEvents.size()).isEqualTo(1);
+
+		// Proxy replaces its target in the cached retriever
+		smc.addApplicationListener(proxy1);
+		smc.multicastEvent(new MyEvent(this));
+		assertThat(listener1.seenEvents.size()).isEqualTo(2);
+	}
+
+	@Test
+	public void payloadEventTypeIsShared() {
+		ResolvableType eventType = new PayloadApplicationEvent<>(this, "event1").getResolvableType();
+		assertThat(eventType.toString()).isEqualTo(PayloadApplicationEvent.class.getName() + "<java.lang.String>");
+		assertThat(new PayloadApplicationEvent<>(this, "event2").getResolvableType()).isSameAs(eventType);
+	}
+
 	@Test
 	public void testEventPublicationInterceptor() throws Throwable {
 		MethodInvocation invocation = mock(MethodInvocation.class);
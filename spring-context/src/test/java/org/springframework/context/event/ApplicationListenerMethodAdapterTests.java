@@ -19,6 +19,8 @@ package org.springframework.context.event;
 import java.io.IOException;
 import java.lang.reflect.Method;
 import java.lang.reflect.UndeclaredThrowableException;
+import java.util.Arrays;
+import java.util.List;
 
 import org.junit.jupiter.api.Test;
 
@@ -156,6 +158,20 @@ public class ApplicationListenerMethodAdapterTests extends AbstractApplicationEv
 		assertThatIllegalStateException().isThrownBy(() -> createTestInstance(method));
 	}
 
+	@Test
+	public void batchListener() {
+		Method method = ReflectionUtils.findMethod(SampleEvents.class, "handleStringBatch", List.class);
+		supportsEventType(true, method, createGenericEventType(String.class));
+		supportsEventType(false, method, createGenericEventType(Integer.class));
+		supportsEventType(false, method, createGenericEventType(List.class));
+	}
+
+	@Test
+	public void batchListenerWithoutListParameter() {
+		Method method = ReflectionUtils.findMethod(SampleEvents.class, "invalidBatch", String.class);
+		assertThatIllegalStateException().isThrownBy(() -> createTestInstance(method));
+	}
+
 	@Test
 	public void defaultOrder() {
 		Method method = ReflectionUtils.findMethod(
@@ -304,6 +320,28 @@ public class ApplicationListenerMethodAdapterTests extends AbstractApplicationEv
 		verify(this.sampleEvents, times(2)).handleStringOrInteger();
 	}
 
+	@Test
+	public void invokeBatchListener() {
+		Method method = ReflectionUtils.findMethod(SampleEvents.class, "handleStringBatch", List.class);
+		ApplicationListenerMethodAdapter adapter = createTestInstance(method);
+		adapter.processEvents(Arrays.asList(new PayloadApplicationEvent<>(this, "test1"),
+				new PayloadApplicationEvent<>(this, 123), new PayloadApplicationEvent<>(this, "test2")));
+		verify(this.sampleEvents, times(1)).handleStringBatch(Arrays.asList("test1", "test2"));
+
+		adapter.onApplicationEvent(new PayloadApplicationEvent<>(this, "test3"));
+		verify(this.sampleEvents, times(1)).handleStringBatch(Arrays.asList("test3"));
+	}
+
+	@Test
+	public void batchListenerCreatedByDefaultFactory() {
+		Method method = ReflectionUtils.findMethod(SampleEvents.class, "handleStringBatch", List.class);
+		assertThat(new DefaultEventListenerFactory().createApplicationListener("test", SampleEvents.class, method))
+				.isInstanceOf(BatchApplicationListener.class);
+		method = ReflectionUtils.findMethod(SampleEvents.class, "handleString", String.class);
+		assertThat(new DefaultEventListenerFactory().createApplicationListener("test", SampleEvents.class, method))
+				.isNotInstanceOf(BatchApplicationListener.class);
+	}
+
 	@Test
 	public void beanInstanceRetrievedAtEveryInvocation() {
 		Method method = ReflectionUtils.findMethod(
@@ -404,6 +442,14 @@ public class ApplicationListenerMethodAdapterTests extends AbstractApplicationEv
 		public void handleGenericAnyPayload(EntityWrapper<?> event) {
 		}
 
+		@EventListener(batch = true)
+		public void handleStringBatch(List<String> payloads) {
+		}
+
+		@EventListener(batch = true)
+		public void invalidBatch(String payload) {
+		}
+
 		@EventListener
 		public void tooManyParameters(String event, String whatIsThis) {
 		}
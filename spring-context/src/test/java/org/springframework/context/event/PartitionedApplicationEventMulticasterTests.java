@@ -0,0 +1,275 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.event;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.PayloadApplicationEvent;
+import org.springframework.core.task.TaskRejectedException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Tests for {@link PartitionedApplicationEventMulticaster}.
+ */
+public class PartitionedApplicationEventMulticasterTests {
+
+	private final List<Runnable> tasks = new ArrayList<>();
+
+	private final PartitionedApplicationEventMulticaster multicaster = new PartitionedApplicationEventMulticaster();
+
+
+	@Test
+	public void listenerWithoutExecutorInvokedInCallingThread() {
+		PayloadCollector listener = new PayloadCollector();
+		this.multicaster.addApplicationListener(listener);
+
+		publish("a");
+		assertThat(listener.payloads).containsExactly("a");
+	}
+
+	@Test
+	public void listenerInvokedWithQueuedEvents() {
+		this.multicaster.setTaskExecutor(this.tasks::add);
+		PayloadCollector listener = new PayloadCollector();
+		this.multicaster.addApplicationListener(listener);
+
+		publish("a");
+		publish("b");
+		assertThat(listener.payloads).isEmpty();
+		assertThat(this.tasks).hasSize(1);
+
+		runTasks();
+		assertThat(listener.payloads).containsExactly("a", "b");
+	}
+
+	@Test
+	public void listenerSpecificExecutor() {
+		this.multicaster.setListenerExecutorResolver(listener ->
+				(listener instanceof BatchCollector ? this.tasks::add : null));
+		PayloadCollector listener = new PayloadCollector();
+		BatchCollector batchListener = new BatchCollector();
+		this.multicaster.addApplicationListener(listener);
+		this.multicaster.addApplicationListener(batchListener);
+
+		publish("a");
+		assertThat(listener.payloads).containsExactly("a");
+		assertThat(batchListener.batches).isEmpty();
+
+		runTasks();
+		assertThat(batchListener.batches).containsExactly(Collections.singletonList("a"));
+	}
+
+	@Test
+	public void batchListenerInvokedWithMicroBatches() {
+		this.multicaster.setTaskExecutor(this.tasks::add);
+		this.multicaster.setMaxBatchSize(2);
+		BatchCollector listener = new BatchCollector();
+		this.multicaster.addApplicationListener(listener);
+
+		publish("a");
+		publish("b");
+		publish("c");
+		runTasks();
+		assertThat(listener.batches).containsExactly(Arrays.asList("a", "b"), Collections.singletonList("c"));
+	}
+
+	@Test
+	public void eventsWithSameKeyDeliveredInOrder() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		int keys = 8;
+		int eventsPerKey = 200;
+		CountDownLatch latch = new CountDownLatch(keys * eventsPerKey);
+		Map<Integer, List<Integer>> received = new ConcurrentHashMap<>();
+		this.multicaster.setTaskExecutor(executor);
+		this.multicaster.setPartitionCount(4);
+		this.multicaster.setPartitionKeyResolver(event -> ((int[]) ((PayloadApplicationEvent<?>) event).getPayload())[0]);
+		this.multicaster.addApplicationListener((ApplicationListener<PayloadApplicationEvent<int[]>>) event -> {
+			int[] payload = event.getPayload();
+			received.computeIfAbsent(payload[0], key -> Collections.synchronizedList(new ArrayList<>())).add(payload[1]);
+			latch.countDown();
+		});
+
+		try {
+			for (int i = 0; i < eventsPerKey; i++) {
+				for (int key = 0; key < keys; key++) {
+					publish(new int[] {key, i});
+				}
+			}
+			assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+		}
+		finally {
+			executor.shutdownNow();
+		}
+		assertThat(received).hasSize(keys);
+		for (List<Integer> values : received.values()) {
+			assertThat(values).hasSize(eventsPerKey).isSorted();
+		}
+	}
+
+	@Test
+	public void overflowWithDiscard() {
+		PayloadCollector listener = setUpBoundedQueue(PartitionedApplicationEventMulticaster.OverflowPolicy.DISCARD);
+		publish("a");
+		publish("b");
+		publish("c");
+		runTasks();
+		assertThat(listener.payloads).containsExactly("a", "b");
+	}
+
+	@Test
+	public void overflowWithDiscardOldest() {
+		PayloadCollector listener = setUpBoundedQueue(PartitionedApplicationEventMulticaster.OverflowPolicy.DISCARD_OLDEST);
+		publish("a");
+		publish("b");
+		publish("c");
+		runTasks();
+		assertThat(listener.payloads).containsExactly("b", "c");
+	}
+
+	@Test
+	public void overflowWithCallerRuns() {
+		PayloadCollector listener = setUpBoundedQueue(PartitionedApplicationEventMulticaster.OverflowPolicy.CALLER_RUNS);
+		publish("a");
+		publish("b");
+		publish("c");
+		assertThat(listener.payloads).containsExactly("c");
+		runTasks();
+		assertThat(listener.payloads).containsExactly("c", "a", "b");
+	}
+
+	@Test
+	public void overflowWithAbort() {
+		PayloadCollector listener = setUpBoundedQueue(PartitionedApplicationEventMulticaster.OverflowPolicy.ABORT);
+		publish("a");
+		publish("b");
+		assertThatExceptionOfType(TaskRejectedException.class).isThrownBy(() -> publish("c"));
+		runTasks();
+		assertThat(listener.payloads).containsExactly("a", "b");
+	}
+
+	@Test
+	public void listenerExceptionPassedToErrorHandler() {
+		List<Throwable> errors = new ArrayList<>();
+		this.multicaster.setTaskExecutor(this.tasks::add);
+		this.multicaster.setErrorHandler(errors::add);
+		PayloadCollector listener = new PayloadCollector();
+		this.multicaster.addApplicationListener((ApplicationListener<PayloadApplicationEvent<String>>) event -> {
+			if ("fail".equals(event.getPayload())) {
+				throw new IllegalStateException("Test exception");
+			}
+		});
+		this.multicaster.addApplicationListener(listener);
+
+		publish("fail");
+		publish("a");
+		runTasks();
+		assertThat(errors).hasSize(1);
+		assertThat(errors.get(0)).isInstanceOf(IllegalStateException.class);
+		assertThat(listener.payloads).containsExactly("fail", "a");
+	}
+
+	@Test
+	public void rejectedReschedulePassedToErrorHandler() {
+		List<Throwable> errors = new ArrayList<>();
+		AtomicBoolean rejecting = new AtomicBoolean();
+		this.multicaster.setTaskExecutor(task -> {
+			if (rejecting.get()) {
+				throw new TaskRejectedException("Test rejection");
+			}
+			this.tasks.add(task);
+		});
+		this.multicaster.setMaxBatchSize(1);
+		this.multicaster.setErrorHandler(errors::add);
+		PayloadCollector listener = new PayloadCollector();
+		this.multicaster.addApplicationListener(listener);
+
+		publish("a");
+		publish("b");
+		rejecting.set(true);
+		runTasks();
+		assertThat(listener.payloads).containsExactly("a");
+		assertThat(errors).hasSize(1);
+		assertThat(errors.get(0)).isInstanceOf(TaskRejectedException.class);
+
+		rejecting.set(false);
+		publish("c");
+		runTasks();
+		assertThat(listener.payloads).containsExactly("a", "b", "c");
+	}
+
+
+	private PayloadCollector setUpBoundedQueue(PartitionedApplicationEventMulticaster.OverflowPolicy policy) {
+		this.multicaster.setTaskExecutor(this.tasks::add);
+		this.multicaster.setQueueCapacity(2);
+		this.multicaster.setOverflowPolicy(policy);
+		PayloadCollector listener = new PayloadCollector();
+		this.multicaster.addApplicationListener(listener);
+		return listener;
+	}
+
+	private void publish(Object payload) {
+		this.multicaster.multicastEvent(new PayloadApplicationEvent<>(this, payload));
+	}
+
+	private void runTasks() {
+		while (!this.tasks.isEmpty()) {
+			this.tasks.remove(0).run();
+		}
+	}
+
+
+	private static class PayloadCollector implements ApplicationListener<PayloadApplicationEvent<String>> {
+
+		private final List<String> payloads = new ArrayList<>();
+
+		@Override
+		public void onApplicationEvent(PayloadApplicationEvent<String> event) {
+			this.payloads.add(event.getPayload());
+		}
+	}
+
+
+	private static class BatchCollector implements BatchApplicationListener<PayloadApplicationEvent<String>> {
+
+		private final List<List<String>> batches = new ArrayList<>();
+
+		@Override
+		public void onApplicationEvents(List<PayloadApplicationEvent<String>> events) {
+			List<String> batch = new ArrayList<>();
+			for (PayloadApplicationEvent<String> event : events) {
+				batch.add(event.getPayload());
+			}
+			this.batches.add(batch);
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -24,6 +24,7 @@ import org.junit.jupiter.api.Test;
 
 import org.springframework.expression.Expression;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
 import org.springframework.util.ReflectionUtils;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -66,6 +67,68 @@ public class CachedExpressionEvaluatorTests {
 		assertThat(expressionEvaluator.testCache.size()).as("Cached expression should be based on type").isEqualTo(2);
 	}
 
+	@Test
+	void cacheExpressionInSharedCache() {
+		Method method = ReflectionUtils.findMethod(getClass(), "toString");
+		Expression expression = expressionEvaluator.getSharedExpression("true", method, getClass());
+		assertThat(expressionEvaluator.getSharedExpression("true", method, getClass())).isSameAs(expression);
+		hasParsedExpression("true");
+	}
+
+	@Test
+	void sharedCacheEvictsEldestExpression() {
+		Method method = ReflectionUtils.findMethod(getClass(), "toString");
+		expressionEvaluator.setCacheLimit(2);
+		expressionEvaluator.getSharedExpression("1", method, getClass());
+		expressionEvaluator.getSharedExpression("2", method, getClass());
+		expressionEvaluator.getSharedExpression("3", method, getClass());
+		expressionEvaluator.getSharedExpression("3", method, getClass());
+		expressionEvaluator.getSharedExpression("1", method, getClass());
+		verify(expressionEvaluator.getParser(), times(2)).parseExpression("1");
+		verify(expressionEvaluator.getParser(), times(1)).parseExpression("3");
+	}
+
+	@Test
+	void sharedCacheDisabled() {
+		Method method = ReflectionUtils.findMethod(getClass(), "toString");
+		expressionEvaluator.setCacheLimit(0);
+		expressionEvaluator.getSharedExpression("true", method, getClass());
+		expressionEvaluator.getSharedExpression("true", method, getClass());
+		verify(expressionEvaluator.getParser(), times(2)).parseExpression("true");
+	}
+
+	@Test
+	void initEvaluationContextSharesInfrastructure() {
+		StandardEvaluationContext context1 = new StandardEvaluationContext();
+		StandardEvaluationContext context2 = new StandardEvaluationContext();
+		expressionEvaluator.initEvaluationContext(context1);
+		expressionEvaluator.initEvaluationContext(context2);
+		assertThat(context1.getPropertyAccessors()).isNotSameAs(context2.getPropertyAccessors())
+				.containsExactlyElementsOf(context2.getPropertyAccessors());
+		assertThat(context1.getMethodResolvers()).isNotSameAs(context2.getMethodResolvers())
+				.containsExactlyElementsOf(context2.getMethodResolvers());
+	}
+
+	@Test
+	void initEvaluationContextAllowsForFurtherAccessors() {
+		StandardEvaluationContext context = new StandardEvaluationContext();
+		expressionEvaluator.initEvaluationContext(context);
+		context.addPropertyAccessor(new MapAccessor());
+		assertThat(context.getPropertyAccessors()).hasSize(2);
+
+		StandardEvaluationContext otherContext = new StandardEvaluationContext();
+		expressionEvaluator.initEvaluationContext(otherContext);
+		assertThat(otherContext.getPropertyAccessors()).hasSize(1);
+	}
+
+	@Test
+	void parameterNamesAreCached() throws Exception {
+		Method method = getClass().getDeclaredMethod("hasParsedExpression", String.class);
+		String[] names = expressionEvaluator.getParameterNameDiscoverer().getParameterNames(method);
+		assertThat(names).containsExactly("expression");
+		assertThat(expressionEvaluator.getParameterNameDiscoverer().getParameterNames(method)).isSameAs(names);
+	}
+
 	private void hasParsedExpression(String expression) {
 		verify(expressionEvaluator.getParser(), times(1)).parseExpression(expression);
 	}
@@ -82,6 +145,10 @@ public class CachedExpressionEvaluatorTests {
 			return getExpression(this.testCache, new AnnotatedElementKey(method, type), expression);
 		}
 
+		public Expression getSharedExpression(String expression, Method method, Class<?> type) {
+			return getExpression(new AnnotatedElementKey(method, type), expression);
+		}
+
 		private static SpelExpressionParser mockSpelExpressionParser() {
 			SpelExpressionParser parser = new SpelExpressionParser();
 			return spy(parser);
@@ -0,0 +1,299 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.concurrent;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.Trigger;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * Tests for {@link HashedWheelTaskScheduler}.
+ */
+public class HashedWheelTaskSchedulerTests {
+
+	private final HashedWheelTaskScheduler scheduler = new HashedWheelTaskScheduler();
+
+
+	@AfterEach
+	public void shutdown() {
+		this.scheduler.shutdown();
+	}
+
+
+	@Test
+	public void notInitialized() {
+		assertThatIllegalStateException().isThrownBy(() -> this.scheduler.schedule(() -> {}, new Date()));
+	}
+
+	@Test
+	public void scheduleOneTimeTask() throws Exception {
+		this.scheduler.setThreadNamePrefix("wheel-");
+		this.scheduler.afterPropertiesSet();
+		String[] threadName = new String[1];
+		long start = System.currentTimeMillis();
+		ScheduledFuture<?> future = this.scheduler.schedule(
+				() -> threadName[0] = Thread.currentThread().getName(), new Date(start + 50));
+		assertThat(future.get(1000, TimeUnit.MILLISECONDS)).isNull();
+		assertThat(System.currentTimeMillis() - start).isGreaterThanOrEqualTo(50L);
+		assertThat(future.isDone()).isTrue();
+		assertThat(threadName[0]).startsWith("wheel-");
+	}
+
+	@Test
+	public void scheduleOneTimeFailingTask() throws Exception {
+		this.scheduler.afterPropertiesSet();
+		ScheduledFuture<?> future = this.scheduler.schedule(() -> {
+			throw new IllegalStateException("Expected");
+		}, new Date());
+		assertThatExceptionOfType(ExecutionException.class).isThrownBy(() ->
+				future.get(1000, TimeUnit.MILLISECONDS));
+	}
+
+	@Test
+	public void cancelledTasksDoNotRun() throws Exception {
+		this.scheduler.setTickMillis(1);
+		this.scheduler.afterPropertiesSet();
+		int count = 10000;
+		AtomicInteger executions = new AtomicInteger();
+		CountDownLatch latch = new CountDownLatch(count / 2);
+		List<ScheduledFuture<?>> futures = new ArrayList<>(count);
+		Date startTime = new Date(System.currentTimeMillis() + 100);
+		for (int i = 0; i < count; i++) {
+			futures.add(this.scheduler.schedule(() -> {
+				executions.incrementAndGet();
+				latch.countDown();
+			}, startTime));
+		}
+		for (int i = 0; i < count; i += 2) {
+			assertThat(futures.get(i).cancel(false)).isTrue();
+		}
+		assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+		Thread.sleep(50);
+		assertThat(executions.get()).isEqualTo(count / 2);
+		assertThat(futures.get(0).isCancelled()).isTrue();
+		assertThat(futures.get(1).isDone()).isTrue();
+		assertThat(this.scheduler.getScheduledTaskCount()).isEqualTo(0);
+	}
+
+	@Test
+	public void tasksMovedDownFromHigherLevels() throws Exception {
+		// 4 levels of 4 slots: 256 ticks in range, beyond which tasks are parked
+		this.scheduler.setTickMillis(1);
+		this.scheduler.setTicksPerWheel(4);
+		this.scheduler.afterPropertiesSet();
+		long start = System.currentTimeMillis();
+		long[] delays = new long[] {3, 17, 70, 130, 300, 450};
+		List<ScheduledFuture<?>> futures = new ArrayList<>();
+		long[] executionTimes = new long[delays.length];
+		for (int i = 0; i < delays.length; i++) {
+			int index = i;
+			futures.add(this.scheduler.schedule(() -> executionTimes[index] = System.currentTimeMillis(),
+					new Date(start + delays[i])));
+		}
+		for (int i = 0; i < delays.length; i++) {
+			futures.get(i).get(2000, TimeUnit.MILLISECONDS);
+			assertThat(executionTimes[i] - start).isGreaterThanOrEqualTo(delays[i]);
+		}
+	}
+
+	@Test
+	public void scheduleAtFixedRate() throws Exception {
+		this.scheduler.setTickMillis(1);
+		this.scheduler.afterPropertiesSet();
+		CountDownLatch latch = new CountDownLatch(5);
+		ScheduledFuture<?> future = this.scheduler.scheduleAtFixedRate(latch::countDown, 10);
+		assertThat(latch.await(1, TimeUnit.SECONDS)).isTrue();
+		assertThat(future.isDone()).isFalse();
+		assertThat(future.cancel(false)).isTrue();
+		assertThat(future.isCancelled()).isTrue();
+	}
+
+	@Test
+	public void scheduleWithFixedDelayAndErrorHandler() throws Exception {
+		this.scheduler.setTickMillis(1);
+		CountDownLatch latch = new CountDownLatch(3);
+		this.scheduler.setErrorHandler(ex -> latch.countDown());
+		this.scheduler.afterPropertiesSet();
+		ScheduledFuture<?> future = this.scheduler.scheduleWithFixedDelay(() -> {
+			throw new IllegalStateException("Expected");
+		}, 10);
+		assertThat(latch.await(1, TimeUnit.SECONDS)).isTrue();
+		future.cancel(false);
+	}
+
+	@Test
+	public void scheduleWithTrigger() throws Exception {
+		this.scheduler.setTickMillis(1);
+		this.scheduler.afterPropertiesSet();
+		AtomicInteger executions = new AtomicInteger();
+		Trigger trigger = triggerContext -> {
+			if (triggerContext.lastCompletionTime() != null && executions.get() >= 3) {
+				return null;
+			}
+			return new Date(System.currentTimeMillis() + 10);
+		};
+		ScheduledFuture<?> future = this.scheduler.schedule(executions::incrementAndGet, trigger);
+		assertThat(future.get(1000, TimeUnit.MILLISECONDS)).isNull();
+		assertThat(executions.get()).isEqualTo(3);
+	}
+
+	@Test
+	public void customExecutor() throws Exception {
+		AtomicInteger dispatched = new AtomicInteger();
+		Executor executor = task -> {
+			dispatched.incrementAndGet();
+			task.run();
+		};
+		this.scheduler.setExecutor(executor);
+		this.scheduler.afterPropertiesSet();
+		this.scheduler.schedule(() -> {}, new Date()).get(1000, TimeUnit.MILLISECONDS);
+		assertThat(dispatched.get()).isEqualTo(1);
+	}
+
+	@Test
+	public void failingCustomExecutorDoesNotStopWheel() throws Exception {
+		AtomicInteger dispatched = new AtomicInteger();
+		Executor executor = task -> {
+			if (dispatched.incrementAndGet() == 1) {
+				throw new IllegalStateException("Test exception");
+			}
+			task.run();
+		};
+		this.scheduler.setExecutor(executor);
+		this.scheduler.afterPropertiesSet();
+		ScheduledFuture<?> future = this.scheduler.schedule(() -> {}, new Date());
+		assertThatExceptionOfType(ExecutionException.class).isThrownBy(() ->
+				future.get(1000, TimeUnit.MILLISECONDS)).withCauseInstanceOf(IllegalStateException.class);
+		this.scheduler.schedule(() -> {}, new Date()).get(1000, TimeUnit.MILLISECONDS);
+		assertThat(dispatched.get()).isEqualTo(2);
+	}
+
+	@Test
+	public void virtualThreads() throws Exception {
+		this.scheduler.setVirtualThreads(true);
+		this.scheduler.afterPropertiesSet();
+		CountDownLatch latch = new CountDownLatch(100);
+		Date startTime = new Date(System.currentTimeMillis() + 20);
+		for (int i = 0; i < 100; i++) {
+			this.scheduler.schedule(latch::countDown, startTime);
+		}
+		assertThat(latch.await(1, TimeUnit.SECONDS)).isTrue();
+	}
+
+	@Test
+	public void shutdownCancelsPendingTasks() throws Exception {
+		this.scheduler.afterPropertiesSet();
+		ScheduledFuture<?> future = this.scheduler.schedule(() -> {}, new Date(System.currentTimeMillis() + 60000));
+		Thread.sleep(50);
+		assertThat(this.scheduler.getScheduledTaskCount()).isEqualTo(1);
+		this.scheduler.shutdown();
+		assertThat(future.isCancelled()).isTrue();
+		assertThatExceptionOfType(TaskRejectedException.class).isThrownBy(() ->
+				this.scheduler.schedule(() -> {}, new Date()));
+	}
+
+	@Test
+	public void shutdownCancelsTasksScheduledConcurrently() throws Exception {
+		this.scheduler.afterPropertiesSet();
+		List<ScheduledFuture<?>> futures = new ArrayList<>();
+		CountDownLatch started = new CountDownLatch(1);
+		Thread producer = new Thread(() -> {
+			started.countDown();
+			try {
+				while (true) {
+					futures.add(this.scheduler.schedule(() -> {}, new Date(System.currentTimeMillis() + 60000)));
+				}
+			}
+			catch (TaskRejectedException ex) {
+				// shut down
+			}
+		});
+		producer.start();
+		assertThat(started.await(1, TimeUnit.SECONDS)).isTrue();
+		Thread.sleep(20);
+		this.scheduler.shutdown();
+		producer.join(1000);
+		assertThat(futures).isNotEmpty();
+		for (ScheduledFuture<?> future : futures) {
+			assertThat(future.isCancelled()).isTrue();
+		}
+	}
+
+	@Test
+	public void scheduledAnnotationWithSchedulingConfigurer() throws Exception {
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(SchedulingConfig.class);
+		try {
+			assertThat(context.getBean(CountDownLatch.class).await(1, TimeUnit.SECONDS)).isTrue();
+		}
+		finally {
+			context.close();
+		}
+	}
+
+
+	@Configuration
+	@EnableScheduling
+	static class SchedulingConfig implements SchedulingConfigurer {
+
+		@Bean
+		public CountDownLatch latch() {
+			return new CountDownLatch(3);
+		}
+
+		@Bean
+		public TaskScheduler wheelScheduler() {
+			HashedWheelTaskScheduler scheduler = new HashedWheelTaskScheduler();
+			scheduler.setTickMillis(1);
+			return scheduler;
+		}
+
+		@Override
+		public void configureTasks(ScheduledTaskRegistrar taskRegistrar) {
+			taskRegistrar.setTaskScheduler(wheelScheduler());
+		}
+
+		@Scheduled(fixedRate = 10)
+		public void task() {
+			latch().countDown();
+		}
+	}
+
+}
@@ -0,0 +1,256 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.scheduling.concurrent;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.core.task.AsyncListenableTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.lang.Nullable;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * Tests for a {@link ThreadPoolTaskExecutor} with statistics and
+ * {@link TaskExecutionListener TaskExecutionListeners}.
+ */
+public class InstrumentedThreadPoolTaskExecutorTests extends AbstractSchedulingTaskExecutorTests {
+
+	@Override
+	protected AsyncListenableTaskExecutor buildExecutor() {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setStatisticsEnabled(true);
+		executor.setTaskDecorator(runnable -> runnable);
+		executor.setThreadNamePrefix(THREAD_NAME_PREFIX);
+		executor.setMaxPoolSize(1);
+		executor.afterPropertiesSet();
+		return executor;
+	}
+
+
+	@Test
+	public void statistics() throws Exception {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setStatisticsEnabled(true);
+		executor.initialize();
+		try {
+			CountDownLatch latch = new CountDownLatch(1);
+			executor.execute(() -> await(latch));
+			executor.execute(() -> {
+				throw new IllegalStateException("Expected");
+			});
+			executor.execute(() -> {});
+			latch.countDown();
+			ExecutorStatistics statistics = executor.getStatistics();
+			Awaitility.await()
+					.atMost(1, TimeUnit.SECONDS)
+					.pollInterval(10, TimeUnit.MILLISECONDS)
+					.until(() -> statistics.getCompletedCount() == 3);
+			assertThat(statistics.getFailedCount()).isEqualTo(1);
+			assertThat(statistics.getRejectedCount()).isEqualTo(0);
+			assertThat(statistics.getQueueWaitTime().getCount()).isEqualTo(3);
+			assertThat(statistics.getRunTime().getMax()).isGreaterThan(0L);
+
+			ManagedExecutorStatistics managed = new ManagedExecutorStatistics(executor);
+			assertThat(managed.getCompletedCount()).isEqualTo(3);
+			assertThat(managed.getFailedCount()).isEqualTo(1);
+			assertThat(managed.getCorePoolSize()).isEqualTo(1);
+			assertThat(managed.getQueueSize()).isEqualTo(0);
+			managed.resetStatistics();
+			assertThat(statistics.getCompletedCount()).isEqualTo(0);
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void statisticsNotEnabled() {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		assertThat(executor.getStatistics()).isNull();
+		assertThatIllegalStateException().isThrownBy(() ->
+				new ManagedExecutorStatistics(executor).getCompletedCount());
+	}
+
+	@Test
+	public void taskExecutionListener() throws Exception {
+		List<String> events = new CopyOnWriteArrayList<>();
+		CountDownLatch completed = new CountDownLatch(1);
+		Runnable task = () -> events.add("run");
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.addTaskExecutionListener(new TaskExecutionListener() {
+			@Override
+			public void taskStarted(Runnable startedTask, long queueWaitNanos) {
+				assertThat(startedTask).isSameAs(task);
+				events.add("started");
+			}
+			@Override
+			public void taskCompleted(Runnable completedTask, long queueWaitNanos, long runNanos,
+					@Nullable Throwable ex) {
+				assertThat(completedTask).isSameAs(task);
+				events.add("completed");
+				completed.countDown();
+			}
+		});
+		executor.initialize();
+		try {
+			executor.execute(task);
+			assertThat(completed.await(1, TimeUnit.SECONDS)).isTrue();
+			assertThat(events).containsExactly("started", "run", "completed");
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void taskExecutionListenerWithSubmittedTask() throws Exception {
+		List<Throwable> failures = new CopyOnWriteArrayList<>();
+		CountDownLatch completed = new CountDownLatch(2);
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setStatisticsEnabled(true);
+		executor.addTaskExecutionListener(new TaskExecutionListener() {
+			@Override
+			public void taskCompleted(Runnable completedTask, long queueWaitNanos, long runNanos,
+					@Nullable Throwable ex) {
+				if (ex != null) {
+					failures.add(ex);
+				}
+				completed.countDown();
+			}
+		});
+		executor.initialize();
+		try {
+			IllegalStateException failure = new IllegalStateException("Expected");
+			executor.submit(() -> {
+				throw failure;
+			});
+			executor.submitListenable(() -> "result");
+			assertThat(completed.await(1, TimeUnit.SECONDS)).isTrue();
+			assertThat(failures).containsExactly(failure);
+			assertThat(executor.getStatistics().getFailedCount()).isEqualTo(1);
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void taskRejected() throws Exception {
+		List<Runnable> rejected = new CopyOnWriteArrayList<>();
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setMaxPoolSize(1);
+		executor.setQueueCapacity(0);
+		executor.setStatisticsEnabled(true);
+		executor.addTaskExecutionListener(new TaskExecutionListener() {
+			@Override
+			public void taskRejected(Runnable task) {
+				rejected.add(task);
+			}
+		});
+		executor.initialize();
+		CountDownLatch latch = new CountDownLatch(1);
+		try {
+			executor.execute(() -> await(latch));
+			Runnable task = () -> {};
+			assertThatExceptionOfType(TaskRejectedException.class).isThrownBy(() -> executor.execute(task));
+			assertThat(rejected).containsExactly(task);
+			assertThat(executor.getStatistics().getRejectedCount()).isEqualTo(1);
+		}
+		finally {
+			latch.countDown();
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void corePoolSizeControllerGrowsAndShrinksPool() {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(2);
+		executor.setMaxPoolSize(5);
+		CorePoolSizeController controller = new CorePoolSizeController(executor, 1, 8);
+		controller.setTargetQueueWaitMillis(10);
+		controller.adjust(TimeUnit.MILLISECONDS.toNanos(50));
+		assertThat(executor.getCorePoolSize()).isEqualTo(3);
+		controller.adjust(TimeUnit.MILLISECONDS.toNanos(50));
+		controller.adjust(TimeUnit.MILLISECONDS.toNanos(50));
+		controller.adjust(TimeUnit.MILLISECONDS.toNanos(50));
+		assertThat(executor.getCorePoolSize()).isEqualTo(5);
+		controller.adjust(TimeUnit.MILLISECONDS.toNanos(7));
+		assertThat(executor.getCorePoolSize()).isEqualTo(5);
+		controller.adjust(TimeUnit.MILLISECONDS.toNanos(1));
+		assertThat(executor.getCorePoolSize()).isEqualTo(4);
+		for (int i = 0; i < 5; i++) {
+			controller.adjust(0);
+		}
+		assertThat(executor.getCorePoolSize()).isEqualTo(1);
+	}
+
+	@Test
+	public void corePoolSizeControllerOnQueueWait() throws Exception {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(1);
+		CorePoolSizeController controller = new CorePoolSizeController(executor, 1, 4);
+		controller.setTargetQueueWaitMillis(1);
+		controller.setAdjustmentIntervalMillis(0);
+		executor.addTaskExecutionListener(controller);
+		executor.initialize();
+		try {
+			CountDownLatch latch = new CountDownLatch(20);
+			for (int i = 0; i < 20; i++) {
+				executor.execute(() -> {
+					sleep(5);
+					latch.countDown();
+				});
+			}
+			assertThat(latch.await(2, TimeUnit.SECONDS)).isTrue();
+			assertThat(executor.getCorePoolSize()).isGreaterThan(1);
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(1, TimeUnit.SECONDS);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
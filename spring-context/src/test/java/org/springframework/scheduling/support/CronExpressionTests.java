@@ -0,0 +1,274 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.support;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Date;
+import java.util.Random;
+import java.util.TimeZone;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Tests for {@link CronExpression}.
+ */
+public class CronExpressionTests {
+
+	@Test
+	public void secondsIncrement() {
+		CronExpression expression = CronExpression.parse("*/15 * 1-4 * * *");
+		assertThat(expression.next(LocalDateTime.of(2012, 7, 1, 9, 53, 50)))
+				.isEqualTo(LocalDateTime.of(2012, 7, 2, 1, 0, 0));
+		assertThat(expression.next(LocalDateTime.of(2012, 7, 2, 1, 0, 0)))
+				.isEqualTo(LocalDateTime.of(2012, 7, 2, 1, 0, 15));
+		assertThat(expression.next(LocalDateTime.of(2012, 7, 2, 4, 59, 45)))
+				.isEqualTo(LocalDateTime.of(2012, 7, 3, 1, 0, 0));
+	}
+
+	@Test
+	public void nextIsStrictlyAfterAndIgnoresNanos() {
+		CronExpression expression = CronExpression.parse("0 0 * * * *");
+		assertThat(expression.next(LocalDateTime.of(2020, 1, 1, 10, 0, 0)))
+				.isEqualTo(LocalDateTime.of(2020, 1, 1, 11, 0, 0));
+		assertThat(expression.next(LocalDateTime.of(2020, 1, 1, 10, 0, 0, 999_999_999)))
+				.isEqualTo(LocalDateTime.of(2020, 1, 1, 11, 0, 0));
+	}
+
+	@Test
+	public void rollsOverYear() {
+		CronExpression expression = CronExpression.parse("0 30 23 31 12 ?");
+		assertThat(expression.next(LocalDateTime.of(2019, 12, 31, 23, 30, 0)))
+				.isEqualTo(LocalDateTime.of(2020, 12, 31, 23, 30, 0));
+	}
+
+	@Test
+	public void leapDay() {
+		CronExpression expression = CronExpression.parse("0 0 0 29 2 *");
+		assertThat(expression.next(LocalDateTime.of(2020, 3, 1, 0, 0)))
+				.isEqualTo(LocalDateTime.of(2024, 2, 29, 0, 0));
+	}
+
+	@Test
+	public void dayOfMonthAndDayOfWeekBothMatch() {
+		// Friday the 13th
+		CronExpression expression = CronExpression.parse("0 0 0 13 * FRI");
+		assertThat(expression.next(LocalDateTime.of(2020, 1, 1, 0, 0)))
+				.isEqualTo(LocalDateTime.of(2020, 3, 13, 0, 0));
+	}
+
+	@Test
+	public void sundayAsZeroOrSeven() {
+		assertThat(CronExpression.parse("0 0 0 * * 0")).isEqualTo(CronExpression.parse("0 0 0 * * 7"));
+		assertThat(CronExpression.parse("0 0 0 * * 0")).isEqualTo(CronExpression.parse("0 0 0 * * sun"));
+		assertThat(CronExpression.parse("0 0 0 * * 7").next(LocalDateTime.of(2020, 3, 3, 0, 0)))
+				.isEqualTo(LocalDateTime.of(2020, 3, 8, 0, 0));
+	}
+
+	@Test
+	public void lastDayOfMonth() {
+		CronExpression expression = CronExpression.parse("0 0 0 L * *");
+		assertThat(expression.next(LocalDateTime.of(2020, 2, 1, 0, 0)))
+				.isEqualTo(LocalDateTime.of(2020, 2, 29, 0, 0));
+		assertThat(expression.next(LocalDateTime.of(2020, 2, 29, 0, 0)))
+				.isEqualTo(LocalDateTime.of(2020, 3, 31, 0, 0));
+
+		expression = CronExpression.parse("0 0 0 L-2 * *");
+		assertThat(expression.next(LocalDateTime.of(2020, 4, 1, 0, 0)))
+				.isEqualTo(LocalDateTime.of(2020, 4, 28, 0, 0));
+	}
+
+	@Test
+	public void nearestWeekday() {
+		CronExpression expression = CronExpression.parse("0 0 0 15W * ?");
+		// Saturday 15 February 2020
+		assertThat(expression.next(LocalDateTime.of(2020, 2, 1, 0, 0)))
+				.isEqualTo(LocalDateTime.of(2020, 2, 14, 0, 0));
+		// Sunday 15 March 2020
+		assertThat(expression.next(LocalDateTime.of(2020, 3, 1, 0, 0)))
+				.isEqualTo(LocalDateTime.of(2020, 3, 16, 0, 0));
+
+		// Saturday 1 February 2020: does not move back into January
+		expression = CronExpression.parse("0 0 0 1W * ?");
+		assertThat(expression.next(LocalDateTime.of(2020, 1, 31, 0, 0)))
+				.isEqualTo(LocalDateTime.of(2020, 2, 3, 0, 0));
+
+		// Sunday 31 May 2020
+		expression = CronExpression.parse("0 0 0 LW * ?");
+		assertThat(expression.next(LocalDateTime.of(2020, 5, 1, 0, 0)))
+				.isEqualTo(LocalDateTime.of(2020, 5, 29, 0, 0));
+	}
+
+	@Test
+	public void lastDayOfWeek() {
+		CronExpression expression = CronExpression.parse("0 0 0 ? * 5L");
+		assertThat(expression.next(LocalDateTime.of(2020, 1, 1, 0, 0)))
+				.isEqualTo(LocalDateTime.of(2020, 1, 31, 0, 0));
+		assertThat(expression.next(LocalDateTime.of(2020, 1, 31, 0, 0)))
+				.isEqualTo(LocalDateTime.of(2020, 2, 28, 0, 0));
+		assertThat(CronExpression.parse("0 0 0 ? * FRIL")).isEqualTo(expression);
+	}
+
+	@Test
+	public void nthDayOfWeek() {
+		CronExpression expression = CronExpression.parse("0 0 0 ? * MON#2");
+		assertThat(expression.next(LocalDateTime.of(2020, 1, 1, 0, 0)))
+				.isEqualTo(LocalDateTime.of(2020, 1, 13, 0, 0));
+		assertThat(expression.next(LocalDateTime.of(2020, 1, 13, 0, 0)))
+				.isEqualTo(LocalDateTime.of(2020, 2, 10, 0, 0));
+
+		// Months without a fifth Sunday are skipped
+		expression = CronExpression.parse("0 0 0 ? * 0#5");
+		assertThat(expression.next(LocalDateTime.of(2020, 1, 1, 0, 0)))
+				.isEqualTo(LocalDateTime.of(2020, 3, 29, 0, 0));
+	}
+
+	@Test
+	public void macros() {
+		assertThat(CronExpression.parse("@yearly")).isEqualTo(CronExpression.parse("0 0 0 1 1 *"));
+		assertThat(CronExpression.parse("@annually")).isEqualTo(CronExpression.parse("0 0 0 1 1 *"));
+		assertThat(CronExpression.parse("@monthly")).isEqualTo(CronExpression.parse("0 0 0 1 * *"));
+		assertThat(CronExpression.parse("@weekly")).isEqualTo(CronExpression.parse("0 0 0 * * SUN"));
+		assertThat(CronExpression.parse("@daily")).isEqualTo(CronExpression.parse("0 0 0 * * *"));
+		assertThat(CronExpression.parse("@midnight")).isEqualTo(CronExpression.parse("0 0 0 * * *"));
+		assertThat(CronExpression.parse("@hourly")).isEqualTo(CronExpression.parse("0 0 * * * *"));
+		assertThat(CronExpression.parse("@hourly").toString()).isEqualTo("@hourly");
+	}
+
+	@Test
+	public void noMatch() {
+		CronExpression expression = CronExpression.parse("0 0 0 30 2 *");
+		assertThat(expression.next(LocalDateTime.of(2020, 1, 1, 0, 0))).isNull();
+	}
+
+	@Test
+	public void daylightSavingTimeGapIsSkipped() {
+		ZoneId zone = ZoneId.of("Europe/Berlin");
+		CronExpression expression = CronExpression.parse("0 30 2 * * *");
+		ZonedDateTime dateTime = ZonedDateTime.of(2020, 3, 29, 1, 0, 0, 0, zone);
+		assertThat(expression.next(dateTime)).isEqualTo(ZonedDateTime.of(2020, 3, 30, 2, 30, 0, 0, zone));
+	}
+
+	@Test
+	public void daylightSavingTimeGapWithinRange() {
+		ZoneId zone = ZoneId.of("Europe/Berlin");
+		CronExpression expression = CronExpression.parse("0 0 * * * *");
+		ZonedDateTime dateTime = ZonedDateTime.of(2020, 3, 29, 1, 0, 0, 0, zone);
+		assertThat(expression.next(dateTime)).isEqualTo(ZonedDateTime.of(2020, 3, 29, 3, 0, 0, 0, zone));
+	}
+
+	@Test
+	public void daylightSavingTimeOverlapMatchesOnce() {
+		ZoneId zone = ZoneId.of("Europe/Berlin");
+		CronExpression expression = CronExpression.parse("0 30 2 * * *");
+		ZonedDateTime first = expression.next(ZonedDateTime.of(2020, 10, 25, 1, 0, 0, 0, zone));
+		assertThat(first.toLocalDateTime()).isEqualTo(LocalDateTime.of(2020, 10, 25, 2, 30));
+		assertThat(expression.next(first).toLocalDateTime()).isEqualTo(LocalDateTime.of(2020, 10, 26, 2, 30));
+	}
+
+	@Test
+	public void equality() {
+		assertThat(CronExpression.parse("* * * 2 * *")).isEqualTo(CronExpression.parse("* * * 2 * ?"));
+		assertThat(CronExpression.parse("*  *  * 2 * *")).isEqualTo(CronExpression.parse("* * * 2 * *"));
+		assertThat(CronExpression.parse("0 0 0 * JAN-MAR MON-FRI"))
+				.isEqualTo(CronExpression.parse("0 0 0 * 1-3 1-5"));
+		assertThat(CronExpression.parse("0 0 0 * jan mon")).isEqualTo(CronExpression.parse("0 0 0 * 1 1"));
+		assertThat(CronExpression.parse("0 0 0 * JAN-MAR MON-FRI").hashCode())
+				.isEqualTo(CronExpression.parse("0 0 0 * 1-3 1-5").hashCode());
+		assertThat(CronExpression.parse("0 0 0 L * *")).isNotEqualTo(CronExpression.parse("0 0 0 LW * *"));
+	}
+
+	@Test
+	public void incrementsAndLists() {
+		assertThat(CronExpression.parse("57/2 * * * * *")).isEqualTo(CronExpression.parse("57,59 * * * * *"));
+		assertThat(CronExpression.parse("1-6/2 * * * * *")).isEqualTo(CronExpression.parse("1,3,5 * * * * *"));
+		assertThat(CronExpression.parse("0 0 */6 * * *")).isEqualTo(CronExpression.parse("0 0 0,6,12,18 * * *"));
+		assertThat(CronExpression.parse("0 0 0 * 1/2147483647 *")).isEqualTo(CronExpression.parse("0 0 0 * 1 *"));
+		assertThat(CronExpression.parse("0 0 0 * 1/2147483647 *").next(LocalDateTime.of(2020, 2, 5, 0, 0)))
+				.isEqualTo(LocalDateTime.of(2021, 1, 1, 0, 0));
+	}
+
+	@Test
+	@SuppressWarnings("deprecation")
+	public void equivalentToCronSequenceGenerator() {
+		// Restricted to what both implementations agree on: CronSequenceGenerator
+		// mishandles day of month combined with day of week, steps over "*" in the
+		// day of month, and time fields that roll over from an arbitrary start time,
+		// so each sequence starts at midnight and follows its own matches
+		String[] seconds = {"0", "*", "*/15", "10-20", "5,35", "7/20"};
+		String[] minutes = {"0", "*", "*/10", "15-45/5", "0,30"};
+		String[] hours = {"0", "*", "*/6", "9-17", "1,13", "22-23"};
+		String[] daysOfMonth = {"1", "15", "1-10", "2-30/7", "29-31"};
+		String[] months = {"*", "2", "1-6", "*/3", "2,12", "JAN-MAR"};
+		String[] daysOfWeek = {"MON-FRI", "0", "SAT,SUN", "3", "7"};
+		Random random = new Random(5225L);
+		for (int i = 0; i < 500; i++) {
+			String dayOfMonth = "*";
+			String dayOfWeek = "?";
+			if (random.nextBoolean()) {
+				dayOfMonth = pick(random, daysOfMonth);
+			}
+			else if (random.nextBoolean()) {
+				dayOfMonth = "?";
+				dayOfWeek = pick(random, daysOfWeek);
+			}
+			String expression = String.join(" ", pick(random, seconds), pick(random, minutes),
+					pick(random, hours), dayOfMonth, pick(random, months), dayOfWeek);
+			CronExpression cronExpression = CronExpression.parse(expression);
+			CronSequenceGenerator generator =
+					new CronSequenceGenerator(expression, TimeZone.getTimeZone("UTC"));
+			LocalDateTime dateTime = LocalDateTime.of(2000, 1, 1, 0, 0).plusDays(random.nextInt(40 * 365));
+			for (int j = 0; j < 10; j++) {
+				LocalDateTime expected = LocalDateTime.ofInstant(
+						generator.next(Date.from(dateTime.toInstant(ZoneOffset.UTC))).toInstant(), ZoneOffset.UTC);
+				assertThat(cronExpression.next(dateTime)).as(expression + " after " + dateTime).isEqualTo(expected);
+				dateTime = expected;
+			}
+		}
+	}
+
+	@Test
+	public void invalidExpressions() {
+		assertThatIllegalArgumentException().isThrownBy(() -> CronExpression.parse(""));
+		assertThatIllegalArgumentException().isThrownBy(() -> CronExpression.parse("* * * * *"));
+		assertThatIllegalArgumentException().isThrownBy(() -> CronExpression.parse("77 * * * * *"));
+		assertThatIllegalArgumentException().isThrownBy(() -> CronExpression.parse("44-77 * * * * *"));
+		assertThatIllegalArgumentException().isThrownBy(() -> CronExpression.parse("* * 27 * * *"));
+		assertThatIllegalArgumentException().isThrownBy(() -> CronExpression.parse("* * * 32 * *"));
+		assertThatIllegalArgumentException().isThrownBy(() -> CronExpression.parse("* * * * 13 *"));
+		assertThatIllegalArgumentException().isThrownBy(() -> CronExpression.parse("* * * * 0 *"));
+		assertThatIllegalArgumentException().isThrownBy(() -> CronExpression.parse("* * * * 11-10 *"));
+		assertThatIllegalArgumentException().isThrownBy(() -> CronExpression.parse("*/0 * * * * *"));
+		assertThatIllegalArgumentException().isThrownBy(() -> CronExpression.parse("? * * * * *"));
+		assertThatIllegalArgumentException().isThrownBy(() -> CronExpression.parse("* * * * * FOO"));
+		assertThatIllegalArgumentException().isThrownBy(() -> CronExpression.parse("* * * * * MON#6"));
+		assertThatIllegalArgumentException().isThrownBy(() -> CronExpression.parse("* * * 32W * *"));
+		assertThat(CronExpression.isValidExpression("0 0 0 L * *")).isTrue();
+		assertThat(CronExpression.isValidExpression("0 0 0 L")).isFalse();
+		assertThat(CronExpression.isValidExpression(null)).isFalse();
+	}
+
+	private static String pick(Random random, String[] values) {
+		return values[random.nextInt(values.length)];
+	}
+
+}
@@ -347,13 +347,25 @@ abstract public class AbstractClassGenerator<T> implements ClassGenerator {
 				this.setClassName(name);
 			}
 			if (attemptLoad) {
-				try {
-					gen = classLoader.loadClass(getClassName());
-					return gen;
-				}
-				catch (ClassNotFoundException e) {
-					// ignore
+				// SPRING PATCH BEGIN
+				while (true) {
+					try {
+						gen = classLoader.loadClass(getClassName());
+					}
+					catch (ClassNotFoundException e) {
+						break;
+					}
+					if (isLoadedClassCompatible(gen)) {
+						return gen;
+					}
+					// Name taken by a class for a different configuration: try the next name
+					synchronized (classLoader) {
+						String name = generateClassName(data.getUniqueNamePredicate());
+						data.reserveName(name);
+						this.setClassName(name);
+					}
 				}
+				// SPRING PATCH END
 			}
 			byte[] b = strategy.generate(this);
 			String className = ClassNameReader.getClassName(new ClassReader(b));
@@ -376,6 +388,19 @@ abstract public class AbstractClassGenerator<T> implements ClassGenerator {
 		}
 	}
 
+	// SPRING PATCH BEGIN
+	/**
+	 * Determine whether the given class, loaded by name in attempt-load mode,
+	 * matches the class that this generator would generate.
+	 * <p>The default implementation accepts any class.
+	 * @param loadedClass the class loaded from the target <code>ClassLoader</code>
+	 * @see #setAttemptLoad
+	 */
+	protected boolean isLoadedClassCompatible(Class loadedClass) {
+		return true;
+	}
+	// SPRING PATCH END
+
 	abstract protected Object firstInstance(Class type) throws Exception;
 
 	abstract protected Object nextInstance(Object instance) throws Exception;
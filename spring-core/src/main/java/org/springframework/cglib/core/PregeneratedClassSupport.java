@@ -0,0 +1,86 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cglib.core;
+
+import org.springframework.core.SpringProperties;
+
+/**
+ * Support for CGLIB classes which have been generated ahead of time,
+ * typically at build time, and get loaded from the class path at runtime
+ * instead of being generated once again.
+ *
+ * <p>Class generators configured through {@link #configure} use the
+ * {@link SpringStableNamingPolicy} whenever pregenerated classes are in use,
+ * either because classes are being recorded at the moment (through a
+ * {@link ReflectUtils#setGeneratedClassHandler generated class handler}) or
+ * because the "spring.cglib.pregenerated" property has been set at runtime.
+ * In the latter case, the generators attempt to load a class with the
+ * deterministic name first, only generating the class on a miss (or if the
+ * class found turns out to have been generated for a different configuration).
+ *
+ * @since 5.2.5
+ * @see SpringStableNamingPolicy
+ * @see AbstractClassGenerator#setAttemptLoad
+ */
+public abstract class PregeneratedClassSupport {
+
+	/**
+	 * System property that instructs Spring to load pregenerated CGLIB classes
+	 * from the class path before generating them at runtime.
+	 * <p>The default is "false". Switch this flag to {@code true} when the output
+	 * of a build-time pregeneration step has been added to the class path.
+	 */
+	public static final String PREGENERATED_PROPERTY_NAME = "spring.cglib.pregenerated";
+
+
+	/**
+	 * Determine whether pregenerated classes are in use, i.e. whether
+	 * they are being recorded or loaded.
+	 */
+	public static boolean isEnabled() {
+		return (isRecording() || SpringProperties.getFlag(PREGENERATED_PROPERTY_NAME));
+	}
+
+	/**
+	 * Determine whether generated classes are being recorded at the moment.
+	 * @see ReflectUtils#setGeneratedClassHandler
+	 */
+	public static boolean isRecording() {
+		return (ReflectUtils.getGeneratedClassHandler() != null);
+	}
+
+	/**
+	 * Configure the given class generator for pregenerated classes if enabled:
+	 * applying the {@link SpringStableNamingPolicy} and, unless classes are
+	 * being recorded, attempting to load existing classes before generating.
+	 * <p>While recording, the generator's class cache is bypassed: its key does
+	 * not include the naming policy, so a class generated earlier in the same
+	 * JVM would otherwise be returned without being generated (and recorded).
+	 * @param generator the class generator to configure
+	 */
+	public static void configure(AbstractClassGenerator<?> generator) {
+		if (isEnabled()) {
+			boolean recording = isRecording();
+			generator.setNamingPolicy(SpringStableNamingPolicy.INSTANCE);
+			generator.setAttemptLoad(!recording);
+			if (recording) {
+				generator.setUseCache(false);
+			}
+		}
+	}
+
+}
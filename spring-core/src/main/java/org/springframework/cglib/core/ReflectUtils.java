@@ -37,6 +37,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.BiConsumer;
 
 import org.springframework.asm.Attribute;
 import org.springframework.asm.Type;
@@ -69,6 +70,8 @@ public class ReflectUtils {
 
 	private static final List<Method> OBJECT_METHODS = new ArrayList<Method>();
 
+	private static volatile BiConsumer<String, byte[]> generatedClassHandler;
+
 	static {
 		Method privateLookupIn;
 		Method lookupDefineClass;
@@ -484,6 +487,24 @@ public class ReflectUtils {
 	}
 
 	// SPRING PATCH BEGIN
+	/**
+	 * Register a handler to be notified of the bytecode of every class
+	 * defined through this class from now on, e.g. for writing generated
+	 * classes to disk at build time.
+	 * @param handler the handler receiving class name and bytecode,
+	 * or <code>null</code> to remove a previously registered handler
+	 */
+	public static void setGeneratedClassHandler(BiConsumer<String, byte[]> handler) {
+		generatedClassHandler = handler;
+	}
+
+	/**
+	 * Return the currently registered generated class handler, if any.
+	 */
+	public static BiConsumer<String, byte[]> getGeneratedClassHandler() {
+		return generatedClassHandler;
+	}
+
 	public static Class defineClass(String className, byte[] b, ClassLoader loader) throws Exception {
 		return defineClass(className, b, loader, null, null);
 	}
@@ -498,6 +519,11 @@ public class ReflectUtils {
 	public static Class defineClass(String className, byte[] b, ClassLoader loader,
 			ProtectionDomain protectionDomain, Class<?> contextClass) throws Exception {
 
+		BiConsumer<String, byte[]> handler = generatedClassHandler;
+		if (handler != null) {
+			handler.accept(className, b);
+		}
+
 		Class c = null;
 
 		// Preferred option: JDK 9+ Lookup.defineClass API if ClassLoader matches
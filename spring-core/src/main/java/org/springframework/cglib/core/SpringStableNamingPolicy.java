@@ -0,0 +1,72 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cglib.core;
+
+/**
+ * Variant of {@link SpringNamingPolicy} which derives generated class names
+ * from the name prefix and a per-prefix counter instead of a hash of the
+ * generator key, e.g. "com.example.MyConfig$$SpringCGLIB$$0".
+ *
+ * <p>Since key hashes are not stable across JVM runs, this is the naming
+ * strategy to use for classes which get generated at build time and then
+ * loaded by their name at runtime: given the same sequence of class
+ * generation requests, the very same names get assigned.
+ *
+ * @since 5.2.5
+ * @see PregeneratedClassSupport
+ */
+public class SpringStableNamingPolicy extends SpringNamingPolicy {
+
+	public static final SpringStableNamingPolicy INSTANCE = new SpringStableNamingPolicy();
+
+	/**
+	 * The separator which marks class names generated through this policy.
+	 */
+	public static final String SEPARATOR = "$$SpringCGLIB$$";
+
+	private static final String FAST_CLASS_PART = "FastClass$$";
+
+
+	@Override
+	public String getClassName(String prefix, String source, Object key, Predicate names) {
+		if (prefix == null) {
+			prefix = "org.springframework.cglib.empty.Object";
+		}
+		else if (prefix.startsWith("java")) {
+			prefix = "$" + prefix;
+		}
+		String base = prefix + SEPARATOR;
+		if (source != null && source.endsWith("FastClass")) {
+			base += FAST_CLASS_PART;
+		}
+		int index = 0;
+		String attempt = base + index;
+		while (names.evaluate(attempt)) {
+			attempt = base + (++index);
+		}
+		return attempt;
+	}
+
+	/**
+	 * Determine whether the given class name has been assigned by this policy.
+	 * @param className the fully qualified class name
+	 */
+	public static boolean isStableClassName(String className) {
+		return className.contains(SEPARATOR);
+	}
+
+}
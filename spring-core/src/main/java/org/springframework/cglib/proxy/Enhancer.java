@@ -582,6 +582,50 @@ public class Enhancer extends AbstractClassGenerator {
 		return super.generate(data);
 	}
 
+	// SPRING PATCH BEGIN
+	/**
+	 * Check a class loaded by name (e.g. a pregenerated class) against the
+	 * superclass, interfaces and callback types of this <code>Enhancer</code>.
+	 * The callback filter is not taken into account: callers need to make sure
+	 * that the filter's decisions derive from the class structure only.
+	 */
+	@Override
+	protected boolean isLoadedClassCompatible(Class loadedClass) {
+		Class expectedSuperclass = (superclass != null ? superclass : Object.class);
+		if (loadedClass.getSuperclass() != expectedSuperclass) {
+			return false;
+		}
+		Set expectedInterfaces = new HashSet();
+		if (interfaces != null) {
+			expectedInterfaces.addAll(Arrays.asList(interfaces));
+		}
+		if (useFactory) {
+			expectedInterfaces.add(Factory.class);
+		}
+		if (!expectedInterfaces.equals(new HashSet(Arrays.asList(loadedClass.getInterfaces())))) {
+			return false;
+		}
+		try {
+			for (int i = 0; i < callbackTypes.length; i++) {
+				Field field = loadedClass.getDeclaredField(getCallbackField(i));
+				if (!Type.getType(field.getType()).equals(callbackTypes[i])) {
+					return false;
+				}
+			}
+		}
+		catch (NoSuchFieldException ex) {
+			return false;
+		}
+		try {
+			loadedClass.getDeclaredField(getCallbackField(callbackTypes.length));
+			return false;
+		}
+		catch (NoSuchFieldException ex) {
+			return true;
+		}
+	}
+	// SPRING PATCH END
+
 	protected ClassLoader getDefaultClassLoader() {
 		if (superclass != null) {
 			return superclass.getClassLoader();
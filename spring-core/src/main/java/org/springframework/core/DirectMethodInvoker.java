@@ -0,0 +1,449 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Invoker for a specific {@link Method}, calling it either reflectively or
+ * through a class generated by the {@link LambdaMetafactory}: that is, with
+ * a direct (virtual or interface) call instead of {@link Method#invoke}.
+ *
+ * <p>Generated invokers are used by default on JDKs which implement core
+ * reflection through method handles (JDK 18+, see JEP 416), where a direct
+ * call is considerably faster than {@code Method.invoke}. On earlier JDKs,
+ * core reflection itself generates bytecode accessors which perform on par
+ * with a generated invoker, so this class sticks to plain reflection there.
+ * The {@value #GENERATE_INVOKERS_PROPERTY_NAME} property allows for enforcing
+ * either strategy.
+ *
+ * <p>Reflective invocation is always used for methods that cannot be called
+ * directly: non-public methods or declaring classes, bridge and static methods,
+ * methods with more than four parameters, and methods whose signature refers
+ * to types which are not visible from Spring's own class loader.
+ *
+ * <p>{@link #invoke} follows the contract of {@link Method#invoke}: exceptions
+ * thrown by the method are wrapped in an {@link InvocationTargetException},
+ * and an unsuitable target or argument leads to an {@link IllegalArgumentException}
+ * (raised by a reflective invocation of the very same arguments). Callers can
+ * therefore switch from {@code Method.invoke} without changing their error handling.
+ *
+ * <p>Invokers are cached per method, so {@link #forMethod} is cheap for repeated
+ * calls and the generated classes are shared by all users of the same method.
+ *
+ * @since 5.2.5
+ * @see SpringProperties
+ */
+public abstract class DirectMethodInvoker {
+
+	/**
+	 * System property that instructs Spring to generate direct-call invokers
+	 * ({@code true}) or to always invoke methods reflectively ({@code false}),
+	 * instead of choosing according to the JDK's core reflection implementation.
+	 */
+	public static final String GENERATE_INVOKERS_PROPERTY_NAME = "spring.invokers.generate";
+
+	/** The maximum number of method parameters for which invokers get generated. */
+	private static final int MAX_GENERATED_PARAMETER_COUNT = 4;
+
+	private static final Class<?>[] INVOKER_TYPES =
+			{Invoker0.class, Invoker1.class, Invoker2.class, Invoker3.class, Invoker4.class};
+
+	private static final Class<?>[] VOID_INVOKER_TYPES =
+			{VoidInvoker0.class, VoidInvoker1.class, VoidInvoker2.class, VoidInvoker3.class, VoidInvoker4.class};
+
+	private static final Log logger = LogFactory.getLog(DirectMethodInvoker.class);
+
+	private static final boolean generateInvokers = shouldGenerateInvokers();
+
+	private static final Map<Method, DirectMethodInvoker> invokerCache = new ConcurrentReferenceHashMap<>(256);
+
+
+	private final Method method;
+
+
+	DirectMethodInvoker(Method method) {
+		this.method = method;
+	}
+
+
+	/**
+	 * Return the method that this invoker calls.
+	 */
+	public final Method getMethod() {
+		return this.method;
+	}
+
+	/**
+	 * Return whether this invoker calls the method through a generated class,
+	 * as opposed to reflectively.
+	 */
+	public abstract boolean isGenerated();
+
+	/**
+	 * Invoke the method on the given target with the given arguments.
+	 * @param target the target instance ({@code null} for static methods)
+	 * @param args the arguments for the method call
+	 * @return the return value of the method, or {@code null} for {@code void}
+	 * @throws IllegalAccessException if the method is not accessible
+	 * @throws IllegalArgumentException if the target or the arguments
+	 * are not suitable for the method
+	 * @throws InvocationTargetException if the method itself threw an exception
+	 * @see Method#invoke(Object, Object...)
+	 */
+	@Nullable
+	public abstract Object invoke(@Nullable Object target, Object... args)
+			throws IllegalAccessException, InvocationTargetException;
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + ": " + this.method.toGenericString();
+	}
+
+
+	/**
+	 * Obtain an invoker for the given method, generating a direct-call
+	 * invoker on first access if applicable.
+	 * @param method the method to invoke
+	 * @return the invoker (never {@code null})
+	 */
+	public static DirectMethodInvoker forMethod(Method method) {
+		Assert.notNull(method, "Method must not be null");
+		DirectMethodInvoker invoker = invokerCache.get(method);
+		if (invoker == null) {
+			invoker = createInvoker(method, generateInvokers);
+			invokerCache.put(method, invoker);
+		}
+		return invoker;
+	}
+
+	/**
+	 * Create a new invoker for the given method, bypassing the cache.
+	 * @param method the method to invoke
+	 * @param generate whether to generate a direct-call invoker if the method
+	 * qualifies for it, or to invoke it reflectively
+	 */
+	static DirectMethodInvoker createInvoker(Method method, boolean generate) {
+		if (generate && isEligibleForGeneration(method)) {
+			try {
+				return new GeneratedInvoker(method);
+			}
+			catch (Throwable ex) {
+				if (logger.isDebugEnabled()) {
+					logger.debug("Failed to generate direct invoker for " + method + ": " + ex);
+				}
+			}
+		}
+		return new ReflectiveInvoker(method);
+	}
+
+	private static boolean shouldGenerateInvokers() {
+		String generate = SpringProperties.getProperty(GENERATE_INVOKERS_PROPERTY_NAME);
+		if (generate != null) {
+			return Boolean.parseBoolean(generate);
+		}
+		// Method handle based core reflection on JDK 18+
+		return ClassUtils.isPresent("jdk.internal.reflect.DirectMethodHandleAccessor", null);
+	}
+
+	private static boolean isEligibleForGeneration(Method method) {
+		if (method.isBridge() || method.isSynthetic() || Modifier.isStatic(method.getModifiers()) ||
+				method.getParameterCount() > MAX_GENERATED_PARAMETER_COUNT ||
+				!Modifier.isPublic(method.getModifiers())) {
+			return false;
+		}
+		// The generated class lives next to this class: it needs to see all types involved
+		ClassLoader classLoader = DirectMethodInvoker.class.getClassLoader();
+		if (!isAccessible(method.getDeclaringClass(), classLoader) ||
+				!isAccessible(method.getReturnType(), classLoader)) {
+			return false;
+		}
+		for (Class<?> parameterType : method.getParameterTypes()) {
+			if (!isAccessible(parameterType, classLoader)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isAccessible(Class<?> type, @Nullable ClassLoader classLoader) {
+		while (type.isArray()) {
+			type = type.getComponentType();
+		}
+		if (type.isPrimitive()) {
+			return true;
+		}
+		return (Modifier.isPublic(type.getModifiers()) && ClassUtils.isVisible(type, classLoader));
+	}
+
+
+	/**
+	 * Invoker which delegates to {@link Method#invoke}.
+	 */
+	private static class ReflectiveInvoker extends DirectMethodInvoker {
+
+		ReflectiveInvoker(Method method) {
+			super(method);
+			ReflectionUtils.makeAccessible(method);
+		}
+
+		@Override
+		public boolean isGenerated() {
+			return false;
+		}
+
+		@Override
+		@Nullable
+		public Object invoke(@Nullable Object target, Object... args)
+				throws IllegalAccessException, InvocationTargetException {
+
+			return getMethod().invoke(target, args);
+		}
+	}
+
+
+	/**
+	 * Invoker which calls a class generated through the {@link LambdaMetafactory}.
+	 * <p>The generated class casts the target and the arguments to the types of
+	 * the method signature before calling it. A {@link ClassCastException} or
+	 * {@link NullPointerException} for unsuitable arguments therefore happens
+	 * before the method is entered: such a call is handed to {@link Method#invoke}
+	 * which knows how to widen primitive values and how to report illegal arguments,
+	 * without any type checks upfront for regular calls.
+	 */
+	private static class GeneratedInvoker extends ReflectiveInvoker {
+
+		private final Class<?> declaringClass;
+
+		private final Class<?>[] argumentTypes;
+
+		private final boolean[] primitive;
+
+		private final FunctionCall call;
+
+		GeneratedInvoker(Method method) throws Throwable {
+			super(method);
+			this.declaringClass = method.getDeclaringClass();
+			Class<?>[] parameterTypes = method.getParameterTypes();
+			int parameterCount = parameterTypes.length;
+			this.argumentTypes = new Class<?>[parameterCount];
+			this.primitive = new boolean[parameterCount];
+			for (int i = 0; i < parameterCount; i++) {
+				this.argumentTypes[i] = ClassUtils.resolvePrimitiveIfNecessary(parameterTypes[i]);
+				this.primitive[i] = parameterTypes[i].isPrimitive();
+			}
+			this.call = adaptFunction(generateFunction(method), parameterCount);
+		}
+
+		private Object generateFunction(Method method) throws Throwable {
+			MethodHandles.Lookup lookup = MethodHandles.lookup();
+			MethodHandle handle = lookup.unreflect(method);
+			int parameterCount = method.getParameterCount();
+			boolean isVoid = (method.getReturnType() == void.class);
+			Class<?> invokerType = (isVoid ? VOID_INVOKER_TYPES : INVOKER_TYPES)[parameterCount];
+
+			MethodType samMethodType = MethodType.genericMethodType(parameterCount + 1);
+			Class<?> returnType = (isVoid ? void.class : ClassUtils.resolvePrimitiveIfNecessary(method.getReturnType()));
+			MethodType instantiatedMethodType = MethodType.methodType(returnType, this.declaringClass)
+					.appendParameterTypes(this.argumentTypes);
+			if (isVoid) {
+				samMethodType = samMethodType.changeReturnType(void.class);
+			}
+			CallSite callSite = LambdaMetafactory.metafactory(lookup, "invoke", MethodType.methodType(invokerType),
+					samMethodType, handle, instantiatedMethodType);
+			return callSite.getTarget().invoke();
+		}
+
+		private static FunctionCall adaptFunction(Object function, int parameterCount) {
+			switch (parameterCount) {
+				case 0:
+					if (function instanceof Invoker0) {
+						Invoker0 fn = (Invoker0) function;
+						return (target, args) -> fn.invoke(target);
+					}
+					VoidInvoker0 vfn0 = (VoidInvoker0) function;
+					return (target, args) -> {
+						vfn0.invoke(target);
+						return null;
+					};
+				case 1:
+					if (function instanceof Invoker1) {
+						Invoker1 fn = (Invoker1) function;
+						return (target, args) -> fn.invoke(target, args[0]);
+					}
+					VoidInvoker1 vfn1 = (VoidInvoker1) function;
+					return (target, args) -> {
+						vfn1.invoke(target, args[0]);
+						return null;
+					};
+				case 2:
+					if (function instanceof Invoker2) {
+						Invoker2 fn = (Invoker2) function;
+						return (target, args) -> fn.invoke(target, args[0], args[1]);
+					}
+					VoidInvoker2 vfn2 = (VoidInvoker2) function;
+					return (target, args) -> {
+						vfn2.invoke(target, args[0], args[1]);
+						return null;
+					};
+				case 3:
+					if (function instanceof Invoker3) {
+						Invoker3 fn = (Invoker3) function;
+						return (target, args) -> fn.invoke(target, args[0], args[1], args[2]);
+					}
+					VoidInvoker3 vfn3 = (VoidInvoker3) function;
+					return (target, args) -> {
+						vfn3.invoke(target, args[0], args[1], args[2]);
+						return null;
+					};
+				default:
+					if (function instanceof Invoker4) {
+						Invoker4 fn = (Invoker4) function;
+						return (target, args) -> fn.invoke(target, args[0], args[1], args[2], args[3]);
+					}
+					VoidInvoker4 vfn4 = (VoidInvoker4) function;
+					return (target, args) -> {
+						vfn4.invoke(target, args[0], args[1], args[2], args[3]);
+						return null;
+					};
+			}
+		}
+
+		@Override
+		public boolean isGenerated() {
+			return true;
+		}
+
+		@Override
+		@Nullable
+		public Object invoke(@Nullable Object target, Object... args)
+				throws IllegalAccessException, InvocationTargetException {
+
+			if (args.length != this.argumentTypes.length) {
+				return super.invoke(target, args);
+			}
+			try {
+				return this.call.call(target, args);
+			}
+			catch (ClassCastException | NullPointerException ex) {
+				if (!isSuitable(target, args)) {
+					// Raised by the generated class: the method has not been called
+					return super.invoke(target, args);
+				}
+				throw new InvocationTargetException(ex);
+			}
+			catch (Throwable ex) {
+				throw new InvocationTargetException(ex);
+			}
+		}
+
+		private boolean isSuitable(@Nullable Object target, Object[] args) {
+			if (!this.declaringClass.isInstance(target)) {
+				return false;
+			}
+			for (int i = 0; i < args.length; i++) {
+				Object arg = args[i];
+				if (arg == null ? this.primitive[i] : !this.argumentTypes[i].isInstance(arg)) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+
+
+	/**
+	 * Call of a generated function with the arguments taken from an array.
+	 */
+	@FunctionalInterface
+	private interface FunctionCall {
+
+		@Nullable
+		Object call(@Nullable Object target, Object[] args) throws Throwable;
+	}
+
+
+	// Functional interfaces implemented by the generated classes, one per arity
+
+	@FunctionalInterface
+	interface Invoker0 {
+		Object invoke(Object target) throws Throwable;
+	}
+
+	@FunctionalInterface
+	interface Invoker1 {
+		Object invoke(Object target, Object a0) throws Throwable;
+	}
+
+	@FunctionalInterface
+	interface Invoker2 {
+		Object invoke(Object target, Object a0, Object a1) throws Throwable;
+	}
+
+	@FunctionalInterface
+	interface Invoker3 {
+		Object invoke(Object target, Object a0, Object a1, Object a2) throws Throwable;
+	}
+
+	@FunctionalInterface
+	interface Invoker4 {
+		Object invoke(Object target, Object a0, Object a1, Object a2, Object a3) throws Throwable;
+	}
+
+	@FunctionalInterface
+	interface VoidInvoker0 {
+		void invoke(Object target) throws Throwable;
+	}
+
+	@FunctionalInterface
+	interface VoidInvoker1 {
+		void invoke(Object target, Object a0) throws Throwable;
+	}
+
+	@FunctionalInterface
+	interface VoidInvoker2 {
+		void invoke(Object target, Object a0, Object a1) throws Throwable;
+	}
+
+	@FunctionalInterface
+	interface VoidInvoker3 {
+		void invoke(Object target, Object a0, Object a1, Object a2) throws Throwable;
+	}
+
+	@FunctionalInterface
+	interface VoidInvoker4 {
+		void invoke(Object target, Object a0, Object a1, Object a2, Object a3) throws Throwable;
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,21 +16,19 @@
 
 package org.springframework.core.convert.support;
 
-import java.util.Arrays;
 import java.util.Collections;
-import java.util.List;
 import java.util.Set;
 
 import org.springframework.core.convert.ConversionService;
 import org.springframework.core.convert.TypeDescriptor;
 import org.springframework.core.convert.converter.ConditionalGenericConverter;
 import org.springframework.lang.Nullable;
-import org.springframework.util.ObjectUtils;
+import org.springframework.util.Assert;
 
 /**
- * Converts an array to another array. First adapts the source array to a List,
- * then delegates to {@link CollectionToArrayConverter} to perform the target
- * array conversion.
+ * Converts an array to another array, performing an element conversion from the
+ * source component type to the target component type if necessary. Elements of
+ * primitive arrays are converted without intermediate boxing where possible.
  *
  * @author Keith Donald
  * @author Phillip Webb
@@ -62,16 +60,16 @@ final class ArrayToArrayConverter implements ConditionalGenericConverter {
 	@Override
 	@Nullable
 	public Object convert(@Nullable Object source, TypeDescriptor sourceType, TypeDescriptor targetType) {
-		if (this.conversionService instanceof GenericConversionService) {
-			TypeDescriptor targetElement = targetType.getElementTypeDescriptor();
-			if (targetElement != null &&
-					((GenericConversionService) this.conversionService).canBypassConvert(
-							sourceType.getElementTypeDescriptor(), targetElement)) {
-				return source;
-			}
+		TypeDescriptor targetElementType = targetType.getElementTypeDescriptor();
+		Assert.state(targetElementType != null, "No target element type");
+		if (this.conversionService instanceof GenericConversionService &&
+				((GenericConversionService) this.conversionService).canBypassConvert(
+						sourceType.getElementTypeDescriptor(), targetElementType)) {
+			return source;
 		}
-		List<Object> sourceList = Arrays.asList(ObjectUtils.toObjectArray(source));
-		return this.helperConverter.convert(sourceList, sourceType, targetType);
+		Object sourceArray = (source != null ? source : new Object[0]);
+		return ElementConverter.forContainer(this.conversionService, sourceType, targetElementType)
+				.convertArray(sourceArray);
 	}
 
 }
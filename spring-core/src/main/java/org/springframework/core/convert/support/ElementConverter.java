@@ -0,0 +1,364 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.convert.support;
+
+import java.lang.reflect.Array;
+
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.TypeDescriptor;
+import org.springframework.core.convert.converter.GenericConverter;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Compiled conversion chain for the elements of a collection or array, used by
+ * the collection and array converters in this package.
+ *
+ * <p>Instead of looking up a converter for every single element, the element
+ * {@link TypeDescriptor} and the {@link GenericConverter} are resolved once per
+ * element class and reused for subsequent elements of the same class. When backed
+ * by a {@link GenericConversionService}, the default {@code String}-to-number and
+ * number-to-number conversions into primitive arrays are furthermore performed
+ * without boxing the individual elements.
+ *
+ * <p>Instances are immutable apart from their per-element-class resolution,
+ * which is published safely, so they may be cached and shared across threads.
+ *
+ * @since 5.2.5
+ * @see GenericConversionService#getElementConverter
+ */
+final class ElementConverter {
+
+	private static final int NO_FAST_PATH = 0;
+
+	private static final int PARSE_NUMBER = 1;
+
+	private static final int CONVERT_NUMBER = 2;
+
+
+	private final ConversionService conversionService;
+
+	@Nullable
+	private final GenericConversionService genericConversionService;
+
+	private final TypeDescriptor sourceType;
+
+	private final boolean narrowElements;
+
+	private final TypeDescriptor targetElementType;
+
+	@Nullable
+	private volatile Resolution resolution;
+
+
+	private ElementConverter(ConversionService conversionService, TypeDescriptor sourceType,
+			boolean narrowElements, TypeDescriptor targetElementType) {
+
+		this.conversionService = conversionService;
+		this.genericConversionService = (conversionService instanceof GenericConversionService ?
+				(GenericConversionService) conversionService : null);
+		this.sourceType = sourceType;
+		this.narrowElements = narrowElements;
+		this.targetElementType = targetElementType;
+	}
+
+
+	/**
+	 * Return an element converter for the elements of the given collection or array type.
+	 * @param conversionService the conversion service to delegate to
+	 * @param sourceType the collection or array type to convert from
+	 * @param targetElementType the element type to convert to
+	 */
+	public static ElementConverter forContainer(ConversionService conversionService,
+			TypeDescriptor sourceType, TypeDescriptor targetElementType) {
+
+		if (conversionService instanceof GenericConversionService) {
+			return ((GenericConversionService) conversionService).getElementConverter(sourceType, targetElementType);
+		}
+		return new ElementConverter(conversionService, sourceType, true, targetElementType);
+	}
+
+	/**
+	 * Create an element converter for a fixed source element type, e.g. for the
+	 * individual fields of a comma-delimited String.
+	 * @param conversionService the conversion service to delegate to
+	 * @param sourceElementType the type of every element to convert from
+	 * @param targetElementType the element type to convert to
+	 */
+	public static ElementConverter forElementType(ConversionService conversionService,
+			TypeDescriptor sourceElementType, TypeDescriptor targetElementType) {
+
+		return new ElementConverter(conversionService, sourceElementType, false, targetElementType);
+	}
+
+	/**
+	 * Create an element converter without consulting any cache.
+	 * @see GenericConversionService#getElementConverter
+	 */
+	static ElementConverter create(GenericConversionService conversionService,
+			TypeDescriptor sourceType, TypeDescriptor targetElementType) {
+
+		return new ElementConverter(conversionService, sourceType, true, targetElementType);
+	}
+
+
+	/**
+	 * Convert the given source element to the target element type.
+	 * @param sourceElement the element to convert (may be {@code null})
+	 * @return the converted element
+	 */
+	@Nullable
+	public Object convert(@Nullable Object sourceElement) {
+		if (sourceElement == null || this.genericConversionService == null) {
+			return this.conversionService.convert(
+					sourceElement, getSourceElementType(sourceElement), this.targetElementType);
+		}
+		Resolution resolution = resolve(sourceElement);
+		return this.genericConversionService.convert(
+				sourceElement, resolution.elementType, this.targetElementType, resolution.converter);
+	}
+
+	/**
+	 * Convert the given source element and store it in the target array,
+	 * assigning primitive values directly where possible.
+	 * @param sourceElement the element to convert (may be {@code null})
+	 * @param targetArray the array to store the converted element in
+	 * @param index the index within the target array
+	 */
+	public void convertInto(@Nullable Object sourceElement, Object targetArray, int index) {
+		if (sourceElement instanceof String && this.genericConversionService != null) {
+			Resolution resolution = resolve(sourceElement);
+			if (resolution.fastPath == PARSE_NUMBER && parseInto((String) sourceElement, targetArray, index)) {
+				return;
+			}
+		}
+		Array.set(targetArray, index, convert(sourceElement));
+	}
+
+	/**
+	 * Convert all elements of the given source array into a new array
+	 * of the target element type.
+	 * @param sourceArray the array to convert
+	 * @return the new target array
+	 */
+	public Object convertArray(Object sourceArray) {
+		int length = Array.getLength(sourceArray);
+		Object targetArray = Array.newInstance(this.targetElementType.getType(), length);
+		Class<?> componentType = sourceArray.getClass().getComponentType();
+		if (componentType.isPrimitive() && this.genericConversionService != null && length > 0) {
+			Resolution resolution = resolve(Array.get(sourceArray, 0));
+			if (resolution.fastPath == CONVERT_NUMBER && convertNumbersInto(sourceArray, targetArray)) {
+				return targetArray;
+			}
+		}
+		if (sourceArray instanceof Object[]) {
+			Object[] elements = (Object[]) sourceArray;
+			for (int i = 0; i < length; i++) {
+				convertInto(elements[i], targetArray, i);
+			}
+		}
+		else {
+			for (int i = 0; i < length; i++) {
+				convertInto(Array.get(sourceArray, i), targetArray, i);
+			}
+		}
+		return targetArray;
+	}
+
+
+	@Nullable
+	private TypeDescriptor getSourceElementType(@Nullable Object sourceElement) {
+		return (this.narrowElements ? this.sourceType.elementTypeDescriptor(sourceElement) : this.sourceType);
+	}
+
+	private Resolution resolve(Object sourceElement) {
+		Class<?> elementClass = sourceElement.getClass();
+		Resolution resolution = this.resolution;
+		if (resolution == null || resolution.elementClass != elementClass) {
+			Assert.state(this.genericConversionService != null, "No GenericConversionService");
+			TypeDescriptor elementType = getSourceElementType(sourceElement);
+			Assert.state(elementType != null, "No source element type");
+			resolution = new Resolution(elementClass, elementType,
+					this.genericConversionService.getConverter(elementType, this.targetElementType));
+			this.resolution = resolution;
+		}
+		return resolution;
+	}
+
+	private int determineFastPath(Class<?> elementClass, @Nullable GenericConverter converter) {
+		Class<?> targetClass = this.targetElementType.getType();
+		if (converter == null || !targetClass.isPrimitive() || targetClass == boolean.class ||
+				targetClass == char.class) {
+			return NO_FAST_PATH;
+		}
+		if (elementClass == String.class &&
+				GenericConversionService.isAdapterFor(converter, StringToNumberConverterFactory.class)) {
+			return PARSE_NUMBER;
+		}
+		if (Number.class.isAssignableFrom(elementClass) && ClassUtils.isPrimitiveWrapper(elementClass) &&
+				GenericConversionService.isAdapterFor(converter, NumberToNumberConverterFactory.class)) {
+			return CONVERT_NUMBER;
+		}
+		return NO_FAST_PATH;
+	}
+
+	/**
+	 * Parse the given String straight into the given primitive array, matching
+	 * {@link org.springframework.util.NumberUtils#parseNumber(String, Class)}.
+	 * Any value that needs special treatment (whitespace, hex notation, empty or
+	 * malformed input) is left to the regular converter so that it produces the
+	 * very same result or exception.
+	 * @return {@code true} if the value has been stored, {@code false} otherwise
+	 */
+	private static boolean parseInto(String text, Object targetArray, int index) {
+		if (!isPlainNumber(text)) {
+			return false;
+		}
+		try {
+			if (targetArray instanceof int[]) {
+				((int[]) targetArray)[index] = Integer.parseInt(text);
+			}
+			else if (targetArray instanceof long[]) {
+				((long[]) targetArray)[index] = Long.parseLong(text);
+			}
+			else if (targetArray instanceof double[]) {
+				((double[]) targetArray)[index] = Double.parseDouble(text);
+			}
+			else if (targetArray instanceof float[]) {
+				((float[]) targetArray)[index] = Float.parseFloat(text);
+			}
+			else if (targetArray instanceof short[]) {
+				((short[]) targetArray)[index] = Short.parseShort(text);
+			}
+			else if (targetArray instanceof byte[]) {
+				((byte[]) targetArray)[index] = Byte.parseByte(text);
+			}
+			else {
+				return false;
+			}
+			return true;
+		}
+		catch (NumberFormatException ex) {
+			// Let the regular converter produce a ConversionFailedException
+			return false;
+		}
+	}
+
+	private static boolean isPlainNumber(String text) {
+		int length = text.length();
+		if (length == 0) {
+			return false;
+		}
+		for (int i = 0; i < length; i++) {
+			char c = text.charAt(i);
+			if (c == 'x' || c == 'X' || c == '#' || Character.isWhitespace(c)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Copy the given primitive number array into the given primitive target array,
+	 * matching {@link org.springframework.util.NumberUtils#convertNumberToTargetClass}.
+	 * @return {@code true} if all values have been stored, {@code false} if a value
+	 * overflows the target type and the regular converter needs to raise the error
+	 */
+	private static boolean convertNumbersInto(Object sourceArray, Object targetArray) {
+		boolean integral = !(sourceArray instanceof double[] || sourceArray instanceof float[]);
+		int length = Array.getLength(sourceArray);
+		for (int i = 0; i < length; i++) {
+			if (targetArray instanceof double[]) {
+				((double[]) targetArray)[i] = readDouble(sourceArray, i);
+			}
+			else if (targetArray instanceof float[]) {
+				((float[]) targetArray)[i] = (float) readDouble(sourceArray, i);
+			}
+			else {
+				long value = (integral ? readLong(sourceArray, i) : (long) readDouble(sourceArray, i));
+				if (targetArray instanceof long[]) {
+					((long[]) targetArray)[i] = value;
+				}
+				else if (targetArray instanceof int[] && value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+					((int[]) targetArray)[i] = (int) value;
+				}
+				else if (targetArray instanceof short[] && value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+					((short[]) targetArray)[i] = (short) value;
+				}
+				else if (targetArray instanceof byte[] && value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+					((byte[]) targetArray)[i] = (byte) value;
+				}
+				else {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	private static long readLong(Object array, int index) {
+		if (array instanceof int[]) {
+			return ((int[]) array)[index];
+		}
+		else if (array instanceof long[]) {
+			return ((long[]) array)[index];
+		}
+		else if (array instanceof short[]) {
+			return ((short[]) array)[index];
+		}
+		else {
+			return ((byte[]) array)[index];
+		}
+	}
+
+	private static double readDouble(Object array, int index) {
+		if (array instanceof double[]) {
+			return ((double[]) array)[index];
+		}
+		else if (array instanceof float[]) {
+			return ((float[]) array)[index];
+		}
+		else {
+			return readLong(array, index);
+		}
+	}
+
+
+	/**
+	 * The element type and converter resolved for a specific element class.
+	 */
+	private final class Resolution {
+
+		final Class<?> elementClass;
+
+		final TypeDescriptor elementType;
+
+		@Nullable
+		final GenericConverter converter;
+
+		final int fastPath;
+
+		Resolution(Class<?> elementClass, TypeDescriptor elementType, @Nullable GenericConverter converter) {
+			this.elementClass = elementClass;
+			this.elementType = elementType;
+			this.converter = converter;
+			this.fastPath = determineFastPath(elementClass, converter);
+		}
+	}
+
+}
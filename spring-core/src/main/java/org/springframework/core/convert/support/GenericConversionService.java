@@ -78,6 +78,8 @@ public class GenericConversionService implements ConfigurableConversionService {
 
 	private final Map<ConverterCacheKey, GenericConverter> converterCache = new ConcurrentReferenceHashMap<>(64);
 
+	private final Map<ConverterCacheKey, ElementConverter> elementConverterCache = new ConcurrentReferenceHashMap<>(64);
+
 
 	// ConverterRegistry implementation
 
@@ -186,12 +188,7 @@ public class GenericConversionService implements ConfigurableConversionService {
 			throw new IllegalArgumentException("Source to convert from must be an instance of [" +
 					sourceType + "]; instead it was a [" + source.getClass().getName() + "]");
 		}
-		GenericConverter converter = getConverter(sourceType, targetType);
-		if (converter != null) {
-			Object result = ConversionUtils.invokeConverter(converter, source, sourceType, targetType);
-			return handleResult(sourceType, targetType, result);
-		}
-		return handleConverterNotFound(source, sourceType, targetType);
+		return convert(source, sourceType, targetType, getConverter(sourceType, targetType));
 	}
 
 	/**
@@ -287,6 +284,58 @@ public class GenericConversionService implements ConfigurableConversionService {
 
 	// Internal helpers
 
+	/**
+	 * Return the compiled {@link ElementConverter} for converting the elements of
+	 * the given collection or array type, resolved once per source/target type pair.
+	 * @param sourceType the collection or array type to convert from
+	 * @param targetElementType the element type to convert to
+	 * @since 5.2.5
+	 */
+	ElementConverter getElementConverter(TypeDescriptor sourceType, TypeDescriptor targetElementType) {
+		ConverterCacheKey key = new ConverterCacheKey(sourceType, targetElementType);
+		ElementConverter converter = this.elementConverterCache.get(key);
+		if (converter == null) {
+			converter = ElementConverter.create(this, sourceType, targetElementType);
+			this.elementConverterCache.put(key, converter);
+		}
+		return converter;
+	}
+
+	/**
+	 * Convert the given source object with a previously resolved converter,
+	 * applying the same result handling as {@link #convert(Object, TypeDescriptor, TypeDescriptor)}.
+	 * @param source the source object (an instance of the source type)
+	 * @param sourceType the source type to convert from
+	 * @param targetType the target type to convert to
+	 * @param converter the converter obtained from {@link #getConverter}
+	 * @since 5.2.5
+	 */
+	@Nullable
+	Object convert(@Nullable Object source, TypeDescriptor sourceType, TypeDescriptor targetType,
+			@Nullable GenericConverter converter) {
+
+		if (converter != null) {
+			Object result = ConversionUtils.invokeConverter(converter, source, sourceType, targetType);
+			return handleResult(sourceType, targetType, result);
+		}
+		return handleConverterNotFound(source, sourceType, targetType);
+	}
+
+	/**
+	 * Determine whether the given converter is an adapter for a {@link Converter}
+	 * or {@link ConverterFactory} of the given type, as registered by this service.
+	 * @since 5.2.5
+	 */
+	static boolean isAdapterFor(GenericConverter converter, Class<?> delegateType) {
+		if (converter instanceof ConverterAdapter) {
+			return delegateType.isInstance(((ConverterAdapter) converter).converter);
+		}
+		if (converter instanceof ConverterFactoryAdapter) {
+			return delegateType.isInstance(((ConverterFactoryAdapter) converter).converterFactory);
+		}
+		return false;
+	}
+
 	@Nullable
 	private ResolvableType[] getRequiredTypeInfo(Class<?> converterClass, Class<?> genericIfc) {
 		ResolvableType resolvableType = ResolvableType.forClass(converterClass).as(genericIfc);
@@ -304,6 +353,7 @@ public class GenericConversionService implements ConfigurableConversionService {
 
 	private void invalidateCache() {
 		this.converterCache.clear();
+		this.elementConverterCache.clear();
 	}
 
 	@Nullable
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -38,11 +38,15 @@ import org.springframework.util.concurrent.ListenableFutureTask;
  *
  * <p><b>NOTE: This implementation does not reuse threads!</b> Consider a
  * thread-pooling TaskExecutor implementation instead, in particular for
- * executing a large number of short-lived tasks.
+ * executing a large number of short-lived tasks. Alternatively, on a JDK with
+ * virtual threads, consider {@link #setVirtualThreads virtual threads} which
+ * are cheap to create and do not block a platform thread while waiting for I/O.
  *
  * @author Juergen Hoeller
  * @since 2.0
  * @see #setConcurrencyLimit
+ * @see #setVirtualThreads
+ * @see VirtualThreadTaskExecutor
  * @see SyncTaskExecutor
  * @see org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor
  * @see org.springframework.scheduling.commonj.WorkManagerTaskExecutor
@@ -73,6 +77,8 @@ public class SimpleAsyncTaskExecutor extends CustomizableThreadCreator
 	@Nullable
 	private TaskDecorator taskDecorator;
 
+	private boolean virtualThreads = false;
+
 
 	/**
 	 * Create a new SimpleAsyncTaskExecutor with default thread name prefix.
@@ -118,6 +124,38 @@ public class SimpleAsyncTaskExecutor extends CustomizableThreadCreator
 		return this.threadFactory;
 	}
 
+	/**
+	 * Specify whether to run tasks on virtual threads instead of platform threads,
+	 * if supported by the current JDK, with names according to the
+	 * {@link #setThreadNamePrefix thread name prefix}. Default is {@code false}.
+	 * <p>On a JDK without virtual threads, this executor falls back to creating
+	 * platform threads, as indicated by {@link #isVirtualThreads()}. An external
+	 * {@link #setThreadFactory thread factory} takes precedence over this setting.
+	 * @since 5.2.5
+	 * @see #isVirtualThreadsSupported()
+	 */
+	public void setVirtualThreads(boolean virtualThreads) {
+		this.virtualThreads = virtualThreads;
+	}
+
+	/**
+	 * Return whether this executor runs tasks on virtual threads, that is,
+	 * whether {@link #setVirtualThreads virtual threads} have been requested
+	 * and are supported by the current JDK.
+	 * @since 5.2.5
+	 */
+	public boolean isVirtualThreads() {
+		return (this.virtualThreads && isVirtualThreadsSupported());
+	}
+
+	/**
+	 * Return whether the current JDK supports virtual threads.
+	 * @since 5.2.5
+	 */
+	public static boolean isVirtualThreadsSupported() {
+		return VirtualThreadDelegate.isSupported();
+	}
+
 	/**
 	 * Specify a custom {@link TaskDecorator} to be applied to any {@link Runnable}
 	 * about to be executed.
@@ -229,11 +267,21 @@ public class SimpleAsyncTaskExecutor extends CustomizableThreadCreator
 	 * <p>The default implementation creates a new Thread and starts it.
 	 * @param task the Runnable to execute
 	 * @see #setThreadFactory
+	 * @see #setVirtualThreads
 	 * @see #createThread
 	 * @see java.lang.Thread#start()
 	 */
 	protected void doExecute(Runnable task) {
-		Thread thread = (this.threadFactory != null ? this.threadFactory.newThread(task) : createThread(task));
+		Thread thread;
+		if (this.threadFactory != null) {
+			thread = this.threadFactory.newThread(task);
+		}
+		else if (isVirtualThreads()) {
+			thread = VirtualThreadDelegate.newVirtualThread(nextThreadName(), task);
+		}
+		else {
+			thread = createThread(task);
+		}
 		thread.start();
 	}
 
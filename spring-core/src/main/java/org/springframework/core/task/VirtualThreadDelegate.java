@@ -0,0 +1,81 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.task;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadFactory;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Internal delegate for virtual thread handling, resolving the
+ * {@code Thread.ofVirtual()} API reflectively so that the framework
+ * keeps compiling against and running on JDKs without virtual threads.
+ *
+ * @since 5.2.5
+ * @see SimpleAsyncTaskExecutor#setVirtualThreads
+ */
+abstract class VirtualThreadDelegate {
+
+	@Nullable
+	private static final ThreadFactory virtualThreadFactory = createVirtualThreadFactory();
+
+
+	@Nullable
+	private static ThreadFactory createVirtualThreadFactory() {
+		Method ofVirtual = ReflectionUtils.findMethod(Thread.class, "ofVirtual");
+		if (ofVirtual == null) {
+			return null;
+		}
+		try {
+			Object builder = ofVirtual.invoke(null);
+			// Resolve through the public Thread.Builder interface, not the internal implementation class
+			Method factory = ClassUtils.forName("java.lang.Thread$Builder", null).getMethod("factory");
+			return (ThreadFactory) factory.invoke(builder);
+		}
+		catch (Throwable ex) {
+			// Virtual threads present but not usable, e.g. preview API not enabled
+			return null;
+		}
+	}
+
+
+	/**
+	 * Return whether virtual threads are available on the current JDK.
+	 */
+	public static boolean isSupported() {
+		return (virtualThreadFactory != null);
+	}
+
+	/**
+	 * Create a new unstarted virtual thread with the given name.
+	 * @param name the name of the thread
+	 * @param task the task to run on the thread
+	 * @return the virtual thread
+	 * @throws IllegalStateException if virtual threads are not supported
+	 */
+	public static Thread newVirtualThread(String name, Runnable task) {
+		Assert.state(virtualThreadFactory != null, "Virtual threads not supported on this JDK");
+		Thread thread = virtualThreadFactory.newThread(task);
+		thread.setName(name);
+		return thread;
+	}
+
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.task;
+
+/**
+ * {@link SimpleAsyncTaskExecutor} which runs each task on a new virtual thread
+ * where supported by the JDK, falling back to platform threads otherwise.
+ *
+ * <p>Blocking work, such as JDBC calls, then does not tie up a platform thread
+ * or the thread of a bounded pool. Since virtual threads are cheap to create,
+ * there is no need for pooling; use the {@link #setConcurrencyLimit concurrency
+ * limit} to protect a scarce resource such as a connection pool instead.
+ *
+ * <p>To run {@code @Async} methods on virtual threads, declare an instance as a
+ * bean named "taskExecutor" or return one from an {@code AsyncConfigurer}.
+ * Message listener containers accept it as their task executor as well.
+ *
+ * @since 5.2.5
+ * @see #setVirtualThreads
+ * @see #isVirtualThreadsSupported()
+ */
+@SuppressWarnings("serial")
+public class VirtualThreadTaskExecutor extends SimpleAsyncTaskExecutor {
+
+	/**
+	 * Create a new VirtualThreadTaskExecutor with default thread name prefix.
+	 */
+	public VirtualThreadTaskExecutor() {
+		super();
+		setVirtualThreads(true);
+	}
+
+	/**
+	 * Create a new VirtualThreadTaskExecutor with the given thread name prefix.
+	 * @param threadNamePrefix the prefix to use for the names of newly created threads
+	 */
+	public VirtualThreadTaskExecutor(String threadNamePrefix) {
+		super(threadNamePrefix);
+		setVirtualThreads(true);
+	}
+
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.util;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ConcurrencyLimitStrategy} with additive increase and multiplicative
+ * decrease (AIMD), as used for TCP congestion control: the limit grows by one
+ * for each request that completes in time while the limit is in use, and backs
+ * off by a ratio for each request that is dropped or exceeds the timeout.
+ *
+ * <p>Reacts to overload only once requests fail or slow down beyond the
+ * timeout; see {@link GradientConcurrencyLimitStrategy} for a strategy that
+ * backs off as soon as latency rises.
+ *
+ * @since 5.2.5
+ */
+public class AimdConcurrencyLimitStrategy implements ConcurrencyLimitStrategy {
+
+	private int minLimit = 1;
+
+	private int maxLimit = 1000;
+
+	private double backoffRatio = 0.9;
+
+	private long timeoutNanos = TimeUnit.SECONDS.toNanos(5);
+
+	private volatile int limit;
+
+
+	/**
+	 * Create a new AimdConcurrencyLimitStrategy with an initial limit of 20.
+	 */
+	public AimdConcurrencyLimitStrategy() {
+		this(20);
+	}
+
+	/**
+	 * Create a new AimdConcurrencyLimitStrategy with the given initial limit.
+	 * @param initialLimit the limit to start with
+	 */
+	public AimdConcurrencyLimitStrategy(int initialLimit) {
+		Assert.isTrue(initialLimit > 0, "Initial limit must be positive");
+		this.limit = initialLimit;
+	}
+
+
+	/**
+	 * Set the lowest limit to back off to. Default is 1.
+	 */
+	public void setMinLimit(int minLimit) {
+		Assert.isTrue(minLimit > 0, "Minimum limit must be positive");
+		this.minLimit = minLimit;
+	}
+
+	/**
+	 * Set the highest limit to grow to. Default is 1000.
+	 */
+	public void setMaxLimit(int maxLimit) {
+		Assert.isTrue(maxLimit > 0, "Maximum limit must be positive");
+		this.maxLimit = maxLimit;
+	}
+
+	/**
+	 * Set the ratio to multiply the limit with when backing off.
+	 * Default is 0.9.
+	 */
+	public void setBackoffRatio(double backoffRatio) {
+		Assert.isTrue(backoffRatio >= 0.5 && backoffRatio < 1.0, "Backoff ratio must be between 0.5 and 1.0");
+		this.backoffRatio = backoffRatio;
+	}
+
+	/**
+	 * Set the time beyond which a request counts as dropped.
+	 * Default is 5 seconds.
+	 */
+	public void setTimeoutMillis(long timeoutMillis) {
+		Assert.isTrue(timeoutMillis > 0, "Timeout must be positive");
+		this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+	}
+
+
+	@Override
+	public int getLimit() {
+		return this.limit;
+	}
+
+	@Override
+	public synchronized void onSample(long rttNanos, int inFlight, boolean dropped) {
+		int currentLimit = this.limit;
+		int newLimit = currentLimit;
+		if (dropped || rttNanos > this.timeoutNanos) {
+			newLimit = (int) (currentLimit * this.backoffRatio);
+		}
+		else if (inFlight * 2 >= currentLimit) {
+			// Only grow while the limit is actually in use
+			newLimit = currentLimit + 1;
+		}
+		this.limit = Math.max(this.minLimit, Math.min(this.maxLimit, newLimit));
+	}
+
+	@Override
+	public String toString() {
+		return "AimdConcurrencyLimitStrategy: limit=" + this.limit;
+	}
+
+}
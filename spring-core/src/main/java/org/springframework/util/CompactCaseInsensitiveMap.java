@@ -0,0 +1,605 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Memory-compact alternative to {@link LinkedCaseInsensitiveMap}, storing String
+ * keys in a case-insensitive manner within a single open-addressing hash table.
+ *
+ * <p>Preserves the original order as well as the original casing of keys,
+ * while allowing for contains, get and remove calls with any case of key.
+ * In contrast to {@link LinkedCaseInsensitiveMap}, keys are compared via
+ * {@link String#equalsIgnoreCase} rather than through a {@link java.util.Locale}
+ * specific lower-case variant of each key: no secondary key map is kept and
+ * lookups do not allocate. This is a natural fit for protocol-level names such
+ * as HTTP or STOMP headers which are ASCII-based by definition.
+ *
+ * <p>Entries are kept in insertion-ordered parallel arrays, with a separate
+ * {@code int[]} index for hash lookups; no per-entry objects are created
+ * unless iterating over the {@link #entrySet()}.
+ *
+ * <p>Does <i>not</i> support {@code null} keys. This Map implementation is not
+ * thread-safe; it is primarily designed for data structures exposed from request
+ * objects, for use in a single thread only.
+ *
+ * @since 5.2.5
+ * @param <V> the value type
+ * @see LinkedCaseInsensitiveMap
+ */
+public class CompactCaseInsensitiveMap<V> extends AbstractMap<String, V> implements Serializable, Cloneable {
+
+	private static final long serialVersionUID = 4618512376245879325L;
+
+	private static final int DEFAULT_INITIAL_CAPACITY = 8;
+
+
+	/** Keys in insertion order, with {@code null} for removed entries. */
+	private String[] keys;
+
+	/** Values in insertion order, aligned with {@link #keys}. */
+	private Object[] values;
+
+	/** Case-insensitive hashes of the keys, aligned with {@link #keys}. */
+	private int[] hashes;
+
+	/** Open-addressing index: the position in {@link #keys} plus one, or 0 for a free slot. */
+	private int[] table;
+
+	/** The number of used positions in {@link #keys}, including removed entries. */
+	private int count;
+
+	private int size;
+
+	private transient int modCount;
+
+	@Nullable
+	private transient Set<String> keySet;
+
+	@Nullable
+	private transient Set<Entry<String, V>> entrySet;
+
+
+	/**
+	 * Create a new CompactCaseInsensitiveMap with a default initial capacity.
+	 */
+	public CompactCaseInsensitiveMap() {
+		this(DEFAULT_INITIAL_CAPACITY);
+	}
+
+	/**
+	 * Create a new CompactCaseInsensitiveMap with the given initial capacity.
+	 * @param initialCapacity the number of entries to hold without resizing
+	 */
+	public CompactCaseInsensitiveMap(int initialCapacity) {
+		Assert.isTrue(initialCapacity >= 0, "Initial capacity must not be negative");
+		allocate(Math.max(initialCapacity, 1));
+	}
+
+	/**
+	 * Create a new CompactCaseInsensitiveMap with the same mappings as the given Map.
+	 * @param otherMap the Map whose mappings are to be placed in this Map
+	 */
+	public CompactCaseInsensitiveMap(Map<String, ? extends V> otherMap) {
+		this(otherMap.size());
+		putAll(otherMap);
+	}
+
+
+	// Implementation of java.util.Map
+
+	@Override
+	public int size() {
+		return this.size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return (this.size == 0);
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return (key instanceof String && indexOf((String) key) >= 0);
+	}
+
+	@Override
+	public boolean containsValue(Object value) {
+		for (int i = 0; i < this.count; i++) {
+			if (this.keys[i] != null && ObjectUtils.nullSafeEquals(this.values[i], value)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	@Nullable
+	public V get(Object key) {
+		return getOrDefault(key, null);
+	}
+
+	@Override
+	@Nullable
+	@SuppressWarnings("unchecked")
+	public V getOrDefault(Object key, V defaultValue) {
+		if (key instanceof String) {
+			int index = indexOf((String) key);
+			if (index >= 0) {
+				return (V) this.values[index];
+			}
+		}
+		return defaultValue;
+	}
+
+	@Override
+	@Nullable
+	@SuppressWarnings("unchecked")
+	public V put(String key, @Nullable V value) {
+		int hash = hash(key);
+		int index = indexOf(key, hash);
+		if (index >= 0) {
+			V oldValue = (V) this.values[index];
+			if (this.keys[index].equals(key)) {
+				this.values[index] = value;
+				return oldValue;
+			}
+			// Differently cased key: re-add at the end, as LinkedCaseInsensitiveMap does
+			removeAt(index, hash);
+			append(key, hash, value);
+			return oldValue;
+		}
+		append(key, hash, value);
+		return null;
+	}
+
+	@Override
+	@Nullable
+	@SuppressWarnings("unchecked")
+	public V putIfAbsent(String key, @Nullable V value) {
+		int hash = hash(key);
+		int index = indexOf(key, hash);
+		if (index >= 0) {
+			return (V) this.values[index];
+		}
+		append(key, hash, value);
+		return null;
+	}
+
+	@Override
+	@Nullable
+	@SuppressWarnings("unchecked")
+	public V remove(Object key) {
+		if (key instanceof String) {
+			int hash = hash((String) key);
+			int index = indexOf((String) key, hash);
+			if (index >= 0) {
+				V oldValue = (V) this.values[index];
+				removeAt(index, hash);
+				return oldValue;
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public void clear() {
+		if (this.count > 0) {
+			for (int i = 0; i < this.count; i++) {
+				this.keys[i] = null;
+				this.values[i] = null;
+			}
+			for (int i = 0; i < this.table.length; i++) {
+				this.table[i] = 0;
+			}
+			this.count = 0;
+			this.size = 0;
+			this.modCount++;
+		}
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public void forEach(BiConsumer<? super String, ? super V> action) {
+		int expectedModCount = this.modCount;
+		for (int i = 0; i < this.count; i++) {
+			String key = this.keys[i];
+			if (key != null) {
+				action.accept(key, (V) this.values[i]);
+				if (this.modCount != expectedModCount) {
+					throw new ConcurrentModificationException();
+				}
+			}
+		}
+	}
+
+	@Override
+	public Set<String> keySet() {
+		Set<String> keySet = this.keySet;
+		if (keySet == null) {
+			keySet = new KeySet();
+			this.keySet = keySet;
+		}
+		return keySet;
+	}
+
+	@Override
+	public Set<Entry<String, V>> entrySet() {
+		Set<Entry<String, V>> entrySet = this.entrySet;
+		if (entrySet == null) {
+			entrySet = new EntrySet();
+			this.entrySet = entrySet;
+		}
+		return entrySet;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public CompactCaseInsensitiveMap<V> clone() {
+		try {
+			CompactCaseInsensitiveMap<V> clone = (CompactCaseInsensitiveMap<V>) super.clone();
+			clone.keys = this.keys.clone();
+			clone.values = this.values.clone();
+			clone.hashes = this.hashes.clone();
+			clone.table = this.table.clone();
+			clone.modCount = 0;
+			clone.keySet = null;
+			clone.entrySet = null;
+			return clone;
+		}
+		catch (CloneNotSupportedException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+
+	// Internal helpers
+
+	/**
+	 * Compute a hash code for the given key which is consistent with
+	 * {@link String#equalsIgnoreCase}, without creating a converted key.
+	 */
+	private static int hash(String key) {
+		int hash = 0;
+		for (int i = 0, length = key.length(); i < length; i++) {
+			char c = key.charAt(i);
+			if (c >= 'A' && c <= 'Z') {
+				c += ('a' - 'A');
+			}
+			else if (c >= 0x80) {
+				c = Character.toLowerCase(Character.toUpperCase(c));
+			}
+			hash = 31 * hash + c;
+		}
+		return (hash ^ (hash >>> 16));
+	}
+
+	private void allocate(int capacity) {
+		this.keys = new String[capacity];
+		this.values = new Object[capacity];
+		this.hashes = new int[capacity];
+		int tableSize = Integer.highestOneBit(Math.max(capacity * 2 - 1, 1)) << 1;
+		this.table = new int[tableSize];
+	}
+
+	private int indexOf(String key) {
+		return indexOf(key, hash(key));
+	}
+
+	private int indexOf(String key, int hash) {
+		int mask = this.table.length - 1;
+		int slot = hash & mask;
+		while (true) {
+			int entry = this.table[slot];
+			if (entry == 0) {
+				return -1;
+			}
+			int index = entry - 1;
+			if (this.hashes[index] == hash && this.keys[index].equalsIgnoreCase(key)) {
+				return index;
+			}
+			slot = (slot + 1) & mask;
+		}
+	}
+
+	private void append(String key, int hash, @Nullable V value) {
+		Assert.notNull(key, "Key must not be null");
+		if (this.count == this.keys.length) {
+			resize();
+		}
+		int index = this.count++;
+		this.keys[index] = key;
+		this.values[index] = value;
+		this.hashes[index] = hash;
+		insertIntoTable(index, hash);
+		this.size++;
+		this.modCount++;
+	}
+
+	private void insertIntoTable(int index, int hash) {
+		int mask = this.table.length - 1;
+		int slot = hash & mask;
+		while (this.table[slot] != 0) {
+			slot = (slot + 1) & mask;
+		}
+		this.table[slot] = index + 1;
+	}
+
+	/**
+	 * Remove the entry at the given position, closing the gap in the
+	 * open-addressing index through backward shifting (no tombstones).
+	 */
+	private void removeAt(int index, int hash) {
+		int mask = this.table.length - 1;
+		int slot = hash & mask;
+		while (this.table[slot] != index + 1) {
+			slot = (slot + 1) & mask;
+		}
+		int free = slot;
+		int next = free;
+		while (true) {
+			next = (next + 1) & mask;
+			int entry = this.table[next];
+			if (entry == 0) {
+				break;
+			}
+			int home = this.hashes[entry - 1] & mask;
+			boolean keep = (free <= next ? (free < home && home <= next) : (free < home || home <= next));
+			if (!keep) {
+				this.table[free] = entry;
+				free = next;
+			}
+		}
+		this.table[free] = 0;
+		this.keys[index] = null;
+		this.values[index] = null;
+		this.size--;
+		this.modCount++;
+	}
+
+	/**
+	 * Make room for a new entry: compact removed entries away if there are
+	 * plenty of them, otherwise double the capacity.
+	 */
+	private void resize() {
+		String[] oldKeys = this.keys;
+		Object[] oldValues = this.values;
+		int[] oldHashes = this.hashes;
+		int oldCount = this.count;
+		int capacity = (this.size < oldKeys.length * 3 / 4 ? oldKeys.length : oldKeys.length * 2);
+		allocate(capacity);
+		int index = 0;
+		for (int i = 0; i < oldCount; i++) {
+			if (oldKeys[i] != null) {
+				this.keys[index] = oldKeys[i];
+				this.values[index] = oldValues[i];
+				this.hashes[index] = oldHashes[i];
+				insertIntoTable(index, oldHashes[i]);
+				index++;
+			}
+		}
+		this.count = index;
+	}
+
+
+	private class KeySet extends AbstractSet<String> {
+
+		@Override
+		public int size() {
+			return size;
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			return containsKey(o);
+		}
+
+		@Override
+		public boolean remove(Object o) {
+			if (containsKey(o)) {
+				CompactCaseInsensitiveMap.this.remove(o);
+				return true;
+			}
+			return false;
+		}
+
+		@Override
+		public Iterator<String> iterator() {
+			return new PositionIterator<String>() {
+				@Override
+				protected String elementAt(int index) {
+					return keys[index];
+				}
+			};
+		}
+
+		@Override
+		public void clear() {
+			CompactCaseInsensitiveMap.this.clear();
+		}
+	}
+
+
+	private class EntrySet extends AbstractSet<Entry<String, V>> {
+
+		@Override
+		public int size() {
+			return size;
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			if (o instanceof Map.Entry) {
+				Map.Entry<?, ?> entry = (Map.Entry<?, ?>) o;
+				Object key = entry.getKey();
+				if (key instanceof String) {
+					int index = indexOf((String) key);
+					return (index >= 0 && keys[index].equals(key) &&
+							ObjectUtils.nullSafeEquals(values[index], entry.getValue()));
+				}
+			}
+			return false;
+		}
+
+		@Override
+		public boolean remove(Object o) {
+			if (contains(o)) {
+				CompactCaseInsensitiveMap.this.remove(((Map.Entry<?, ?>) o).getKey());
+				return true;
+			}
+			return false;
+		}
+
+		@Override
+		public Iterator<Entry<String, V>> iterator() {
+			return new PositionIterator<Entry<String, V>>() {
+				@Override
+				protected Entry<String, V> elementAt(int index) {
+					return new IndexedEntry(index);
+				}
+			};
+		}
+
+		@Override
+		public void clear() {
+			CompactCaseInsensitiveMap.this.clear();
+		}
+	}
+
+
+	private abstract class PositionIterator<T> implements Iterator<T> {
+
+		private int next;
+
+		private int last = -1;
+
+		private int expectedModCount = modCount;
+
+		PositionIterator() {
+			advance();
+		}
+
+		private void advance() {
+			while (this.next < count && keys[this.next] == null) {
+				this.next++;
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			return (this.next < count);
+		}
+
+		@Override
+		public T next() {
+			if (modCount != this.expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+			if (this.next >= count) {
+				throw new NoSuchElementException();
+			}
+			this.last = this.next++;
+			advance();
+			return elementAt(this.last);
+		}
+
+		protected abstract T elementAt(int index);
+
+		@Override
+		public void remove() {
+			Assert.state(this.last >= 0, "No element to remove");
+			if (modCount != this.expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+			// Removal does not move any other entries, so iteration can simply proceed
+			removeAt(this.last, hashes[this.last]);
+			this.last = -1;
+			this.expectedModCount = modCount;
+		}
+	}
+
+
+	/**
+	 * Entry view onto a specific position, reflecting the current value.
+	 */
+	private class IndexedEntry implements Map.Entry<String, V> {
+
+		private final int index;
+
+		private final String key;
+
+		IndexedEntry(int index) {
+			this.index = index;
+			this.key = keys[index];
+		}
+
+		@Override
+		public String getKey() {
+			return this.key;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public V getValue() {
+			return (V) values[this.index];
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public V setValue(V value) {
+			Assert.state(keys[this.index] == this.key, "Entry no longer present in map");
+			V oldValue = (V) values[this.index];
+			values[this.index] = value;
+			return oldValue;
+		}
+
+		@Override
+		public boolean equals(@Nullable Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof Map.Entry)) {
+				return false;
+			}
+			Map.Entry<?, ?> otherEntry = (Map.Entry<?, ?>) other;
+			return (this.key.equals(otherEntry.getKey()) &&
+					ObjectUtils.nullSafeEquals(getValue(), otherEntry.getValue()));
+		}
+
+		@Override
+		public int hashCode() {
+			return (this.key.hashCode() ^ ObjectUtils.nullSafeHashCode(getValue()));
+		}
+
+		@Override
+		public String toString() {
+			return this.key + "=" + getValue();
+		}
+	}
+
+}
@@ -0,0 +1,386 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Set;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Memory-compact implementation of {@link MultiValueMap}, storing the values
+ * for each key in a list which keeps its first value inline: in the common case
+ * of a single value per key, only one small list object is created, as opposed
+ * to the {@link java.util.LinkedList} (plus node) used by {@link LinkedMultiValueMap}.
+ *
+ * <p>The value lists are fully modifiable, so code which adds to a list obtained
+ * through {@link #get} keeps working as with any other {@code MultiValueMap}.
+ *
+ * <p>This Map implementation is generally not thread-safe. It is primarily designed
+ * for data structures exposed from request objects, for use in a single thread only.
+ *
+ * @since 5.2.5
+ * @param <K> the key type
+ * @param <V> the value element type
+ * @see #caseInsensitive(int)
+ */
+public class CompactMultiValueMap<K, V> implements MultiValueMap<K, V>, Serializable, Cloneable {
+
+	private static final long serialVersionUID = -3294506532917396781L;
+
+	private final Map<K, List<V>> targetMap;
+
+	private final boolean caseInsensitive;
+
+
+	/**
+	 * Create a new CompactMultiValueMap that wraps a {@link LinkedHashMap}.
+	 */
+	public CompactMultiValueMap() {
+		this.targetMap = new LinkedHashMap<>();
+		this.caseInsensitive = false;
+	}
+
+	/**
+	 * Create a new CompactMultiValueMap that wraps a {@link LinkedHashMap}
+	 * with the given initial capacity.
+	 * @param initialCapacity the initial capacity
+	 */
+	public CompactMultiValueMap(int initialCapacity) {
+		this.targetMap = new LinkedHashMap<>(initialCapacity);
+		this.caseInsensitive = false;
+	}
+
+	/**
+	 * Copy constructor: Create a new CompactMultiValueMap with the same mappings as
+	 * the specified Map. Note that this will be a shallow copy; its value-holding
+	 * List entries will get reused and therefore cannot get modified independently.
+	 * @param otherMap the Map whose mappings are to be placed in this Map
+	 * @see #clone()
+	 * @see #deepCopy()
+	 */
+	public CompactMultiValueMap(Map<K, List<V>> otherMap) {
+		this.targetMap = new LinkedHashMap<>(otherMap);
+		this.caseInsensitive = false;
+	}
+
+	/**
+	 * Wrapping constructor, as opposed to the public copy constructor.
+	 */
+	private CompactMultiValueMap(Map<K, List<V>> targetMap, boolean caseInsensitive) {
+		this.targetMap = targetMap;
+		this.caseInsensitive = caseInsensitive;
+	}
+
+
+	/**
+	 * Create a new CompactMultiValueMap with case-insensitive String keys,
+	 * backed by a {@link CompactCaseInsensitiveMap}.
+	 * @param initialCapacity the initial capacity
+	 */
+	public static <V> CompactMultiValueMap<String, V> caseInsensitive(int initialCapacity) {
+		return new CompactMultiValueMap<>(new CompactCaseInsensitiveMap<>(initialCapacity), true);
+	}
+
+
+	// MultiValueMap implementation
+
+	@Override
+	@Nullable
+	public V getFirst(K key) {
+		List<V> values = this.targetMap.get(key);
+		return (values != null && !values.isEmpty() ? values.get(0) : null);
+	}
+
+	@Override
+	public void add(K key, @Nullable V value) {
+		List<V> values = this.targetMap.computeIfAbsent(key, k -> new ValueList<>());
+		values.add(value);
+	}
+
+	@Override
+	public void addAll(K key, List<? extends V> values) {
+		List<V> currentValues = this.targetMap.computeIfAbsent(key, k -> new ValueList<>());
+		currentValues.addAll(values);
+	}
+
+	@Override
+	public void addAll(MultiValueMap<K, V> values) {
+		for (Entry<K, List<V>> entry : values.entrySet()) {
+			addAll(entry.getKey(), entry.getValue());
+		}
+	}
+
+	@Override
+	public void set(K key, @Nullable V value) {
+		List<V> values = new ValueList<>();
+		values.add(value);
+		this.targetMap.put(key, values);
+	}
+
+	@Override
+	public void setAll(Map<K, V> values) {
+		values.forEach(this::set);
+	}
+
+	@Override
+	public Map<K, V> toSingleValueMap() {
+		LinkedHashMap<K, V> singleValueMap = new LinkedHashMap<>(this.targetMap.size());
+		this.targetMap.forEach((key, values) -> {
+			if (values != null && !values.isEmpty()) {
+				singleValueMap.put(key, values.get(0));
+			}
+		});
+		return singleValueMap;
+	}
+
+
+	// Map implementation
+
+	@Override
+	public int size() {
+		return this.targetMap.size();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return this.targetMap.isEmpty();
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return this.targetMap.containsKey(key);
+	}
+
+	@Override
+	public boolean containsValue(Object value) {
+		return this.targetMap.containsValue(value);
+	}
+
+	@Override
+	@Nullable
+	public List<V> get(Object key) {
+		return this.targetMap.get(key);
+	}
+
+	@Override
+	@Nullable
+	public List<V> put(K key, List<V> value) {
+		return this.targetMap.put(key, value);
+	}
+
+	@Override
+	@Nullable
+	public List<V> remove(Object key) {
+		return this.targetMap.remove(key);
+	}
+
+	@Override
+	public void putAll(Map<? extends K, ? extends List<V>> map) {
+		this.targetMap.putAll(map);
+	}
+
+	@Override
+	public void clear() {
+		this.targetMap.clear();
+	}
+
+	@Override
+	public Set<K> keySet() {
+		return this.targetMap.keySet();
+	}
+
+	@Override
+	public Collection<List<V>> values() {
+		return this.targetMap.values();
+	}
+
+	@Override
+	public Set<Entry<K, List<V>>> entrySet() {
+		return this.targetMap.entrySet();
+	}
+
+
+	/**
+	 * Create a deep copy of this Map.
+	 * @return a copy of this Map, including a copy of each value-holding List entry
+	 * (consistently using an independent modifiable compact list for each entry)
+	 * along the lines of {@code MultiValueMap.addAll} semantics
+	 * @see #addAll(MultiValueMap)
+	 * @see #clone()
+	 */
+	public CompactMultiValueMap<K, V> deepCopy() {
+		CompactMultiValueMap<K, V> copy = new CompactMultiValueMap<>(
+				createTargetMap(this.targetMap.size()), this.caseInsensitive);
+		this.targetMap.forEach((key, value) -> {
+			List<V> values = new ValueList<>();
+			values.addAll(value);
+			copy.put(key, values);
+		});
+		return copy;
+	}
+
+	/**
+	 * Create a regular copy of this Map.
+	 * @return a shallow copy of this Map, reusing this Map's value-holding List entries
+	 * (even if some entries are shared or unmodifiable) along the lines of standard
+	 * {@code Map.put} semantics
+	 * @see #put(Object, List)
+	 * @see #putAll(Map)
+	 * @see #deepCopy()
+	 */
+	@Override
+	public CompactMultiValueMap<K, V> clone() {
+		Map<K, List<V>> targetMap = createTargetMap(this.targetMap.size());
+		targetMap.putAll(this.targetMap);
+		return new CompactMultiValueMap<>(targetMap, this.caseInsensitive);
+	}
+
+	@SuppressWarnings("unchecked")
+	private Map<K, List<V>> createTargetMap(int initialCapacity) {
+		return (this.caseInsensitive ? (Map<K, List<V>>) new CompactCaseInsensitiveMap<List<V>>(initialCapacity) :
+				new LinkedHashMap<>(initialCapacity));
+	}
+
+	@Override
+	public boolean equals(@Nullable Object obj) {
+		return this.targetMap.equals(obj);
+	}
+
+	@Override
+	public int hashCode() {
+		return this.targetMap.hashCode();
+	}
+
+	@Override
+	public String toString() {
+		return this.targetMap.toString();
+	}
+
+
+	/**
+	 * Modifiable {@link List} which stores its first element inline,
+	 * only allocating an array once a second element gets added.
+	 */
+	@SuppressWarnings("serial")
+	private static final class ValueList<V> extends AbstractList<V> implements RandomAccess, Serializable {
+
+		@Nullable
+		private Object first;
+
+		@Nullable
+		private Object[] rest;
+
+		private int size;
+
+		@Override
+		public int size() {
+			return this.size;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public V get(int index) {
+			if (index < 0 || index >= this.size) {
+				throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size);
+			}
+			return (V) (index == 0 ? this.first : this.rest[index - 1]);
+		}
+
+		@Override
+		public V set(int index, V element) {
+			V oldValue = get(index);
+			if (index == 0) {
+				this.first = element;
+			}
+			else {
+				this.rest[index - 1] = element;
+			}
+			return oldValue;
+		}
+
+		@Override
+		public void add(int index, V element) {
+			if (index < 0 || index > this.size) {
+				throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size);
+			}
+			if (this.size == 0) {
+				this.first = element;
+			}
+			else {
+				int restSize = this.size - 1;
+				if (this.rest == null) {
+					this.rest = new Object[2];
+				}
+				else if (restSize == this.rest.length) {
+					Object[] newRest = new Object[restSize * 2];
+					System.arraycopy(this.rest, 0, newRest, 0, restSize);
+					this.rest = newRest;
+				}
+				if (index == 0) {
+					System.arraycopy(this.rest, 0, this.rest, 1, restSize);
+					this.rest[0] = this.first;
+					this.first = element;
+				}
+				else {
+					int restIndex = index - 1;
+					System.arraycopy(this.rest, restIndex, this.rest, restIndex + 1, restSize - restIndex);
+					this.rest[restIndex] = element;
+				}
+			}
+			this.size++;
+			this.modCount++;
+		}
+
+		@Override
+		public V remove(int index) {
+			V oldValue = get(index);
+			int restSize = this.size - 1;
+			if (restSize > 0) {
+				if (index == 0) {
+					this.first = this.rest[0];
+					System.arraycopy(this.rest, 1, this.rest, 0, restSize - 1);
+				}
+				else {
+					System.arraycopy(this.rest, index, this.rest, index - 1, restSize - index);
+				}
+				this.rest[restSize - 1] = null;
+			}
+			else {
+				this.first = null;
+			}
+			this.size--;
+			this.modCount++;
+			return oldValue;
+		}
+
+		@Override
+		public void clear() {
+			this.first = null;
+			this.rest = null;
+			this.size = 0;
+			this.modCount++;
+		}
+	}
+
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.util;
+
+/**
+ * Exception thrown by components that reject a request when the limit of a
+ * {@link ConcurrencyLimiter} is reached, instead of waiting for capacity.
+ *
+ * @since 5.2.5
+ * @see ConcurrencyLimiter#tryAcquire()
+ */
+@SuppressWarnings("serial")
+public class ConcurrencyLimitExceededException extends IllegalStateException {
+
+	private final int limit;
+
+
+	/**
+	 * Create a new ConcurrencyLimitExceededException for the given limit.
+	 * @param limit the concurrency limit that was reached
+	 */
+	public ConcurrencyLimitExceededException(int limit) {
+		super("Concurrency limit of " + limit + " reached");
+		this.limit = limit;
+	}
+
+
+	/**
+	 * Return the concurrency limit that was reached.
+	 */
+	public int getLimit() {
+		return this.limit;
+	}
+
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.util;
+
+/**
+ * Strategy for the concurrency limit of a {@link ConcurrencyLimiter},
+ * adjusting the limit from the latency of completed requests.
+ *
+ * <p>Implementations need to be thread-safe: samples are reported
+ * concurrently by the threads that complete requests.
+ *
+ * @since 5.2.5
+ * @see AimdConcurrencyLimitStrategy
+ * @see GradientConcurrencyLimitStrategy
+ */
+public interface ConcurrencyLimitStrategy {
+
+	/**
+	 * Return the current number of requests allowed to run concurrently.
+	 */
+	int getLimit();
+
+	/**
+	 * Adjust the limit to a completed request.
+	 * @param rttNanos the time it took to process the request
+	 * @param inFlight the number of requests in flight when the request started,
+	 * including itself
+	 * @param dropped whether the request failed due to overload, e.g. timed out
+	 */
+	void onSample(long rttNanos, int inFlight, boolean dropped);
+
+}
@@ -0,0 +1,231 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Limiter for the number of requests processed concurrently, with a limit
+ * that adapts to the observed latency through a {@link ConcurrencyLimitStrategy}.
+ *
+ * <p>In contrast to {@link ConcurrencyThrottleSupport}, requests beyond the
+ * limit are not queued but rejected right away, so that an overloaded component
+ * sheds load instead of accumulating waiting requests and latency:
+ *
+ * <pre class="code">
+ * ConcurrencyLimiter.Permit permit = limiter.tryAcquire();
+ * if (permit == null) {
+ *     throw new ConcurrencyLimitExceededException(limiter.getLimit());
+ * }
+ * try {
+ *     // process the request
+ * }
+ * finally {
+ *     permit.release();
+ * }</pre>
+ *
+ * <p>Also records the number of accepted, rejected and dropped requests as
+ * well as a {@link LatencyHistogram} of the time taken by requests.
+ *
+ * @since 5.2.5
+ * @see org.springframework.aop.interceptor.ConcurrencyLimitInterceptor
+ * @see org.springframework.web.filter.ConcurrencyLimitFilter
+ * @see org.springframework.web.filter.reactive.ConcurrencyLimitWebFilter
+ */
+public class ConcurrencyLimiter {
+
+	private final ConcurrencyLimitStrategy strategy;
+
+	private final AtomicInteger inFlight = new AtomicInteger();
+
+	private final LongAdder acceptedCount = new LongAdder();
+
+	private final LongAdder rejectedCount = new LongAdder();
+
+	private final LongAdder droppedCount = new LongAdder();
+
+	private final LatencyHistogram latency = new LatencyHistogram();
+
+
+	/**
+	 * Create a new ConcurrencyLimiter with a {@link GradientConcurrencyLimitStrategy}.
+	 */
+	public ConcurrencyLimiter() {
+		this(new GradientConcurrencyLimitStrategy());
+	}
+
+	/**
+	 * Create a new ConcurrencyLimiter with the given strategy.
+	 * @param strategy the strategy for the concurrency limit
+	 */
+	public ConcurrencyLimiter(ConcurrencyLimitStrategy strategy) {
+		Assert.notNull(strategy, "ConcurrencyLimitStrategy must not be null");
+		this.strategy = strategy;
+	}
+
+
+	/**
+	 * Acquire a permit to process a request, unless the limit is reached.
+	 * @return the permit to release once the request has been processed,
+	 * or {@code null} if the request should be rejected
+	 */
+	@Nullable
+	public Permit tryAcquire() {
+		int limit = this.strategy.getLimit();
+		for (;;) {
+			int current = this.inFlight.get();
+			if (current >= limit) {
+				this.rejectedCount.increment();
+				return null;
+			}
+			if (this.inFlight.compareAndSet(current, current + 1)) {
+				this.acceptedCount.increment();
+				return new Permit(this, current + 1);
+			}
+		}
+	}
+
+	/**
+	 * Return the strategy for the concurrency limit.
+	 */
+	public ConcurrencyLimitStrategy getStrategy() {
+		return this.strategy;
+	}
+
+	/**
+	 * Return the current concurrency limit.
+	 */
+	public int getLimit() {
+		return this.strategy.getLimit();
+	}
+
+	/**
+	 * Return the number of requests currently in flight.
+	 */
+	public int getInFlight() {
+		return this.inFlight.get();
+	}
+
+	/**
+	 * Return the number of requests that acquired a permit.
+	 */
+	public long getAcceptedCount() {
+		return this.acceptedCount.sum();
+	}
+
+	/**
+	 * Return the number of requests rejected because the limit was reached.
+	 */
+	public long getRejectedCount() {
+		return this.rejectedCount.sum();
+	}
+
+	/**
+	 * Return the number of requests that failed due to overload.
+	 * @see Permit#releaseDropped()
+	 */
+	public long getDroppedCount() {
+		return this.droppedCount.sum();
+	}
+
+	/**
+	 * Return the histogram of the time taken by requests, excluding
+	 * {@link Permit#releaseIgnored() ignored} ones.
+	 */
+	public LatencyHistogram getLatency() {
+		return this.latency;
+	}
+
+	private void release(Permit permit, boolean dropped, boolean ignored) {
+		long rttNanos = System.nanoTime() - permit.startTime;
+		this.inFlight.decrementAndGet();
+		if (!ignored) {
+			this.latency.record(rttNanos);
+			if (dropped) {
+				this.droppedCount.increment();
+			}
+			this.strategy.onSample(rttNanos, permit.inFlight, dropped);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "ConcurrencyLimiter: limit=" + getLimit() + ", inFlight=" + getInFlight() +
+				", accepted=" + getAcceptedCount() + ", rejected=" + getRejectedCount() +
+				", dropped=" + getDroppedCount();
+	}
+
+
+	/**
+	 * Permit to process a request, obtained from {@link #tryAcquire()}.
+	 * Only the first release of a permit takes effect.
+	 */
+	public static final class Permit {
+
+		private static final AtomicIntegerFieldUpdater<Permit> RELEASED_UPDATER =
+				AtomicIntegerFieldUpdater.newUpdater(Permit.class, "released");
+
+		private final ConcurrencyLimiter limiter;
+
+		private final int inFlight;
+
+		private final long startTime = System.nanoTime();
+
+		private volatile int released;
+
+		private Permit(ConcurrencyLimiter limiter, int inFlight) {
+			this.limiter = limiter;
+			this.inFlight = inFlight;
+		}
+
+		/**
+		 * Release the permit after the request has been processed,
+		 * successfully or not, taking its latency into account.
+		 */
+		public void release() {
+			release(false, false);
+		}
+
+		/**
+		 * Release the permit after the request failed due to overload, for
+		 * example a timeout, causing the limit to back off.
+		 */
+		public void releaseDropped() {
+			release(true, false);
+		}
+
+		/**
+		 * Release the permit without taking the request into account,
+		 * for example when it was cancelled before completion.
+		 */
+		public void releaseIgnored() {
+			release(false, true);
+		}
+
+		private void release(boolean dropped, boolean ignored) {
+			if (RELEASED_UPDATER.compareAndSet(this, 0, 1)) {
+				this.limiter.release(this, dropped, ignored);
+			}
+		}
+	}
+
+}
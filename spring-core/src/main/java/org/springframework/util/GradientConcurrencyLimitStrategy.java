@@ -0,0 +1,155 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.util;
+
+/**
+ * {@link ConcurrencyLimitStrategy} that adjusts the limit by the gradient
+ * between the long-term and the current latency: as long as requests complete
+ * about as fast as usual, the limit grows by a small headroom to probe for more
+ * capacity; once latency rises above the tolerated ratio, which means requests
+ * start queueing up somewhere, the limit shrinks proportionally.
+ *
+ * <p>The long-term latency is an exponential moving average over roughly the
+ * {@link #setLongWindow long window} of samples, so that the strategy adapts
+ * to lasting changes in latency. Changes to the limit are smoothed as well.
+ * The limit does not grow while less than half of it is in use.
+ *
+ * @since 5.2.5
+ * @see AimdConcurrencyLimitStrategy
+ */
+public class GradientConcurrencyLimitStrategy implements ConcurrencyLimitStrategy {
+
+	private int minLimit = 1;
+
+	private int maxLimit = 1000;
+
+	private double rttTolerance = 1.5;
+
+	private double smoothing = 0.2;
+
+	private int longWindow = 600;
+
+	private double estimatedLimit;
+
+	private double longRtt;
+
+	private volatile int limit;
+
+
+	/**
+	 * Create a new GradientConcurrencyLimitStrategy with an initial limit of 20.
+	 */
+	public GradientConcurrencyLimitStrategy() {
+		this(20);
+	}
+
+	/**
+	 * Create a new GradientConcurrencyLimitStrategy with the given initial limit.
+	 * @param initialLimit the limit to start with
+	 */
+	public GradientConcurrencyLimitStrategy(int initialLimit) {
+		Assert.isTrue(initialLimit > 0, "Initial limit must be positive");
+		this.limit = initialLimit;
+		this.estimatedLimit = initialLimit;
+	}
+
+
+	/**
+	 * Set the lowest limit to shrink to. Default is 1.
+	 */
+	public void setMinLimit(int minLimit) {
+		Assert.isTrue(minLimit > 0, "Minimum limit must be positive");
+		this.minLimit = minLimit;
+	}
+
+	/**
+	 * Set the highest limit to grow to. Default is 1000.
+	 */
+	public void setMaxLimit(int maxLimit) {
+		Assert.isTrue(maxLimit > 0, "Maximum limit must be positive");
+		this.maxLimit = maxLimit;
+	}
+
+	/**
+	 * Set the ratio of the current to the long-term latency that is tolerated
+	 * before the limit shrinks. Default is 1.5.
+	 */
+	public void setRttTolerance(double rttTolerance) {
+		Assert.isTrue(rttTolerance >= 1.0, "RTT tolerance must be at least 1.0");
+		this.rttTolerance = rttTolerance;
+	}
+
+	/**
+	 * Set the weight of a new limit relative to the current one, between
+	 * 0 (exclusive) and 1 (no smoothing). Default is 0.2.
+	 */
+	public void setSmoothing(double smoothing) {
+		Assert.isTrue(smoothing > 0.0 && smoothing <= 1.0, "Smoothing must be between 0.0 and 1.0");
+		this.smoothing = smoothing;
+	}
+
+	/**
+	 * Set the number of samples the long-term latency averages over.
+	 * Default is 600.
+	 */
+	public void setLongWindow(int longWindow) {
+		Assert.isTrue(longWindow > 0, "Long window must be positive");
+		this.longWindow = longWindow;
+	}
+
+
+	@Override
+	public int getLimit() {
+		return this.limit;
+	}
+
+	@Override
+	public synchronized void onSample(long rttNanos, int inFlight, boolean dropped) {
+		double shortRtt = Math.max(rttNanos, 1);
+		if (this.longRtt == 0) {
+			this.longRtt = shortRtt;
+		}
+		else {
+			this.longRtt += (shortRtt - this.longRtt) * 2 / (this.longWindow + 1);
+			if (this.longRtt / shortRtt > 2) {
+				// Latency dropped well below the long-term average after a period of
+				// overload: let the average catch up faster to stop suppressing growth
+				this.longRtt *= 0.95;
+			}
+		}
+
+		if (!dropped && inFlight < this.estimatedLimit / 2) {
+			// Limit not in use: no information about capacity
+			return;
+		}
+
+		double gradient = (dropped ? 0.5 :
+				Math.max(0.5, Math.min(1.0, this.rttTolerance * this.longRtt / shortRtt)));
+		double newLimit = this.estimatedLimit * gradient + Math.sqrt(this.estimatedLimit);
+		newLimit = this.estimatedLimit * (1 - this.smoothing) + newLimit * this.smoothing;
+		newLimit = Math.max(this.minLimit, Math.min(this.maxLimit, newLimit));
+		this.estimatedLimit = newLimit;
+		this.limit = (int) newLimit;
+	}
+
+	@Override
+	public String toString() {
+		return "GradientConcurrencyLimitStrategy: limit=" + this.limit;
+	}
+
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe histogram of latencies in nanoseconds, with buckets for
+ * powers of two: percentiles are reported as the upper bound of the bucket
+ * they fall into, so with an error of less than a factor of two.
+ *
+ * <p>Recording a latency does not allocate and scales with concurrent
+ * recording threads, at the expense of reads which add up the buckets.
+ *
+ * @since 5.2.5
+ */
+public class LatencyHistogram {
+
+	private static final int BUCKET_COUNT = 64;
+
+
+	private final LongAdder[] buckets = new LongAdder[BUCKET_COUNT];
+
+	private final LongAdder totalTime = new LongAdder();
+
+	private final LongAccumulator maxTime = new LongAccumulator(Math::max, 0);
+
+
+	public LatencyHistogram() {
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			this.buckets[i] = new LongAdder();
+		}
+	}
+
+
+	/**
+	 * Record the given latency.
+	 * @param nanos the latency in nanoseconds (negative values count as {@code 0})
+	 */
+	public void record(long nanos) {
+		long value = Math.max(nanos, 0);
+		// Bucket i holds the values with i significant bits: up to 2^i - 1
+		this.buckets[BUCKET_COUNT - Long.numberOfLeadingZeros(value)].increment();
+		this.totalTime.add(value);
+		this.maxTime.accumulate(value);
+	}
+
+	/**
+	 * Return the number of recorded latencies.
+	 */
+	public long getCount() {
+		long count = 0;
+		for (LongAdder bucket : this.buckets) {
+			count += bucket.sum();
+		}
+		return count;
+	}
+
+	/**
+	 * Return the sum of all recorded latencies, in nanoseconds.
+	 */
+	public long getTotalTime() {
+		return this.totalTime.sum();
+	}
+
+	/**
+	 * Return the mean of the recorded latencies, in nanoseconds.
+	 */
+	public double getMean() {
+		long count = getCount();
+		return (count == 0 ? 0.0 : (double) getTotalTime() / count);
+	}
+
+	/**
+	 * Return the highest recorded latency, in nanoseconds.
+	 */
+	public long getMax() {
+		return this.maxTime.get();
+	}
+
+	/**
+	 * Return the approximate latency below which the given fraction of the
+	 * recorded latencies fall.
+	 * @param percentile the fraction, between {@code 0.0} and {@code 1.0}:
+	 * for example, {@code 0.99} for the 99th percentile
+	 * @return the upper bound of the bucket containing the percentile,
+	 * in nanoseconds, but no more than the {@link #getMax() highest latency}
+	 */
+	public long getPercentile(double percentile) {
+		Assert.isTrue(percentile >= 0.0 && percentile <= 1.0, "Percentile must be between 0.0 and 1.0");
+		long[] counts = new long[BUCKET_COUNT];
+		long count = 0;
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			counts[i] = this.buckets[i].sum();
+			count += counts[i];
+		}
+		if (count == 0) {
+			return 0;
+		}
+		long threshold = Math.max((long) Math.ceil(percentile * count), 1);
+		long seen = 0;
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			seen += counts[i];
+			if (seen >= threshold) {
+				return Math.min((1L << i) - 1, getMax());
+			}
+		}
+		return getMax();
+	}
+
+	/**
+	 * Discard all recorded latencies.
+	 */
+	public void reset() {
+		for (LongAdder bucket : this.buckets) {
+			bucket.reset();
+		}
+		this.totalTime.reset();
+		this.maxTime.reset();
+	}
+
+	@Override
+	public String toString() {
+		return "count=" + getCount() + ", mean=" + Math.round(getMean()) + "ns, p50=" + getPercentile(0.5) +
+				"ns, p99=" + getPercentile(0.99) + "ns, max=" + getMax() + "ns";
+	}
+
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Unit tests for {@link DirectMethodInvoker}, covering both the generated
+ * and the reflective variant with the same expectations.
+ */
+class DirectMethodInvokerTests {
+
+	private final Sample sample = new Sample();
+
+
+	@ParameterizedTest
+	@ValueSource(booleans = {true, false})
+	void invokeWithReturnValue(boolean generate) throws Exception {
+		DirectMethodInvoker invoker = invoker(generate, "greet", String.class);
+		assertThat(invoker.isGenerated()).isEqualTo(generate);
+		assertThat(invoker.invoke(this.sample, "Jane")).isEqualTo("Hello Jane");
+	}
+
+	@ParameterizedTest
+	@ValueSource(booleans = {true, false})
+	void invokeInterfaceMethod(boolean generate) throws Exception {
+		DirectMethodInvoker invoker = invoker(generate, Greeter.class.getMethod("greet", String.class));
+		assertThat(invoker.invoke(this.sample, "Jane")).isEqualTo("Hello Jane");
+	}
+
+	@ParameterizedTest
+	@ValueSource(booleans = {true, false})
+	void invokeVoidMethod(boolean generate) throws Exception {
+		DirectMethodInvoker invoker = invoker(generate, "reset");
+		this.sample.counter = 5;
+		assertThat(invoker.invoke(this.sample)).isNull();
+		assertThat(this.sample.counter).isEqualTo(0);
+	}
+
+	@ParameterizedTest
+	@ValueSource(booleans = {true, false})
+	void invokeWithPrimitives(boolean generate) throws Exception {
+		DirectMethodInvoker invoker = invoker(generate, "add", int.class, long.class);
+		assertThat(invoker.invoke(this.sample, 1, 2L)).isEqualTo(3);
+		// Widening conversion as with Method.invoke
+		assertThat(invoker.invoke(this.sample, 1, 2)).isEqualTo(3);
+	}
+
+	@ParameterizedTest
+	@ValueSource(booleans = {true, false})
+	void illegalArguments(boolean generate) {
+		DirectMethodInvoker invoker = invoker(generate, "add", int.class, long.class);
+		assertThatIllegalArgumentException().isThrownBy(() -> invoker.invoke(this.sample, null, 2L));
+		assertThatIllegalArgumentException().isThrownBy(() -> invoker.invoke(this.sample, "1", 2L));
+		assertThatIllegalArgumentException().isThrownBy(() -> invoker.invoke(this.sample, 1));
+		assertThatIllegalArgumentException().isThrownBy(() -> invoker.invoke("sample", 1, 2L));
+	}
+
+	@ParameterizedTest
+	@ValueSource(booleans = {true, false})
+	void exceptionsFromMethodAreWrapped(boolean generate) {
+		DirectMethodInvoker invoker = invoker(generate, "length", String.class);
+		assertThatExceptionOfType(InvocationTargetException.class)
+				.isThrownBy(() -> invoker.invoke(this.sample, (Object) null))
+				.withCauseInstanceOf(NullPointerException.class);
+
+		DirectMethodInvoker failing = invoker(generate, "fail", String.class);
+		assertThatExceptionOfType(InvocationTargetException.class)
+				.isThrownBy(() -> failing.invoke(this.sample, "boom"))
+				.withCauseInstanceOf(IllegalStateException.class);
+	}
+
+	@Test
+	void reflectiveFallbackForIneligibleMethods() throws Exception {
+		Method tooManyParameters = Sample.class.getMethod(
+				"concat", String.class, String.class, String.class, String.class, String.class);
+		DirectMethodInvoker invoker = DirectMethodInvoker.createInvoker(tooManyParameters, true);
+		assertThat(invoker.isGenerated()).isFalse();
+		assertThat(invoker.invoke(this.sample, "a", "b", "c", "d", "e")).isEqualTo("abcde");
+
+		Method nonPublicClass = Hidden.class.getMethod("value");
+		invoker = DirectMethodInvoker.createInvoker(nonPublicClass, true);
+		assertThat(invoker.isGenerated()).isFalse();
+		assertThat(invoker.invoke(new Hidden())).isEqualTo("hidden");
+	}
+
+	@Test
+	void invokersAreCached() throws Exception {
+		Method method = Sample.class.getMethod("greet", String.class);
+		assertThat(DirectMethodInvoker.forMethod(method)).isSameAs(DirectMethodInvoker.forMethod(method));
+	}
+
+
+	private static DirectMethodInvoker invoker(boolean generate, String methodName, Class<?>... parameterTypes) {
+		try {
+			return invoker(generate, Sample.class.getMethod(methodName, parameterTypes));
+		}
+		catch (NoSuchMethodException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	private static DirectMethodInvoker invoker(boolean generate, Method method) {
+		return DirectMethodInvoker.createInvoker(method, generate);
+	}
+
+
+	public interface Greeter {
+
+		String greet(String name);
+	}
+
+
+	public static class Sample implements Greeter {
+
+		int counter;
+
+		@Override
+		public String greet(String name) {
+			return "Hello " + name;
+		}
+
+		public int add(int a, long b) {
+			return (int) (a + b);
+		}
+
+		public int length(String text) {
+			return text.length();
+		}
+
+		public void reset() {
+			this.counter = 0;
+		}
+
+		public void fail(String message) {
+			throw new IllegalStateException(message);
+		}
+
+		public String concat(String a, String b, String c, String d, String e) {
+			return a + b + c + d + e;
+		}
+	}
+
+
+	static class Hidden {
+
+		public String value() {
+			return "hidden";
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -660,6 +660,74 @@ class DefaultConversionServiceTests {
 		assertThat(result[2]).isEqualTo(3);
 	}
 
+	@Test
+	void convertStringArrayToPrimitiveArrays() {
+		String[] source = new String[] {"1", "-2", "+3"};
+		assertThat(conversionService.convert(source, int[].class)).containsExactly(1, -2, 3);
+		assertThat(conversionService.convert(source, long[].class)).containsExactly(1L, -2L, 3L);
+		assertThat(conversionService.convert(source, short[].class)).containsExactly((short) 1, (short) -2, (short) 3);
+		assertThat(conversionService.convert(source, byte[].class)).containsExactly((byte) 1, (byte) -2, (byte) 3);
+		assertThat(conversionService.convert(source, double[].class)).containsExactly(1d, -2d, 3d);
+		assertThat(conversionService.convert(source, float[].class)).containsExactly(1f, -2f, 3f);
+	}
+
+	@Test
+	void convertStringArrayWithSpecialValuesToIntArray() {
+		int[] result = conversionService.convert(new String[] {"0x10", " 2 ", "#1F", "-0X2"}, int[].class);
+		assertThat(result).containsExactly(16, 2, 31, -2);
+	}
+
+	@Test
+	void convertStringArrayWithEmptyValueToIntArray() {
+		assertThatExceptionOfType(ConversionFailedException.class).isThrownBy(() ->
+				conversionService.convert(new String[] {"1", ""}, int[].class));
+	}
+
+	@Test
+	void convertStringArrayWithInvalidValueToIntArray() {
+		assertThatExceptionOfType(ConversionFailedException.class).isThrownBy(() ->
+				conversionService.convert(new String[] {"1", "2.5"}, int[].class))
+			.satisfies(ex -> assertThat(ex.getValue()).isEqualTo("2.5"))
+			.withCauseInstanceOf(NumberFormatException.class);
+	}
+
+	@Test
+	void convertStringArrayToIntArrayWithCustomConverter() {
+		conversionService.addConverter(String.class, Integer.class, source -> source.length());
+		assertThat(conversionService.convert(new String[] {"a", "bb", "ccc"}, int[].class)).containsExactly(1, 2, 3);
+		assertThat(conversionService.convert("a,bb,ccc", int[].class)).containsExactly(1, 2, 3);
+	}
+
+	@Test
+	void convertPrimitiveArrayToPrimitiveArray() {
+		assertThat(conversionService.convert(new int[] {1, -2, 3}, long[].class)).containsExactly(1L, -2L, 3L);
+		assertThat(conversionService.convert(new long[] {1L, -2L, 3L}, int[].class)).containsExactly(1, -2, 3);
+		assertThat(conversionService.convert(new double[] {1.5d, -2.5d}, int[].class)).containsExactly(1, -2);
+		assertThat(conversionService.convert(new byte[] {1, 2}, double[].class)).containsExactly(1d, 2d);
+		assertThat(conversionService.convert(new float[] {1.5f}, double[].class)).containsExactly(1.5d);
+	}
+
+	@Test
+	void convertPrimitiveArrayToPrimitiveArrayWithOverflow() {
+		assertThatExceptionOfType(ConversionFailedException.class).isThrownBy(() ->
+				conversionService.convert(new long[] {1L, Long.MAX_VALUE}, int[].class))
+			.withCauseInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void convertPrimitiveArrayToStringArray() {
+		assertThat(conversionService.convert(new int[] {1, 2, 3}, String[].class)).containsExactly("1", "2", "3");
+	}
+
+	@Test
+	void convertMixedListToStringList() throws Exception {
+		List<Object> list = Arrays.asList(1, "2", 3L, 4, "5");
+		@SuppressWarnings("unchecked")
+		List<String> result = (List<String>) conversionService.convert(list,
+				new TypeDescriptor(getClass().getField("objectList")), new TypeDescriptor(getClass().getField("stringList")));
+		assertThat(result).containsExactly("1", "2", "3", "4", "5");
+	}
+
 	@Test
 	void convertListOfNonStringifiable() {
 		List<Object> list = Arrays.asList(new TestEntity(1L), new TestEntity(2L));
@@ -987,6 +1055,10 @@ class DefaultConversionServiceTests {
 
 	public List<Integer> genericList = new ArrayList<>();
 
+	public List<Object> objectList;
+
+	public List<String> stringList;
+
 	public Stream<Integer> genericStream;
 
 	public Map<Integer, Foo> genericMap = new HashMap<>();
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,11 +16,16 @@
 
 package org.springframework.core.task;
 
+import java.lang.reflect.Method;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.jupiter.api.Test;
 
 import org.springframework.util.ConcurrencyThrottleSupport;
+import org.springframework.util.ReflectionUtils;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
@@ -72,6 +77,41 @@ class SimpleAsyncTaskExecutorTests {
 		assertThat(task.getThreadName()).isEqualTo("test");
 	}
 
+	@Test
+	void virtualThreadsWhereSupported() throws Exception {
+		final Object monitor = new Object();
+		VirtualThreadTaskExecutor executor = new VirtualThreadTaskExecutor("virtual-");
+		assertThat(executor.isVirtualThreads()).isEqualTo(SimpleAsyncTaskExecutor.isVirtualThreadsSupported());
+		ThreadNameHarvester task = new ThreadNameHarvester(monitor);
+		executeAndWait(executor, task, monitor);
+		assertThat(task.getThreadName()).startsWith("virtual-");
+		assertThat(task.isVirtual()).isEqualTo(SimpleAsyncTaskExecutor.isVirtualThreadsSupported());
+	}
+
+	@Test
+	void virtualThreadsWithConcurrencyLimit() throws Exception {
+		VirtualThreadTaskExecutor executor = new VirtualThreadTaskExecutor();
+		executor.setConcurrencyLimit(2);
+		AtomicInteger active = new AtomicInteger();
+		AtomicInteger maxActive = new AtomicInteger();
+		CountDownLatch latch = new CountDownLatch(10);
+		for (int i = 0; i < 10; i++) {
+			executor.execute(() -> {
+				maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+				try {
+					Thread.sleep(10);
+				}
+				catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+				}
+				active.decrementAndGet();
+				latch.countDown();
+			});
+		}
+		assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(maxActive.get()).isLessThanOrEqualTo(2);
+	}
+
 	@Test
 	void throwsExceptionWhenSuppliedWithNullRunnable() throws Exception {
 		assertThatIllegalArgumentException().isThrownBy(() ->
@@ -127,6 +167,8 @@ class SimpleAsyncTaskExecutorTests {
 
 		private String threadName;
 
+		private boolean virtual;
+
 		protected ThreadNameHarvester(Object monitor) {
 			super(monitor);
 		}
@@ -135,9 +177,16 @@ class SimpleAsyncTaskExecutorTests {
 			return this.threadName;
 		}
 
+		public boolean isVirtual() {
+			return this.virtual;
+		}
+
 		@Override
 		protected void doRun() {
 			this.threadName = Thread.currentThread().getName();
+			Method isVirtual = ReflectionUtils.findMethod(Thread.class, "isVirtual");
+			this.virtual = (isVirtual != null &&
+					Boolean.TRUE.equals(ReflectionUtils.invokeMethod(isVirtual, Thread.currentThread())));
 		}
 	}
 
@@ -0,0 +1,234 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util;
+
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Tests for {@link CompactCaseInsensitiveMap}.
+ */
+class CompactCaseInsensitiveMapTests {
+
+	private final CompactCaseInsensitiveMap<String> map = new CompactCaseInsensitiveMap<>();
+
+
+	@Test
+	void putAndGet() {
+		assertThat(map.put("key", "value1")).isNull();
+		assertThat(map.put("key", "value2")).isEqualTo("value1");
+		assertThat(map.put("key", "value3")).isEqualTo("value2");
+		assertThat(map.size()).isEqualTo(1);
+		assertThat(map.get("key")).isEqualTo("value3");
+		assertThat(map.get("KEY")).isEqualTo("value3");
+		assertThat(map.get("Key")).isEqualTo("value3");
+		assertThat(map.containsKey("key")).isTrue();
+		assertThat(map.containsKey("KEY")).isTrue();
+		assertThat(map.containsKey("Key")).isTrue();
+		assertThat(map.keySet().contains("key")).isTrue();
+		assertThat(map.keySet().contains("KEY")).isTrue();
+		assertThat(map.keySet().contains("Key")).isTrue();
+	}
+
+	@Test
+	void putWithOverlappingKeys() {
+		assertThat(map.put("key", "value1")).isNull();
+		assertThat(map.put("KEY", "value2")).isEqualTo("value1");
+		assertThat(map.put("Key", "value3")).isEqualTo("value2");
+		assertThat(map.size()).isEqualTo(1);
+		assertThat(map.get("key")).isEqualTo("value3");
+		assertThat(map.get("KEY")).isEqualTo("value3");
+		assertThat(map.keySet()).containsExactly("Key");
+	}
+
+	@Test
+	void putWithOverlappingKeyMovesEntryToEnd() {
+		map.put("Accept", "a");
+		map.put("Host", "b");
+		map.put("ACCEPT", "c");
+		assertThat(map.keySet()).containsExactly("Host", "ACCEPT");
+		map.put("Host", "d");
+		assertThat(map.keySet()).containsExactly("Host", "ACCEPT");
+	}
+
+	@Test
+	void getOrDefaultWithNullValue() {
+		assertThat(map.put("key", null)).isNull();
+		assertThat(map.put("KEY", null)).isNull();
+		assertThat(map.getOrDefault("key", "N")).isNull();
+		assertThat(map.getOrDefault("Key", "N")).isNull();
+		assertThat(map.getOrDefault("keeeey", "N")).isEqualTo("N");
+		assertThat(map.getOrDefault(new Object(), "N")).isEqualTo("N");
+	}
+
+	@Test
+	void computeIfAbsentWithExistingValue() {
+		assertThat(map.putIfAbsent("key", "value1")).isNull();
+		assertThat(map.putIfAbsent("KEY", "value2")).isEqualTo("value1");
+		assertThat(map.put("Key", "value3")).isEqualTo("value1");
+		assertThat(map.computeIfAbsent("key", key -> "value1")).isEqualTo("value3");
+		assertThat(map.computeIfAbsent("KEY", key -> "value2")).isEqualTo("value3");
+	}
+
+	@Test
+	void nonAsciiKeys() {
+		map.put("Straße", "value1");
+		map.put("Ärger", "value2");
+		assertThat(map.get("STRAßE")).isEqualTo("value1");
+		assertThat(map.get("äRGER")).isEqualTo("value2");
+	}
+
+	@Test
+	void preservesInsertionOrderAcrossGrowthAndRemoval() {
+		Map<String, String> expected = new LinkedHashMap<>();
+		for (int i = 0; i < 100; i++) {
+			map.put("Header-" + i, "value" + i);
+			expected.put("Header-" + i, "value" + i);
+			if (i % 3 == 0) {
+				assertThat(map.remove("HEADER-" + (i / 2))).isEqualTo(expected.remove("Header-" + (i / 2)));
+			}
+		}
+		assertThat(map).isEqualTo(expected);
+		assertThat(map.keySet()).containsExactlyElementsOf(expected.keySet());
+		expected.keySet().forEach(key -> assertThat(map.get(key.toLowerCase())).isEqualTo(expected.get(key)));
+		assertThat(map.hashCode()).isEqualTo(expected.hashCode());
+		assertThat(map.toString()).isEqualTo(expected.toString());
+	}
+
+	@Test
+	void equalsWithOtherMaps() {
+		map.put("Key", "value");
+		Map<String, String> other = new HashMap<>();
+		other.put("Key", "value");
+		assertThat(map).isEqualTo(other);
+		assertThat(other).isEqualTo(map);
+		other.put("Key", "other");
+		assertThat(map).isNotEqualTo(other);
+	}
+
+	@Test
+	void mapClone() {
+		assertThat(map.put("key", "value1")).isNull();
+		CompactCaseInsensitiveMap<String> copy = map.clone();
+		assertThat(copy.get("KEY")).isEqualTo("value1");
+
+		copy.put("Key", "value2");
+		copy.put("other", "value3");
+		assertThat(map.size()).isEqualTo(1);
+		assertThat(copy.size()).isEqualTo(2);
+		assertThat(map.get("key")).isEqualTo("value1");
+		assertThat(copy.get("key")).isEqualTo("value2");
+	}
+
+	@Test
+	void serialization() {
+		map.put("Key", "value");
+		@SuppressWarnings("unchecked")
+		Map<String, String> copy = (Map<String, String>) SerializationUtils.deserialize(SerializationUtils.serialize(map));
+		assertThat(copy).isEqualTo(map);
+		assertThat(copy.get("KEY")).isEqualTo("value");
+	}
+
+	@Test
+	void setValueViaEntry() {
+		map.put("key", "value");
+		map.entrySet().iterator().next().setValue("other");
+		assertThat(map.get("KEY")).isEqualTo("other");
+	}
+
+	@Test
+	void clearFromKeySet() {
+		map.put("key", "value");
+		map.keySet().clear();
+		map.computeIfAbsent("key", k -> "newvalue");
+		assertThat(map.get("key")).isEqualTo("newvalue");
+	}
+
+	@Test
+	void removeFromKeySet() {
+		map.put("key", "value");
+		map.keySet().remove("key");
+		map.computeIfAbsent("key", k -> "newvalue");
+		assertThat(map.get("key")).isEqualTo("newvalue");
+	}
+
+	@Test
+	void removeFromKeySetViaIterator() {
+		map.put("key", "value");
+		nextAndRemove(map.keySet().iterator());
+		assertThat(map.size()).isEqualTo(0);
+		map.computeIfAbsent("key", k -> "newvalue");
+		assertThat(map.get("key")).isEqualTo("newvalue");
+	}
+
+	@Test
+	void removeFromValues() {
+		map.put("key", "value");
+		map.values().remove("value");
+		assertThat(map.size()).isEqualTo(0);
+		map.computeIfAbsent("key", k -> "newvalue");
+		assertThat(map.get("key")).isEqualTo("newvalue");
+	}
+
+	@Test
+	void removeFromEntrySet() {
+		map.put("key", "value");
+		map.entrySet().remove(map.entrySet().iterator().next());
+		assertThat(map.size()).isEqualTo(0);
+		map.computeIfAbsent("key", k -> "newvalue");
+		assertThat(map.get("key")).isEqualTo("newvalue");
+	}
+
+	@Test
+	void removeAllViaIterator() {
+		for (int i = 0; i < 20; i++) {
+			map.put("key" + i, "value" + i);
+		}
+		Iterator<String> iterator = map.values().iterator();
+		while (iterator.hasNext()) {
+			if (iterator.next().length() > 6) {
+				iterator.remove();
+			}
+		}
+		assertThat(map.keySet()).containsExactly("key0", "key1", "key2", "key3", "key4",
+				"key5", "key6", "key7", "key8", "key9");
+	}
+
+	@Test
+	void concurrentModificationDuringIteration() {
+		map.put("key1", "value1");
+		map.put("key2", "value2");
+		Iterator<String> iterator = map.keySet().iterator();
+		iterator.next();
+		map.put("key3", "value3");
+		assertThatExceptionOfType(ConcurrentModificationException.class).isThrownBy(iterator::next);
+	}
+
+	private void nextAndRemove(Iterator<?> iterator) {
+		iterator.next();
+		iterator.remove();
+	}
+
+}
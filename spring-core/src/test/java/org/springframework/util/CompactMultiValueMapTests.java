@@ -0,0 +1,166 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link CompactMultiValueMap}.
+ */
+class CompactMultiValueMapTests {
+
+	private static final List<String> TYPICAL_HEADER_NAMES = Arrays.asList(
+			"Host", "Connection", "Cache-Control", "Upgrade-Insecure-Requests", "User-Agent",
+			"Accept", "Accept-Encoding", "Accept-Language", "Cookie", "Referer",
+			"Sec-Fetch-Site", "Sec-Fetch-Mode", "Sec-Fetch-User", "Sec-Fetch-Dest", "DNT",
+			"X-Forwarded-For", "X-Forwarded-Proto", "X-Request-Id", "Authorization", "Content-Length");
+
+
+	private final CompactMultiValueMap<String, String> map = new CompactMultiValueMap<>();
+
+
+	@Test
+	void add() {
+		map.add("key", "value1");
+		map.add("key", "value2");
+		map.add("key", "value3");
+		assertThat(map).hasSize(1);
+		assertThat(map.get("key")).containsExactly("value1", "value2", "value3");
+	}
+
+	@Test
+	void addIfAbsentWhenPresent() {
+		map.add("key", "value1");
+		map.addIfAbsent("key", "value2");
+		assertThat(map.get("key")).containsExactly("value1");
+	}
+
+	@Test
+	void set() {
+		map.set("key", "value1");
+		map.set("key", "value2");
+		assertThat(map.get("key")).containsExactly("value2");
+	}
+
+	@Test
+	void addAllWithEmptyList() {
+		map.addAll("key", Collections.emptyList());
+		assertThat(map).hasSize(1);
+		assertThat(map.get("key")).isEmpty();
+		assertThat(map.getFirst("key")).isNull();
+	}
+
+	@Test
+	void valueListIsModifiable() {
+		map.add("key", "value2");
+		List<String> values = map.get("key");
+		values.add(0, "value1");
+		values.add("value4");
+		values.add(2, "value3");
+		assertThat(values).containsExactly("value1", "value2", "value3", "value4");
+		assertThat(values.remove(0)).isEqualTo("value1");
+		assertThat(values.remove(1)).isEqualTo("value3");
+		values.set(1, "value5");
+		assertThat(map.get("key")).containsExactly("value2", "value5");
+		values.removeIf("value2"::equals);
+		values.remove("value5");
+		assertThat(map.get("key")).isEmpty();
+		values.add("value6");
+		assertThat(map.getFirst("key")).isEqualTo("value6");
+	}
+
+	@Test
+	void toSingleValueMap() {
+		map.add("key", "value1");
+		map.add("key", "value2");
+		Map<String, String> singleValueMap = map.toSingleValueMap();
+		assertThat(singleValueMap).hasSize(1);
+		assertThat(singleValueMap.get("key")).isEqualTo("value1");
+	}
+
+	@Test
+	void caseInsensitive() {
+		MultiValueMap<String, String> headers = CompactMultiValueMap.caseInsensitive(8);
+		headers.add("Content-Type", "text/plain");
+		headers.add("accept", "text/html");
+		headers.add("ACCEPT", "application/json");
+		assertThat(headers.getFirst("content-type")).isEqualTo("text/plain");
+		assertThat(headers.get("Accept")).containsExactly("text/html", "application/json");
+		assertThat(headers.keySet()).containsExactly("Content-Type", "accept");
+	}
+
+	@Test
+	void deepCopyAndClone() {
+		CompactMultiValueMap<String, String> headers = CompactMultiValueMap.caseInsensitive(8);
+		headers.add("Accept", "text/html");
+		CompactMultiValueMap<String, String> deepCopy = headers.deepCopy();
+		CompactMultiValueMap<String, String> clone = headers.clone();
+		headers.add("accept", "application/json");
+		assertThat(deepCopy.get("ACCEPT")).containsExactly("text/html");
+		assertThat(clone.get("ACCEPT")).containsExactly("text/html", "application/json");
+	}
+
+	@Test
+	void equals() {
+		map.set("key1", "value1");
+		assertThat(map).isEqualTo(map);
+		MultiValueMap<String, String> o1 = new LinkedMultiValueMap<>();
+		o1.set("key1", "value1");
+		assertThat(o1).isEqualTo(map);
+		assertThat(map).isEqualTo(o1);
+		Map<String, List<String>> o2 = new HashMap<>();
+		o2.put("key1", Collections.singletonList("value1"));
+		assertThat(o2).isEqualTo(map);
+		assertThat(map).isEqualTo(o2);
+		assertThat(map.hashCode()).isEqualTo(o2.hashCode());
+	}
+
+	@Test
+	void serialization() {
+		map.add("key", "value1");
+		map.add("key", "value2");
+		Object copy = SerializationUtils.deserialize(SerializationUtils.serialize(map));
+		assertThat(copy).isEqualTo(map);
+	}
+
+	@Test
+	void typicalRequestHeaders() {
+		MultiValueMap<String, String> headers = CompactMultiValueMap.caseInsensitive(8);
+		MultiValueMap<String, String> expected =
+				CollectionUtils.toMultiValueMap(new LinkedCaseInsensitiveMap<>(8, Locale.ENGLISH));
+		for (String name : TYPICAL_HEADER_NAMES) {
+			headers.add(name, "value");
+			expected.add(name, "value");
+		}
+		headers.add("accept", "text/html");
+		expected.add("accept", "text/html");
+		assertThat(headers).isEqualTo(expected);
+		assertThat(headers.keySet()).containsExactlyElementsOf(TYPICAL_HEADER_NAMES);
+		assertThat(headers.get("ACCEPT")).containsExactly("value", "text/html");
+		assertThat(headers.getFirst("x-request-id")).isEqualTo("value");
+	}
+
+}
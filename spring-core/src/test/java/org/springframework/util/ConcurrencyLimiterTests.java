@@ -0,0 +1,124 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.util;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Tests for {@link ConcurrencyLimiter} and its strategies.
+ */
+public class ConcurrencyLimiterTests {
+
+	private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+
+	private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(100);
+
+
+	@Test
+	public void rejectsBeyondLimit() {
+		ConcurrencyLimiter limiter = new ConcurrencyLimiter(new AimdConcurrencyLimitStrategy(2));
+		ConcurrencyLimiter.Permit permit1 = limiter.tryAcquire();
+		ConcurrencyLimiter.Permit permit2 = limiter.tryAcquire();
+		assertThat(permit1).isNotNull();
+		assertThat(permit2).isNotNull();
+		assertThat(limiter.tryAcquire()).isNull();
+		assertThat(limiter.getInFlight()).isEqualTo(2);
+
+		permit1.release();
+		permit1.release();
+		assertThat(limiter.getInFlight()).isEqualTo(1);
+		assertThat(limiter.tryAcquire()).isNotNull();
+		permit2.releaseDropped();
+
+		assertThat(limiter.getAcceptedCount()).isEqualTo(3);
+		assertThat(limiter.getRejectedCount()).isEqualTo(1);
+		assertThat(limiter.getDroppedCount()).isEqualTo(1);
+		assertThat(limiter.getLatency().getCount()).isEqualTo(2);
+	}
+
+	@Test
+	public void ignoredReleaseDoesNotSample() {
+		ConcurrencyLimiter limiter = new ConcurrencyLimiter(new AimdConcurrencyLimitStrategy(1));
+		limiter.tryAcquire().releaseIgnored();
+		assertThat(limiter.getInFlight()).isEqualTo(0);
+		assertThat(limiter.getLatency().getCount()).isEqualTo(0);
+		assertThat(limiter.getLimit()).isEqualTo(1);
+	}
+
+	@Test
+	public void aimdStrategy() {
+		AimdConcurrencyLimitStrategy strategy = new AimdConcurrencyLimitStrategy(10);
+		strategy.setTimeoutMillis(50);
+		strategy.onSample(FAST, 2, false);
+		assertThat(strategy.getLimit()).as("limit not in use").isEqualTo(10);
+		strategy.onSample(FAST, 5, false);
+		assertThat(strategy.getLimit()).isEqualTo(11);
+		strategy.onSample(FAST, 11, true);
+		assertThat(strategy.getLimit()).isEqualTo(9);
+		strategy.onSample(SLOW, 9, false);
+		assertThat(strategy.getLimit()).isEqualTo(8);
+		for (int i = 0; i < 50; i++) {
+			strategy.onSample(SLOW, 1, false);
+		}
+		assertThat(strategy.getLimit()).isEqualTo(1);
+	}
+
+	@Test
+	public void gradientStrategy() {
+		GradientConcurrencyLimitStrategy strategy = new GradientConcurrencyLimitStrategy(20);
+		strategy.setMaxLimit(100);
+		for (int i = 0; i < 100; i++) {
+			strategy.onSample(FAST, strategy.getLimit(), false);
+		}
+		int grownLimit = strategy.getLimit();
+		assertThat(grownLimit).isGreaterThan(20);
+
+		for (int i = 0; i < 20; i++) {
+			strategy.onSample(SLOW, strategy.getLimit(), false);
+		}
+		assertThat(strategy.getLimit()).isLessThan(grownLimit / 2);
+
+		int limit = strategy.getLimit();
+		strategy.onSample(SLOW, 1, false);
+		assertThat(strategy.getLimit()).as("limit not in use").isEqualTo(limit);
+		strategy.onSample(FAST, 1, true);
+		assertThat(strategy.getLimit()).isLessThan(limit);
+	}
+
+	@Test
+	public void gradientStrategyBounds() {
+		GradientConcurrencyLimitStrategy strategy = new GradientConcurrencyLimitStrategy(10);
+		strategy.setMinLimit(5);
+		strategy.setMaxLimit(12);
+		for (int i = 0; i < 100; i++) {
+			strategy.onSample(FAST, strategy.getLimit(), false);
+		}
+		assertThat(strategy.getLimit()).isEqualTo(12);
+		for (int i = 0; i < 100; i++) {
+			strategy.onSample(FAST, strategy.getLimit(), true);
+		}
+		assertThat(strategy.getLimit()).isEqualTo(5);
+		assertThatIllegalArgumentException().isThrownBy(() -> strategy.setSmoothing(0));
+	}
+
+}
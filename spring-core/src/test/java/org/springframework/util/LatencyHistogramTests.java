@@ -0,0 +1,46 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link LatencyHistogram}.
+ */
+public class LatencyHistogramTests {
+
+	@Test
+	public void percentiles() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		assertThat(histogram.getPercentile(0.5)).isEqualTo(0);
+		for (int i = 1; i <= 100; i++) {
+			histogram.record(i * 10);
+		}
+		assertThat(histogram.getCount()).isEqualTo(100);
+		assertThat(histogram.getMean()).isEqualTo(505.0);
+		assertThat(histogram.getMax()).isEqualTo(1000);
+		assertThat(histogram.getPercentile(0.5)).isEqualTo(511);
+		assertThat(histogram.getPercentile(0.99)).isEqualTo(1000);
+		assertThat(histogram.getPercentile(0.05)).isEqualTo(63);
+		histogram.reset();
+		assertThat(histogram.getCount()).isEqualTo(0);
+		assertThat(histogram.getMax()).isEqualTo(0);
+	}
+
+}
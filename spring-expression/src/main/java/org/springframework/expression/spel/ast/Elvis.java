@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -99,11 +99,10 @@ public class Elvis extends SpelNodeImpl {
 		mv.visitInsn(POP);
 		cf.enterCompilationScope();
 		this.children[1].generateCode(mv, cf);
-		if (!CodeFlow.isPrimitive(this.exitTypeDescriptor)) {
-			lastDesc = cf.lastDescriptor();
-			Assert.state(lastDesc != null, "No last descriptor");
-			CodeFlow.insertBoxIfNecessary(mv, lastDesc.charAt(0));
-		}
+		// Box as for the condition value, so that both branches leave an object on the stack
+		lastDesc = cf.lastDescriptor();
+		Assert.state(lastDesc != null, "No last descriptor");
+		CodeFlow.insertBoxIfNecessary(mv, lastDesc.charAt(0));
 		cf.exitCompilationScope();
 		mv.visitLabel(endOfIf);
 		cf.pushDescriptor(this.exitTypeDescriptor);
@@ -112,8 +111,9 @@ public class Elvis extends SpelNodeImpl {
 	private void computeExitTypeDescriptor() {
 		if (this.exitTypeDescriptor == null && this.children[0].exitTypeDescriptor != null &&
 				this.children[1].exitTypeDescriptor != null) {
-			String conditionDescriptor = this.children[0].exitTypeDescriptor;
-			String ifNullValueDescriptor = this.children[1].exitTypeDescriptor;
+			// Both values end up boxed, see generateCode
+			String conditionDescriptor = toBoxedDescriptor(this.children[0].exitTypeDescriptor);
+			String ifNullValueDescriptor = toBoxedDescriptor(this.children[1].exitTypeDescriptor);
 			if (ObjectUtils.nullSafeEquals(conditionDescriptor, ifNullValueDescriptor)) {
 				this.exitTypeDescriptor = conditionDescriptor;
 			}
@@ -124,4 +124,8 @@ public class Elvis extends SpelNodeImpl {
 		}
 	}
 
+	private static String toBoxedDescriptor(String descriptor) {
+		return (CodeFlow.isPrimitive(descriptor) ? CodeFlow.toBoxedDescriptor(descriptor) : descriptor);
+	}
+
 }
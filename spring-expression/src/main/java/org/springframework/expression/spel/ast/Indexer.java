@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -203,6 +203,11 @@ public class Indexer extends SpelNodeImpl {
 		else if (this.indexedType == IndexedType.MAP) {
 			return (this.children[0] instanceof PropertyOrFieldReference || this.children[0].isCompilable());
 		}
+		else if (this.indexedType == IndexedType.STRING) {
+			String indexDescriptor = this.children[0].exitTypeDescriptor;
+			return (this.children[0].isCompilable() &&
+					("I".equals(indexDescriptor) || "Ljava/lang/Integer".equals(indexDescriptor)));
+		}
 		else if (this.indexedType == IndexedType.OBJECT) {
 			// If the string name is changing the accessor is clearly going to change (so no compilation possible)
 			return (this.cachedReadAccessor != null &&
@@ -289,6 +294,19 @@ public class Indexer extends SpelNodeImpl {
 					INVOKEINTERFACE, "java/util/Map", "get", "(Ljava/lang/Object;)Ljava/lang/Object;", true);
 		}
 
+		else if (this.indexedType == IndexedType.STRING) {
+			mv.visitTypeInsn(CHECKCAST, "java/lang/String");
+			cf.enterCompilationScope();
+			this.children[0].generateCode(mv, cf);
+			String indexDescriptor = cf.lastDescriptor();
+			if (!"I".equals(indexDescriptor)) {
+				CodeFlow.insertUnboxInsns(mv, 'I', indexDescriptor);
+			}
+			cf.exitCompilationScope();
+			mv.visitMethodInsn(INVOKEVIRTUAL, "java/lang/String", "charAt", "(I)C", false);
+			mv.visitMethodInsn(INVOKESTATIC, "java/lang/String", "valueOf", "(C)Ljava/lang/String;", false);
+		}
+
 		else if (this.indexedType == IndexedType.OBJECT) {
 			ReflectivePropertyAccessor.OptimalPropertyAccessor accessor =
 					(ReflectivePropertyAccessor.OptimalPropertyAccessor) this.cachedReadAccessor;
@@ -752,7 +770,9 @@ public class Indexer extends SpelNodeImpl {
 				throw new SpelEvaluationException(getStartPosition(), SpelMessage.STRING_INDEX_OUT_OF_BOUNDS,
 						this.target.length(), this.index);
 			}
-			return new TypedValue(String.valueOf(this.target.charAt(this.index)));
+			TypedValue result = new TypedValue(String.valueOf(this.target.charAt(this.index)));
+			exitTypeDescriptor = "Ljava/lang/String";
+			return result;
 		}
 
 		@Override
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,7 +19,6 @@ package org.springframework.expression.spel.ast;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
-import java.lang.reflect.Proxy;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -43,6 +42,7 @@ import org.springframework.expression.spel.support.ReflectiveMethodExecutor;
 import org.springframework.expression.spel.support.ReflectiveMethodResolver;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
 import org.springframework.util.ObjectUtils;
 
 /**
@@ -54,6 +54,10 @@ import org.springframework.util.ObjectUtils;
  */
 public class MethodReference extends SpelNodeImpl {
 
+	/** The maximum number of target/argument type combinations to keep executors for. */
+	private static final int MAX_CACHED_EXECUTORS = 4;
+
+
 	private final String name;
 
 	private final boolean nullSafe;
@@ -64,6 +68,9 @@ public class MethodReference extends SpelNodeImpl {
 	@Nullable
 	private volatile CachedMethodExecutor cachedExecutor;
 
+	@Nullable
+	private volatile CachedMethodExecutor[] cachedExecutors;
+
 
 	public MethodReference(boolean nullSafe, String methodName, int startPos, int endPos, SpelNodeImpl... arguments) {
 		super(startPos, endPos, arguments);
@@ -106,10 +113,10 @@ public class MethodReference extends SpelNodeImpl {
 			return TypedValue.NULL;
 		}
 
-		MethodExecutor executorToUse = getCachedExecutor(evaluationContext, value, targetType, argumentTypes);
-		if (executorToUse != null) {
+		CachedMethodExecutor cachedExecutor = getCachedExecutor(evaluationContext, value, targetType, argumentTypes);
+		if (cachedExecutor != null) {
 			try {
-				return executorToUse.execute(evaluationContext, value, arguments);
+				return cachedExecutor.get().execute(evaluationContext, value, arguments);
 			}
 			catch (AccessException ex) {
 				// Two reasons this can occur:
@@ -127,14 +134,14 @@ public class MethodReference extends SpelNodeImpl {
 
 				// At this point we know it wasn't a user problem so worth a retry if a
 				// better candidate can be found.
-				this.cachedExecutor = null;
+				removeCachedExecutor(cachedExecutor);
 			}
 		}
 
 		// either there was no accessor or it no longer existed
-		executorToUse = findAccessorForMethod(argumentTypes, value, evaluationContext);
-		this.cachedExecutor = new CachedMethodExecutor(
-				executorToUse, (value instanceof Class ? (Class<?>) value : null), targetType, argumentTypes);
+		MethodExecutor executorToUse = findAccessorForMethod(argumentTypes, value, evaluationContext);
+		addCachedExecutor(new CachedMethodExecutor(
+				executorToUse, (value instanceof Class ? (Class<?>) value : null), targetType, argumentTypes));
 		try {
 			return executorToUse.execute(evaluationContext, value, arguments);
 		}
@@ -179,7 +186,7 @@ public class MethodReference extends SpelNodeImpl {
 	}
 
 	@Nullable
-	private MethodExecutor getCachedExecutor(EvaluationContext evaluationContext, Object value,
+	private CachedMethodExecutor getCachedExecutor(EvaluationContext evaluationContext, Object value,
 			@Nullable TypeDescriptor target, List<TypeDescriptor> argumentTypes) {
 
 		List<MethodResolver> methodResolvers = evaluationContext.getMethodResolvers();
@@ -188,14 +195,57 @@ public class MethodReference extends SpelNodeImpl {
 			return null;
 		}
 
-		CachedMethodExecutor executorToCheck = this.cachedExecutor;
-		if (executorToCheck != null && executorToCheck.isSuitable(value, target, argumentTypes)) {
-			return executorToCheck.get();
+		CachedMethodExecutor[] executorsToCheck = this.cachedExecutors;
+		if (executorsToCheck != null) {
+			for (CachedMethodExecutor executorToCheck : executorsToCheck) {
+				if (executorToCheck.isSuitable(value, target, argumentTypes)) {
+					// The most recently used executor determines the compiled form
+					if (this.cachedExecutor != executorToCheck) {
+						this.cachedExecutor = executorToCheck;
+					}
+					return executorToCheck;
+				}
+			}
 		}
-		this.cachedExecutor = null;
 		return null;
 	}
 
+	/**
+	 * Add the given executor as the most recently used one, keeping up to
+	 * {@link #MAX_CACHED_EXECUTORS} executors per node for polymorphic expressions.
+	 */
+	private void addCachedExecutor(CachedMethodExecutor executor) {
+		CachedMethodExecutor[] executors = this.cachedExecutors;
+		CachedMethodExecutor[] newExecutors;
+		if (executors == null) {
+			newExecutors = new CachedMethodExecutor[] {executor};
+		}
+		else {
+			newExecutors = new CachedMethodExecutor[Math.min(executors.length + 1, MAX_CACHED_EXECUTORS)];
+			newExecutors[0] = executor;
+			System.arraycopy(executors, 0, newExecutors, 1, newExecutors.length - 1);
+		}
+		this.cachedExecutors = newExecutors;
+		this.cachedExecutor = executor;
+	}
+
+	/**
+	 * Remove the given executor which turned out to be stale.
+	 */
+	private void removeCachedExecutor(CachedMethodExecutor executor) {
+		CachedMethodExecutor[] executors = this.cachedExecutors;
+		if (executors != null) {
+			List<CachedMethodExecutor> remaining = new ArrayList<>(executors.length);
+			for (CachedMethodExecutor existing : executors) {
+				if (existing != executor) {
+					remaining.add(existing);
+				}
+			}
+			this.cachedExecutors = (remaining.isEmpty() ? null : remaining.toArray(new CachedMethodExecutor[0]));
+		}
+		this.cachedExecutor = null;
+	}
+
 	private MethodExecutor findAccessorForMethod(List<TypeDescriptor> argumentTypes, Object targetObject,
 			EvaluationContext evaluationContext) throws SpelEvaluationException {
 
@@ -274,8 +324,7 @@ public class MethodReference extends SpelNodeImpl {
 	@Override
 	public boolean isCompilable() {
 		CachedMethodExecutor executorToCheck = this.cachedExecutor;
-		if (executorToCheck == null || executorToCheck.hasProxyTarget() ||
-				!(executorToCheck.get() instanceof ReflectiveMethodExecutor)) {
+		if (executorToCheck == null || !(executorToCheck.get() instanceof ReflectiveMethodExecutor)) {
 			return false;
 		}
 
@@ -289,12 +338,7 @@ public class MethodReference extends SpelNodeImpl {
 		if (executor.didArgumentConversionOccur()) {
 			return false;
 		}
-		Class<?> clazz = executor.getMethod().getDeclaringClass();
-		if (!Modifier.isPublic(clazz.getModifiers()) && executor.getPublicDeclaringClass() == null) {
-			return false;
-		}
-
-		return true;
+		return (getInvocationTarget(executor) != null);
 	}
 
 	@Override
@@ -332,23 +376,26 @@ public class MethodReference extends SpelNodeImpl {
 			CodeFlow.insertBoxIfNecessary(mv, descriptor.charAt(0));
 		}
 
-		String classDesc;
-		if (Modifier.isPublic(method.getDeclaringClass().getModifiers())) {
-			classDesc = method.getDeclaringClass().getName().replace('.', '/');
-		}
-		else {
-			Class<?> publicDeclaringClass = methodExecutor.getPublicDeclaringClass();
-			Assert.state(publicDeclaringClass != null, "No public declaring class");
-			classDesc = publicDeclaringClass.getName().replace('.', '/');
+		Method methodToInvoke = method;
+		Class<?> targetClass = getInvocationTarget(methodExecutor);
+		Assert.state(targetClass != null, "No public declaring class");
+		if (targetClass.isInterface() && !method.getDeclaringClass().isInterface()) {
+			methodToInvoke = ClassUtils.getInterfaceMethodIfPossible(method);
 		}
+		String classDesc = targetClass.getName().replace('.', '/');
 
 		if (!isStaticMethod && (descriptor == null || !descriptor.substring(1).equals(classDesc))) {
 			CodeFlow.insertCheckCast(mv, "L" + classDesc);
 		}
 
 		generateCodeForArguments(mv, cf, method, this.children);
-		mv.visitMethodInsn((isStaticMethod ? INVOKESTATIC : INVOKEVIRTUAL), classDesc, method.getName(),
-				CodeFlow.createSignatureDescriptor(method), method.getDeclaringClass().isInterface());
+		int opcode = (isStaticMethod ? INVOKESTATIC : (targetClass.isInterface() ? INVOKEINTERFACE : INVOKEVIRTUAL));
+		mv.visitMethodInsn(opcode, classDesc, methodToInvoke.getName(),
+				CodeFlow.createSignatureDescriptor(methodToInvoke), targetClass.isInterface());
+		if (methodToInvoke.getReturnType() != method.getReturnType()) {
+			// Interface method with a more general (e.g. generic) return type
+			CodeFlow.insertCheckCast(mv, CodeFlow.toDescriptor(method.getReturnType()));
+		}
 		cf.pushDescriptor(this.exitTypeDescriptor);
 
 		if (this.originalPrimitiveExitTypeDescriptor != null) {
@@ -361,6 +408,30 @@ public class MethodReference extends SpelNodeImpl {
 		}
 	}
 
+	/**
+	 * Determine the public type through which compiled code can invoke the
+	 * executor's method: its declaring class if public, otherwise the first public
+	 * superclass declaring the method or, as a fallback, a public interface
+	 * declaring the method (e.g. for non-public implementation classes and lambdas).
+	 * @return the type to invoke the method on, or {@code null} if none
+	 */
+	@Nullable
+	private static Class<?> getInvocationTarget(ReflectiveMethodExecutor executor) {
+		Method method = executor.getMethod();
+		Class<?> declaringClass = method.getDeclaringClass();
+		if (Modifier.isPublic(declaringClass.getModifiers())) {
+			return declaringClass;
+		}
+		Class<?> publicDeclaringClass = executor.getPublicDeclaringClass();
+		if (publicDeclaringClass != null) {
+			return publicDeclaringClass;
+		}
+		Method interfaceMethod = ClassUtils.getInterfaceMethodIfPossible(method);
+		Class<?> interfaceClass = interfaceMethod.getDeclaringClass();
+		return (interfaceClass.isInterface() && Modifier.isPublic(interfaceClass.getModifiers()) ?
+				interfaceClass : null);
+	}
+
 
 	private class MethodValueRef implements ValueRef {
 
@@ -427,10 +498,6 @@ public class MethodReference extends SpelNodeImpl {
 					ObjectUtils.nullSafeEquals(this.target, target) && this.argumentTypes.equals(argumentTypes));
 		}
 
-		public boolean hasProxyTarget() {
-			return (this.target != null && Proxy.isProxyClass(this.target.getType()));
-		}
-
 		public MethodExecutor get() {
 			return this.methodExecutor;
 		}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,6 +18,7 @@ package org.springframework.expression.spel.ast;
 
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -50,6 +51,10 @@ import org.springframework.util.ReflectionUtils;
  */
 public class PropertyOrFieldReference extends SpelNodeImpl {
 
+	/** The maximum number of target types to keep optimized read accessors for. */
+	private static final int MAX_OPTIMAL_READ_ACCESSORS = 4;
+
+
 	private final boolean nullSafe;
 
 	private final String name;
@@ -63,6 +68,9 @@ public class PropertyOrFieldReference extends SpelNodeImpl {
 	@Nullable
 	private volatile PropertyAccessor cachedWriteAccessor;
 
+	@Nullable
+	private volatile OptimalReadAccessor[] optimalReadAccessors;
+
 
 	public PropertyOrFieldReference(boolean nullSafe, String propertyOrFieldName, int startPos, int endPos) {
 		super(startPos, endPos);
@@ -174,6 +182,20 @@ public class PropertyOrFieldReference extends SpelNodeImpl {
 			return TypedValue.NULL;
 		}
 
+		OptimalReadAccessor optimalAccessor = getOptimalReadAccessor(targetObject, evalContext);
+		if (optimalAccessor != null) {
+			PropertyAccessor accessor = optimalAccessor.get();
+			if (this.cachedReadAccessor != accessor) {
+				this.cachedReadAccessor = accessor;
+			}
+			try {
+				return accessor.read(evalContext, targetObject, name);
+			}
+			catch (Exception ex) {
+				throw new SpelEvaluationException(ex, SpelMessage.EXCEPTION_DURING_PROPERTY_READ, name, ex.getMessage());
+			}
+		}
+
 		PropertyAccessor accessorToUse = this.cachedReadAccessor;
 		if (accessorToUse != null) {
 			if (evalContext.getPropertyAccessors().contains(accessorToUse)) {
@@ -197,8 +219,12 @@ public class PropertyOrFieldReference extends SpelNodeImpl {
 			for (PropertyAccessor accessor : accessorsToTry) {
 				if (accessor.canRead(evalContext, contextObject.getValue(), name)) {
 					if (accessor instanceof ReflectivePropertyAccessor) {
+						PropertyAccessor origin = accessor;
 						accessor = ((ReflectivePropertyAccessor) accessor).createOptimalAccessor(
 								evalContext, contextObject.getValue(), name);
+						if (accessor != origin && accessorsToTry.get(0) == origin) {
+							addOptimalReadAccessor(targetObject, origin, accessor);
+						}
 					}
 					this.cachedReadAccessor = accessor;
 					return accessor.read(evalContext, contextObject.getValue(), name);
@@ -218,6 +244,62 @@ public class PropertyOrFieldReference extends SpelNodeImpl {
 		}
 	}
 
+	/**
+	 * Return the optimized read accessor previously determined for the type of
+	 * the given target, provided that the originating {@link ReflectivePropertyAccessor}
+	 * is still registered with the given context.
+	 */
+	@Nullable
+	private OptimalReadAccessor getOptimalReadAccessor(@Nullable Object targetObject, EvaluationContext evalContext) {
+		OptimalReadAccessor[] accessors = this.optimalReadAccessors;
+		if (accessors == null || targetObject == null) {
+			return null;
+		}
+		Class<?> targetType = targetObject.getClass();
+		for (OptimalReadAccessor accessor : accessors) {
+			if (accessor.targetType == targetType) {
+				return (evalContext.getPropertyAccessors().contains(accessor.origin) ? accessor : null);
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Remember the given optimized read accessor for the type of the given target,
+	 * keeping up to {@link #MAX_OPTIMAL_READ_ACCESSORS} target types per node (the
+	 * most recently added ones) for polymorphic expressions.
+	 * <p>Only applies to instance targets: {@code Class} targets are resolved
+	 * against the class itself rather than against {@code java.lang.Class}.
+	 */
+	private void addOptimalReadAccessor(@Nullable Object targetObject, PropertyAccessor origin, PropertyAccessor accessor) {
+		if (targetObject == null || targetObject instanceof Class) {
+			return;
+		}
+		OptimalReadAccessor newAccessor = new OptimalReadAccessor(targetObject.getClass(), origin, accessor);
+		OptimalReadAccessor[] accessors = this.optimalReadAccessors;
+		OptimalReadAccessor[] newAccessors;
+		if (accessors == null) {
+			newAccessors = new OptimalReadAccessor[] {newAccessor};
+		}
+		else {
+			newAccessors = new OptimalReadAccessor[Math.min(accessors.length + 1, MAX_OPTIMAL_READ_ACCESSORS)];
+			newAccessors[0] = newAccessor;
+			int index = 1;
+			for (OptimalReadAccessor existing : accessors) {
+				if (index == newAccessors.length) {
+					break;
+				}
+				if (existing.targetType != newAccessor.targetType) {
+					newAccessors[index++] = existing;
+				}
+			}
+			if (index < newAccessors.length) {
+				newAccessors = Arrays.copyOf(newAccessors, index);
+			}
+		}
+		this.optimalReadAccessors = newAccessors;
+	}
+
 	private void writeProperty(
 			TypedValue contextObject, EvaluationContext evalContext, String name, @Nullable Object newValue)
 			throws EvaluationException {
@@ -381,6 +463,30 @@ public class PropertyOrFieldReference extends SpelNodeImpl {
 	}
 
 
+	/**
+	 * An optimized read accessor for a specific target type, along with the
+	 * {@link ReflectivePropertyAccessor} that it has been created by.
+	 */
+	private static class OptimalReadAccessor {
+
+		private final Class<?> targetType;
+
+		private final PropertyAccessor origin;
+
+		private final PropertyAccessor accessor;
+
+		public OptimalReadAccessor(Class<?> targetType, PropertyAccessor origin, PropertyAccessor accessor) {
+			this.targetType = targetType;
+			this.origin = origin;
+			this.accessor = accessor;
+		}
+
+		public PropertyAccessor get() {
+			return this.accessor;
+		}
+	}
+
+
 	private static class AccessorLValue implements ValueRef {
 
 		private final PropertyOrFieldReference ref;
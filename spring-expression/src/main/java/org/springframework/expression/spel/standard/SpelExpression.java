@@ -16,6 +16,8 @@
 
 package org.springframework.expression.spel.standard;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.springframework.core.convert.TypeDescriptor;
@@ -548,6 +550,45 @@ public class SpelExpression implements Expression {
 		this.failedAttempts.set(0);
 	}
 
+	/**
+	 * Determine the nodes of the Abstract Syntax Tree which currently prevent
+	 * the compilation of this expression: that is, the innermost nodes which
+	 * report themselves as not compilable (with their enclosing nodes typically
+	 * not being compilable as a consequence).
+	 * <p>Since most nodes only become compilable once the types flowing through
+	 * them are known, this is only meaningful after the expression has been
+	 * evaluated at least once.
+	 * @return the nodes preventing compilation, in depth-first order
+	 * (an empty list if the expression is compilable in its current state)
+	 * @since 5.2.5
+	 * @see #compileExpression()
+	 */
+	public List<SpelNode> getUncompilableNodes() {
+		List<SpelNode> result = new ArrayList<>();
+		collectUncompilableNodes(this.ast, result);
+		return result;
+	}
+
+	private static boolean collectUncompilableNodes(SpelNode node, List<SpelNode> result) {
+		if (!(node instanceof SpelNodeImpl)) {
+			result.add(node);
+			return false;
+		}
+		if (((SpelNodeImpl) node).isCompilable()) {
+			return true;
+		}
+		boolean childReported = false;
+		for (int i = 0; i < node.getChildCount(); i++) {
+			if (!collectUncompilableNodes(node.getChild(i), result)) {
+				childReported = true;
+			}
+		}
+		if (!childReported) {
+			result.add(node);
+		}
+		return false;
+	}
+
 	/**
 	 * Return the Abstract Syntax Tree for the expression.
 	 */
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,6 +19,7 @@ package org.springframework.expression.spel.support;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 
+import org.springframework.core.DirectMethodInvoker;
 import org.springframework.core.MethodParameter;
 import org.springframework.core.convert.TypeDescriptor;
 import org.springframework.expression.AccessException;
@@ -27,11 +28,15 @@ import org.springframework.expression.MethodExecutor;
 import org.springframework.expression.TypedValue;
 import org.springframework.lang.Nullable;
 import org.springframework.util.ClassUtils;
-import org.springframework.util.ReflectionUtils;
 
 /**
  * {@link MethodExecutor} that works via reflection.
  *
+ * <p>As of 5.2.5, the method is called through a {@link DirectMethodInvoker}:
+ * that is, through a generated invoker class where the JDK favors it over
+ * plain {@code Method.invoke} calls. By default, this is only the case on
+ * JDK 18 and higher; on JDK 8 to 17, the invoker calls {@code Method.invoke}.
+ *
  * @author Andy Clement
  * @author Juergen Hoeller
  * @since 3.0
@@ -42,6 +47,8 @@ public class ReflectiveMethodExecutor implements MethodExecutor {
 
 	private final Method methodToInvoke;
 
+	private final DirectMethodInvoker invoker;
+
 	@Nullable
 	private final Integer varargsPosition;
 
@@ -60,6 +67,7 @@ public class ReflectiveMethodExecutor implements MethodExecutor {
 	public ReflectiveMethodExecutor(Method method) {
 		this.originalMethod = method;
 		this.methodToInvoke = ClassUtils.getInterfaceMethodIfPossible(method);
+		this.invoker = DirectMethodInvoker.forMethod(this.methodToInvoke);
 		if (method.isVarArgs()) {
 			this.varargsPosition = method.getParameterCount() - 1;
 		}
@@ -125,8 +133,7 @@ public class ReflectiveMethodExecutor implements MethodExecutor {
 				arguments = ReflectionHelper.setupArgumentsForVarargsInvocation(
 						this.originalMethod.getParameterTypes(), arguments);
 			}
-			ReflectionUtils.makeAccessible(this.methodToInvoke);
-			Object value = this.methodToInvoke.invoke(target, arguments);
+			Object value = this.invoker.invoke(target, arguments);
 			return new TypedValue(value, new TypeDescriptor(new MethodParameter(this.originalMethod, -1)).narrow(value));
 		}
 		catch (Exception ex) {
@@ -29,6 +29,7 @@ import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 import org.springframework.asm.MethodVisitor;
+import org.springframework.core.DirectMethodInvoker;
 import org.springframework.core.MethodParameter;
 import org.springframework.core.convert.Property;
 import org.springframework.core.convert.TypeDescriptor;
@@ -582,9 +583,13 @@ public class ReflectivePropertyAccessor implements PropertyAccessor {
 
 		final TypeDescriptor typeDescriptor;
 
+		@Nullable
+		final DirectMethodInvoker invoker;
+
 		public InvokerPair(Member member, TypeDescriptor typeDescriptor) {
 			this.member = member;
 			this.typeDescriptor = typeDescriptor;
+			this.invoker = (member instanceof Method ? DirectMethodInvoker.forMethod((Method) member) : null);
 		}
 	}
 
@@ -644,7 +649,9 @@ public class ReflectivePropertyAccessor implements PropertyAccessor {
 	 * general ReflectivePropertyResolver which manages a cache of methods/fields that
 	 * may be invoked to access different properties on different classes. This optimal
 	 * accessor exists because looking up the appropriate reflective object by class/name
-	 * on each read is not cheap.
+	 * on each read is not cheap. As of 5.2.5, getter methods are called through a
+	 * {@link DirectMethodInvoker}, which only differs from {@code Method.invoke}
+	 * on JDK 18 and higher by default.
 	 */
 	public static class OptimalPropertyAccessor implements CompilablePropertyAccessor {
 
@@ -655,9 +662,13 @@ public class ReflectivePropertyAccessor implements PropertyAccessor {
 
 		private final TypeDescriptor typeDescriptor;
 
+		@Nullable
+		private final DirectMethodInvoker invoker;
+
 		OptimalPropertyAccessor(InvokerPair target) {
 			this.member = target.member;
 			this.typeDescriptor = target.typeDescriptor;
+			this.invoker = target.invoker;
 		}
 
 		@Override
@@ -693,11 +704,9 @@ public class ReflectivePropertyAccessor implements PropertyAccessor {
 
 		@Override
 		public TypedValue read(EvaluationContext context, @Nullable Object target, String name) throws AccessException {
-			if (this.member instanceof Method) {
-				Method method = (Method) this.member;
+			if (this.invoker != null) {
 				try {
-					ReflectionUtils.makeAccessible(method);
-					Object value = method.invoke(target);
+					Object value = this.invoker.invoke(target);
 					return new TypedValue(value, this.typeDescriptor.narrow(value));
 				}
 				catch (Exception ex) {
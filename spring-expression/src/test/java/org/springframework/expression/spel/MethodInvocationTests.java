@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -21,6 +21,7 @@ import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import org.junit.jupiter.api.Test;
@@ -35,6 +36,7 @@ import org.springframework.expression.MethodFilter;
 import org.springframework.expression.MethodResolver;
 import org.springframework.expression.spel.standard.SpelExpression;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.ReflectiveMethodResolver;
 import org.springframework.expression.spel.support.StandardEvaluationContext;
 import org.springframework.expression.spel.testresources.PlaceOfBirth;
 
@@ -277,6 +279,21 @@ public class MethodInvocationTests extends AbstractExpressionTests {
 		assertThat(outBytes).isSameAs(bytes);
 	}
 
+	@Test
+	void invokeMethodWithAlternatingTargetTypes() {
+		CountingMethodResolver resolver = new CountingMethodResolver();
+		StandardEvaluationContext context = new StandardEvaluationContext();
+		context.setMethodResolvers(Collections.singletonList(resolver));
+		Expression expression = parser.parseExpression("toString()");
+		for (int i = 0; i < 3; i++) {
+			assertThat(expression.getValue(context, "abc")).isEqualTo("abc");
+			assertThat(expression.getValue(context, 42)).isEqualTo("42");
+			assertThat(expression.getValue(context, new StringBuilder("sb"))).isEqualTo("sb");
+		}
+		// One executor per target type, reused for subsequent invocations
+		assertThat(resolver.resolutions).isEqualTo(3);
+	}
+
 
 	// Simple filter
 	static class LocalFilter implements MethodFilter {
@@ -344,6 +361,20 @@ public class MethodInvocationTests extends AbstractExpressionTests {
 	}
 
 
+	static class CountingMethodResolver extends ReflectiveMethodResolver {
+
+		int resolutions;
+
+		@Override
+		public MethodExecutor resolve(EvaluationContext context, Object targetObject, String name,
+				List<TypeDescriptor> argumentTypes) throws AccessException {
+
+			this.resolutions++;
+			return super.resolve(context, targetObject, name, argumentTypes);
+		}
+	}
+
+
 	public static class BytesService {
 
 		public byte[] handleBytes(byte[] bytes) {
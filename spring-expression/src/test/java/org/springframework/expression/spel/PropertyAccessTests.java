@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -32,6 +32,7 @@ import org.springframework.expression.PropertyAccessor;
 import org.springframework.expression.TypedValue;
 import org.springframework.expression.spel.standard.SpelExpression;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.ReflectivePropertyAccessor;
 import org.springframework.expression.spel.support.SimpleEvaluationContext;
 import org.springframework.expression.spel.support.StandardEvaluationContext;
 import org.springframework.expression.spel.testresources.Inventor;
@@ -265,6 +266,25 @@ public class PropertyAccessTests extends AbstractExpressionTests {
 			.satisfies(ex -> assertThat(ex.getMessageCode()).isEqualTo(SpelMessage.ARRAY_INDEX_OUT_OF_BOUNDS));
 	}
 
+	@Test
+	void propertyAccessWithAlternatingTargetTypes() {
+		CountingPropertyAccessor accessor = new CountingPropertyAccessor();
+		StandardEvaluationContext context = new StandardEvaluationContext();
+		context.setPropertyAccessors(Collections.singletonList(accessor));
+		Expression expression = parser.parseExpression("name");
+		for (int i = 0; i < 3; i++) {
+			assertThat(expression.getValue(context, new Person("p" + i))).isEqualTo("p" + i);
+			assertThat(expression.getValue(context, new Inventor("i" + i, null, null))).isEqualTo("i" + i);
+		}
+		// One optimized accessor per target type, reused for subsequent reads
+		assertThat(accessor.optimalAccessorsCreated).isEqualTo(2);
+
+		// Cached accessors are not reused once their origin is no longer registered
+		context.setPropertyAccessors(Collections.singletonList(new ReflectivePropertyAccessor()));
+		assertThat(expression.getValue(context, new Person("p3"))).isEqualTo("p3");
+		assertThat(accessor.optimalAccessorsCreated).isEqualTo(2);
+	}
+
 
 	// This can resolve the property 'flibbles' on any String (very useful...)
 	private static class StringyPropertyAccessor implements PropertyAccessor {
@@ -349,4 +369,16 @@ public class PropertyAccessTests extends AbstractExpressionTests {
 		}
 	}
 
+
+	private static class CountingPropertyAccessor extends ReflectivePropertyAccessor {
+
+		int optimalAccessorsCreated;
+
+		@Override
+		public PropertyAccessor createOptimalAccessor(EvaluationContext context, Object target, String name) {
+			this.optimalAccessorsCreated++;
+			return super.createOptimalAccessor(context, target, name);
+		}
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,7 +19,9 @@ package org.springframework.expression.spel;
 import java.io.IOException;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -27,6 +29,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.StringTokenizer;
+import java.util.function.Supplier;
 
 import org.junit.jupiter.api.Test;
 
@@ -37,6 +40,7 @@ import org.springframework.expression.Expression;
 import org.springframework.expression.TypedValue;
 import org.springframework.expression.spel.ast.CompoundExpression;
 import org.springframework.expression.spel.ast.OpLT;
+import org.springframework.expression.spel.ast.Selection;
 import org.springframework.expression.spel.ast.SpelNodeImpl;
 import org.springframework.expression.spel.ast.Ternary;
 import org.springframework.expression.spel.standard.SpelCompiler;
@@ -106,10 +110,10 @@ public class SpelCompilationCoverageTests extends AbstractExpressionTests {
 	 * FunctionReference
 	 * InlineList
 	 * OpModulus
+	 * BeanReference
 	 *
 	 * Not yet compiled (some may never need to be):
 	 * Assign
-	 * BeanReference
 	 * Identifier
 	 * OpDec
 	 * OpBetween
@@ -5086,6 +5090,101 @@ public class SpelCompilationCoverageTests extends AbstractExpressionTests {
 		assertIsCompiled(exp);
 	}
 
+	@Test
+	public void inlineListWithNonConstantElements() {
+		Greeter greeter = new Greeter();
+		expression = parser.parseExpression("{world, 'b', 3}");
+		assertThat(expression.getValue(greeter)).isEqualTo(Arrays.asList("world", "b", 3));
+		assertCanCompile(expression);
+		assertThat(expression.getValue(greeter)).isEqualTo(Arrays.asList("world", "b", 3));
+		assertThat(expression.getValue(greeter)).isNotSameAs(expression.getValue(greeter));
+
+		expression = parser.parseExpression("{world, {1, 2}, {object}}.size()");
+		assertThat(expression.getValue(greeter)).isEqualTo(3);
+		assertCanCompile(expression);
+		assertThat(expression.getValue(greeter)).isEqualTo(3);
+	}
+
+	@Test
+	public void beanReference() {
+		StandardEvaluationContext context = new StandardEvaluationContext();
+		context.setBeanResolver((ctx, beanName) -> (beanName.equals("greeter") ? new Greeter() : null));
+
+		expression = parser.parseExpression("@greeter.world");
+		assertThat(expression.getValue(context)).isEqualTo("world");
+		assertCanCompile(expression);
+		assertThat(expression.getValue(context)).isEqualTo("world");
+
+		expression = parser.parseExpression("@greeter.getObject().toString().length()");
+		assertThat(expression.getValue(context)).isEqualTo(6);
+		assertCanCompile(expression);
+		assertThat(expression.getValue(context)).isEqualTo(6);
+	}
+
+	@Test
+	public void indexIntoString() {
+		expression = parser.parseExpression("'abc'[1]");
+		assertThat(expression.getValue()).isEqualTo("b");
+		assertCanCompile(expression);
+		assertThat(expression.getValue()).isEqualTo("b");
+
+		StandardEvaluationContext context = new StandardEvaluationContext(new Greeter());
+		context.setVariable("index", 2);
+		expression = parser.parseExpression("world[#index]");
+		assertThat(expression.getValue(context)).isEqualTo("r");
+		assertCanCompile(expression);
+		assertThat(expression.getValue(context)).isEqualTo("r");
+	}
+
+	@Test
+	public void elvisWithPrimitives() {
+		expression = parser.parseExpression("T(Integer).parseInt('3') ?: 4");
+		assertThat(expression.getValue()).isEqualTo(3);
+		assertCanCompile(expression);
+		assertThat(expression.getValue()).isEqualTo(3);
+
+		expression = parser.parseExpression("T(Integer).parseInt('3') ?: 4L");
+		assertThat(expression.getValue()).isEqualTo(3);
+		assertCanCompile(expression);
+		assertThat(expression.getValue()).isEqualTo(3);
+	}
+
+	@Test
+	public void methodReferenceViaPublicInterface() {
+		Supplier<String> lambda = () -> "lambda";
+		expression = parser.parseExpression("get()");
+		assertThat(expression.getValue(lambda)).isEqualTo("lambda");
+		assertCanCompile(expression);
+		assertThat(expression.getValue(lambda)).isEqualTo("lambda");
+
+		expression = parser.parseExpression("get().length()");
+		assertThat(expression.getValue(new HiddenSupplier())).isEqualTo(6);
+		assertCanCompile(expression);
+		assertThat(expression.getValue(new HiddenSupplier())).isEqualTo(6);
+
+		Message<?> proxy = (Message<?>) Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[] {Message.class}, (p, method, args) -> Arrays.asList("a", "b"));
+		expression = parser.parseExpression("getList().size()");
+		assertThat(expression.getValue(proxy)).isEqualTo(2);
+		assertCanCompile(expression);
+		assertThat(expression.getValue(proxy)).isEqualTo(2);
+	}
+
+	@Test
+	public void uncompilableNodes() {
+		SpelExpression expression = (SpelExpression) parser.parseExpression("{1,2,3}.?[true].size() + 1");
+		assertThat(expression.getValue()).isEqualTo(4);
+		List<SpelNode> nodes = expression.getUncompilableNodes();
+		assertThat(nodes).hasSize(1);
+		assertThat(nodes.get(0)).isInstanceOf(Selection.class);
+		assertCantCompile(expression);
+
+		expression = (SpelExpression) parser.parseExpression("{1,2,3}.size() + 1");
+		assertThat(expression.getValue()).isEqualTo(4);
+		assertThat(expression.getUncompilableNodes()).isEmpty();
+		assertCanCompile(expression);
+	}
+
 	@Test
 	public void repeatedCompilation() throws Exception {
 		// Verifying that after a number of compilations, the classloaders
@@ -5393,6 +5492,15 @@ public class SpelCompilationCoverageTests extends AbstractExpressionTests {
 	}
 
 
+	private static class HiddenSupplier implements Supplier<String> {
+
+		@Override
+		public String get() {
+			return "hidden";
+		}
+	}
+
+
 	public static class Greeter {
 
 		public String getWorld() {
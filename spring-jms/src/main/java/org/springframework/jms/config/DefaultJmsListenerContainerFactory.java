@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -39,6 +39,9 @@ public class DefaultJmsListenerContainerFactory
 	@Nullable
 	private Executor taskExecutor;
 
+	@Nullable
+	private Boolean virtualThreads;
+
 	@Nullable
 	private PlatformTransactionManager transactionManager;
 
@@ -71,6 +74,14 @@ public class DefaultJmsListenerContainerFactory
 		this.taskExecutor = taskExecutor;
 	}
 
+	/**
+	 * @since 5.2.5
+	 * @see DefaultMessageListenerContainer#setVirtualThreads
+	 */
+	public void setVirtualThreads(boolean virtualThreads) {
+		this.virtualThreads = virtualThreads;
+	}
+
 	/**
 	 * @see DefaultMessageListenerContainer#setTransactionManager
 	 */
@@ -138,6 +149,9 @@ public class DefaultJmsListenerContainerFactory
 		if (this.taskExecutor != null) {
 			container.setTaskExecutor(this.taskExecutor);
 		}
+		if (this.virtualThreads != null) {
+			container.setVirtualThreads(this.virtualThreads);
+		}
 		if (this.transactionManager != null) {
 			container.setTransactionManager(this.transactionManager);
 		}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -26,6 +26,7 @@ import org.apache.commons.logging.LogFactory;
 
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.core.BridgeMethodResolver;
+import org.springframework.core.DirectMethodInvoker;
 import org.springframework.core.MethodParameter;
 import org.springframework.core.annotation.AnnotatedElementUtils;
 import org.springframework.core.annotation.SynthesizingMethodParameter;
@@ -68,6 +69,8 @@ public class HandlerMethod {
 
 	private final Method bridgedMethod;
 
+	private final DirectMethodInvoker bridgedMethodInvoker;
+
 	private final MethodParameter[] parameters;
 
 	@Nullable
@@ -87,6 +90,7 @@ public class HandlerMethod {
 		this.beanType = ClassUtils.getUserClass(bean);
 		this.method = method;
 		this.bridgedMethod = BridgeMethodResolver.findBridgedMethod(method);
+		this.bridgedMethodInvoker = DirectMethodInvoker.forMethod(this.bridgedMethod);
 		this.parameters = initMethodParameters();
 	}
 
@@ -102,6 +106,7 @@ public class HandlerMethod {
 		this.beanType = ClassUtils.getUserClass(bean);
 		this.method = bean.getClass().getMethod(methodName, parameterTypes);
 		this.bridgedMethod = BridgeMethodResolver.findBridgedMethod(this.method);
+		this.bridgedMethodInvoker = DirectMethodInvoker.forMethod(this.bridgedMethod);
 		this.parameters = initMethodParameters();
 	}
 
@@ -123,6 +128,7 @@ public class HandlerMethod {
 		this.beanType = ClassUtils.getUserClass(beanType);
 		this.method = method;
 		this.bridgedMethod = BridgeMethodResolver.findBridgedMethod(method);
+		this.bridgedMethodInvoker = DirectMethodInvoker.forMethod(this.bridgedMethod);
 		this.parameters = initMethodParameters();
 	}
 
@@ -136,6 +142,7 @@ public class HandlerMethod {
 		this.beanType = handlerMethod.beanType;
 		this.method = handlerMethod.method;
 		this.bridgedMethod = handlerMethod.bridgedMethod;
+		this.bridgedMethodInvoker = handlerMethod.bridgedMethodInvoker;
 		this.parameters = handlerMethod.parameters;
 		this.resolvedFromHandlerMethod = handlerMethod.resolvedFromHandlerMethod;
 	}
@@ -151,6 +158,7 @@ public class HandlerMethod {
 		this.beanType = handlerMethod.beanType;
 		this.method = handlerMethod.method;
 		this.bridgedMethod = handlerMethod.bridgedMethod;
+		this.bridgedMethodInvoker = handlerMethod.bridgedMethodInvoker;
 		this.parameters = handlerMethod.parameters;
 		this.resolvedFromHandlerMethod = handlerMethod;
 	}
@@ -214,6 +222,15 @@ public class HandlerMethod {
 		return this.bridgedMethod;
 	}
 
+	/**
+	 * Return the invoker for the {@linkplain #getBridgedMethod() bridged method},
+	 * prepared once for this handler method and shared with its copies.
+	 * @since 5.2.5
+	 */
+	protected DirectMethodInvoker getBridgedMethodInvoker() {
+		return this.bridgedMethodInvoker;
+	}
+
 	/**
 	 * Return the method parameters for this handler method.
 	 */
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,6 +17,7 @@
 package org.springframework.transaction.annotation;
 
 import java.io.Serializable;
+import java.lang.annotation.Annotation;
 import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Method;
 import java.util.Arrays;
@@ -147,6 +148,30 @@ public class AnnotationTransactionAttributeSource extends AbstractFallbackTransa
 		return false;
 	}
 
+	/**
+	 * Return the annotation types exposed by the configured
+	 * {@link TransactionAnnotationParser TransactionAnnotationParsers}.
+	 * <p>Subclasses which override the attribute lookup in a way that does not
+	 * exclusively rely on the parsers need to override this method accordingly.
+	 * @return the annotation types, or {@code null} if any of the parsers
+	 * does not expose its annotation type
+	 * @since 5.2.5
+	 * @see TransactionAnnotationParser#getAnnotationType()
+	 */
+	@Override
+	@Nullable
+	public Set<Class<? extends Annotation>> getCandidateAnnotationTypes() {
+		Set<Class<? extends Annotation>> candidateAnnotationTypes = new LinkedHashSet<>(4);
+		for (TransactionAnnotationParser parser : this.annotationParsers) {
+			Class<? extends Annotation> annotationType = parser.getAnnotationType();
+			if (annotationType == null) {
+				return null;
+			}
+			candidateAnnotationTypes.add(annotationType);
+		}
+		return candidateAnnotationTypes;
+	}
+
 	@Override
 	@Nullable
 	protected TransactionAttribute findTransactionAttribute(Class<?> clazz) {
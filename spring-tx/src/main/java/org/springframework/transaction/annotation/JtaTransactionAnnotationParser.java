@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,6 +17,7 @@
 package org.springframework.transaction.annotation;
 
 import java.io.Serializable;
+import java.lang.annotation.Annotation;
 import java.lang.reflect.AnnotatedElement;
 import java.util.ArrayList;
 import java.util.List;
@@ -44,6 +45,11 @@ public class JtaTransactionAnnotationParser implements TransactionAnnotationPars
 		return AnnotationUtils.isCandidateClass(targetClass, javax.transaction.Transactional.class);
 	}
 
+	@Override
+	public Class<? extends Annotation> getAnnotationType() {
+		return javax.transaction.Transactional.class;
+	}
+
 	@Override
 	@Nullable
 	public TransactionAttribute parseTransactionAnnotation(AnnotatedElement element) {
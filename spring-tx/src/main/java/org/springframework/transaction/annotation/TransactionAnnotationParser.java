@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,7 @@
 
 package org.springframework.transaction.annotation;
 
+import java.lang.annotation.Annotation;
 import java.lang.reflect.AnnotatedElement;
 
 import org.springframework.lang.Nullable;
@@ -55,6 +56,22 @@ public interface TransactionAnnotationParser {
 		return true;
 	}
 
+	/**
+	 * Return the annotation type that this parser derives transaction attributes
+	 * from, if it exclusively relies on a single annotation type (declared directly
+	 * or as a meta-annotation, at method or class level).
+	 * <p>Subclasses of a parser which look for further annotations need to
+	 * override this method accordingly.
+	 * @return the annotation type, or {@code null} if not known upfront
+	 * (the default)
+	 * @since 5.2.5
+	 * @see AnnotationTransactionAttributeSource#getCandidateAnnotationTypes()
+	 */
+	@Nullable
+	default Class<? extends Annotation> getAnnotationType() {
+		return null;
+	}
+
 	/**
 	 * Parse the transaction attribute for the given method or class,
 	 * based on an annotation type understood by this parser.
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,7 +17,10 @@
 package org.springframework.transaction.interceptor;
 
 import java.io.Serializable;
+import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
@@ -63,6 +66,20 @@ public class CompositeTransactionAttributeSource implements TransactionAttribute
 		return false;
 	}
 
+	@Override
+	@Nullable
+	public Set<Class<? extends Annotation>> getCandidateAnnotationTypes() {
+		Set<Class<? extends Annotation>> candidateAnnotationTypes = new LinkedHashSet<>();
+		for (TransactionAttributeSource source : this.transactionAttributeSources) {
+			Set<Class<? extends Annotation>> annotationTypes = source.getCandidateAnnotationTypes();
+			if (annotationTypes == null) {
+				return null;
+			}
+			candidateAnnotationTypes.addAll(annotationTypes);
+		}
+		return candidateAnnotationTypes;
+	}
+
 	@Override
 	@Nullable
 	public TransactionAttribute getTransactionAttribute(Method method, @Nullable Class<?> targetClass) {
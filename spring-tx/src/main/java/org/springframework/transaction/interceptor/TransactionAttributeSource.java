@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,7 +16,9 @@
 
 package org.springframework.transaction.interceptor;
 
+import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
+import java.util.Set;
 
 import org.springframework.lang.Nullable;
 
@@ -53,6 +55,22 @@ public interface TransactionAttributeSource {
 		return true;
 	}
 
+	/**
+	 * Return the annotation types that this {@code TransactionAttributeSource}
+	 * derives transaction attributes from, if it exclusively relies on annotations
+	 * declared in the type hierarchy of the target class (directly or as meta-annotations).
+	 * <p>This allows for pre-selecting candidate classes by the annotations that
+	 * they declare, e.g. when determining eligible advisors for auto-proxying.
+	 * @return the annotation types, or {@code null} if transaction attributes may
+	 * come from other sources as well. The default implementation returns {@code null}.
+	 * @since 5.2.5
+	 * @see org.springframework.aop.support.annotation.AnnotationIndexedPointcut
+	 */
+	@Nullable
+	default Set<Class<? extends Annotation>> getCandidateAnnotationTypes() {
+		return null;
+	}
+
 	/**
 	 * Return the transaction attribute for the given method,
 	 * or {@code null} if the method is non-transactional.
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,10 +17,13 @@
 package org.springframework.transaction.interceptor;
 
 import java.io.Serializable;
+import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
+import java.util.Set;
 
 import org.springframework.aop.ClassFilter;
 import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.aop.support.annotation.AnnotationIndexedPointcut;
 import org.springframework.dao.support.PersistenceExceptionTranslator;
 import org.springframework.lang.Nullable;
 import org.springframework.transaction.PlatformTransactionManager;
@@ -34,7 +37,8 @@ import org.springframework.util.ObjectUtils;
  * @since 2.5.5
  */
 @SuppressWarnings("serial")
-abstract class TransactionAttributeSourcePointcut extends StaticMethodMatcherPointcut implements Serializable {
+abstract class TransactionAttributeSourcePointcut extends StaticMethodMatcherPointcut
+		implements AnnotationIndexedPointcut, Serializable {
 
 	protected TransactionAttributeSourcePointcut() {
 		setClassFilter(new TransactionAttributeSourceClassFilter());
@@ -47,6 +51,13 @@ abstract class TransactionAttributeSourcePointcut extends StaticMethodMatcherPoi
 		return (tas == null || tas.getTransactionAttribute(method, targetClass) != null);
 	}
 
+	@Override
+	@Nullable
+	public Set<Class<? extends Annotation>> getCandidateAnnotationTypes() {
+		TransactionAttributeSource tas = getTransactionAttributeSource();
+		return (tas != null ? tas.getCandidateAnnotationTypes() : null);
+	}
+
 	@Override
 	public boolean equals(@Nullable Object other) {
 		if (this == other) {
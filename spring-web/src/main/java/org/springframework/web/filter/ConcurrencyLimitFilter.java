@@ -0,0 +1,180 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.web.filter;
+
+import java.io.IOException;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.util.Assert;
+import org.springframework.util.ConcurrencyLimiter;
+
+/**
+ * {@code Filter} that limits the number of requests processed concurrently
+ * through an adaptive {@link ConcurrencyLimiter}, responding right away with
+ * a {@link HttpStatus#SERVICE_UNAVAILABLE 503} status once the limit is reached,
+ * so that an overloaded node degrades gracefully instead of queueing requests.
+ *
+ * <p>An asynchronous request holds on to its permit until it completes, with
+ * its full duration taken into account as latency. A request that times out is
+ * not taken into account, since async timeouts are expected for long polling
+ * with a {@code DeferredResult} or for streaming with an {@code SseEmitter}.
+ * For applications where such long-lived requests are common, consider
+ * {@link #setLimitAsyncRequests turning off} limiting of async requests, so that
+ * they neither hold on to a permit nor skew the latency seen by the limiter.
+ *
+ * @since 5.2.5
+ * @see org.springframework.web.filter.reactive.ConcurrencyLimitWebFilter
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+	private final ConcurrencyLimiter limiter;
+
+	private HttpStatus rejectedStatus = HttpStatus.SERVICE_UNAVAILABLE;
+
+	private boolean limitAsyncRequests = true;
+
+
+	/**
+	 * Create a new ConcurrencyLimitFilter with a default {@link ConcurrencyLimiter}.
+	 */
+	public ConcurrencyLimitFilter() {
+		this(new ConcurrencyLimiter());
+	}
+
+	/**
+	 * Create a new ConcurrencyLimitFilter with the given limiter.
+	 * @param limiter the limiter to use, possibly shared with other components
+	 */
+	public ConcurrencyLimitFilter(ConcurrencyLimiter limiter) {
+		Assert.notNull(limiter, "ConcurrencyLimiter must not be null");
+		this.limiter = limiter;
+	}
+
+
+	/**
+	 * Return the limiter used by this filter, e.g. to access its metrics.
+	 */
+	public ConcurrencyLimiter getLimiter() {
+		return this.limiter;
+	}
+
+	/**
+	 * Set the HTTP status to respond with when the limit is reached.
+	 * <p>By default this is {@link HttpStatus#SERVICE_UNAVAILABLE}.
+	 */
+	public void setRejectedStatus(HttpStatus rejectedStatus) {
+		Assert.notNull(rejectedStatus, "Property 'rejectedStatus' is required");
+		this.rejectedStatus = rejectedStatus;
+	}
+
+	/**
+	 * Return the configured status for rejected requests.
+	 */
+	public HttpStatus getRejectedStatus() {
+		return this.rejectedStatus;
+	}
+
+	/**
+	 * Set whether asynchronous requests hold on to their permit until they
+	 * complete. If turned off, the permit is released without taking the
+	 * request into account as soon as its initial processing returns in
+	 * async mode, which suits long-lived requests such as long polling or
+	 * server-sent events.
+	 * <p>By default this is {@code true}.
+	 */
+	public void setLimitAsyncRequests(boolean limitAsyncRequests) {
+		this.limitAsyncRequests = limitAsyncRequests;
+	}
+
+	/**
+	 * Return whether asynchronous requests hold on to their permit until they complete.
+	 */
+	public boolean isLimitAsyncRequests() {
+		return this.limitAsyncRequests;
+	}
+
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+			FilterChain filterChain) throws ServletException, IOException {
+
+		ConcurrencyLimiter.Permit permit = this.limiter.tryAcquire();
+		if (permit == null) {
+			response.setStatus(this.rejectedStatus.value());
+			return;
+		}
+		boolean asyncStarted = false;
+		try {
+			filterChain.doFilter(request, response);
+			if (request.isAsyncStarted()) {
+				if (this.limitAsyncRequests) {
+					request.getAsyncContext().addListener(new PermitReleasingAsyncListener(permit));
+				}
+				else {
+					permit.releaseIgnored();
+				}
+				asyncStarted = true;
+			}
+		}
+		finally {
+			if (!asyncStarted) {
+				permit.release();
+			}
+		}
+	}
+
+
+	/**
+	 * Releases the permit of an asynchronous request once it completes.
+	 */
+	private static class PermitReleasingAsyncListener implements AsyncListener {
+
+		private final ConcurrencyLimiter.Permit permit;
+
+		public PermitReleasingAsyncListener(ConcurrencyLimiter.Permit permit) {
+			this.permit = permit;
+		}
+
+		@Override
+		public void onComplete(AsyncEvent event) {
+			this.permit.release();
+		}
+
+		@Override
+		public void onTimeout(AsyncEvent event) {
+			this.permit.releaseIgnored();
+		}
+
+		@Override
+		public void onError(AsyncEvent event) {
+			this.permit.release();
+		}
+
+		@Override
+		public void onStartAsync(AsyncEvent event) {
+		}
+	}
+
+}
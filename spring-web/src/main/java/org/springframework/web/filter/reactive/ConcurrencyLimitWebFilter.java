@@ -0,0 +1,161 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.web.filter.reactive;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.util.Assert;
+import org.springframework.util.ConcurrencyLimiter;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+
+/**
+ * {@link WebFilter} that limits the number of requests processed concurrently
+ * through an adaptive {@link ConcurrencyLimiter}, responding right away with
+ * a {@link HttpStatus#SERVICE_UNAVAILABLE 503} status once the limit is reached,
+ * so that an overloaded node degrades gracefully instead of piling up requests.
+ *
+ * <p>The permit of a request is released when its processing completes or
+ * fails; cancelled requests are not taken into account for the limit.
+ * Streaming responses, such as server-sent events, may stay open for a long
+ * time: the permit of a response with one of the configured
+ * {@link #setStreamingMediaTypes streaming media types} is therefore released
+ * without taking the request into account as soon as the response is committed.
+ *
+ * @since 5.2.5
+ * @see org.springframework.web.filter.ConcurrencyLimitFilter
+ */
+public class ConcurrencyLimitWebFilter implements WebFilter {
+
+	private final ConcurrencyLimiter limiter;
+
+	private HttpStatus rejectedStatus = HttpStatus.SERVICE_UNAVAILABLE;
+
+	private final List<MediaType> streamingMediaTypes =
+			new ArrayList<>(Arrays.asList(MediaType.TEXT_EVENT_STREAM, MediaType.APPLICATION_STREAM_JSON));
+
+
+	/**
+	 * Create a new ConcurrencyLimitWebFilter with a default {@link ConcurrencyLimiter}.
+	 */
+	public ConcurrencyLimitWebFilter() {
+		this(new ConcurrencyLimiter());
+	}
+
+	/**
+	 * Create a new ConcurrencyLimitWebFilter with the given limiter.
+	 * @param limiter the limiter to use, possibly shared with other components
+	 */
+	public ConcurrencyLimitWebFilter(ConcurrencyLimiter limiter) {
+		Assert.notNull(limiter, "ConcurrencyLimiter must not be null");
+		this.limiter = limiter;
+	}
+
+
+	/**
+	 * Return the limiter used by this filter, e.g. to access its metrics.
+	 */
+	public ConcurrencyLimiter getLimiter() {
+		return this.limiter;
+	}
+
+	/**
+	 * Set the HTTP status to respond with when the limit is reached.
+	 * <p>By default this is {@link HttpStatus#SERVICE_UNAVAILABLE}.
+	 */
+	public void setRejectedStatus(HttpStatus rejectedStatus) {
+		Assert.notNull(rejectedStatus, "Property 'rejectedStatus' is required");
+		this.rejectedStatus = rejectedStatus;
+	}
+
+	/**
+	 * Return the configured status for rejected requests.
+	 */
+	public HttpStatus getRejectedStatus() {
+		return this.rejectedStatus;
+	}
+
+	/**
+	 * Set the media types of streaming responses, for which the permit is
+	 * released without taking the request into account once the response
+	 * is committed, rather than being held for the duration of the stream.
+	 * <p>By default this is {@link MediaType#TEXT_EVENT_STREAM} and
+	 * {@link MediaType#APPLICATION_STREAM_JSON}.
+	 */
+	public void setStreamingMediaTypes(List<MediaType> streamingMediaTypes) {
+		Assert.notNull(streamingMediaTypes, "'streamingMediaTypes' must not be null");
+		this.streamingMediaTypes.clear();
+		this.streamingMediaTypes.addAll(streamingMediaTypes);
+	}
+
+	/**
+	 * Return the configured media types of streaming responses.
+	 */
+	public List<MediaType> getStreamingMediaTypes() {
+		return this.streamingMediaTypes;
+	}
+
+
+	@Override
+	public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+		return Mono.defer(() -> {
+			ConcurrencyLimiter.Permit permit = this.limiter.tryAcquire();
+			if (permit == null) {
+				exchange.getResponse().setStatusCode(this.rejectedStatus);
+				return exchange.getResponse().setComplete();
+			}
+			ServerHttpResponse response = exchange.getResponse();
+			response.beforeCommit(() -> {
+				if (isStreaming(response)) {
+					permit.releaseIgnored();
+				}
+				return Mono.empty();
+			});
+			return chain.filter(exchange).doFinally(signalType -> {
+				if (signalType == SignalType.CANCEL) {
+					permit.releaseIgnored();
+				}
+				else {
+					permit.release();
+				}
+			});
+		});
+	}
+
+	private boolean isStreaming(ServerHttpResponse response) {
+		MediaType contentType = response.getHeaders().getContentType();
+		if (contentType != null) {
+			for (MediaType streamingMediaType : this.streamingMediaTypes) {
+				if (streamingMediaType.isCompatibleWith(contentType)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+}
@@ -0,0 +1,562 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.method.annotation;
+
+import java.beans.PropertyEditor;
+import java.beans.PropertyEditorSupport;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.springframework.beans.PropertyValues;
+import org.springframework.beans.TypeMismatchException;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.TypeDescriptor;
+import org.springframework.format.Formatter;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.validation.BindException;
+import org.springframework.validation.BindingErrorProcessor;
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.DataBinder;
+import org.springframework.validation.MessageCodesResolver;
+import org.springframework.validation.Validator;
+import org.springframework.web.bind.WebDataBinder;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.method.support.InvocableHandlerMethod;
+
+/**
+ * Cache for the binder configuration applied by {@code @InitBinder} methods,
+ * allowing {@link InitBinderDataBinderFactory} to replay that configuration
+ * onto subsequent binder instances instead of invoking the methods again.
+ *
+ * <p>Only methods declaring a single parameter of type {@link WebDataBinder}
+ * itself are candidates, since the method is given a recording binder instead of
+ * the actual one on its first invocation. The recording is retained only if the
+ * method exclusively applied configuration which can be safely reapplied to other
+ * binder instances (allowed/disallowed/required fields, formatters, validators,
+ * custom editors, conversion service and the like), and is then applied to the
+ * actual binder as well. Methods which read binder state keep being invoked for
+ * every binder. Methods which turn out to expect a specific binder subclass,
+ * e.g. by casting to {@code ServletRequestDataBinder}, are invoked again with
+ * the actual binder, provided that they failed with a {@link ClassCastException}
+ * before reading any binder state.
+ *
+ * <p>Custom {@link PropertyEditor PropertyEditors} are stateful and not
+ * thread-safe, so each binder gets its own adapter for a recorded editor,
+ * holding the value for that binder and synchronizing on the shared editor
+ * for conversions. As a consequence, a recorded editor must not depend on the
+ * previously set value when converting from text.
+ *
+ * <p><b>Note:</b> A recording does not capture any decisions the method makes
+ * based on other input, e.g. the current locale or thread-bound state. This
+ * cache is therefore meant to be enabled explicitly for applications whose
+ * {@code @InitBinder} methods always apply the same configuration.
+ *
+ * @since 5.2.5
+ * @see InitBinderDataBinderFactory#setConfigurationCache
+ */
+public final class InitBinderConfigurationCache {
+
+	private static final Object NOT_REPLAYABLE = new Object();
+
+
+	private final Map<HandlerMethod, Object> configurations = new ConcurrentReferenceHashMap<>();
+
+
+	/**
+	 * Apply the given {@code @InitBinder} method to the given binder, either by
+	 * replaying a previously recorded configuration or by invoking the method.
+	 * @param binderMethod the {@code @InitBinder} method
+	 * @param dataBinder the binder to initialize
+	 * @param request the current request
+	 * @return the value returned from the method, if invoked
+	 * @throws Exception if the invocation of the method fails
+	 */
+	@Nullable
+	public Object initBinder(InvocableHandlerMethod binderMethod, WebDataBinder dataBinder,
+			NativeWebRequest request) throws Exception {
+
+		Object configuration = this.configurations.get(binderMethod);
+		if (configuration instanceof BinderConfiguration) {
+			((BinderConfiguration) configuration).applyTo(dataBinder);
+			return null;
+		}
+		if (configuration == NOT_REPLAYABLE) {
+			return binderMethod.invokeForRequest(request, null, dataBinder);
+		}
+		if (!isReplayCandidate(binderMethod)) {
+			this.configurations.put(binderMethod, NOT_REPLAYABLE);
+			return binderMethod.invokeForRequest(request, null, dataBinder);
+		}
+		RecordingDataBinder recorder = new RecordingDataBinder(dataBinder);
+		Object returnValue;
+		try {
+			returnValue = binderMethod.invokeForRequest(request, null, recorder);
+		}
+		catch (ClassCastException ex) {
+			if (!recorder.isReplayable()) {
+				throw ex;
+			}
+			// Presumably expecting a specific binder type: nothing applied yet
+			this.configurations.put(binderMethod, NOT_REPLAYABLE);
+			return binderMethod.invokeForRequest(request, null, dataBinder);
+		}
+		if (recorder.isReplayable()) {
+			BinderConfiguration recorded = new BinderConfiguration(recorder.getActions());
+			recorded.applyTo(dataBinder);
+			if (returnValue == null) {
+				this.configurations.put(binderMethod, recorded);
+			}
+		}
+		else if (returnValue == null) {
+			this.configurations.put(binderMethod, NOT_REPLAYABLE);
+		}
+		return returnValue;
+	}
+
+	/**
+	 * Clear all recorded configurations.
+	 */
+	public void clear() {
+		this.configurations.clear();
+	}
+
+	private static boolean isReplayCandidate(HandlerMethod binderMethod) {
+		MethodParameter[] parameters = binderMethod.getMethodParameters();
+		if (parameters.length != 1) {
+			return false;
+		}
+		return (parameters[0].getParameterType() == WebDataBinder.class);
+	}
+
+
+	/**
+	 * Recorded binder configuration, to be applied to further binder instances.
+	 */
+	private static class BinderConfiguration {
+
+		private final Consumer<WebDataBinder>[] actions;
+
+		@SuppressWarnings("unchecked")
+		BinderConfiguration(List<Consumer<WebDataBinder>> actions) {
+			this.actions = actions.toArray(new Consumer[0]);
+		}
+
+		void applyTo(WebDataBinder dataBinder) {
+			for (Consumer<WebDataBinder> action : this.actions) {
+				action.accept(dataBinder);
+			}
+		}
+	}
+
+
+	/**
+	 * WebDataBinder passed to an {@code @InitBinder} method on its first invocation,
+	 * recording replayable configuration calls without applying them yet. Any other
+	 * call marks the recording as not replayable: the calls recorded so far are
+	 * then applied to the actual binder, and all further calls delegate to it.
+	 */
+	private static class RecordingDataBinder extends WebDataBinder {
+
+		private final WebDataBinder delegate;
+
+		private final List<Consumer<WebDataBinder>> actions = new ArrayList<>();
+
+		private boolean replayable = true;
+
+		RecordingDataBinder(WebDataBinder delegate) {
+			super(delegate.getTarget(), delegate.getObjectName());
+			this.delegate = delegate;
+		}
+
+		boolean isReplayable() {
+			return this.replayable;
+		}
+
+		List<Consumer<WebDataBinder>> getActions() {
+			return this.actions;
+		}
+
+		private void record(Consumer<WebDataBinder> action) {
+			if (this.replayable) {
+				this.actions.add(action);
+			}
+			else {
+				action.accept(this.delegate);
+			}
+		}
+
+		private WebDataBinder access() {
+			if (this.replayable) {
+				this.replayable = false;
+				for (Consumer<WebDataBinder> action : this.actions) {
+					action.accept(this.delegate);
+				}
+			}
+			return this.delegate;
+		}
+
+		// Replayable configuration
+
+		@Override
+		public void setAutoGrowNestedPaths(boolean autoGrowNestedPaths) {
+			record(binder -> binder.setAutoGrowNestedPaths(autoGrowNestedPaths));
+		}
+
+		@Override
+		public void setAutoGrowCollectionLimit(int autoGrowCollectionLimit) {
+			record(binder -> binder.setAutoGrowCollectionLimit(autoGrowCollectionLimit));
+		}
+
+		@Override
+		public void initBeanPropertyAccess() {
+			record(DataBinder::initBeanPropertyAccess);
+		}
+
+		@Override
+		public void initDirectFieldAccess() {
+			record(DataBinder::initDirectFieldAccess);
+		}
+
+		@Override
+		public void setIgnoreUnknownFields(boolean ignoreUnknownFields) {
+			record(binder -> binder.setIgnoreUnknownFields(ignoreUnknownFields));
+		}
+
+		@Override
+		public void setIgnoreInvalidFields(boolean ignoreInvalidFields) {
+			record(binder -> binder.setIgnoreInvalidFields(ignoreInvalidFields));
+		}
+
+		@Override
+		public void setAllowedFields(@Nullable String... allowedFields) {
+			String[] fields = (allowedFields != null ? allowedFields.clone() : null);
+			record(binder -> binder.setAllowedFields(fields));
+		}
+
+		@Override
+		public void setDisallowedFields(@Nullable String... disallowedFields) {
+			String[] fields = (disallowedFields != null ? disallowedFields.clone() : null);
+			record(binder -> binder.setDisallowedFields(fields));
+		}
+
+		@Override
+		public void setRequiredFields(@Nullable String... requiredFields) {
+			String[] fields = (requiredFields != null ? requiredFields.clone() : null);
+			record(binder -> binder.setRequiredFields(fields));
+		}
+
+		@Override
+		public void setMessageCodesResolver(@Nullable MessageCodesResolver messageCodesResolver) {
+			record(binder -> binder.setMessageCodesResolver(messageCodesResolver));
+		}
+
+		@Override
+		public void setBindingErrorProcessor(BindingErrorProcessor bindingErrorProcessor) {
+			record(binder -> binder.setBindingErrorProcessor(bindingErrorProcessor));
+		}
+
+		@Override
+		public void setValidator(@Nullable Validator validator) {
+			record(binder -> binder.setValidator(validator));
+		}
+
+		@Override
+		public void addValidators(Validator... validators) {
+			Validator[] toAdd = validators.clone();
+			record(binder -> binder.addValidators(toAdd));
+		}
+
+		@Override
+		public void replaceValidators(Validator... validators) {
+			Validator[] toSet = validators.clone();
+			record(binder -> binder.replaceValidators(toSet));
+		}
+
+		@Override
+		public void setConversionService(@Nullable ConversionService conversionService) {
+			record(binder -> binder.setConversionService(conversionService));
+		}
+
+		@Override
+		public void addCustomFormatter(Formatter<?> formatter) {
+			record(binder -> binder.addCustomFormatter(formatter));
+		}
+
+		@Override
+		public void addCustomFormatter(Formatter<?> formatter, String... fields) {
+			String[] toFormat = fields.clone();
+			record(binder -> binder.addCustomFormatter(formatter, toFormat));
+		}
+
+		@Override
+		public void addCustomFormatter(Formatter<?> formatter, Class<?>... fieldTypes) {
+			Class<?>[] toFormat = fieldTypes.clone();
+			record(binder -> binder.addCustomFormatter(formatter, toFormat));
+		}
+
+		@Override
+		public void setFieldMarkerPrefix(@Nullable String fieldMarkerPrefix) {
+			record(binder -> binder.setFieldMarkerPrefix(fieldMarkerPrefix));
+		}
+
+		@Override
+		public void setFieldDefaultPrefix(@Nullable String fieldDefaultPrefix) {
+			record(binder -> binder.setFieldDefaultPrefix(fieldDefaultPrefix));
+		}
+
+		@Override
+		public void setBindEmptyMultipartFiles(boolean bindEmptyMultipartFiles) {
+			record(binder -> binder.setBindEmptyMultipartFiles(bindEmptyMultipartFiles));
+		}
+
+		@Override
+		public void registerCustomEditor(Class<?> requiredType, PropertyEditor propertyEditor) {
+			record(binder -> binder.registerCustomEditor(requiredType, new SharedPropertyEditorAdapter(propertyEditor)));
+		}
+
+		@Override
+		public void registerCustomEditor(@Nullable Class<?> requiredType, @Nullable String field,
+				PropertyEditor propertyEditor) {
+
+			record(binder -> binder.registerCustomEditor(
+					requiredType, field, new SharedPropertyEditorAdapter(propertyEditor)));
+		}
+
+		// Any other access: delegate without replay
+
+		@Override
+		@Nullable
+		public Object getTarget() {
+			return access().getTarget();
+		}
+
+		@Override
+		public String getObjectName() {
+			return access().getObjectName();
+		}
+
+		@Override
+		public boolean isAutoGrowNestedPaths() {
+			return access().isAutoGrowNestedPaths();
+		}
+
+		@Override
+		public int getAutoGrowCollectionLimit() {
+			return access().getAutoGrowCollectionLimit();
+		}
+
+		@Override
+		public BindingResult getBindingResult() {
+			return access().getBindingResult();
+		}
+
+		@Override
+		public boolean isIgnoreUnknownFields() {
+			return access().isIgnoreUnknownFields();
+		}
+
+		@Override
+		public boolean isIgnoreInvalidFields() {
+			return access().isIgnoreInvalidFields();
+		}
+
+		@Override
+		@Nullable
+		public String[] getAllowedFields() {
+			return access().getAllowedFields();
+		}
+
+		@Override
+		@Nullable
+		public String[] getDisallowedFields() {
+			return access().getDisallowedFields();
+		}
+
+		@Override
+		@Nullable
+		public String[] getRequiredFields() {
+			return access().getRequiredFields();
+		}
+
+		@Override
+		public BindingErrorProcessor getBindingErrorProcessor() {
+			return access().getBindingErrorProcessor();
+		}
+
+		@Override
+		@Nullable
+		public Validator getValidator() {
+			return access().getValidator();
+		}
+
+		@Override
+		public List<Validator> getValidators() {
+			return access().getValidators();
+		}
+
+		@Override
+		@Nullable
+		public ConversionService getConversionService() {
+			return access().getConversionService();
+		}
+
+		@Override
+		@Nullable
+		public PropertyEditor findCustomEditor(@Nullable Class<?> requiredType, @Nullable String propertyPath) {
+			return access().findCustomEditor(requiredType, propertyPath);
+		}
+
+		@Override
+		@Nullable
+		public <T> T convertIfNecessary(@Nullable Object value, @Nullable Class<T> requiredType)
+				throws TypeMismatchException {
+
+			return access().convertIfNecessary(value, requiredType);
+		}
+
+		@Override
+		@Nullable
+		public <T> T convertIfNecessary(@Nullable Object value, @Nullable Class<T> requiredType,
+				@Nullable MethodParameter methodParam) throws TypeMismatchException {
+
+			return access().convertIfNecessary(value, requiredType, methodParam);
+		}
+
+		@Override
+		@Nullable
+		public <T> T convertIfNecessary(@Nullable Object value, @Nullable Class<T> requiredType,
+				@Nullable Field field) throws TypeMismatchException {
+
+			return access().convertIfNecessary(value, requiredType, field);
+		}
+
+		@Override
+		@Nullable
+		public <T> T convertIfNecessary(@Nullable Object value, @Nullable Class<T> requiredType,
+				@Nullable TypeDescriptor typeDescriptor) throws TypeMismatchException {
+
+			return access().convertIfNecessary(value, requiredType, typeDescriptor);
+		}
+
+		@Override
+		public void bind(PropertyValues pvs) {
+			access().bind(pvs);
+		}
+
+		@Override
+		public void validate() {
+			access().validate();
+		}
+
+		@Override
+		public void validate(Object... validationHints) {
+			access().validate(validationHints);
+		}
+
+		@Override
+		public Map<?, ?> close() throws BindException {
+			return access().close();
+		}
+
+		@Override
+		@Nullable
+		public String getFieldMarkerPrefix() {
+			return access().getFieldMarkerPrefix();
+		}
+
+		@Override
+		@Nullable
+		public String getFieldDefaultPrefix() {
+			return access().getFieldDefaultPrefix();
+		}
+
+		@Override
+		public boolean isBindEmptyMultipartFiles() {
+			return access().isBindEmptyMultipartFiles();
+		}
+
+		@Override
+		@Nullable
+		public Object getEmptyValue(Class<?> fieldType) {
+			return access().getEmptyValue(fieldType);
+		}
+	}
+
+
+	/**
+	 * Per-binder adapter for a recorded {@link PropertyEditor}, holding its own
+	 * value and performing conversions on the shared editor while synchronized.
+	 */
+	private static class SharedPropertyEditorAdapter extends PropertyEditorSupport {
+
+		private final PropertyEditor editor;
+
+		SharedPropertyEditorAdapter(PropertyEditor editor) {
+			this.editor = editor;
+		}
+
+		@Override
+		public void setValue(@Nullable Object value) {
+			Object editorValue;
+			synchronized (this.editor) {
+				this.editor.setValue(value);
+				editorValue = this.editor.getValue();
+			}
+			super.setValue(editorValue);
+		}
+
+		@Override
+		public void setAsText(String text) throws IllegalArgumentException {
+			Object editorValue;
+			synchronized (this.editor) {
+				this.editor.setAsText(text);
+				editorValue = this.editor.getValue();
+			}
+			super.setValue(editorValue);
+		}
+
+		@Override
+		@Nullable
+		public String getAsText() {
+			synchronized (this.editor) {
+				this.editor.setValue(getValue());
+				return this.editor.getAsText();
+			}
+		}
+
+		@Override
+		public String getJavaInitializationString() {
+			synchronized (this.editor) {
+				this.editor.setValue(getValue());
+				return this.editor.getJavaInitializationString();
+			}
+		}
+
+		@Override
+		@Nullable
+		public String[] getTags() {
+			return this.editor.getTags();
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -40,6 +40,9 @@ public class InitBinderDataBinderFactory extends DefaultDataBinderFactory {
 
 	private final List<InvocableHandlerMethod> binderMethods;
 
+	@Nullable
+	private InitBinderConfigurationCache configurationCache;
+
 
 	/**
 	 * Create a new InitBinderDataBinderFactory instance.
@@ -54,6 +57,19 @@ public class InitBinderDataBinderFactory extends DefaultDataBinderFactory {
 	}
 
 
+	/**
+	 * Set a cache for replaying the binder configuration applied by
+	 * {@code @InitBinder} methods, instead of invoking them for every binder.
+	 * <p>Not set by default. The cache is meant to be shared across the
+	 * factory instances for the same handlers.
+	 * @since 5.2.5
+	 * @see InitBinderConfigurationCache
+	 */
+	public void setConfigurationCache(@Nullable InitBinderConfigurationCache configurationCache) {
+		this.configurationCache = configurationCache;
+	}
+
+
 	/**
 	 * Initialize a WebDataBinder with {@code @InitBinder} methods.
 	 * <p>If the {@code @InitBinder} annotation specifies attributes names,
@@ -65,7 +81,9 @@ public class InitBinderDataBinderFactory extends DefaultDataBinderFactory {
 	public void initBinder(WebDataBinder dataBinder, NativeWebRequest request) throws Exception {
 		for (InvocableHandlerMethod binderMethod : this.binderMethods) {
 			if (isBinderMethodApplicable(binderMethod, dataBinder)) {
-				Object returnValue = binderMethod.invokeForRequest(request, null, dataBinder);
+				Object returnValue = (this.configurationCache != null ?
+						this.configurationCache.initBinder(binderMethod, dataBinder, request) :
+						binderMethod.invokeForRequest(request, null, dataBinder));
 				if (returnValue != null) {
 					throw new IllegalStateException(
 							"@InitBinder methods must not return a value (should be void): " + binderMethod);
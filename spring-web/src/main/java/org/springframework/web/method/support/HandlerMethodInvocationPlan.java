@@ -0,0 +1,102 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.method.support;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.lang.Nullable;
+import org.springframework.web.method.HandlerMethod;
+
+/**
+ * Pre-resolved invocation plan for a {@link HandlerMethod}: the
+ * {@link HandlerMethodArgumentResolver} for each method parameter and the
+ * {@link HandlerMethodReturnValueHandler} for the declared return type,
+ * as selected by the given composites.
+ *
+ * <p>A plan is meant to be created once per handler method and then shared
+ * by all {@link InvocableHandlerMethod} instances for that handler method,
+ * sparing them the per-request lookups in the composites.
+ *
+ * @since 5.2.5
+ * @see InvocableHandlerMethod#setInvocationPlan
+ */
+public final class HandlerMethodInvocationPlan {
+
+	private final HandlerMethodArgumentResolver[] argumentResolvers;
+
+	private final MethodParameter returnType;
+
+	@Nullable
+	private final HandlerMethodReturnValueHandler returnValueHandler;
+
+
+	/**
+	 * Create a plan for the given handler method.
+	 * @param handlerMethod the handler method to create the plan for
+	 * @param argumentResolvers the argument resolvers to select from
+	 * @param returnValueHandlers the return value handlers to select from, if any
+	 */
+	public HandlerMethodInvocationPlan(HandlerMethod handlerMethod,
+			HandlerMethodArgumentResolverComposite argumentResolvers,
+			@Nullable HandlerMethodReturnValueHandlerComposite returnValueHandlers) {
+
+		MethodParameter[] parameters = handlerMethod.getMethodParameters();
+		this.argumentResolvers = new HandlerMethodArgumentResolver[parameters.length];
+		for (int i = 0; i < parameters.length; i++) {
+			this.argumentResolvers[i] = argumentResolvers.getArgumentResolver(parameters[i]);
+		}
+		this.returnType = handlerMethod.getReturnType();
+		this.returnValueHandler = (returnValueHandlers != null ?
+				returnValueHandlers.getStaticReturnValueHandler(this.returnType) : null);
+	}
+
+
+	/**
+	 * Return the argument resolver for the parameter at the given index.
+	 * @param parameterIndex the index of the method parameter
+	 * @return the resolver, or {@code null} if none supports the parameter
+	 * (i.e. if the argument is expected to be provided by the caller)
+	 */
+	@Nullable
+	public HandlerMethodArgumentResolver getArgumentResolver(int parameterIndex) {
+		return this.argumentResolvers[parameterIndex];
+	}
+
+	/**
+	 * Return the declared return type of the handler method.
+	 */
+	public MethodParameter getReturnType() {
+		return this.returnType;
+	}
+
+	/**
+	 * Return the return value handler for the given return value, provided that
+	 * the handler can be determined from the declared {@link #getReturnType()
+	 * return type} alone: that is, if the value is {@code null} or of exactly
+	 * the declared type.
+	 * @param returnValue the value returned from the handler method
+	 * @return the handler, or {@code null} if the selection depends on the
+	 * actual value and needs to go through the composite
+	 */
+	@Nullable
+	public HandlerMethodReturnValueHandler getReturnValueHandler(@Nullable Object returnValue) {
+		if (returnValue != null && returnValue.getClass() != this.returnType.getParameterType()) {
+			return null;
+		}
+		return this.returnValueHandler;
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -96,6 +96,22 @@ public class HandlerMethodReturnValueHandlerComposite implements HandlerMethodRe
 		return null;
 	}
 
+	/**
+	 * Select the handler for the given return type upfront, independent of
+	 * the actual return value: only possible if no asynchronous handlers
+	 * are registered, since those need to check the value itself.
+	 * @see HandlerMethodInvocationPlan
+	 */
+	@Nullable
+	HandlerMethodReturnValueHandler getStaticReturnValueHandler(MethodParameter returnType) {
+		for (HandlerMethodReturnValueHandler handler : this.returnValueHandlers) {
+			if (handler instanceof AsyncHandlerMethodReturnValueHandler) {
+				return null;
+			}
+		}
+		return getReturnValueHandler(returnType);
+	}
+
 	private boolean isAsyncReturnValue(@Nullable Object value, MethodParameter returnType) {
 		for (HandlerMethodReturnValueHandler handler : this.returnValueHandlers) {
 			if (handler instanceof AsyncHandlerMethodReturnValueHandler &&
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.web.filter;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.FilterChain;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.util.AimdConcurrencyLimitStrategy;
+import org.springframework.util.ConcurrencyLimiter;
+import org.springframework.web.testfixture.servlet.MockAsyncContext;
+import org.springframework.web.testfixture.servlet.MockFilterChain;
+import org.springframework.web.testfixture.servlet.MockHttpServletRequest;
+import org.springframework.web.testfixture.servlet.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link ConcurrencyLimitFilter}.
+ */
+public class ConcurrencyLimitFilterTests {
+
+	private final ConcurrencyLimiter limiter = new ConcurrencyLimiter(new AimdConcurrencyLimitStrategy(1));
+
+	private final ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(this.limiter);
+
+
+	@Test
+	public void requestWithinLimit() throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		MockFilterChain chain = new MockFilterChain();
+		this.filter.doFilter(new MockHttpServletRequest("GET", "/"), response, chain);
+
+		assertThat(chain.getRequest()).isNotNull();
+		assertThat(response.getStatus()).isEqualTo(200);
+		assertThat(this.limiter.getInFlight()).isEqualTo(0);
+		assertThat(this.limiter.getAcceptedCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void requestBeyondLimit() throws Exception {
+		ConcurrencyLimiter.Permit permit = this.limiter.tryAcquire();
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		MockFilterChain chain = new MockFilterChain();
+		this.filter.doFilter(new MockHttpServletRequest("GET", "/"), response, chain);
+
+		assertThat(chain.getRequest()).isNull();
+		assertThat(response.getStatus()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE.value());
+		assertThat(this.limiter.getRejectedCount()).isEqualTo(1);
+		permit.release();
+	}
+
+	@Test
+	public void customRejectedStatus() throws Exception {
+		this.filter.setRejectedStatus(HttpStatus.TOO_MANY_REQUESTS);
+		ConcurrencyLimiter.Permit permit = this.limiter.tryAcquire();
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		this.filter.doFilter(new MockHttpServletRequest("GET", "/"), response, new MockFilterChain());
+
+		assertThat(response.getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+		permit.release();
+	}
+
+	@Test
+	public void asyncRequestReleasesPermitOnCompletion() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+		request.setAsyncSupported(true);
+		FilterChain chain = (req, res) -> req.startAsync();
+		this.filter.doFilter(request, new MockHttpServletResponse(), chain);
+		assertThat(this.limiter.getInFlight()).isEqualTo(1);
+
+		MockAsyncContext asyncContext = (MockAsyncContext) request.getAsyncContext();
+		assertThat(asyncContext.getListeners()).hasSize(1);
+		asyncContext.complete();
+		assertThat(this.limiter.getInFlight()).isEqualTo(0);
+		assertThat(this.limiter.getLatency().getCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void asyncRequestTimeoutIsIgnored() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+		request.setAsyncSupported(true);
+		FilterChain chain = (req, res) -> req.startAsync();
+		this.filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+		MockAsyncContext asyncContext = (MockAsyncContext) request.getAsyncContext();
+		asyncContext.getListeners().get(0).onTimeout(new AsyncEvent(asyncContext));
+		assertThat(this.limiter.getInFlight()).isEqualTo(0);
+		assertThat(this.limiter.getDroppedCount()).isEqualTo(0);
+		assertThat(this.limiter.getLatency().getCount()).isEqualTo(0);
+	}
+
+	@Test
+	public void asyncRequestNotLimited() throws Exception {
+		this.filter.setLimitAsyncRequests(false);
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+		request.setAsyncSupported(true);
+		FilterChain chain = (req, res) -> req.startAsync();
+		this.filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+		MockAsyncContext asyncContext = (MockAsyncContext) request.getAsyncContext();
+		assertThat(asyncContext.getListeners()).isEmpty();
+		assertThat(this.limiter.getInFlight()).isEqualTo(0);
+		assertThat(this.limiter.getLatency().getCount()).isEqualTo(0);
+	}
+
+}
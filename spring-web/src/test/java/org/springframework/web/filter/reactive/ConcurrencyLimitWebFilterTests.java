@@ -0,0 +1,110 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.web.filter.reactive;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.AimdConcurrencyLimitStrategy;
+import org.springframework.util.ConcurrencyLimiter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.testfixture.http.server.reactive.MockServerHttpRequest;
+import org.springframework.web.testfixture.server.MockServerWebExchange;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link ConcurrencyLimitWebFilter}.
+ */
+public class ConcurrencyLimitWebFilterTests {
+
+	private final ConcurrencyLimiter limiter = new ConcurrencyLimiter(new AimdConcurrencyLimitStrategy(1));
+
+	private final ConcurrencyLimitWebFilter filter = new ConcurrencyLimitWebFilter(this.limiter);
+
+
+	@Test
+	public void requestWithinLimit() {
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/"));
+		WebFilterChain chain = filterExchange -> {
+			assertThat(this.limiter.getInFlight()).isEqualTo(1);
+			return Mono.empty();
+		};
+		this.filter.filter(exchange, chain).block(Duration.ofSeconds(5));
+
+		assertThat(exchange.getResponse().getStatusCode()).isNull();
+		assertThat(this.limiter.getInFlight()).isEqualTo(0);
+		assertThat(this.limiter.getLatency().getCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void requestBeyondLimit() {
+		ConcurrencyLimiter.Permit permit = this.limiter.tryAcquire();
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/"));
+		WebFilterChain chain = filterExchange -> Mono.error(new IllegalStateException("Should not be called"));
+		this.filter.filter(exchange, chain).block(Duration.ofSeconds(5));
+
+		assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+		assertThat(this.limiter.getRejectedCount()).isEqualTo(1);
+		permit.release();
+	}
+
+	@Test
+	public void cancelledRequestIsIgnored() {
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/"));
+		StepVerifier.create(this.filter.filter(exchange, filterExchange -> Mono.never()))
+				.thenCancel()
+				.verify();
+
+		assertThat(this.limiter.getInFlight()).isEqualTo(0);
+		assertThat(this.limiter.getLatency().getCount()).isEqualTo(0);
+	}
+
+	@Test
+	public void streamingResponseIsIgnored() {
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/"));
+		WebFilterChain chain = filterExchange -> {
+			filterExchange.getResponse().getHeaders().setContentType(MediaType.TEXT_EVENT_STREAM);
+			return filterExchange.getResponse().setComplete()
+					.then(Mono.fromRunnable(() -> assertThat(this.limiter.getInFlight()).isEqualTo(0)));
+		};
+		this.filter.filter(exchange, chain).block(Duration.ofSeconds(5));
+
+		assertThat(this.limiter.getInFlight()).isEqualTo(0);
+		assertThat(this.limiter.getLatency().getCount()).isEqualTo(0);
+	}
+
+	@Test
+	public void nonStreamingResponseIsMeasured() {
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/"));
+		WebFilterChain chain = filterExchange -> {
+			filterExchange.getResponse().getHeaders().setContentType(MediaType.APPLICATION_JSON);
+			return filterExchange.getResponse().setComplete();
+		};
+		this.filter.filter(exchange, chain).block(Duration.ofSeconds(5));
+
+		assertThat(this.limiter.getInFlight()).isEqualTo(0);
+		assertThat(this.limiter.getLatency().getCount()).isEqualTo(1);
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,19 +16,26 @@
 
 package org.springframework.web.method.annotation;
 
+import java.beans.PropertyEditor;
 import java.lang.reflect.Method;
 import java.util.Collections;
+import java.util.Date;
 
 import org.junit.jupiter.api.Test;
 
+import org.springframework.beans.MutablePropertyValues;
+import org.springframework.beans.propertyeditors.StringTrimmerEditor;
+import org.springframework.beans.testfixture.beans.TestBean;
 import org.springframework.core.LocalVariableTableParameterNameDiscoverer;
 import org.springframework.core.convert.ConversionService;
+import org.springframework.format.datetime.DateFormatter;
 import org.springframework.format.support.DefaultFormattingConversionService;
 import org.springframework.web.bind.WebDataBinder;
 import org.springframework.web.bind.annotation.InitBinder;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.support.ConfigurableWebBindingInitializer;
 import org.springframework.web.bind.support.DefaultDataBinderFactory;
+import org.springframework.web.bind.support.WebRequestDataBinder;
 import org.springframework.web.bind.support.WebDataBinderFactory;
 import org.springframework.web.context.request.NativeWebRequest;
 import org.springframework.web.context.request.ServletWebRequest;
@@ -119,10 +126,112 @@ public class InitBinderDataBinderFactoryTests {
 		assertThat(dataBinder.getDisallowedFields()[0]).isEqualTo("requestParam-22");
 	}
 
+	@Test
+	public void createBinderWithReplayedConfiguration() throws Exception {
+		InitBinderHandler handler = new InitBinderHandler();
+		InitBinderConfigurationCache cache = new InitBinderConfigurationCache();
+
+		for (int i = 0; i < 3; i++) {
+			InitBinderDataBinderFactory factory = createFactory(handler, "initBinderFormatter", WebDataBinder.class);
+			factory.setConfigurationCache(cache);
+			WebDataBinder dataBinder = factory.createBinder(this.webRequest, new TestBean(), "foo");
+
+			assertThat(dataBinder.getDisallowedFields()).containsExactly("id");
+			assertThat(dataBinder.findCustomEditor(Date.class, "date")).isNotNull();
+		}
+		assertThat(handler.invocations).isEqualTo(1);
+	}
+
+	@Test
+	public void createBinderWithReplayedCustomEditor() throws Exception {
+		InitBinderHandler handler = new InitBinderHandler();
+		InitBinderConfigurationCache cache = new InitBinderConfigurationCache();
+
+		PropertyEditor editor = null;
+		for (int i = 0; i < 3; i++) {
+			InitBinderDataBinderFactory factory = createFactory(handler, "initBinderEditor", WebDataBinder.class);
+			factory.setConfigurationCache(cache);
+			TestBean target = new TestBean();
+			WebDataBinder dataBinder = factory.createBinder(this.webRequest, target, "foo");
+
+			PropertyEditor current = dataBinder.findCustomEditor(String.class, "name");
+			assertThat(current).isNotNull().isNotSameAs(editor);
+			editor = current;
+
+			dataBinder.bind(new MutablePropertyValues(Collections.singletonMap("name", "  name" + i + "  ")));
+			assertThat(target.getName()).isEqualTo("name" + i);
+		}
+		assertThat(handler.invocations).isEqualTo(1);
+	}
+
+	@Test
+	public void createBinderWithDeclaredBinderSubclassNotReplayed() throws Exception {
+		InitBinderHandler handler = new InitBinderHandler();
+		InitBinderConfigurationCache cache = new InitBinderConfigurationCache();
+
+		for (int i = 0; i < 3; i++) {
+			InitBinderDataBinderFactory factory = createFactory(
+					handler, "initBinderWebRequestDataBinder", WebRequestDataBinder.class);
+			factory.setConfigurationCache(cache);
+			WebDataBinder dataBinder = factory.createBinder(this.webRequest, null, "foo");
+
+			assertThat(dataBinder.getDisallowedFields()).containsExactly("id");
+		}
+		assertThat(handler.invocations).isEqualTo(3);
+	}
+
+	@Test
+	public void createBinderWithBinderSubclassCastNotReplayed() throws Exception {
+		InitBinderHandler handler = new InitBinderHandler();
+		InitBinderConfigurationCache cache = new InitBinderConfigurationCache();
+
+		for (int i = 0; i < 3; i++) {
+			InitBinderDataBinderFactory factory = createFactory(handler, "initBinderCast", WebDataBinder.class);
+			factory.setConfigurationCache(cache);
+			WebDataBinder dataBinder = factory.createBinder(this.webRequest, null, "foo");
+
+			assertThat(dataBinder).isInstanceOf(WebRequestDataBinder.class);
+			assertThat(dataBinder.getDisallowedFields()).containsExactly("id");
+		}
+		// Recording attempt and actual invocation for the first binder
+		assertThat(handler.invocations).isEqualTo(4);
+	}
+
+	@Test
+	public void createBinderWithBinderStateAccessNotReplayed() throws Exception {
+		InitBinderHandler handler = new InitBinderHandler();
+		InitBinderConfigurationCache cache = new InitBinderConfigurationCache();
+
+		for (String objectName : new String[] {"foo", "bar", "foo"}) {
+			InitBinderDataBinderFactory factory = createFactory(handler, "initBinderObjectName", WebDataBinder.class);
+			factory.setConfigurationCache(cache);
+			WebDataBinder dataBinder = factory.createBinder(this.webRequest, null, objectName);
+
+			assertThat(dataBinder.getDisallowedFields()).containsExactly(objectName + "Id");
+		}
+		assertThat(handler.invocations).isEqualTo(3);
+	}
+
+	@Test
+	public void returnValueNotExpectedWithConfigurationCache() throws Exception {
+		InitBinderDataBinderFactory factory = createFactory(
+				new InitBinderHandler(), "initBinderReturnValue", WebDataBinder.class);
+		factory.setConfigurationCache(new InitBinderConfigurationCache());
+		for (int i = 0; i < 2; i++) {
+			assertThatIllegalStateException().isThrownBy(() ->
+					factory.createBinder(this.webRequest, null, "foo"));
+		}
+	}
+
 	private WebDataBinderFactory createFactory(String methodName, Class<?>... parameterTypes)
 			throws Exception {
 
-		Object handler = new InitBinderHandler();
+		return createFactory(new InitBinderHandler(), methodName, parameterTypes);
+	}
+
+	private InitBinderDataBinderFactory createFactory(Object handler, String methodName, Class<?>... parameterTypes)
+			throws Exception {
+
 		Method method = handler.getClass().getMethod(methodName, parameterTypes);
 
 		InvocableHandlerMethod handlerMethod = new InvocableHandlerMethod(handler, method);
@@ -137,6 +246,8 @@ public class InitBinderDataBinderFactoryTests {
 
 	private static class InitBinderHandler {
 
+		int invocations;
+
 		@InitBinder
 		public void initBinder(WebDataBinder dataBinder) {
 			dataBinder.setDisallowedFields("id");
@@ -156,6 +267,37 @@ public class InitBinderDataBinderFactoryTests {
 		public void initBinderTypeConversion(WebDataBinder dataBinder, @RequestParam int requestParam) {
 			dataBinder.setDisallowedFields("requestParam-" + requestParam);
 		}
+
+		@InitBinder
+		public void initBinderFormatter(WebDataBinder dataBinder) {
+			this.invocations++;
+			dataBinder.setDisallowedFields("id");
+			dataBinder.addCustomFormatter(new DateFormatter("yyyy-MM-dd"), "date");
+		}
+
+		@InitBinder
+		public void initBinderEditor(WebDataBinder dataBinder) {
+			this.invocations++;
+			dataBinder.registerCustomEditor(String.class, new StringTrimmerEditor(true));
+		}
+
+		@InitBinder
+		public void initBinderWebRequestDataBinder(WebRequestDataBinder dataBinder) {
+			this.invocations++;
+			dataBinder.setDisallowedFields("id");
+		}
+
+		@InitBinder
+		public void initBinderCast(WebDataBinder dataBinder) {
+			this.invocations++;
+			((WebRequestDataBinder) dataBinder).setDisallowedFields("id");
+		}
+
+		@InitBinder
+		public void initBinderObjectName(WebDataBinder dataBinder) {
+			this.invocations++;
+			dataBinder.setDisallowedFields(dataBinder.getObjectName() + "Id");
+		}
 	}
 
 }
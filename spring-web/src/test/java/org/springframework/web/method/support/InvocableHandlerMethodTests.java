@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -156,6 +156,51 @@ public class InvocableHandlerMethodTests {
 			.withMessageContaining("Illegal argument");
 	}
 
+	@Test
+	public void resolveArgWithInvocationPlan() throws Exception {
+		this.composite.addResolver(new StubArgumentResolver(99));
+		this.composite.addResolver(new StubArgumentResolver("value"));
+
+		InvocableHandlerMethod handlerMethod = getInvocable(Integer.class, String.class);
+		HandlerMethodInvocationPlan plan = new HandlerMethodInvocationPlan(handlerMethod, this.composite, null);
+		handlerMethod.setInvocationPlan(plan);
+
+		assertThat(plan.getArgumentResolver(0)).isSameAs(getStubResolver(0));
+		assertThat(plan.getArgumentResolver(1)).isSameAs(getStubResolver(1));
+		assertThat(handlerMethod.invokeForRequest(request, null)).isEqualTo("99-value");
+		assertThat(getStubResolver(0).getResolvedParameters().get(0).getParameterName()).isEqualTo("intArg");
+	}
+
+	@Test
+	public void resolveProvidedArgWithInvocationPlan() throws Exception {
+		InvocableHandlerMethod handlerMethod = getInvocable(Integer.class, String.class);
+		HandlerMethodInvocationPlan plan = new HandlerMethodInvocationPlan(handlerMethod, this.composite, null);
+		handlerMethod.setInvocationPlan(plan);
+
+		assertThat(plan.getArgumentResolver(0)).isNull();
+		assertThat(handlerMethod.invokeForRequest(request, null, 99, "value")).isEqualTo("99-value");
+		assertThatIllegalStateException().isThrownBy(() -> handlerMethod.invokeForRequest(request, null))
+			.withMessageContaining("Could not resolve parameter [0]");
+	}
+
+	@Test
+	public void returnValueHandlerWithInvocationPlan() throws Exception {
+		HandlerMethodReturnValueHandler stringHandler = new StringReturnValueHandler();
+		HandlerMethodReturnValueHandlerComposite handlers = new HandlerMethodReturnValueHandlerComposite();
+		handlers.addHandler(stringHandler);
+
+		HandlerMethodInvocationPlan plan =
+				new HandlerMethodInvocationPlan(getInvocable(Integer.class, String.class), this.composite, handlers);
+		assertThat(plan.getReturnType().getParameterType()).isEqualTo(String.class);
+		assertThat(plan.getReturnValueHandler("value")).isSameAs(stringHandler);
+		assertThat(plan.getReturnValueHandler(null)).isSameAs(stringHandler);
+
+		// Asynchronous handlers depend on the actual value: no upfront selection
+		handlers.addHandler(new AsyncStringReturnValueHandler());
+		plan = new HandlerMethodInvocationPlan(getInvocable(Integer.class, String.class), this.composite, handlers);
+		assertThat(plan.getReturnValueHandler("value")).isNull();
+	}
+
 	private InvocableHandlerMethod getInvocable(Class<?>... argTypes) {
 		Method method = ResolvableMethod.on(Handler.class).argTypes(argTypes).resolveMethod();
 		InvocableHandlerMethod handlerMethod = new InvocableHandlerMethod(new Handler(), method);
@@ -185,6 +230,30 @@ public class InvocableHandlerMethodTests {
 	}
 
 
+	private static class StringReturnValueHandler implements HandlerMethodReturnValueHandler {
+
+		@Override
+		public boolean supportsReturnType(MethodParameter returnType) {
+			return returnType.getParameterType() == String.class;
+		}
+
+		@Override
+		public void handleReturnValue(Object returnValue, MethodParameter returnType,
+				ModelAndViewContainer mavContainer, NativeWebRequest webRequest) {
+		}
+	}
+
+
+	private static class AsyncStringReturnValueHandler extends StringReturnValueHandler
+			implements AsyncHandlerMethodReturnValueHandler {
+
+		@Override
+		public boolean isAsyncReturnValue(Object returnValue, MethodParameter returnType) {
+			return true;
+		}
+	}
+
+
 	private static class ExceptionRaisingArgumentResolver implements HandlerMethodArgumentResolver {
 
 		@Override
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -21,7 +21,6 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
-import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import org.springframework.beans.factory.BeanFactoryUtils;
@@ -139,14 +138,29 @@ public class DispatcherHandler implements WebHandler, ApplicationContextAware {
 		if (this.handlerMappings == null) {
 			return createNotFoundError();
 		}
-		return Flux.fromIterable(this.handlerMappings)
-				.concatMap(mapping -> mapping.getHandler(exchange))
-				.next()
+		return getHandler(exchange, this.handlerMappings, 0)
 				.switchIfEmpty(createNotFoundError())
 				.flatMap(handler -> invokeHandler(exchange, handler))
 				.flatMap(result -> handleResult(exchange, result));
 	}
 
+	/**
+	 * Obtain the handler from the mapping at the given index, falling back on
+	 * the subsequent mappings only if empty: in contrast to a {@code concatMap}
+	 * over all mappings, this does not assemble any operators for the common
+	 * case of an early match.
+	 */
+	private Mono<Object> getHandler(ServerWebExchange exchange, List<HandlerMapping> mappings, int index) {
+		if (index == mappings.size()) {
+			return Mono.empty();
+		}
+		Mono<Object> handler = mappings.get(index).getHandler(exchange);
+		if (index + 1 == mappings.size()) {
+			return handler;
+		}
+		return handler.switchIfEmpty(Mono.defer(() -> getHandler(exchange, mappings, index + 1)));
+	}
+
 	private <R> Mono<R> createNotFoundError() {
 		return Mono.defer(() -> {
 			Exception ex = new ResponseStatusException(HttpStatus.NOT_FOUND, "No matching handler");
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -24,6 +24,7 @@ import java.util.function.Predicate;
 
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
 
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.core.io.buffer.DataBufferUtils;
@@ -31,6 +32,8 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
+import org.springframework.util.ConcurrencyLimitExceededException;
+import org.springframework.util.ConcurrencyLimiter;
 import org.springframework.web.reactive.function.BodyExtractors;
 
 /**
@@ -89,6 +92,50 @@ public abstract class ExchangeFilterFunctions {
 						Mono.error(exceptionFunction.apply(response)) : Mono.just(response)));
 	}
 
+	/**
+	 * Return a filter that limits the number of concurrent requests through
+	 * the given adaptive {@link ConcurrencyLimiter}, failing requests beyond
+	 * the limit right away with a {@link ConcurrencyLimitExceededException}.
+	 * <p>The permit of a request is released once the response status and
+	 * headers have been received. Error signals and responses with a
+	 * {@link HttpStatus#SERVICE_UNAVAILABLE 503} or
+	 * {@link HttpStatus#TOO_MANY_REQUESTS 429} status, which indicate that the
+	 * server is overloaded, count as dropped and make the limit back off.
+	 * @param limiter the limiter to use, possibly shared with other components
+	 * @return the filter to limit concurrent requests with
+	 * @since 5.2.5
+	 */
+	public static ExchangeFilterFunction limitConcurrency(ConcurrencyLimiter limiter) {
+		Assert.notNull(limiter, "ConcurrencyLimiter must not be null");
+		return (request, next) -> Mono.defer(() -> {
+			ConcurrencyLimiter.Permit permit = limiter.tryAcquire();
+			if (permit == null) {
+				return Mono.error(new ConcurrencyLimitExceededException(limiter.getLimit()));
+			}
+			return next.exchange(request)
+					.doOnNext(response -> {
+						int status = response.rawStatusCode();
+						if (status == HttpStatus.SERVICE_UNAVAILABLE.value() ||
+								status == HttpStatus.TOO_MANY_REQUESTS.value()) {
+							permit.releaseDropped();
+						}
+						else {
+							permit.release();
+						}
+					})
+					.doOnError(ex -> permit.releaseDropped())
+					.doFinally(signalType -> {
+						// No-op if already released: covers cancellation and empty completion
+						if (signalType == SignalType.CANCEL) {
+							permit.releaseIgnored();
+						}
+						else {
+							permit.release();
+						}
+					});
+		});
+	}
+
 	/**
 	 * Return a filter that applies HTTP Basic Authentication to the request
 	 * headers via {@link HttpHeaders#setBasicAuth(String)} and
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -55,7 +55,7 @@ import org.springframework.web.server.ServerWebExchange;
  */
 public class InvocableHandlerMethod extends HandlerMethod {
 
-	private static final Mono<Object[]> EMPTY_ARGS = Mono.just(new Object[0]);
+	private static final Object[] EMPTY_ARGS = new Object[0];
 
 	private static final Object NO_ARG_VALUE = new Object();
 
@@ -125,56 +125,131 @@ public class InvocableHandlerMethod extends HandlerMethod {
 
 	/**
 	 * Invoke the method for the given exchange.
+	 * <p>If all arguments are provided or supported by a
+	 * {@link SyncHandlerMethodArgumentResolver}, they are resolved and the
+	 * method is invoked on subscription, with the returned Mono only carrying
+	 * the outcome. Otherwise the invocation is further deferred until all
+	 * argument values are available.
 	 * @param exchange the current exchange
 	 * @param bindingContext the binding context to use
 	 * @param providedArgs optional list of argument values to match by type
 	 * @return a Mono with a {@link HandlerResult}
 	 */
-	@SuppressWarnings("KotlinInternalInJava")
 	public Mono<HandlerResult> invoke(
 			ServerWebExchange exchange, BindingContext bindingContext, Object... providedArgs) {
 
-		return getMethodArgumentValues(exchange, bindingContext, providedArgs).flatMap(args -> {
-			Object value;
+		return Mono.defer(() -> {
+			Object[] args;
 			try {
-				ReflectionUtils.makeAccessible(getBridgedMethod());
-				Method method = getBridgedMethod();
-				if (KotlinDetector.isKotlinReflectPresent() && KotlinDetector.isKotlinType(method.getDeclaringClass())
-						&& CoroutinesUtils.isSuspendingFunction(method)) {
-					value = CoroutinesUtils.invokeSuspendingFunction(method, getBean(), args);
-				}
-				else {
-					value = method.invoke(getBean(), args);
-				}
-			}
-			catch (IllegalArgumentException ex) {
-				assertTargetBean(getBridgedMethod(), getBean(), args);
-				String text = (ex.getMessage() != null ? ex.getMessage() : "Illegal argument");
-				return Mono.error(new IllegalStateException(formatInvokeError(text, args), ex));
-			}
-			catch (InvocationTargetException ex) {
-				return Mono.error(ex.getTargetException());
+				args = getSyncMethodArgumentValues(exchange, bindingContext, providedArgs);
 			}
 			catch (Throwable ex) {
-				// Unlikely to ever get here, but it must be handled...
-				return Mono.error(new IllegalStateException(formatInvokeError("Invocation failure", args), ex));
+				return Mono.error(ex);
 			}
+			if (args != null) {
+				// All arguments resolved synchronously: no need for an operator chain
+				return invokeWithArguments(exchange, bindingContext, args);
+			}
+			return getMethodArgumentValues(exchange, bindingContext, providedArgs).flatMap(resolvedArgs ->
+					invokeWithArguments(exchange, bindingContext, resolvedArgs));
+		});
+	}
 
-			HttpStatus status = getResponseStatus();
-			if (status != null) {
-				exchange.getResponse().setStatusCode(status);
+	@SuppressWarnings("KotlinInternalInJava")
+	private Mono<HandlerResult> invokeWithArguments(
+			ServerWebExchange exchange, BindingContext bindingContext, Object[] args) {
+
+		Object value;
+		try {
+			Method method = getBridgedMethod();
+			if (KotlinDetector.isKotlinReflectPresent() && KotlinDetector.isKotlinType(method.getDeclaringClass())
+					&& CoroutinesUtils.isSuspendingFunction(method)) {
+				ReflectionUtils.makeAccessible(method);
+				value = CoroutinesUtils.invokeSuspendingFunction(method, getBean(), args);
+			}
+			else {
+				value = getBridgedMethodInvoker().invoke(getBean(), args);
 			}
+		}
+		catch (IllegalArgumentException ex) {
+			assertTargetBean(getBridgedMethod(), getBean(), args);
+			String text = (ex.getMessage() != null ? ex.getMessage() : "Illegal argument");
+			return Mono.error(new IllegalStateException(formatInvokeError(text, args), ex));
+		}
+		catch (InvocationTargetException ex) {
+			return Mono.error(ex.getTargetException());
+		}
+		catch (Throwable ex) {
+			// Unlikely to ever get here, but it must be handled...
+			return Mono.error(new IllegalStateException(formatInvokeError("Invocation failure", args), ex));
+		}
+
+		HttpStatus status = getResponseStatus();
+		if (status != null) {
+			exchange.getResponse().setStatusCode(status);
+		}
+
+		MethodParameter returnType = getReturnType();
+		ReactiveAdapter adapter = this.reactiveAdapterRegistry.getAdapter(returnType.getParameterType());
+		boolean asyncVoid = isAsyncVoidReturnType(returnType, adapter);
+		if ((value == null || asyncVoid) && isResponseHandled(args, exchange)) {
+			return (asyncVoid ? Mono.from(adapter.toPublisher(value)) : Mono.empty());
+		}
+
+		HandlerResult result = new HandlerResult(this, value, returnType, bindingContext);
+		return Mono.just(result);
+	}
 
-			MethodParameter returnType = getReturnType();
-			ReactiveAdapter adapter = this.reactiveAdapterRegistry.getAdapter(returnType.getParameterType());
-			boolean asyncVoid = isAsyncVoidReturnType(returnType, adapter);
-			if ((value == null || asyncVoid) && isResponseHandled(args, exchange)) {
-				return (asyncVoid ? Mono.from(adapter.toPublisher(value)) : Mono.empty());
+	/**
+	 * Resolve all method arguments synchronously, provided that each of them
+	 * is either given or supported by a {@link SyncHandlerMethodArgumentResolver}.
+	 * @return the argument values, or {@code null} if at least one argument
+	 * needs to be resolved asynchronously (none having been resolved yet)
+	 */
+	@Nullable
+	private Object[] getSyncMethodArgumentValues(
+			ServerWebExchange exchange, BindingContext bindingContext, Object... providedArgs) {
+
+		MethodParameter[] parameters = getMethodParameters();
+		if (ObjectUtils.isEmpty(parameters)) {
+			return EMPTY_ARGS;
+		}
+
+		// First pass: check for asynchronous resolution before resolving anything
+		Object[] args = new Object[parameters.length];
+		SyncHandlerMethodArgumentResolver[] syncResolvers = null;
+		for (int i = 0; i < parameters.length; i++) {
+			MethodParameter parameter = parameters[i];
+			parameter.initParameterNameDiscovery(this.parameterNameDiscoverer);
+			args[i] = findProvidedArgument(parameter, providedArgs);
+			if (args[i] != null) {
+				continue;
+			}
+			HandlerMethodArgumentResolver resolver = this.resolvers.getArgumentResolver(parameter);
+			if (!(resolver instanceof SyncHandlerMethodArgumentResolver)) {
+				return null;
+			}
+			if (syncResolvers == null) {
+				syncResolvers = new SyncHandlerMethodArgumentResolver[parameters.length];
 			}
+			syncResolvers[i] = (SyncHandlerMethodArgumentResolver) resolver;
+		}
 
-			HandlerResult result = new HandlerResult(this, value, returnType, bindingContext);
-			return Mono.just(result);
-		});
+		if (syncResolvers != null) {
+			for (int i = 0; i < parameters.length; i++) {
+				SyncHandlerMethodArgumentResolver resolver = syncResolvers[i];
+				if (resolver != null) {
+					try {
+						args[i] = resolver.resolveArgumentValue(parameters[i], bindingContext, exchange);
+					}
+					catch (Throwable ex) {
+						logArgumentErrorIfNecessary(exchange, parameters[i], ex);
+						throw ex;
+					}
+				}
+			}
+		}
+		return args;
 	}
 
 	private Mono<Object[]> getMethodArgumentValues(
@@ -182,7 +257,7 @@ public class InvocableHandlerMethod extends HandlerMethod {
 
 		MethodParameter[] parameters = getMethodParameters();
 		if (ObjectUtils.isEmpty(parameters)) {
-			return EMPTY_ARGS;
+			return Mono.just(EMPTY_ARGS);
 		}
 
 		List<Mono<Object>> argMonos = new ArrayList<>(parameters.length);
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,6 +18,7 @@ package org.springframework.web.reactive.result.method.annotation;
 
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
 
 import reactor.core.publisher.Mono;
 
@@ -101,16 +102,39 @@ public abstract class AbstractNamedValueArgumentResolver extends HandlerMethodAr
 		Model model = bindingContext.getModel();
 
 		return resolveName(resolvedName.toString(), nestedParameter, exchange)
-				.flatMap(arg -> {
-					if ("".equals(arg) && namedValueInfo.defaultValue != null) {
-						arg = resolveStringValue(namedValueInfo.defaultValue);
-					}
-					arg = applyConversion(arg, namedValueInfo, parameter, bindingContext, exchange);
-					handleResolvedValue(arg, namedValueInfo.name, parameter, model, exchange);
-					return Mono.justOrEmpty(arg);
-				})
-				.switchIfEmpty(getDefaultValue(
-						namedValueInfo, parameter, bindingContext, model, exchange));
+				.flatMap(arg -> Mono.justOrEmpty(
+						handleResolvedName(arg, namedValueInfo, parameter, bindingContext, model, exchange)))
+				.switchIfEmpty(Mono.fromSupplier(() ->
+						getDefaultValue(namedValueInfo, parameter, bindingContext, model, exchange)));
+	}
+
+	/**
+	 * Synchronous variant of {@link #resolveArgument}, obtaining the named
+	 * value through the given function instead of {@link #resolveName}.
+	 * @param nameResolver resolves a value name for the (pre-nested) method
+	 * parameter, as per {@link AbstractNamedValueSyncArgumentResolver#resolveNamedValue}
+	 * @see AbstractNamedValueSyncArgumentResolver#resolveArgumentValue
+	 */
+	@Nullable
+	Object resolveArgumentSync(MethodParameter parameter, BindingContext bindingContext,
+			ServerWebExchange exchange, BiFunction<String, MethodParameter, Object> nameResolver) {
+
+		NamedValueInfo namedValueInfo = getNamedValueInfo(parameter);
+		MethodParameter nestedParameter = parameter.nestedIfOptional();
+
+		Object resolvedName = resolveStringValue(namedValueInfo.name);
+		if (resolvedName == null) {
+			throw new IllegalArgumentException(
+					"Specified name must not resolve to null: [" + namedValueInfo.name + "]");
+		}
+
+		Model model = bindingContext.getModel();
+
+		Object arg = nameResolver.apply(resolvedName.toString(), nestedParameter);
+		if (arg != null) {
+			arg = handleResolvedName(arg, namedValueInfo, parameter, bindingContext, model, exchange);
+		}
+		return (arg != null ? arg : getDefaultValue(namedValueInfo, parameter, bindingContext, model, exchange));
 	}
 
 	/**
@@ -200,25 +224,40 @@ public abstract class AbstractNamedValueArgumentResolver extends HandlerMethodAr
 		return value;
 	}
 
+	/**
+	 * Process the value resolved for the name, applying the default value
+	 * for an empty String as well as type conversion.
+	 */
+	@Nullable
+	private Object handleResolvedName(Object arg, NamedValueInfo namedValueInfo, MethodParameter parameter,
+			BindingContext bindingContext, Model model, ServerWebExchange exchange) {
+
+		if ("".equals(arg) && namedValueInfo.defaultValue != null) {
+			arg = resolveStringValue(namedValueInfo.defaultValue);
+		}
+		arg = applyConversion(arg, namedValueInfo, parameter, bindingContext, exchange);
+		handleResolvedValue(arg, namedValueInfo.name, parameter, model, exchange);
+		return arg;
+	}
+
 	/**
 	 * Resolve the default value, if any.
 	 */
-	private Mono<Object> getDefaultValue(NamedValueInfo namedValueInfo, MethodParameter parameter,
+	@Nullable
+	private Object getDefaultValue(NamedValueInfo namedValueInfo, MethodParameter parameter,
 			BindingContext bindingContext, Model model, ServerWebExchange exchange) {
 
-		return Mono.fromSupplier(() -> {
-			Object value = null;
-			if (namedValueInfo.defaultValue != null) {
-				value = resolveStringValue(namedValueInfo.defaultValue);
-			}
-			else if (namedValueInfo.required && !parameter.isOptional()) {
-				handleMissingValue(namedValueInfo.name, parameter, exchange);
-			}
-			value = handleNullValue(namedValueInfo.name, value, parameter.getNestedParameterType());
-			value = applyConversion(value, namedValueInfo, parameter, bindingContext, exchange);
-			handleResolvedValue(value, namedValueInfo.name, parameter, model, exchange);
-			return value;
-		});
+		Object value = null;
+		if (namedValueInfo.defaultValue != null) {
+			value = resolveStringValue(namedValueInfo.defaultValue);
+		}
+		else if (namedValueInfo.required && !parameter.isOptional()) {
+			handleMissingValue(namedValueInfo.name, parameter, exchange);
+		}
+		value = handleNullValue(namedValueInfo.name, value, parameter.getNestedParameterType());
+		value = applyConversion(value, namedValueInfo, parameter, bindingContext, exchange);
+		handleResolvedValue(value, namedValueInfo.name, parameter, model, exchange);
+		return value;
 	}
 
 	/**
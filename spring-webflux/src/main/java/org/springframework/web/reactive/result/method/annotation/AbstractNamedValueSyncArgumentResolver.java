@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -65,11 +65,14 @@ public abstract class AbstractNamedValueSyncArgumentResolver extends AbstractNam
 	}
 
 	@Override
+	@Nullable
 	public Object resolveArgumentValue(
 			MethodParameter parameter, BindingContext context, ServerWebExchange exchange) {
 
-		// This won't block since resolveName below doesn't
-		return resolveArgument(parameter, context, exchange).block();
+		// Same steps as resolveArgument but without going through a Mono:
+		// resolveNamedValue below does not block...
+		return resolveArgumentSync(parameter, context, exchange,
+				(name, param) -> resolveNamedValue(name, param, exchange));
 	}
 
 	@Override
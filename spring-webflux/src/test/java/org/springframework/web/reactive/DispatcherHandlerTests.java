@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -28,12 +28,15 @@ import org.springframework.core.MethodParameter;
 import org.springframework.core.Ordered;
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.testfixture.http.server.reactive.MockServerHttpRequest;
 import org.springframework.web.testfixture.method.ResolvableMethod;
 import org.springframework.web.testfixture.server.MockServerWebExchange;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
@@ -72,6 +75,46 @@ public class DispatcherHandlerTests {
 		assertThat(exchange.getResponse().getBodyAsString().block(Duration.ofSeconds(5))).isEqualTo("1");
 	}
 
+	@Test
+	public void handlerMappingFallback() {
+		HandlerMapping hm1 = mock(HandlerMapping.class, withSettings().extraInterfaces(Ordered.class));
+		HandlerMapping hm2 = mock(HandlerMapping.class, withSettings().extraInterfaces(Ordered.class));
+		given(((Ordered) hm1).getOrder()).willReturn(1);
+		given(((Ordered) hm2).getOrder()).willReturn(2);
+		given((hm1).getHandler(any())).willReturn(Mono.empty());
+		given((hm2).getHandler(any())).willReturn(Mono.just((Supplier<String>) () -> "2"));
+
+		StaticApplicationContext context = new StaticApplicationContext();
+		context.registerBean("b1", HandlerMapping.class, () -> hm1);
+		context.registerBean("b2", HandlerMapping.class, () -> hm2);
+		context.registerBean(HandlerAdapter.class, SupplierHandlerAdapter::new);
+		context.registerBean(HandlerResultHandler.class, StringHandlerResultHandler::new);
+		context.refresh();
+
+		DispatcherHandler dispatcherHandler = new DispatcherHandler(context);
+
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/"));
+		dispatcherHandler.handle(exchange).block(Duration.ofSeconds(0));
+		assertThat(exchange.getResponse().getBodyAsString().block(Duration.ofSeconds(5))).isEqualTo("2");
+	}
+
+	@Test
+	public void noMatchingHandler() {
+		HandlerMapping hm = mock(HandlerMapping.class);
+		given(hm.getHandler(any())).willReturn(Mono.empty());
+
+		StaticApplicationContext context = new StaticApplicationContext();
+		context.registerBean(HandlerMapping.class, () -> hm);
+		context.refresh();
+
+		DispatcherHandler dispatcherHandler = new DispatcherHandler(context);
+
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/"));
+		assertThatExceptionOfType(ResponseStatusException.class)
+				.isThrownBy(() -> dispatcherHandler.handle(exchange).block(Duration.ofSeconds(0)))
+				.satisfies(ex -> assertThat(ex.getStatus()).isEqualTo(HttpStatus.NOT_FOUND));
+	}
+
 
 	@SuppressWarnings("unused")
 	private void handle() {}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -31,6 +31,9 @@ import org.springframework.core.testfixture.io.buffer.DataBufferTestUtils;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
+import org.springframework.util.AimdConcurrencyLimitStrategy;
+import org.springframework.util.ConcurrencyLimitExceededException;
+import org.springframework.util.ConcurrencyLimiter;
 import org.springframework.web.reactive.function.BodyExtractors;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -216,6 +219,51 @@ public class ExchangeFilterFunctionsTests {
 
 	}
 
+	@Test
+	public void limitConcurrency() {
+		ClientRequest request = ClientRequest.create(HttpMethod.GET, DEFAULT_URL).build();
+		ClientResponse response = ClientResponse.create(HttpStatus.OK).build();
+		ConcurrencyLimiter limiter = new ConcurrencyLimiter(new AimdConcurrencyLimitStrategy(1));
+		ExchangeFilterFunction filter = ExchangeFilterFunctions.limitConcurrency(limiter);
+
+		Mono<ClientResponse> result = filter.filter(request, req -> {
+			assertThat(limiter.getInFlight()).isEqualTo(1);
+			StepVerifier.create(filter.filter(request, r -> Mono.just(response)))
+					.expectError(ConcurrencyLimitExceededException.class)
+					.verify();
+			return Mono.just(response);
+		});
+		StepVerifier.create(result)
+				.expectNext(response)
+				.expectComplete()
+				.verify();
+
+		assertThat(limiter.getInFlight()).isEqualTo(0);
+		assertThat(limiter.getAcceptedCount()).isEqualTo(1);
+		assertThat(limiter.getRejectedCount()).isEqualTo(1);
+		assertThat(limiter.getDroppedCount()).isEqualTo(0);
+	}
+
+	@Test
+	public void limitConcurrencyDropsOnOverloadedServer() {
+		ClientRequest request = ClientRequest.create(HttpMethod.GET, DEFAULT_URL).build();
+		ClientResponse response = ClientResponse.create(HttpStatus.SERVICE_UNAVAILABLE).build();
+		ConcurrencyLimiter limiter = new ConcurrencyLimiter(new AimdConcurrencyLimitStrategy(10));
+		ExchangeFilterFunction filter = ExchangeFilterFunctions.limitConcurrency(limiter);
+
+		StepVerifier.create(filter.filter(request, req -> Mono.just(response)))
+				.expectNext(response)
+				.expectComplete()
+				.verify();
+		StepVerifier.create(filter.filter(request, req -> Mono.error(new IllegalStateException("Expected"))))
+				.expectError(IllegalStateException.class)
+				.verify();
+
+		assertThat(limiter.getInFlight()).isEqualTo(0);
+		assertThat(limiter.getDroppedCount()).isEqualTo(2);
+		assertThat(limiter.getLimit()).isEqualTo(8);
+	}
+
 	private String string(DataBuffer buffer) {
 		String value = DataBufferTestUtils.dumpString(buffer, StandardCharsets.UTF_8);
 		DataBufferUtils.release(buffer);
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -48,6 +48,8 @@ import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.springframework.web.testfixture.http.server.reactive.MockServerHttpRequest.get;
 
 /**
@@ -100,6 +102,30 @@ public class InvocableHandlerMethodTests {
 			.withMessage("Could not resolve parameter [0] in " + method.toGenericString() + ": No suitable resolver");
 	}
 
+	@Test
+	public void resolveSyncArg() {
+		SyncHandlerMethodArgumentResolver resolver = syncStubResolver("value1");
+		this.resolvers.add(resolver);
+		Method method = ResolvableMethod.on(TestController.class).mockCall(o -> o.singleArg(null)).method();
+		Mono<HandlerResult> mono = invoke(new TestController(), method);
+
+		assertHandlerResultValue(mono, "success:value1");
+		verify(resolver, never()).resolveArgument(any(), any(), any());
+	}
+
+	@Test
+	public void exceptionInResolvingSyncArg() {
+		SyncHandlerMethodArgumentResolver resolver = syncStubResolver(null);
+		given(resolver.resolveArgumentValue(any(), any(), any())).willThrow(new UnsupportedMediaTypeStatusException("boo"));
+		this.resolvers.add(resolver);
+		Method method = ResolvableMethod.on(TestController.class).mockCall(o -> o.singleArg(null)).method();
+		Mono<HandlerResult> mono = invoke(new TestController(), method);
+
+		assertThatExceptionOfType(UnsupportedMediaTypeStatusException.class).isThrownBy(
+				mono::block)
+			.withMessage("415 UNSUPPORTED_MEDIA_TYPE \"boo\"");
+	}
+
 	@Test
 	public void resolveProvidedArg() {
 		Method method = ResolvableMethod.on(TestController.class).mockCall(o -> o.singleArg(null)).method();
@@ -237,6 +263,24 @@ public class InvocableHandlerMethodTests {
 		return resolver;
 	}
 
+	@Test
+	public void resolveSyncArgOnSubscription() {
+		SyncHandlerMethodArgumentResolver resolver = syncStubResolver("value1");
+		this.resolvers.add(resolver);
+		Method method = ResolvableMethod.on(TestController.class).mockCall(o -> o.singleArg(null)).method();
+		Mono<HandlerResult> mono = invoke(new TestController(), method);
+
+		verify(resolver, never()).resolveArgumentValue(any(), any(), any());
+		assertHandlerResultValue(mono, "success:value1");
+	}
+
+	private SyncHandlerMethodArgumentResolver syncStubResolver(@Nullable Object stubValue) {
+		SyncHandlerMethodArgumentResolver resolver = mock(SyncHandlerMethodArgumentResolver.class);
+		given(resolver.supportsParameter(any())).willReturn(true);
+		given(resolver.resolveArgumentValue(any(), any(), any())).willReturn(stubValue);
+		return resolver;
+	}
+
 	private void assertHandlerResultValue(Mono<HandlerResult> mono, String expected) {
 		StepVerifier.create(mono)
 				.consumeNextWith(result -> assertThat(result.getReturnValue()).isEqualTo(expected))
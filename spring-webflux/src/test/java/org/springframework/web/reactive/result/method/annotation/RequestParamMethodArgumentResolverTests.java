@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -38,6 +38,7 @@ import org.springframework.web.testfixture.method.ResolvableMethod;
 import org.springframework.web.testfixture.server.MockServerWebExchange;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
 import static org.springframework.core.ResolvableType.forClassWithGenerics;
 import static org.springframework.web.testfixture.method.MvcAnnotationPredicates.requestParam;
@@ -210,11 +211,31 @@ public class RequestParamMethodArgumentResolverTests {
 		assertThat(value.get()).isEqualTo(123);
 	}
 
+	@Test
+	public void resolveArgumentValue() {
+		MethodParameter param = this.testMethod.annot(requestParam().notRequired("bar")).arg(String.class);
+		assertThat(resolveValue(param, MockServerHttpRequest.get("/path?name=foo"))).isEqualTo("foo");
+		assertThat(resolveValue(param, MockServerHttpRequest.get("/path?name="))).isEqualTo("bar");
+		assertThat(resolveValue(param, MockServerHttpRequest.get("/"))).isEqualTo("bar");
+
+		param = this.testMethod.arg(forClassWithGenerics(Optional.class, Integer.class));
+		assertThat(resolveValue(param, MockServerHttpRequest.get("/path?name=123"))).isEqualTo(Optional.of(123));
+		assertThat(resolveValue(param, MockServerHttpRequest.get("/"))).isEqualTo(Optional.empty());
+
+		MethodParameter requiredParam = this.testMethod.annotPresent(RequestParam.class).arg(String[].class);
+		assertThatExceptionOfType(ServerWebInputException.class).isThrownBy(() ->
+				resolveValue(requiredParam, MockServerHttpRequest.get("/")));
+	}
+
 
 	private Object resolve(MethodParameter parameter, ServerWebExchange exchange) {
 		return this.resolver.resolveArgument(parameter, this.bindContext, exchange).block(Duration.ZERO);
 	}
 
+	private Object resolveValue(MethodParameter parameter, MockServerHttpRequest.BaseBuilder<?> request) {
+		return this.resolver.resolveArgumentValue(parameter, this.bindContext, MockServerWebExchange.from(request));
+	}
+
 
 	@SuppressWarnings({"unused", "OptionalUsedAsFieldOrParameterType"})
 	public void handle(
@@ -49,6 +49,7 @@ import org.springframework.http.converter.xml.SourceHttpMessageConverter;
 import org.springframework.lang.Nullable;
 import org.springframework.ui.ModelMap;
 import org.springframework.util.CollectionUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
 import org.springframework.util.ReflectionUtils.MethodFilter;
 import org.springframework.web.accept.ContentNegotiationManager;
 import org.springframework.web.bind.annotation.InitBinder;
@@ -72,6 +73,7 @@ import org.springframework.web.method.ControllerAdviceBean;
 import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.method.annotation.ErrorsMethodArgumentResolver;
 import org.springframework.web.method.annotation.ExpressionValueMethodArgumentResolver;
+import org.springframework.web.method.annotation.InitBinderConfigurationCache;
 import org.springframework.web.method.annotation.InitBinderDataBinderFactory;
 import org.springframework.web.method.annotation.MapMethodProcessor;
 import org.springframework.web.method.annotation.ModelAttributeMethodProcessor;
@@ -85,6 +87,7 @@ import org.springframework.web.method.annotation.SessionAttributesHandler;
 import org.springframework.web.method.annotation.SessionStatusMethodArgumentResolver;
 import org.springframework.web.method.support.HandlerMethodArgumentResolver;
 import org.springframework.web.method.support.HandlerMethodArgumentResolverComposite;
+import org.springframework.web.method.support.HandlerMethodInvocationPlan;
 import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
 import org.springframework.web.method.support.HandlerMethodReturnValueHandlerComposite;
 import org.springframework.web.method.support.InvocableHandlerMethod;
@@ -169,6 +172,9 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 
 	private boolean ignoreDefaultModelOnRedirect = false;
 
+	@Nullable
+	private InitBinderConfigurationCache initBinderConfigurationCache;
+
 	private int cacheSecondsForSessionAttributeHandlers = 0;
 
 	private boolean synchronizeOnSession = false;
@@ -191,6 +197,9 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 
 	private final Map<ControllerAdviceBean, Set<Method>> modelAttributeAdviceCache = new LinkedHashMap<>();
 
+	private final Map<HandlerMethod, HandlerMethodInvocationPlan> invocationPlanCache =
+			new ConcurrentReferenceHashMap<>(64);
+
 
 	public RequestMappingHandlerAdapter() {
 		this.messageConverters = new ArrayList<>(4);
@@ -235,6 +244,7 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 			this.argumentResolvers = new HandlerMethodArgumentResolverComposite();
 			this.argumentResolvers.addResolvers(argumentResolvers);
 		}
+		this.invocationPlanCache.clear();
 	}
 
 	/**
@@ -297,6 +307,7 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 			this.returnValueHandlers = new HandlerMethodReturnValueHandlerComposite();
 			this.returnValueHandlers.addHandlers(returnValueHandlers);
 		}
+		this.invocationPlanCache.clear();
 	}
 
 	/**
@@ -472,6 +483,23 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 		this.ignoreDefaultModelOnRedirect = ignoreDefaultModelOnRedirect;
 	}
 
+	/**
+	 * Whether to record the binder configuration applied by {@code @InitBinder}
+	 * methods and replay it for subsequent binders, instead of invoking those
+	 * methods for every data-bound argument.
+	 * <p>Only methods with a single argument of type {@code WebDataBinder} itself
+	 * which exclusively apply replayable configuration (e.g. allowed fields,
+	 * formatters, validators or custom property editors) are replayed; all others
+	 * are invoked as usual. The default is {@code false}, since it is up to the
+	 * application to ensure that its {@code @InitBinder} methods do not depend
+	 * on any per-request state such as the current locale.
+	 * @since 5.2.5
+	 * @see InitBinderConfigurationCache
+	 */
+	public void setCacheInitBinderConfiguration(boolean cacheInitBinderConfiguration) {
+		this.initBinderConfigurationCache = (cacheInitBinderConfiguration ? new InitBinderConfigurationCache() : null);
+	}
+
 	/**
 	 * Specify the strategy to store session attributes with. The default is
 	 * {@link org.springframework.web.bind.support.DefaultSessionAttributeStore},
@@ -826,6 +854,27 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 				type -> new SessionAttributesHandler(type, this.sessionAttributeStore));
 	}
 
+	/**
+	 * Return the {@link HandlerMethodInvocationPlan} for the given handler method,
+	 * resolved once against the configured argument resolvers and return value
+	 * handlers and then shared across requests.
+	 * <p>The plan is cached for the registered handler method, since the given
+	 * one may be a per-request copy with a resolved bean instance. The cache
+	 * holds its entries through soft references, so plans for ad-hoc handler
+	 * methods that are not registered anywhere do not accumulate.
+	 */
+	@Nullable
+	private HandlerMethodInvocationPlan getInvocationPlan(HandlerMethod handlerMethod) {
+		HandlerMethodArgumentResolverComposite resolvers = this.argumentResolvers;
+		if (resolvers == null) {
+			return null;
+		}
+		HandlerMethod registeredMethod = handlerMethod.getResolvedFromHandlerMethod();
+		return this.invocationPlanCache.computeIfAbsent(
+				(registeredMethod != null ? registeredMethod : handlerMethod),
+				key -> new HandlerMethodInvocationPlan(key, resolvers, this.returnValueHandlers));
+	}
+
 	/**
 	 * Invoke the {@link RequestMapping} handler method preparing a {@link ModelAndView}
 	 * if view resolution is required.
@@ -848,6 +897,7 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 			if (this.returnValueHandlers != null) {
 				invocableMethod.setHandlerMethodReturnValueHandlers(this.returnValueHandlers);
 			}
+			invocableMethod.setInvocationPlan(getInvocationPlan(handlerMethod));
 			invocableMethod.setDataBinderFactory(binderFactory);
 			invocableMethod.setParameterNameDiscoverer(this.parameterNameDiscoverer);
 
@@ -954,7 +1004,11 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 			Object bean = handlerMethod.getBean();
 			initBinderMethods.add(createInitBinderMethod(bean, method));
 		}
-		return createDataBinderFactory(initBinderMethods);
+		InitBinderDataBinderFactory binderFactory = createDataBinderFactory(initBinderMethods);
+		if (this.initBinderConfigurationCache != null) {
+			binderFactory.setConfigurationCache(this.initBinderConfigurationCache);
+		}
+		return binderFactory;
 	}
 
 	private InvocableHandlerMethod createInitBinderMethod(Object bean, Method method) {